@@ -0,0 +1,57 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.service.CalculadoraCuotas;
+import com.financierasolandino.service.CalculadoraCuotasCentavos;
+import com.financierasolandino.service.CronogramaCentavos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo del cronograma de un préstamo en los plazos típicos: personal corto, personal largo e hipotecario.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalculadoraCuotasBenchmark {
+    private static final LocalDate FECHA_CREACION = LocalDate.of(2025, 1, 15);
+
+    @Param({"6", "60", "360"})
+    public int numeroCuotas;
+
+    private double monto;
+    private double tasaInteres;
+
+    @Setup
+    public void preparar() {
+        // 360 cuotas solo es válido para hipotecarios; 6 y 60 usan los valores de un préstamo personal
+        boolean hipotecario = numeroCuotas > 60;
+        monto = hipotecario ? 85_000_000.55 : 2_500_000.75;
+        tasaInteres = hipotecario ? 12.5 : 94.0;
+    }
+
+    @Benchmark
+    public List<Cuota> calcularCuotaBigDecimal() {
+        return CalculadoraCuotas.calcularCuota("P0001", monto, tasaInteres, numeroCuotas, FECHA_CREACION);
+    }
+
+    @Benchmark
+    public CronogramaCentavos calcularCronogramaCentavos() {
+        return CalculadoraCuotasCentavos.calcular(monto, tasaInteres, numeroCuotas);
+    }
+
+    @Benchmark
+    public List<Cuota> calcularCuotaCentavos() {
+        return CalculadoraCuotasCentavos.calcularCuota("P0001", monto, tasaInteres, numeroCuotas, FECHA_CREACION);
+    }
+}
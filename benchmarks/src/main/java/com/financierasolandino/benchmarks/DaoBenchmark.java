@@ -0,0 +1,162 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.dao.ClienteDAO;
+import com.financierasolandino.dao.PagoDAO;
+import com.financierasolandino.dao.PrestamoDAO;
+import com.financierasolandino.dao.PrestamoDAOImpl;
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.db.MetricaOperacion;
+import com.financierasolandino.db.MetricasSql;
+import com.financierasolandino.model.Cliente;
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.model.InstantaneaPrestamo;
+import com.financierasolandino.model.Pago;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.service.CalculadoraCuotas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DAO completos (pool, SQL y mapeo) contra la base H2 embebida en memoria, cargada con clientes y préstamos al
+ * inicio. La caché de préstamos se desactiva para que cada consulta llegue a la base.
+ * <p>
+ * registrarPago paga de a una las cuotas de un hipotecario de 360 cuotas; al terminar se informan las sentencias por
+ * pago registradas en {@link MetricasSql}, que no dependen del largo del cronograma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DaoBenchmark {
+    private static final int CLIENTES_POR_LOTE = 500;
+    private static final String OPERACION_PAGO = "DaoBenchmark.registrarPago";
+
+    @Param({"10000"})
+    public int clientes;
+
+    @Param({"1000"})
+    public int prestamos;
+
+    private final ClienteDAO clienteDAO = new ClienteDAO();
+    private final PrestamoDAO prestamoDAO = new PrestamoDAOImpl();
+    private final PagoDAO pagoDAO = new PagoDAO();
+    private String[] idsClientes;
+    private String[] idsPrestamos;
+    private final LongAdder pagos = new LongAdder();
+
+    /**
+     * Hipotecario de 360 cuotas que un hilo paga de a una cuota; pagado por completo, se crea otro.
+     */
+    @State(Scope.Thread)
+    public static class HipotecaEnPago {
+        private static final int CUOTAS = 360;
+        private static int creadas;
+
+        private List<Cuota> cuotas;
+        private int siguiente;
+
+        // Crear la hipoteca lleva una invocación cada 360; el pago en sí dura bastante más que el costo por invocación
+        @Setup(Level.Invocation)
+        public void prepararCuota(DaoBenchmark benchmark) {
+            if (cuotas == null || siguiente == CUOTAS) {
+                int numero;
+                synchronized (HipotecaEnPago.class) {
+                    numero = creadas++;
+                }
+                String idPrestamo = String.format("bench-hip-%08d", numero);
+                LocalDate hoy = LocalDate.now();
+                cuotas = CalculadoraCuotas.calcularCuota(idPrestamo, 50000000, 9.5, CUOTAS, hoy);
+                benchmark.prestamoDAO.crearPrestamo(new Prestamo(idPrestamo,
+                        benchmark.idsClientes[numero % benchmark.clientes], 50000000, 9.5, CUOTAS,
+                        Prestamo.TipoPrestamo.HIPOTECARIO, hoy, 50000000, Prestamo.EstadoPrestamo.ACTIVO), cuotas);
+                siguiente = 0;
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void cargarDatos() {
+        Properties configuracion = new Properties();
+        configuracion.setProperty("db.motor", "h2");
+        configuracion.setProperty("db.cache.maximoPrestamos", "0");
+        // El benchmark mide los DAO, no el disco: sin diario de pagos
+        configuracion.setProperty("db.diario.archivo", "");
+        ConexionDB.configurar(configuracion);
+
+        idsClientes = new String[clientes];
+        List<Cliente> lote = new ArrayList<>(CLIENTES_POR_LOTE);
+        for (int i = 0; i < clientes; i++) {
+            idsClientes[i] = String.format("%08d", 20000000 + i);
+            lote.add(new Cliente(idsClientes[i], "Cliente De Prueba", "Av. Libertador " + (i % 9999 + 1) + " Mendoza",
+                    "26155" + String.format("%05d", i % 100000), "cliente" + i + "@gmail.com"));
+            if (lote.size() == CLIENTES_POR_LOTE || i == clientes - 1) {
+                clienteDAO.registrarClientes(lote);
+                lote.clear();
+            }
+        }
+
+        idsPrestamos = new String[prestamos];
+        LocalDate fechaCreacion = LocalDate.now().minusMonths(6);
+        for (int i = 0; i < prestamos; i++) {
+            String idPrestamo = String.format("bench-%08d", i);
+            idsPrestamos[i] = idPrestamo;
+            Prestamo prestamo = new Prestamo(idPrestamo, idsClientes[i % clientes], 1000000, 94.0, 12,
+                    Prestamo.TipoPrestamo.PERSONAL, fechaCreacion, 1000000, Prestamo.EstadoPrestamo.ACTIVO);
+            prestamoDAO.crearPrestamo(prestamo,
+                    CalculadoraCuotas.calcularCuota(idPrestamo, 1000000, 94.0, 12, fechaCreacion));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void informarSentenciasPorPago() {
+        long cantidad = pagos.sum();
+        for (MetricaOperacion operacion : MetricasSql.getInstancia().obtenerOperaciones()) {
+            if (operacion.getNombre().equals(OPERACION_PAGO) && cantidad > 0) {
+                System.out.printf("%nregistrarPago: %d pagos, %.2f sentencias y %.2f conexiones por pago%n", cantidad,
+                        (double) operacion.getSentencias() / cantidad, (double) operacion.getConexiones() / cantidad);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Cliente> obtenerCliente() {
+        return clienteDAO.obtenerCliente(idsClientes[ThreadLocalRandom.current().nextInt(clientes)]);
+    }
+
+    @Benchmark
+    public List<Cliente> listarPaginaClientes() {
+        return clienteDAO.listarClientes(idsClientes[ThreadLocalRandom.current().nextInt(clientes)], 20);
+    }
+
+    @Benchmark
+    public Optional<InstantaneaPrestamo> obtenerInstantaneaPrestamo() {
+        return prestamoDAO.obtenerInstantanea(idsPrestamos[ThreadLocalRandom.current().nextInt(prestamos)]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("try")
+    public boolean registrarPago(HipotecaEnPago hipoteca) {
+        Cuota cuota = hipoteca.cuotas.get(hipoteca.siguiente++);
+        pagos.increment();
+        try (MetricasSql.Operacion operacion = MetricasSql.iniciarOperacion(OPERACION_PAGO)) {
+            return pagoDAO.registrarPago(new Pago(cuota.getIdPrestamo(), cuota.getNumeroCuota(), cuota.getMontoCuota(),
+                    LocalDate.now()), 0);
+        }
+    }
+}
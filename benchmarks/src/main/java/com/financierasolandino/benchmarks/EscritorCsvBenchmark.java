@@ -0,0 +1,55 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.util.EscritorCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura de una fila de la exportación de préstamos de ReporteDAO (mismos campos y formatos).
+ * El archivo se abre por iteración, así que la medición incluye los volcados periódicos al disco.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EscritorCsvBenchmark {
+    private final LocalDate fechaCreacion = LocalDate.of(2025, 1, 15);
+    private Path archivo;
+    private EscritorCsv escritor;
+    private int fila;
+
+    @Setup(Level.Iteration)
+    public void abrir() throws IOException {
+        archivo = Files.createTempFile("prestamos-benchmark", ".csv");
+        escritor = new EscritorCsv(archivo.toString());
+        escritor.encabezado("ID Préstamo,ID Cliente,Monto,Tasa Interés,Número Cuotas,Tipo Préstamo,Fecha Creación,Saldo Pendiente,Estado,Cuotas Pagadas,Cuotas Pendientes,Cuotas en Mora");
+    }
+
+    @TearDown(Level.Iteration)
+    public void cerrar() throws IOException {
+        escritor.close();
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public void escribirFilaPrestamo() throws IOException {
+        fila++;
+        escritor.campo("P0001").campo("C0001").campoMoneda(2_500_000.75 + fila).campoDecimal(94.0)
+                .campo(60).campo("PERSONAL").campoFecha(fechaCreacion)
+                .campoMoneda(1_875_432.19).campo("ACTIVO")
+                .campo(12).campo(47).campo(1)
+                .finFila();
+    }
+}
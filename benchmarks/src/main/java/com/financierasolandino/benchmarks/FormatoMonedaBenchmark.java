@@ -0,0 +1,50 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.util.FormatoMoneda;
+import com.financierasolandino.util.Utilidad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.NumberFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formato de importes: el NumberFormat de Utilidad (creado por llamada o reutilizado) frente a FormatoMoneda.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatoMonedaBenchmark {
+    private final NumberFormat formatoReutilizado = Utilidad.getArgentinaNumberFormat();
+    private final StringBuilder destino = new StringBuilder(32);
+
+    // El segundo valor cae justo en medio centavo y ejercita el camino de desempate con BigDecimal
+    @Param({"1234567.89", "1234567.895"})
+    public double importe;
+
+    @Benchmark
+    public String utilidadCreadoPorLlamada() {
+        return Utilidad.getArgentinaNumberFormat().format(importe);
+    }
+
+    @Benchmark
+    public String utilidadReutilizado() {
+        return formatoReutilizado.format(importe);
+    }
+
+    @Benchmark
+    public String formatoMoneda() {
+        return FormatoMoneda.formatear(importe);
+    }
+
+    @Benchmark
+    public StringBuilder formatoMonedaSinAsignacion() {
+        destino.setLength(0);
+        return FormatoMoneda.formatear(importe, destino);
+    }
+}
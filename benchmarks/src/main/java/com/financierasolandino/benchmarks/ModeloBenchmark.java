@@ -0,0 +1,38 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.model.Prestamo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de los modelos, que convierten cada importe double a BigDecimal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModeloBenchmark {
+    private final LocalDate fecha = LocalDate.of(2025, 1, 15);
+    private double monto = 2_500_000.75;
+    private double montoCuota = 215_432.19;
+    private double capitalAmortizado = 19_876.43;
+    private double tasaInteres = 94.0;
+
+    @Benchmark
+    public Cuota construirCuota() {
+        return new Cuota("P0001", 1, montoCuota, tasaInteres, fecha, capitalAmortizado);
+    }
+
+    @Benchmark
+    public Prestamo construirPrestamo() {
+        return new Prestamo("P0001", "C0001", monto, tasaInteres, 60, Prestamo.TipoPrestamo.PERSONAL,
+                fecha, monto, Prestamo.EstadoPrestamo.ACTIVO);
+    }
+}
@@ -0,0 +1,46 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.validation.ReglasValidacion;
+import com.financierasolandino.validation.ResultadoValidacion;
+import com.financierasolandino.validation.Violacion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reglas de validación sin consola, en validaciones por segundo: un cliente completo válido (ya normalizado y por
+ * normalizar), uno con todos los campos inválidos y una solicitud de préstamo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReglasValidacionBenchmark {
+    @Benchmark
+    public ResultadoValidacion clienteNormalizado() {
+        return ReglasValidacion.validarCliente("30123456", "María José Fernández", "Av. Libertador 1234 Mendoza",
+                "2615551234", "maria.fernandez@gmail.com");
+    }
+
+    @Benchmark
+    public ResultadoValidacion clientePorNormalizar() {
+        return ReglasValidacion.validarCliente(" 3012345 ", "maría josé fernández", "av. libertador 1234 mendoza",
+                "+54 (261) 555-1234", "Maria.Fernandez@Gmail.com");
+    }
+
+    @Benchmark
+    public ResultadoValidacion clienteInvalido() {
+        return ReglasValidacion.validarCliente("30A23456", "Jo", "Libertador Mendoza", "555-12", "maria@correo");
+    }
+
+    @Benchmark
+    public List<Violacion> solicitudPrestamo() {
+        return ReglasValidacion.validarSolicitudPrestamo(Prestamo.TipoPrestamo.HIPOTECARIO, 35000000.50, 240, 50000000.0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.financierasolandino.benchmarks;
+
+import com.financierasolandino.validation.ValidadorCliente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones de ValidadorCliente con entradas válidas (el caso habitual: una sola pasada por las expresiones regulares).
+ * Los mensajes que imprimen los validadores se descartan durante la medición.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidadorClienteBenchmark {
+    private PrintStream salidaOriginal;
+
+    @Setup(Level.Trial)
+    public void silenciarSalida() {
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restaurarSalida() {
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public String validarDNI() {
+        return ValidadorCliente.validarDNI(new Scanner("30123456\n"));
+    }
+
+    @Benchmark
+    public String validarNombre() {
+        return ValidadorCliente.validarNombre(new Scanner("maría josé fernández\n"));
+    }
+
+    @Benchmark
+    public String validarDireccion() {
+        return ValidadorCliente.validarDireccion(new Scanner("Av. Libertador 1234 Mendoza\n"));
+    }
+
+    @Benchmark
+    public String validarTelefono() {
+        return ValidadorCliente.validarTelefono(new Scanner("+54 (261) 555-1234\n"));
+    }
+
+    @Benchmark
+    public String validarCorreoElectronico() {
+        return ValidadorCliente.validarCorreoElectronico(new Scanner("maria.fernandez@gmail.com\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.ConciliacionDAO;
+import com.financierasolandino.service.ConciliacionSaldos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Punto de entrada no interactivo de la conciliación de saldos de la cartera, pensado para ejecutarse desde cron
+ * o un planificador:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.ConciliacionCartera -Dexec.args="--hilos=4"
+ * </pre>
+ * Opciones: --hilos=N, --tamano-particion=N y --reporte=ruta (por defecto,
+ * exportacion/conciliacion_saldos_&lt;fecha y hora&gt;.csv).
+ * Termina con código 0 si no hay diferencias, 1 si hay diferencias o errores y 2 si los argumentos son inválidos.
+ */
+public class ConciliacionCartera {
+    private static final int HILOS_POR_DEFECTO = 4;
+    private static final int TAMANO_PARTICION_POR_DEFECTO = 1000;
+
+    public static void main(String[] args) {
+        int hilos = HILOS_POR_DEFECTO;
+        int tamanoParticion = TAMANO_PARTICION_POR_DEFECTO;
+        Path reporte = null;
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--hilos=")) {
+                    hilos = Integer.parseInt(valor(arg));
+                } else if (arg.startsWith("--tamano-particion=")) {
+                    tamanoParticion = Integer.parseInt(valor(arg));
+                } else if (arg.startsWith("--reporte=")) {
+                    reporte = Path.of(valor(arg));
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+            }
+            if (hilos <= 0 || tamanoParticion <= 0) {
+                throw new IllegalArgumentException("--hilos y --tamano-particion deben ser positivos.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Argumento inválido: " + e.getMessage());
+            System.err.println("Uso: ConciliacionCartera [--hilos=N] [--tamano-particion=N] [--reporte=ruta]");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            if (reporte == null) {
+                Files.createDirectories(Path.of("exportacion"));
+                reporte = Path.of("exportacion", "conciliacion_saldos_" +
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv");
+            }
+            System.out.println("⚖️  Conciliando saldos de la cartera con " + hilos + " hilos...");
+            ConciliacionSaldos.Resultado resultado =
+                    new ConciliacionSaldos(new ConciliacionDAO(), hilos, tamanoParticion).conciliar(reporte);
+            boolean correcto = resultado.isCompleto() && resultado.getDiferencias() == 0;
+            System.out.println((correcto ? "✅ " : "⚠️  ") + resultado);
+            if (resultado.getDiferencias() > 0) {
+                System.out.println("📄 Diferencias en " + resultado.getReporte());
+            }
+            System.exit(correcto ? 0 : 1);
+        } catch (ClienteDAOException | IOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String valor(String arg) {
+        return arg.substring(arg.indexOf('=') + 1).trim();
+    }
+}
@@ -0,0 +1,85 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAO;
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.service.ImportadorClientes;
+import com.financierasolandino.service.ResumenImportacion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada no interactivo de la importación masiva de clientes:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.ImportacionClientes -Dexec.args="--archivo=clientes.csv"
+ * </pre>
+ * Opciones: --archivo=ruta (obligatoria), --rechazos=ruta (por defecto, el nombre del archivo con el sufijo
+ * "-rechazos.csv"), --hilos=N y --tamano-bloque=N.
+ * Termina con código 0 si no hubo rechazos, 1 si hubo rechazos o errores y 2 si los argumentos son inválidos.
+ */
+public class ImportacionClientes {
+    private static final int TAMANO_BLOQUE_POR_DEFECTO = 1000;
+
+    public static void main(String[] args) {
+        String archivo = null;
+        String rechazos = null;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        int tamanoBloque = TAMANO_BLOQUE_POR_DEFECTO;
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--archivo=")) {
+                    archivo = valor(arg);
+                } else if (arg.startsWith("--rechazos=")) {
+                    rechazos = valor(arg);
+                } else if (arg.startsWith("--hilos=")) {
+                    hilos = Integer.parseInt(valor(arg));
+                } else if (arg.startsWith("--tamano-bloque=")) {
+                    tamanoBloque = Integer.parseInt(valor(arg));
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+            }
+            if (archivo == null || archivo.isEmpty()) {
+                throw new IllegalArgumentException("Falta --archivo.");
+            }
+            if (hilos <= 0 || tamanoBloque <= 0) {
+                throw new IllegalArgumentException("--hilos y --tamano-bloque deben ser positivos.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Argumento inválido: " + e.getMessage());
+            System.err.println("Uso: ImportacionClientes --archivo=ruta [--rechazos=ruta] [--hilos=N] [--tamano-bloque=N]");
+            System.exit(2);
+            return;
+        }
+        if (rechazos == null) {
+            rechazos = archivoRechazosPorDefecto(archivo);
+        }
+
+        System.out.println("📥 Importando clientes desde " + archivo + " con " + hilos + " hilos...");
+        try {
+            ResumenImportacion resumen = new ImportadorClientes(new ClienteDAO(), hilos, tamanoBloque)
+                    .importar(Path.of(archivo), Path.of(rechazos));
+            System.out.println((resumen.getRechazadas() == 0 ? "✅ " : "⚠️  ") + resumen);
+            if (resumen.getRechazadas() > 0) {
+                System.out.println("💡 Las filas rechazadas y sus motivos están en " + rechazos);
+            }
+            System.exit(resumen.getRechazadas() == 0 ? 0 : 1);
+        } catch (IOException | ClienteDAOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * "clientes.csv" → "clientes-rechazos.csv", en la misma carpeta.
+     */
+    static String archivoRechazosPorDefecto(String archivo) {
+        String base = archivo.toLowerCase().endsWith(".csv") ? archivo.substring(0, archivo.length() - 4) : archivo;
+        return base + "-rechazos.csv";
+    }
+
+    private static String valor(String arg) {
+        return arg.substring(arg.indexOf('=') + 1).trim();
+    }
+}
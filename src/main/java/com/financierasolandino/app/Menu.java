@@ -1,33 +1,35 @@
 package com.financierasolandino.app;
 
 import com.financierasolandino.dao.*;
-import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.db.MetricasSql;
 import com.financierasolandino.model.Cliente;
 import com.financierasolandino.model.Cuota;
 import com.financierasolandino.model.Pago;
 import com.financierasolandino.model.Prestamo;
 import com.financierasolandino.service.CalculadoraCuotas;
-import com.financierasolandino.util.Utilidad;
+import com.financierasolandino.service.ProyeccionCartera;
+import com.financierasolandino.service.ProyeccionIngresos;
+import com.financierasolandino.util.FormatoMoneda;
 import com.financierasolandino.validation.ValidadorCliente;
 import com.financierasolandino.validation.ValidadorPrestamo;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.text.Normalizer;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Menu {
+    private static final int CLIENTES_POR_PAGINA = 20;
+    private static final int TAMANO_BLOQUE_PROYECCION = 4096;
+
     private final ClienteDAO clienteDAO;
     private final PrestamoDAO prestamoDAO;
     private final CuotaDAO cuotaDAO;
     private final PagoDAO pagoDAO;
     private final Scanner scanner;
     private final ReporteDAO reporteDAO;
-    private final NumberFormat formatoMoneda = Utilidad.getArgentinaNumberFormat();
 
     public Menu() {
         this.clienteDAO = new ClienteDAO();
@@ -39,6 +41,7 @@ public class Menu {
     }
 
     public void iniciar() {
+        cargarIndiceClientes();
         while (true) {
             try {
                 mostrarMenu();
@@ -56,6 +59,17 @@ public class Menu {
         scanner.close();
     }
 
+    private void cargarIndiceClientes() {
+        try {
+            System.out.println("🔎 Preparando el índice de búsqueda de clientes...");
+            IndiceClientes.getInstancia().construir(clienteDAO);
+            System.out.println("✅ " + IndiceClientes.getInstancia().obtenerEstadisticas());
+        } catch (ClienteDAOException e) {
+            // La búsqueda vuelve a intentar construir el índice la primera vez que se use
+            System.out.println("⚠️ No se pudo preparar el índice de clientes: " + e.getMessage());
+        }
+    }
+
     private void mostrarMenu() {
         System.out.println("\n════════════════════════════════════════════");
         System.out.println("       📊 SISTEMA DE GESTIÓN FINANCIERA");
@@ -107,6 +121,17 @@ public class Menu {
         }
     }
 
+    /**
+     * Ejecuta una acción del menú atribuyendo sus conexiones a la operación menu:accion en las métricas de acceso a
+     * datos, en lugar de buscar en la pila el método que toma cada conexión.
+     */
+    @SuppressWarnings("try")
+    private void ejecutarOperacion(String accion, Runnable ejecucion) {
+        try (MetricasSql.Operacion operacion = MetricasSql.iniciarOperacion("menu:" + accion)) {
+            ejecucion.run();
+        }
+    }
+
     private void mostrarMenuClientes() {
         while (true) {
             System.out.println("\n📁 ─── Gestión de Clientes ─── 📁");
@@ -114,6 +139,7 @@ public class Menu {
             System.out.println(" 2. Consultar cliente por DNI");
             System.out.println(" 3. Editar datos de cliente");
             System.out.println(" 4. Listar todos los clientes");
+            System.out.println(" 5. Buscar cliente por nombre, teléfono o correo");
             System.out.println(" ------------------------------");
             System.out.println(" 0. Menú anterior");
             System.out.println(" Q. Salir del sistema");
@@ -121,10 +147,11 @@ public class Menu {
             System.out.print("Seleccione una opción: ");
             int opcion = obtenerOpcion();
             switch (opcion) {
-                case 1 -> registrarCliente();
-                case 2 -> consultarCliente();
-                case 3 -> editarCliente();
-                case 4 -> listarClientes();
+                case 1 -> ejecutarOperacion("registrarCliente", this::registrarCliente);
+                case 2 -> ejecutarOperacion("consultarCliente", this::consultarCliente);
+                case 3 -> ejecutarOperacion("editarCliente", this::editarCliente);
+                case 4 -> ejecutarOperacion("listarClientes", this::listarClientes);
+                case 5 -> ejecutarOperacion("buscarCliente", this::buscarCliente);
                 case 0 -> { return; }
                 default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
             }
@@ -143,8 +170,8 @@ public class Menu {
             System.out.print("Seleccione una opción: ");
             int opcion = obtenerOpcion();
             switch (opcion) {
-                case 1 -> crearPrestamo();
-                case 2 -> mostrarPrestamosCliente();
+                case 1 -> ejecutarOperacion("crearPrestamo", this::crearPrestamo);
+                case 2 -> ejecutarOperacion("mostrarPrestamosCliente", this::mostrarPrestamosCliente);
                 case 0 -> { return; }
                 default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
             }
@@ -165,8 +192,8 @@ public class Menu {
             System.out.print("Seleccione una opción: ");
             int opcion = obtenerOpcion();
             switch (opcion) {
-                case 1 -> mostrarCuota(idPrestamo);
-                case 2 -> consultarEstadoPrestamo(idPrestamo);
+                case 1 -> ejecutarOperacion("mostrarCuota", () -> mostrarCuota(idPrestamo));
+                case 2 -> ejecutarOperacion("consultarEstadoPrestamo", () -> consultarEstadoPrestamo(idPrestamo));
                 case 3 -> mostrarMenuPagosYCuotas(idPrestamo);
                 case 0 -> { return; }
                 default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
@@ -188,9 +215,9 @@ public class Menu {
             System.out.print("Seleccione una opción: ");
             int opcion = obtenerOpcion();
             switch (opcion) {
-                case 1 -> registrarPago(idPrestamo);
-                case 2 -> consultarPagosYCuotasPendientes(idPrestamo);
-                case 3 -> consultarHistorialPagos(idPrestamo);
+                case 1 -> ejecutarOperacion("registrarPago", () -> registrarPago(idPrestamo));
+                case 2 -> ejecutarOperacion("consultarPagosYCuotasPendientes", () -> consultarPagosYCuotasPendientes(idPrestamo));
+                case 3 -> ejecutarOperacion("consultarHistorialPagos", () -> consultarHistorialPagos(idPrestamo));
                 case 0 -> { return; }
                 default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
             }
@@ -203,6 +230,8 @@ public class Menu {
             System.out.println(" 1. Reporte de préstamos activos");
             System.out.println(" 2. Reporte de clientes en mora y penalidades");
             System.out.println(" 3. Proyección de ingresos");
+            System.out.println(" 4. Proyección de ingresos de la cartera");
+            System.out.println(" 5. Métricas de acceso a datos");
             System.out.println(" ----------------------------------");
             System.out.println(" 0. Menú anterior");
             System.out.println(" Q. Salir del sistema");
@@ -210,9 +239,11 @@ public class Menu {
             System.out.print("Seleccione una opción: ");
             int opcion = obtenerOpcion();
             switch (opcion) {
-                case 1 -> consultarClientesConPrestamosActivos();
-                case 2 -> consultarClientesEnMora();
-                case 3 -> proyectarIngresos();
+                case 1 -> ejecutarOperacion("consultarClientesConPrestamosActivos", this::consultarClientesConPrestamosActivos);
+                case 2 -> ejecutarOperacion("consultarClientesEnMora", this::consultarClientesEnMora);
+                case 3 -> ejecutarOperacion("proyectarIngresos", this::proyectarIngresos);
+                case 4 -> ejecutarOperacion("proyectarIngresosCartera", this::proyectarIngresosCartera);
+                case 5 -> ejecutarOperacion("mostrarMetricasAccesoDatos", this::mostrarMetricasAccesoDatos);
                 case 0 -> { return; }
                 default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
             }
@@ -234,10 +265,10 @@ public class Menu {
             int opcion = obtenerOpcion();
             try {
                 switch (opcion) {
-                    case 1 -> exportarClientes();
-                    case 2 -> exportarPrestamos();
-                    case 3 -> exportarPagos();
-                    case 4 -> exportarClientesEnMora();
+                    case 1 -> ejecutarOperacion("exportarClientes", this::exportarClientes);
+                    case 2 -> ejecutarOperacion("exportarPrestamos", this::exportarPrestamos);
+                    case 3 -> ejecutarOperacion("exportarPagos", this::exportarPagos);
+                    case 4 -> ejecutarOperacion("exportarClientesEnMora", this::exportarClientesEnMora);
                     case 0 -> { return; }
                     default -> System.out.println("❌ Opción inválida. Intente nuevamente.");
                 }
@@ -410,23 +441,23 @@ public class Menu {
                     System.out.println("\nPréstamos registrados:");
                     for (Prestamo p : prestamos) {
                         System.out.println(":: ID Préstamo: " + p.getIdPrestamo() +
-                                " | Monto: " + formatoMoneda.format(p.getMonto()) +
+                                " | Monto: " + FormatoMoneda.formatear(p.getMonto()) +
                                 " | Tasa de Interés: " + String.format("%.2f", p.getTasaInteres()) + "%" +
                                 " | Cuotas: " + p.getNumeroCuotas() +
                                 " | Tipo: " + p.getTipoPrestamo() +
                                 " | Fecha Creación: " + p.getFechaCreacion() +
-                                " | Saldo Pendiente: " + formatoMoneda.format(p.getSaldoPendiente()) +
+                                " | Saldo Pendiente: " + FormatoMoneda.formatear(p.getSaldoPendiente()) +
                                 " | Estado: " + p.getEstado());
                         List<Cuota> cuotas = cuotaDAO.obtenerCuotas(p.getIdPrestamo());
                         if (!cuotas.isEmpty()) {
-                            System.out.println("    Cuota Mensual: " + formatoMoneda.format(cuotas.get(0).getMontoCuota()));
+                            System.out.println("    Cuota Mensual: " + FormatoMoneda.formatear(cuotas.get(0).getMontoCuota()));
                         }
                         List<Pago> pagos = pagoDAO.obtenerPagos(p.getIdPrestamo());
                         if (!pagos.isEmpty()) {
                             System.out.println("    Pagos realizados:");
                             for (Pago pago : pagos) {
                                 System.out.println("      Cuota " + pago.getNumeroCuota() +
-                                        ": " + formatoMoneda.format(pago.getMontoPagado()) +
+                                        ": " + FormatoMoneda.formatear(pago.getMontoPagado()) +
                                         ", Fecha: " + pago.getFechaPago());
                             }
                         } else {
@@ -578,21 +609,82 @@ public class Menu {
 
     private void listarClientes() {
         try {
-            List<Cliente> clientes = clienteDAO.listarClientes();
-            if (clientes.isEmpty()) {
+            List<Cliente> pagina = clienteDAO.listarClientes(null, CLIENTES_POR_PAGINA);
+            if (pagina.isEmpty()) {
                 System.out.println("No hay clientes registrados.");
                 pausarConsola();
-            } else {
-                System.out.println("\nLista de clientes:");
-                for (Cliente c : clientes) {
+                return;
+            }
+            System.out.println("\nLista de clientes:");
+            int numeroPagina = 1;
+            while (true) {
+                for (Cliente c : pagina) {
                     System.out.println("DNI: " + c.getIdCliente() +
                             " | Nombre: " + c.getNombre() +
                             " | Dirección: " + c.getDireccion() +
                             " | Teléfono: " + c.getTelefono() +
                             " | Correo: " + c.getCorreoElectronico());
                 }
+                if (pagina.size() < CLIENTES_POR_PAGINA) {
+                    pausarConsola();
+                    return;
+                }
+                System.out.print("\n📄 Página " + numeroPagina + ". Presione Enter para ver más o escriba 'salir' para volver: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("salir")) {
+                    return;
+                }
+                String ultimo = pagina.get(pagina.size() - 1).getIdCliente();
+                pagina = clienteDAO.listarClientes(ultimo, CLIENTES_POR_PAGINA);
+                if (pagina.isEmpty()) {
+                    System.out.println("No hay más clientes.");
+                    pausarConsola();
+                    return;
+                }
+                numeroPagina++;
+            }
+        } catch (ClienteDAOException e) {
+            System.out.println(e.getMessage());
+            pausarConsola();
+        }
+    }
+
+    private void buscarCliente() {
+        try {
+            IndiceClientes indice = IndiceClientes.getInstancia();
+            indice.construirSiHaceFalta(clienteDAO);
+            System.out.print("Ingrese parte del nombre, el teléfono o el correo electrónico: ");
+            String texto = scanner.nextLine().trim();
+            if (texto.isEmpty()) {
+                System.out.println("❌ Operación cancelada.");
                 pausarConsola();
+                return;
+            }
+            long inicio = System.nanoTime();
+            List<Cliente> clientes;
+            if (texto.contains("@")) {
+                clientes = indice.buscarPorCorreo(texto);
+            } else if (texto.matches("[\\d\\s()+-]+")) {
+                clientes = indice.buscarPorTelefono(texto, CLIENTES_POR_PAGINA);
+            } else {
+                clientes = indice.buscarPorNombre(texto, CLIENTES_POR_PAGINA);
+            }
+            double milisegundos = (System.nanoTime() - inicio) / 1_000_000.0;
+            if (clientes.isEmpty()) {
+                System.out.println("❌ No se encontraron clientes.");
+            } else {
+                System.out.println("\nClientes encontrados:");
+                for (Cliente c : clientes) {
+                    System.out.println("DNI: " + c.getIdCliente() +
+                            " | Nombre: " + c.getNombre() +
+                            " | Teléfono: " + c.getTelefono() +
+                            " | Correo: " + c.getCorreoElectronico());
+                }
+                if (clientes.size() == CLIENTES_POR_PAGINA) {
+                    System.out.println("💡 Se muestran los primeros " + CLIENTES_POR_PAGINA + " resultados; refine la búsqueda para ver otros.");
+                }
             }
+            System.out.printf("(%d resultado(s) en %.3f ms)%n", clientes.size(), milisegundos);
+            pausarConsola();
         } catch (ClienteDAOException e) {
             System.out.println(e.getMessage());
             pausarConsola();
@@ -658,7 +750,7 @@ public class Menu {
                 while (true) {
                     System.out.println("\n=== Revisión de Datos del Préstamo ===");
                     System.out.println("Tipo de Préstamo: " + tipoPrestamo);
-                    System.out.println("Monto: " + formatoMoneda.format(monto));
+                    System.out.println("Monto: " + FormatoMoneda.formatear(monto));
                     System.out.println("Número de Cuotas: " + numeroCuotas + "  (TNA: " +
                             (tasaInteres != null ? String.format("%.2f%%", tasaInteres) : "No definida") +
                             (tipoPrestamo == Prestamo.TipoPrestamo.HIPOTECARIO ? ", sujeta a verificación de cliente" : "") + ")");
@@ -740,11 +832,11 @@ public class Menu {
 
                 System.out.println("\n=== Simulación del Préstamo ===");
                 System.out.println("Tipo de Préstamo: " + tipoPrestamo);
-                System.out.println("Monto: " + formatoMoneda.format(monto));
+                System.out.println("Monto: " + FormatoMoneda.formatear(monto));
                 System.out.println("Número de Cuotas: " + numeroCuotas);
                 System.out.println("Tasa de Interés (TNA): " + String.format("%.2f%%", tasaInteres) +
                         (tipoPrestamo == Prestamo.TipoPrestamo.HIPOTECARIO ? " (sujeta a verificación de cliente)" : ""));
-                System.out.println("Cuota Mensual Estimada: " + formatoMoneda.format(cuotaMensualEstimada));
+                System.out.println("Cuota Mensual Estimada: " + FormatoMoneda.formatear(cuotaMensualEstimada));
                 System.out.println("Sistema de Amortización: Francés");
                 System.out.println("\nNota: Esta es una simulación. Para registrar el préstamo, se requerirá un DNI válido.");
 
@@ -831,12 +923,12 @@ public class Menu {
                         System.out.println("\n=== Confirmación Final ===");
                         System.out.println("Cliente DNI: " + idCliente);
                         System.out.println("Tipo de Préstamo: " + tipoPrestamo);
-                        System.out.println("Monto: " + formatoMoneda.format(monto));
+                        System.out.println("Monto: " + FormatoMoneda.formatear(monto));
                         System.out.println("Cuotas: " + numeroCuotas);
                         System.out.println("Tasa de Interés: " + String.format("%.2f%%", tasaInteres) +
                                 (tipoPrestamo == Prestamo.TipoPrestamo.HIPOTECARIO ?
                                         " (tasa preferencial para clientes registrados)" : ""));
-                        System.out.println("Cuota Mensual: " + formatoMoneda.format(cuotaMensualEstimada));
+                        System.out.println("Cuota Mensual: " + FormatoMoneda.formatear(cuotaMensualEstimada));
 
                         System.out.println("\nConfirmar:");
                         System.out.println("1. Sí");
@@ -869,26 +961,23 @@ public class Menu {
                 Prestamo.EstadoPrestamo estado = Prestamo.EstadoPrestamo.ACTIVO;
                 Prestamo prestamo = new Prestamo(idPrestamo, idCliente, monto, tasaInteres, numeroCuotas, tipoPrestamo,
                         fechaCreacion, saldoPendiente, estado);
-                boolean creado = prestamoDAO.crearPrestamo(prestamo);
+
+                // Registrar el préstamo junto con sus cuotas en una única transacción
+                List<Cuota> cuotas = CalculadoraCuotas.calcularCuota(idPrestamo, monto, tasaInteres, numeroCuotas, fechaCreacion);
+                boolean creado = prestamoDAO.crearPrestamo(prestamo, cuotas);
                 if (!creado) {
                     System.out.println("❌ No se pudo crear el préstamo. Verifique la conexión con la base de datos.");
                     pausarConsola();
                     return;
                 }
 
-                // Registrar las cuotas
-                List<Cuota> cuotas = CalculadoraCuotas.calcularCuota(idPrestamo, monto, tasaInteres, numeroCuotas, fechaCreacion);
-                for (Cuota cuota : cuotas) {
-                    cuotaDAO.registrarCuota(cuota);
-                }
-
                 // Mostrar detalles del préstamo creado
                 System.out.println("\n✅ Préstamo creado exitosamente con ID: " + idPrestamo);
                 System.out.println("Detalles:");
                 System.out.println("- Cliente DNI: " + idCliente);
                 System.out.println("- Tipo de Préstamo: " + tipoPrestamo);
-                System.out.println("- Monto: " + formatoMoneda.format(monto));
-                System.out.println("- Cuota Mensual: " + formatoMoneda.format(cuotaMensualEstimada));
+                System.out.println("- Monto: " + FormatoMoneda.formatear(monto));
+                System.out.println("- Cuota Mensual: " + FormatoMoneda.formatear(cuotaMensualEstimada));
                 System.out.println("- Total Cuotas: " + numeroCuotas);
                 System.out.println("- Tasa de Interés: " + String.format("%.2f%%", tasaInteres));
                 pausarConsola();
@@ -952,7 +1041,7 @@ public class Menu {
                 return;
             }
             System.out.println("\n=== Cuota del Préstamo ID " + idPrestamo + " ===");
-            System.out.println("Cuota Mensual: " + formatoMoneda.format(cuotas.get(0).getMontoCuota()) +
+            System.out.println("Cuota Mensual: " + FormatoMoneda.formatear(cuotas.get(0).getMontoCuota()) +
                     " (Tasa: " + cuotas.get(0).getTasaAplicada() + "%)");
             System.out.println("Número total de cuotas: " + cuotas.size());
             pausarConsola();
@@ -1016,12 +1105,13 @@ public class Menu {
             for (int i = inicio; i < fin; i++) {
                 Cuota cuota = todasCuotasPendientes.get(i);
                 boolean enMora = cuota.getFechaVencimiento().isBefore(hoy);
-                double penalidad = enMora ? cuota.getMontoCuota() * 0.05 : 0.0;
+                double penalidad = enMora
+                        ? MoraDAO.calcularPenalidad(BigDecimal.valueOf(cuota.getMontoCuota())).doubleValue() : 0.0;
 
                 System.out.println(opcion + ". Cuota " + cuota.getNumeroCuota() + ": " +
-                        formatoMoneda.format(cuota.getMontoCuota()) +
+                        FormatoMoneda.formatear(cuota.getMontoCuota()) +
                         " - Pendiente, vence el " + cuota.getFechaVencimiento() +
-                        (enMora ? " (En mora, penalidad: " + formatoMoneda.format(penalidad) + ")" : ""));
+                        (enMora ? " (En mora, penalidad: " + FormatoMoneda.formatear(penalidad) + ")" : ""));
                 mapaOpciones.put(opcion, cuota);
                 opcion++;
             }
@@ -1150,29 +1240,23 @@ public class Menu {
                 Cuota cuota = entry.getValue();
                 int numeroCuota = cuota.getNumeroCuota();
 
-                // Calcular penalidad
+                // Calcular penalidad; si la cuota vencida todavía no la tiene, se registra junto con el pago
                 double penalidad = 0.0;
+                BigDecimal penalidadNueva = null;
                 LocalDate hoy = LocalDate.now();
                 boolean enMora = cuota.getFechaVencimiento().isBefore(hoy);
                 if (enMora) {
                     penalidad = pagoDAO.obtenerPenalidad(idPrestamo, numeroCuota);
                     if (penalidad == 0.0) {
-                        penalidad = cuota.getMontoCuota() * 0.05;
-                        try (Connection conn = ConexionDB.conectar();
-                             PreparedStatement stmt = conn.prepareStatement("INSERT INTO penalidades (idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion) VALUES (?, ?, ?, ?)")) {
-                            stmt.setString(1, idPrestamo);
-                            stmt.setInt(2, numeroCuota);
-                            stmt.setDouble(3, penalidad);
-                            stmt.setObject(4, LocalDate.now());
-                            stmt.executeUpdate();
-                        }
+                        penalidadNueva = MoraDAO.calcularPenalidad(BigDecimal.valueOf(cuota.getMontoCuota()));
+                        penalidad = penalidadNueva.doubleValue();
                     }
                 }
 
                 // Confirmar pago
                 double montoTotal = cuota.getMontoCuota() + penalidad;
                 String mensajeConfirmacion = String.format("¿Confirma el pago de la cuota %d por $%s? (si/no): ",
-                        numeroCuota, formatoMoneda.format(montoTotal));
+                        numeroCuota, FormatoMoneda.formatear(montoTotal));
                 if (!confirmarOperacion(mensajeConfirmacion)) {
                     System.out.println("❌ Operación cancelada.");
                     pausarConsola();
@@ -1184,7 +1268,9 @@ public class Menu {
 
                 // Registrar el pago
                 Pago pago = new Pago(idPrestamo, numeroCuota, montoTotal, fechaPago);
-                boolean registrado = pagoDAO.registrarPago(pago, penalidad);
+                boolean registrado = penalidadNueva != null
+                        ? pagoDAO.registrarPagoConPenalidad(pago, penalidadNueva)
+                        : pagoDAO.registrarPago(pago, penalidad);
                 if (registrado) {
                     System.out.println("✅ Pago de la cuota " + numeroCuota + " registrado exitosamente.");
                 } else {
@@ -1208,7 +1294,7 @@ public class Menu {
                     return;
                 }
             }
-        } catch (ClienteDAOException | SQLException e) {
+        } catch (ClienteDAOException e) {
             System.out.println(e.getMessage());
             pausarConsola();
         }
@@ -1222,7 +1308,7 @@ public class Menu {
                 pausarConsola();
                 return;
             }
-            prestamoDAO.consultarEstadoPrestamo(idPrestamo, cuotaDAO, pagoDAO);
+            prestamoDAO.consultarEstadoPrestamo(idPrestamo);
         } catch (ClienteDAOException e) {
             System.out.println(e.getMessage());
             pausarConsola();
@@ -1237,7 +1323,7 @@ public class Menu {
                 pausarConsola();
                 return;
             }
-            prestamoDAO.mostrarHistorialPagos(idPrestamo, pagoDAO, formatoMoneda);
+            prestamoDAO.mostrarHistorialPagos(idPrestamo);
             pausarConsola();
         } catch (ClienteDAOException e) {
             System.out.println(e.getMessage());
@@ -1330,6 +1416,100 @@ public class Menu {
     }
 
 
+    private void proyectarIngresosCartera() {
+        Integer meses = null;
+        while (meses == null) {
+            System.out.print("Ingrese el número de meses para la proyección (1-" + ProyeccionCartera.MESES_MAXIMO + ") o 'cancelar': ");
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("cancelar")) {
+                System.out.println("❌ Operación cancelada.");
+                pausarConsola();
+                return;
+            }
+            try {
+                int valor = Integer.parseInt(input);
+                if (valor >= 1 && valor <= ProyeccionCartera.MESES_MAXIMO) {
+                    meses = valor;
+                } else {
+                    System.out.println("❌ Número de meses debe estar entre 1 y " + ProyeccionCartera.MESES_MAXIMO + ".");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Entrada inválida. Debe ser un número.");
+            }
+        }
+
+        try {
+            ProyeccionCartera proyeccion = new ProyeccionCartera(new ProyeccionDAO(),
+                    Runtime.getRuntime().availableProcessors(), TAMANO_BLOQUE_PROYECCION);
+            ProyeccionIngresos resultado = proyeccion.proyectar(LocalDate.now(), meses);
+            mostrarProyeccionCartera(resultado);
+            if (resultado.getTotal().getCuotas() > 0
+                    && confirmarOperacion("¿Desea exportar el detalle por tipo y estado a CSV? (si/no): ")) {
+                System.out.println("✅ Proyección exportada a " + resultado.exportarCsv());
+            }
+        } catch (ClienteDAOException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("❌ Error al exportar la proyección: " + e.getMessage());
+        }
+        pausarConsola();
+    }
+
+    private void mostrarMetricasAccesoDatos() {
+        MetricasSql metricas = MetricasSql.getInstancia();
+        System.out.println();
+        System.out.print(metricas.volcarTexto());
+        if (metricas.isActiva() && confirmarOperacion("¿Desea reiniciar las métricas? (si/no): ")) {
+            metricas.reiniciar();
+            System.out.println("✅ Métricas reiniciadas.");
+        }
+        pausarConsola();
+    }
+
+    private void mostrarProyeccionCartera(ProyeccionIngresos resultado) {
+        ProyeccionIngresos.FilaProyeccion total = resultado.getTotal();
+        if (total.getCuotas() == 0) {
+            System.out.println("✅ No hay cuotas pendientes en la cartera para el período especificado.");
+            return;
+        }
+        System.out.println("\n=== Proyección de Ingresos de la Cartera (" + resultado.getMeses() + " meses) ===");
+        System.out.printf("%-9s %10s %10s %20s %18s %20s%n", "Mes", "Préstamos", "Cuotas", "Monto cuotas", "Penalidades", "Total");
+        StringBuilder linea = new StringBuilder();
+        for (ProyeccionIngresos.FilaProyeccion fila : resultado.getTotalesPorPeriodo()) {
+            if (fila.getCuotas() == 0) {
+                continue;
+            }
+            linea.setLength(0);
+            linea.append(String.format("%-9s %10d %10d", fila.getMes() != null ? fila.getMes() : "Vencidas",
+                    fila.getPrestamos(), fila.getCuotas()));
+            agregarImporte(linea, fila.getCentavosCuotas(), 20);
+            agregarImporte(linea, fila.getCentavosPenalidades() + fila.getCentavosPenalidadesEstimadas(), 18);
+            agregarImporte(linea, fila.getCentavosTotal(), 20);
+            System.out.println(linea);
+        }
+        linea.setLength(0);
+        linea.append(String.format("%-9s %10d %10d", "Total", total.getPrestamos(), total.getCuotas()));
+        agregarImporte(linea, total.getCentavosCuotas(), 20);
+        agregarImporte(linea, total.getCentavosPenalidades() + total.getCentavosPenalidadesEstimadas(), 18);
+        agregarImporte(linea, total.getCentavosTotal(), 20);
+        System.out.println(linea);
+        if (total.getCentavosPenalidadesEstimadas() > 0) {
+            StringBuilder estimadas = FormatoMoneda.formatearCentavos(total.getCentavosPenalidadesEstimadas(), new StringBuilder());
+            System.out.println("Nota: las penalidades incluyen " + estimadas + " estimados para cuotas vencidas que todavía " +
+                    "no tienen la penalidad registrada por el proceso de mora.");
+        }
+        System.out.println("📈 " + resultado);
+    }
+
+    private static void agregarImporte(StringBuilder linea, long centavos, int ancho) {
+        StringBuilder importe = FormatoMoneda.formatearCentavos(centavos, new StringBuilder());
+        linea.append(' ');
+        for (int i = importe.length(); i < ancho; i++) {
+            linea.append(' ');
+        }
+        linea.append(importe);
+    }
+
     private void exportarClientes() throws ClienteDAOException {
         // Preguntar si desea exportar todos los clientes
         if (confirmarOperacion("¿Desea exportar todos los clientes? (sí/no): ")) {
@@ -1536,7 +1716,7 @@ public class Menu {
             for (int i = 0; i < prestamos.size(); i++) {
                 Prestamo p = prestamos.get(i);
                 System.out.println((i + 1) + ". ID Préstamo: " + p.getIdPrestamo() +
-                        " | Monto: " + formatoMoneda.format(p.getMonto()) +
+                        " | Monto: " + FormatoMoneda.formatear(p.getMonto()) +
                         " | Tipo: " + p.getTipoPrestamo() +
                         " | Estado: " + p.getEstado());
             }
@@ -1572,6 +1752,10 @@ public class Menu {
     }
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].startsWith("--batch")) {
+            ModoLote.main(args);
+            return;
+        }
         Menu menu = new Menu();
         menu.iniciar();
     }
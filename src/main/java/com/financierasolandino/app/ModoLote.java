@@ -0,0 +1,554 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAO;
+import com.financierasolandino.dao.MoraDAO;
+import com.financierasolandino.dao.PagoDAO;
+import com.financierasolandino.dao.PrestamoDAO;
+import com.financierasolandino.dao.PrestamoDAOImpl;
+import com.financierasolandino.dao.ProyeccionDAO;
+import com.financierasolandino.dao.ReporteDAO;
+import com.financierasolandino.dao.ResumenPrestamoDAO;
+import com.financierasolandino.db.MetricasSql;
+import com.financierasolandino.diario.DiarioPagos;
+import com.financierasolandino.model.Cliente;
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.model.InstantaneaPrestamo;
+import com.financierasolandino.model.Pago;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.service.CalculadoraCuotas;
+import com.financierasolandino.service.ImportadorClientes;
+import com.financierasolandino.service.ProcesoMora;
+import com.financierasolandino.service.ProyeccionCartera;
+import com.financierasolandino.service.ProyeccionIngresos;
+import com.financierasolandino.service.ReconstruccionResumen;
+import com.financierasolandino.service.ResumenImportacion;
+import com.financierasolandino.service.ResumenProcesoMora;
+import com.financierasolandino.util.FormatoMoneda;
+import com.financierasolandino.validation.ReglasValidacion;
+import com.financierasolandino.validation.ResultadoValidacion;
+import com.financierasolandino.validation.ValidadorPrestamo;
+import com.financierasolandino.validation.Violacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Modo no interactivo del sistema: ejecuta un archivo de comandos (o la entrada estándar) directamente sobre los DAO,
+ * sin pasar por los menús. Se inicia con {@code Menu --batch=archivo} o {@code Menu --batch} para leer la entrada estándar.
+ * <p>
+ * Cada línea tiene un comando y sus campos separados por ';'. Las líneas vacías y las que empiezan con '#' se ignoran.
+ * <pre>
+ * create-client;DNI;nombre;dirección;teléfono;correo
+ * create-loan;DNI;PERSONAL|HIPOTECARIO;monto;cuotas[;tasa]
+ * pay;idPrestamo|@ultimo[;numeroCuota]
+ * export;clientes|prestamos|pagos|mora[;id]
+ * mora-scan[;AAAA-MM-DD[;hilos]]
+ * import-clients;archivo.csv[;rechazos.csv]
+ * project-portfolio[;meses[;AAAA-MM-DD]]
+ * rebuild-summary[;hilos]
+ * metrics[;archivo]
+ * </pre>
+ * {@code @ultimo} es el último préstamo creado por el lote. Si no se indica la cuota, pay paga la primera impaga.
+ * project-portfolio proyecta los ingresos de toda la cartera (12 meses por defecto) y la exporta a CSV.
+ * rebuild-summary regenera desde cero el resumen de todos los préstamos (tabla prestamo_resumen).
+ * metrics imprime las métricas de acceso a datos o, con archivo, las escribe en él (en JSON si termina en .json);
+ * las conexiones de cada comando se atribuyen a la operación lote:comando.
+ * Los create-client consecutivos se registran juntos con una inserción en lote. Al terminar se informa la latencia
+ * por tipo de comando y el total de operaciones por minuto.
+ */
+public class ModoLote {
+    private static final String SEPARADOR = ";";
+    private static final String ULTIMO_PRESTAMO = "@ultimo";
+    private static final int MAXIMO_CLIENTES_POR_LOTE = 500;
+    private static final double TASA_HIPOTECARIO_CLIENTE = 9.50;
+    private static final int TAMANO_BLOQUE_IMPORTACION = 1000;
+    private static final int TAMANO_BLOQUE_PROYECCION = 4096;
+    private static final int MESES_PROYECCION_POR_DEFECTO = 12;
+    private static final int TAMANO_PARTICION_RESUMEN = 1000;
+    private static final String PUNTO_CONTROL_MORA = "procesos/mora-punto-control.properties";
+
+    private final ClienteDAO clienteDAO;
+    private final PrestamoDAO prestamoDAO;
+    private final PagoDAO pagoDAO;
+    private final ReporteDAO reporteDAO;
+    private final PrintStream salida;
+    private final boolean detenerEnError;
+    private final Map<String, Estadistica> estadisticas = new LinkedHashMap<>();
+    private final List<Comando> clientesPendientes = new ArrayList<>();
+    private String ultimoPrestamo;
+    private boolean huboErrores;
+
+    /**
+     * Una línea del archivo ya separada en comando y campos.
+     */
+    private static class Comando {
+        private final int linea;
+        private final String nombre;
+        private final String[] campos;
+
+        Comando(int linea, String texto) {
+            String[] partes = texto.split(SEPARADOR, -1);
+            for (int i = 0; i < partes.length; i++) {
+                partes[i] = partes[i].trim();
+            }
+            this.linea = linea;
+            this.nombre = partes[0].toLowerCase();
+            this.campos = Arrays.copyOfRange(partes, 1, partes.length);
+        }
+
+        String campo(int indice, String descripcion) {
+            if (indice >= campos.length || campos[indice].isEmpty()) {
+                throw new IllegalArgumentException("Falta el campo " + descripcion + ".");
+            }
+            return campos[indice];
+        }
+
+        String campoOpcional(int indice) {
+            return indice < campos.length && !campos[indice].isEmpty() ? campos[indice] : null;
+        }
+    }
+
+    /**
+     * Latencias y resultados de un tipo de comando.
+     */
+    private static class Estadistica {
+        private long[] nanos = new long[64];
+        private int cantidad;
+        private int fallidos;
+
+        void registrar(long duracion, boolean exitoso) {
+            if (cantidad == nanos.length) {
+                nanos = Arrays.copyOf(nanos, cantidad * 2);
+            }
+            nanos[cantidad++] = duracion;
+            if (!exitoso) {
+                fallidos++;
+            }
+        }
+
+        long percentil(long[] ordenadas, double percentil) {
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(indice, 0)];
+        }
+    }
+
+    public ModoLote(PrintStream salida, boolean detenerEnError) {
+        this.clienteDAO = new ClienteDAO();
+        this.prestamoDAO = new PrestamoDAOImpl();
+        this.pagoDAO = new PagoDAO();
+        this.reporteDAO = new ReporteDAO();
+        this.salida = salida;
+        this.detenerEnError = detenerEnError;
+    }
+
+    /**
+     * Argumentos: --batch=archivo, --batch archivo o --batch (entrada estándar), y opcionalmente --detener-en-error.
+     * Termina con código 0 si todos los comandos se ejecutaron bien, 1 si alguno falló y 2 si no se pudo leer el lote.
+     */
+    public static void main(String[] args) {
+        String archivo = null;
+        boolean detenerEnError = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--batch=")) {
+                archivo = arg.substring("--batch=".length()).trim();
+            } else if (arg.equals("--batch")) {
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    archivo = args[++i];
+                }
+            } else if (arg.equals("--detener-en-error")) {
+                detenerEnError = true;
+            } else {
+                System.err.println("❌ Opción desconocida: " + arg);
+                System.err.println("Uso: Menu --batch[=archivo] [--detener-en-error]");
+                System.exit(2);
+                return;
+            }
+        }
+
+        ModoLote lote = new ModoLote(System.out, detenerEnError);
+        try (BufferedReader entrada = archivo == null || archivo.equals("-") ?
+                new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)) :
+                Files.newBufferedReader(Path.of(archivo), StandardCharsets.UTF_8)) {
+            System.exit(lote.ejecutar(entrada) ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("❌ No se pudo leer el lote: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Ejecuta todos los comandos de la entrada e imprime el resumen.
+     * @return true si todos los comandos se ejecutaron sin errores.
+     * @throws IOException Si ocurre un error al leer la entrada.
+     */
+    public boolean ejecutar(BufferedReader entrada) throws IOException {
+        long inicio = System.nanoTime();
+        String texto;
+        int linea = 0;
+        while ((texto = entrada.readLine()) != null) {
+            linea++;
+            texto = texto.trim();
+            if (texto.isEmpty() || texto.startsWith("#")) {
+                continue;
+            }
+            Comando comando = new Comando(linea, texto);
+            if (comando.nombre.equals("create-client")) {
+                clientesPendientes.add(comando);
+                if (clientesPendientes.size() == MAXIMO_CLIENTES_POR_LOTE) {
+                    registrarClientesPendientes();
+                }
+            } else {
+                registrarClientesPendientes();
+                if (!(detenerEnError && huboErrores)) {
+                    ejecutar(comando);
+                }
+            }
+            if (detenerEnError && huboErrores) {
+                salida.println("⛔ Se detiene el lote por el error anterior.");
+                break;
+            }
+        }
+        registrarClientesPendientes();
+        imprimirResumen(System.nanoTime() - inicio);
+        return !huboErrores;
+    }
+
+    @SuppressWarnings("try") // el alcance de la operación no se usa en el cuerpo
+    private void ejecutar(Comando comando) {
+        long inicio = System.nanoTime();
+        try (MetricasSql.Operacion operacion = MetricasSql.iniciarOperacion("lote:" + comando.nombre)) {
+            String detalle = switch (comando.nombre) {
+                case "create-loan" -> crearPrestamo(comando);
+                case "pay" -> pagar(comando);
+                case "export" -> exportar(comando);
+                case "mora-scan" -> procesarMora(comando);
+                case "import-clients" -> importarClientes(comando);
+                case "project-portfolio" -> proyectarCartera(comando);
+                case "rebuild-summary" -> reconstruirResumen(comando);
+                case "metrics" -> volcarMetricas(comando);
+                default -> throw new IllegalArgumentException("Comando desconocido.");
+            };
+            informar(comando, System.nanoTime() - inicio, true, detalle);
+        } catch (RuntimeException e) {
+            informar(comando, System.nanoTime() - inicio, false, e.getMessage());
+        }
+    }
+
+    /**
+     * Registra los create-client acumulados con una sola transacción en lote. La latencia informada de cada
+     * comando es la duración del lote dividida por la cantidad de clientes.
+     */
+    @SuppressWarnings("try")
+    private void registrarClientesPendientes() {
+        if (clientesPendientes.isEmpty()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        Map<Comando, String> errores = new IdentityHashMap<>();
+        Map<Cliente, Comando> porCliente = new IdentityHashMap<>();
+        List<Cliente> clientes = new ArrayList<>();
+        for (Comando comando : clientesPendientes) {
+            try {
+                Cliente cliente = leerCliente(comando);
+                clientes.add(cliente);
+                porCliente.put(cliente, comando);
+            } catch (IllegalArgumentException e) {
+                errores.put(comando, e.getMessage());
+            }
+        }
+        try (MetricasSql.Operacion operacion = MetricasSql.iniciarOperacion("lote:create-client")) {
+            for (Cliente omitido : clienteDAO.registrarClientes(clientes)) {
+                errores.put(porCliente.get(omitido), "El cliente con DNI " + omitido.getIdCliente() + " ya está registrado.");
+            }
+        } catch (RuntimeException e) {
+            for (Comando comando : porCliente.values()) {
+                errores.put(comando, e.getMessage());
+            }
+        }
+        long porComando = (System.nanoTime() - inicio) / clientesPendientes.size();
+        for (Comando comando : clientesPendientes) {
+            String error = errores.get(comando);
+            informar(comando, porComando, error == null, error == null ? "DNI " + comando.campos[0] : error);
+        }
+        clientesPendientes.clear();
+    }
+
+    /**
+     * Valida los campos con las mismas reglas que el alta por consola.
+     */
+    private Cliente leerCliente(Comando comando) {
+        ResultadoValidacion resultado = ReglasValidacion.validarCliente(comando.campo(0, "DNI"), comando.campo(1, "nombre"),
+                comando.campo(2, "dirección"), comando.campo(3, "teléfono"), comando.campo(4, "correo"));
+        if (!resultado.isValido()) {
+            throw new IllegalArgumentException(resultado.getMotivos());
+        }
+        comando.campos[0] = resultado.getCliente().getIdCliente();
+        return resultado.getCliente();
+    }
+
+    private String crearPrestamo(Comando comando) {
+        String idCliente = comando.campo(0, "DNI").toUpperCase();
+        Prestamo.TipoPrestamo tipo;
+        try {
+            tipo = Prestamo.TipoPrestamo.valueOf(comando.campo(1, "tipo").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de préstamo inválido: " + comando.campos[1] + ".");
+        }
+        double monto = numero(comando.campo(2, "monto"), "monto");
+        int numeroCuotas = (int) numero(comando.campo(3, "cuotas"), "cuotas");
+        List<Violacion> violaciones = ReglasValidacion.validarSolicitudPrestamo(tipo, monto, numeroCuotas);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(ReglasValidacion.unirMensajes(violaciones));
+        }
+        String tasaIndicada = comando.campoOpcional(4);
+        double tasaInteres;
+        if (tasaIndicada != null) {
+            tasaInteres = numero(tasaIndicada, "tasa");
+        } else {
+            tasaInteres = tipo == Prestamo.TipoPrestamo.PERSONAL ?
+                    ValidadorPrestamo.obtenerTasaPersonal(numeroCuotas) : TASA_HIPOTECARIO_CLIENTE;
+        }
+        if (!clienteDAO.verificarExistenciaCliente(idCliente)) {
+            throw new IllegalArgumentException("El cliente con DNI " + idCliente + " no está registrado.");
+        }
+
+        String idPrestamo = UUID.randomUUID().toString();
+        LocalDate fechaCreacion = LocalDate.now();
+        Prestamo prestamo = new Prestamo(idPrestamo, idCliente, monto, tasaInteres, numeroCuotas, tipo,
+                fechaCreacion, monto, Prestamo.EstadoPrestamo.ACTIVO);
+        List<Cuota> cuotas = CalculadoraCuotas.calcularCuota(idPrestamo, monto, tasaInteres, numeroCuotas, fechaCreacion);
+        if (!prestamoDAO.crearPrestamo(prestamo, cuotas)) {
+            throw new IllegalStateException("No se pudo crear el préstamo.");
+        }
+        ultimoPrestamo = idPrestamo;
+        return idPrestamo + " (cuota " + FormatoMoneda.formatear(cuotas.get(0).getMontoCuota()) + ")";
+    }
+
+    private String pagar(Comando comando) {
+        String idPrestamo = comando.campo(0, "idPrestamo");
+        if (idPrestamo.equalsIgnoreCase(ULTIMO_PRESTAMO)) {
+            if (ultimoPrestamo == null) {
+                throw new IllegalArgumentException("Todavía no se creó ningún préstamo en este lote.");
+            }
+            idPrestamo = ultimoPrestamo;
+        }
+        Optional<InstantaneaPrestamo> instantanea = prestamoDAO.obtenerInstantanea(idPrestamo);
+        if (instantanea.isEmpty()) {
+            throw new IllegalArgumentException("Préstamo " + idPrestamo + " no encontrado.");
+        }
+        Cuota cuota = seleccionarCuota(instantanea.get(), comando.campoOpcional(1));
+
+        // Misma regla que el pago por menú: una cuota vencida paga la penalidad registrada o, si no tiene, el 5%,
+        // que se registra en la misma transacción que el pago
+        double penalidad = 0.0;
+        BigDecimal penalidadNueva = null;
+        LocalDate hoy = LocalDate.now();
+        if (cuota.getFechaVencimiento().isBefore(hoy)) {
+            penalidad = instantanea.get().getPenalidad(cuota.getNumeroCuota());
+            if (!instantanea.get().tienePenalidad(cuota.getNumeroCuota())) {
+                penalidadNueva = MoraDAO.calcularPenalidad(BigDecimal.valueOf(cuota.getMontoCuota()));
+                penalidad = penalidadNueva.doubleValue();
+            }
+        }
+        double montoTotal = cuota.getMontoCuota() + penalidad;
+        Pago pago = new Pago(idPrestamo, cuota.getNumeroCuota(), montoTotal, hoy);
+        if (penalidadNueva != null) {
+            pagoDAO.registrarPagoConPenalidad(pago, penalidadNueva);
+        } else {
+            pagoDAO.registrarPago(pago, penalidad);
+        }
+        return "cuota " + cuota.getNumeroCuota() + " de " + idPrestamo + " por " + FormatoMoneda.formatear(montoTotal);
+    }
+
+    private Cuota seleccionarCuota(InstantaneaPrestamo instantanea, String numeroIndicado) {
+        if (numeroIndicado != null) {
+            int numeroCuota = (int) numero(numeroIndicado, "numeroCuota");
+            for (Cuota cuota : instantanea.getCuotas()) {
+                if (cuota.getNumeroCuota() == numeroCuota) {
+                    if (instantanea.isPagada(numeroCuota)) {
+                        throw new IllegalArgumentException("La cuota " + numeroCuota + " ya está pagada.");
+                    }
+                    return cuota;
+                }
+            }
+            throw new IllegalArgumentException("La cuota " + numeroCuota + " no existe.");
+        }
+        for (Cuota cuota : instantanea.getCuotas()) {
+            if (!instantanea.isPagada(cuota.getNumeroCuota())) {
+                return cuota;
+            }
+        }
+        throw new IllegalArgumentException("Todas las cuotas del préstamo están pagadas.");
+    }
+
+    private String exportar(Comando comando) {
+        String id = comando.campoOpcional(1);
+        String archivo = switch (comando.campo(0, "tipo de exportación").toLowerCase()) {
+            case "clientes" -> reporteDAO.exportarDatosClientes(id);
+            case "prestamos" -> reporteDAO.exportarDatosPrestamos(id);
+            case "pagos" -> reporteDAO.exportarHistorialPagos(comando.campo(1, "idPrestamo"));
+            case "mora" -> reporteDAO.exportarClientesEnMora(id);
+            default -> throw new IllegalArgumentException("Tipo de exportación inválido: " + comando.campos[0]
+                    + " (use clientes, prestamos, pagos o mora).");
+        };
+        return archivo != null ? archivo : "sin datos para exportar";
+    }
+
+    private String procesarMora(Comando comando) {
+        LocalDate fechaCorte = LocalDate.now();
+        String fecha = comando.campoOpcional(0);
+        if (fecha != null) {
+            try {
+                fechaCorte = LocalDate.parse(fecha);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha inválida: " + fecha + " (use AAAA-MM-DD).");
+            }
+        }
+        String hilos = comando.campoOpcional(1);
+        ProcesoMora proceso = new ProcesoMora(new MoraDAO(), hilos != null ? (int) numero(hilos, "hilos") : 1,
+                1000, Path.of(PUNTO_CONTROL_MORA));
+        ResumenProcesoMora resumen = proceso.ejecutar(fechaCorte, false);
+        if (!resumen.isCompleto()) {
+            throw new IllegalStateException(resumen.toString());
+        }
+        return resumen.toString();
+    }
+
+    private String proyectarCartera(Comando comando) {
+        String meses = comando.campoOpcional(0);
+        LocalDate fechaCorte = LocalDate.now();
+        String fecha = comando.campoOpcional(1);
+        if (fecha != null) {
+            try {
+                fechaCorte = LocalDate.parse(fecha);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha inválida: " + fecha + " (use AAAA-MM-DD).");
+            }
+        }
+        ProyeccionCartera proyeccion = new ProyeccionCartera(new ProyeccionDAO(),
+                Runtime.getRuntime().availableProcessors(), TAMANO_BLOQUE_PROYECCION);
+        ProyeccionIngresos resultado = proyeccion.proyectar(fechaCorte,
+                meses != null ? (int) numero(meses, "meses") : MESES_PROYECCION_POR_DEFECTO);
+        try {
+            return resultado.exportarCsv() + " (" + resultado + ")";
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo exportar la proyección: " + e.getMessage());
+        }
+    }
+
+    private String reconstruirResumen(Comando comando) {
+        String hilos = comando.campoOpcional(0);
+        ReconstruccionResumen reconstruccion = new ReconstruccionResumen(new ResumenPrestamoDAO(),
+                hilos != null ? (int) numero(hilos, "hilos") : Runtime.getRuntime().availableProcessors(),
+                TAMANO_PARTICION_RESUMEN);
+        ReconstruccionResumen.Resultado resultado = reconstruccion.reconstruir(LocalDate.now());
+        if (!resultado.isCompleto()) {
+            throw new IllegalStateException(resultado.toString());
+        }
+        return resultado.toString();
+    }
+
+    private String volcarMetricas(Comando comando) {
+        MetricasSql metricas = MetricasSql.getInstancia();
+        String archivo = comando.campoOpcional(0);
+        if (archivo == null) {
+            return System.lineSeparator() + metricas.volcarTexto();
+        }
+        try {
+            metricas.escribirInstantanea(Path.of(archivo));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudieron escribir las métricas en " + archivo + ": " + e.getMessage());
+        }
+        return archivo;
+    }
+
+    private String importarClientes(Comando comando) {
+        String archivo = comando.campo(0, "archivo");
+        String rechazos = comando.campoOpcional(1);
+        if (rechazos == null) {
+            rechazos = ImportacionClientes.archivoRechazosPorDefecto(archivo);
+        }
+        ImportadorClientes importador = new ImportadorClientes(clienteDAO,
+                Runtime.getRuntime().availableProcessors(), TAMANO_BLOQUE_IMPORTACION);
+        ResumenImportacion resumen;
+        try {
+            resumen = importador.importar(Path.of(archivo), Path.of(rechazos));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo importar " + archivo + ": " + e.getMessage());
+        }
+        if (resumen.getRechazadas() > 0) {
+            throw new IllegalStateException(resumen + "; rechazos en " + rechazos);
+        }
+        return resumen.toString();
+    }
+
+    private static double numero(String texto, String descripcion) {
+        try {
+            double valor = Double.parseDouble(texto.replace(',', '.'));
+            if (valor <= 0 || Double.isInfinite(valor) || Double.isNaN(valor)) {
+                throw new NumberFormatException();
+            }
+            return valor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + descripcion + ": " + texto + ".");
+        }
+    }
+
+    private void informar(Comando comando, long nanos, boolean exitoso, String detalle) {
+        estadisticas.computeIfAbsent(comando.nombre, n -> new Estadistica()).registrar(nanos, exitoso);
+        if (!exitoso) {
+            huboErrores = true;
+        }
+        salida.printf("%s línea %d: %s (%.2f ms) %s%n", exitoso ? "✅" : "❌", comando.linea, comando.nombre,
+                nanos / 1_000_000.0, detalle != null ? detalle : "");
+    }
+
+    private void imprimirResumen(long nanosTotales) {
+        salida.println("\n=== Resumen del lote ===");
+        salida.printf("%-14s %8s %8s %10s %10s %10s %10s%n", "Comando", "Total", "Errores",
+                "Prom. ms", "p50 ms", "p95 ms", "Máx. ms");
+        int total = 0;
+        int fallidos = 0;
+        for (Map.Entry<String, Estadistica> entrada : estadisticas.entrySet()) {
+            Estadistica estadistica = entrada.getValue();
+            long[] ordenadas = Arrays.copyOf(estadistica.nanos, estadistica.cantidad);
+            Arrays.sort(ordenadas);
+            long suma = 0;
+            for (long nanos : ordenadas) {
+                suma += nanos;
+            }
+            salida.printf("%-14s %8d %8d %10.2f %10.2f %10.2f %10.2f%n", entrada.getKey(), estadistica.cantidad,
+                    estadistica.fallidos, suma / 1_000_000.0 / ordenadas.length,
+                    estadistica.percentil(ordenadas, 0.50) / 1_000_000.0,
+                    estadistica.percentil(ordenadas, 0.95) / 1_000_000.0,
+                    ordenadas[ordenadas.length - 1] / 1_000_000.0);
+            total += estadistica.cantidad;
+            fallidos += estadistica.fallidos;
+        }
+        double segundos = nanosTotales / 1_000_000_000.0;
+        salida.printf("Total: %d comandos (%d con error) en %.2f s — %.0f operaciones por minuto%n",
+                total, fallidos, segundos, segundos > 0 ? total * 60 / segundos : 0.0);
+        DiarioPagos diario = DiarioPagos.getInstancia();
+        if (diario.isActivo()) {
+            diario.sincronizar(5000);
+            salida.println(diario);
+        }
+    }
+}
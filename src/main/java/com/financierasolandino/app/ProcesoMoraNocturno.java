@@ -0,0 +1,78 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.MoraDAO;
+import com.financierasolandino.service.ProcesoMora;
+import com.financierasolandino.service.ResumenProcesoMora;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Punto de entrada no interactivo del proceso de mora, pensado para ejecutarse desde cron o un planificador:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.ProcesoMoraNocturno -Dexec.args="--hilos=4"
+ * </pre>
+ * Opciones: --fecha=AAAA-MM-DD (por defecto, hoy), --hilos=N, --tamano-particion=N,
+ * --punto-control=ruta y --reiniciar (ignora el punto de control guardado).
+ * Termina con código 0 si se procesó toda la cartera, 1 si hubo errores y 2 si los argumentos son inválidos.
+ */
+public class ProcesoMoraNocturno {
+    private static final int HILOS_POR_DEFECTO = 4;
+    private static final int TAMANO_PARTICION_POR_DEFECTO = 1000;
+    private static final String PUNTO_CONTROL_POR_DEFECTO = "procesos/mora-punto-control.properties";
+
+    public static void main(String[] args) {
+        LocalDate fechaCorte = LocalDate.now();
+        int hilos = HILOS_POR_DEFECTO;
+        int tamanoParticion = TAMANO_PARTICION_POR_DEFECTO;
+        String puntoControl = PUNTO_CONTROL_POR_DEFECTO;
+        boolean reiniciar = false;
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--fecha=")) {
+                    fechaCorte = LocalDate.parse(valor(arg));
+                } else if (arg.startsWith("--hilos=")) {
+                    hilos = Integer.parseInt(valor(arg));
+                } else if (arg.startsWith("--tamano-particion=")) {
+                    tamanoParticion = Integer.parseInt(valor(arg));
+                } else if (arg.startsWith("--punto-control=")) {
+                    puntoControl = valor(arg);
+                } else if (arg.equals("--reiniciar")) {
+                    reiniciar = true;
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+            }
+            if (hilos <= 0 || tamanoParticion <= 0) {
+                throw new IllegalArgumentException("--hilos y --tamano-particion deben ser positivos.");
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            System.err.println("❌ Argumento inválido: " + e.getMessage());
+            System.err.println("Uso: ProcesoMoraNocturno [--fecha=AAAA-MM-DD] [--hilos=N] [--tamano-particion=N] " +
+                    "[--punto-control=ruta] [--reiniciar]");
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("🌙 Iniciando proceso de mora al " + fechaCorte + " con " + hilos + " hilos...");
+        ProcesoMora proceso = new ProcesoMora(new MoraDAO(), hilos, tamanoParticion, Path.of(puntoControl));
+        try {
+            ResumenProcesoMora resumen = proceso.ejecutar(fechaCorte, reiniciar);
+            System.out.println((resumen.isCompleto() ? "✅ " : "⚠️  ") + resumen);
+            if (!resumen.isCompleto()) {
+                System.out.println("💡 Vuelva a ejecutar el proceso con la misma fecha para continuar desde el punto de control.");
+            }
+            System.exit(resumen.isCompleto() ? 0 : 1);
+        } catch (ClienteDAOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String valor(String arg) {
+        return arg.substring(arg.indexOf('=') + 1).trim();
+    }
+}
@@ -0,0 +1,185 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.service.CalculadoraCuotas;
+import com.financierasolandino.service.CalculadoraCuotasCentavos;
+import com.financierasolandino.util.FormatoMoneda;
+import com.financierasolandino.validation.ReglasValidacion;
+import com.financierasolandino.validation.ValidadorPrestamo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Verifica que {@link CalculadoraCuotasCentavos} dé exactamente el mismo cronograma que {@link CalculadoraCuotas}
+ * para préstamos al azar dentro de los rangos de los préstamos personales e hipotecarios. No usa la base de datos:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.VerificacionCalculadora -Dexec.args="--prestamos=200000"
+ * </pre>
+ * Compara todos los campos de cada cuota y el saldo pendiente de saldoPendienteCentavos contra el monto menos el
+ * capital amortizado por el cronograma en BigDecimal. La mitad de los préstamos usa la tasa del producto y la otra
+ * mitad una tasa al azar con hasta 4 decimales; uno de cada cuatro montos termina en medio centavo para ejercitar el
+ * redondeo. Opciones: --prestamos=N (50000 por defecto), --semilla=N para repetir una corrida y --detalle para
+ * imprimir todas las diferencias, no solo las primeras 20.
+ * Termina con código 0 si todo coincide, 1 si hay alguna diferencia y 2 si los argumentos son inválidos.
+ * Con menos préstamos y una semilla fija, la misma comparación corre en las pruebas (CalculadoraCuotasCentavosTest).
+ */
+public class VerificacionCalculadora {
+    private static final int PRESTAMOS_POR_DEFECTO = 50_000;
+    private static final int DIFERENCIAS_INFORMADAS = 20;
+    private static final double[] TASAS_HIPOTECARIO = {9.50, 12.50};
+    private static final LocalDate PRIMERA_FECHA = LocalDate.of(2000, 1, 1);
+    private static final int DIAS_DE_FECHAS = 365 * 40;
+
+    private final boolean detalle;
+    private long diferencias;
+
+    private VerificacionCalculadora(boolean detalle) {
+        this.detalle = detalle;
+    }
+
+    public static void main(String[] args) {
+        int prestamos = PRESTAMOS_POR_DEFECTO;
+        long semilla = System.nanoTime();
+        boolean detalle = false;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--prestamos=")) {
+                    prestamos = Integer.parseInt(arg.substring("--prestamos=".length()).trim());
+                    if (prestamos <= 0) {
+                        throw new IllegalArgumentException("La cantidad de préstamos debe ser positiva.");
+                    }
+                } else if (arg.startsWith("--semilla=")) {
+                    semilla = Long.parseLong(arg.substring("--semilla=".length()).trim());
+                } else if (arg.equals("--detalle")) {
+                    detalle = true;
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println("Uso: VerificacionCalculadora [--prestamos=N] [--semilla=N] [--detalle]");
+            System.exit(2);
+            return;
+        }
+
+        VerificacionCalculadora verificacion = new VerificacionCalculadora(detalle);
+        SplittableRandom azar = new SplittableRandom(semilla);
+        long inicio = System.nanoTime();
+        long cuotas = 0;
+        for (int i = 0; i < prestamos; i++) {
+            cuotas += verificacion.verificarPrestamo("verif-" + i, azar);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("%d préstamos y %d cuotas comparados en %.1f s (semilla %d)%n", prestamos, cuotas, segundos,
+                semilla);
+        if (verificacion.diferencias == 0) {
+            System.out.println("✅ Las dos calculadoras dan el mismo cronograma y el mismo saldo pendiente.");
+        } else {
+            System.out.println("⚠️  " + verificacion.diferencias + " diferencias.");
+        }
+        System.exit(verificacion.diferencias == 0 ? 0 : 1);
+    }
+
+    /**
+     * @return La cantidad de cuotas comparadas.
+     */
+    private int verificarPrestamo(String idPrestamo, SplittableRandom azar) {
+        boolean personal = azar.nextBoolean();
+        int numeroCuotas = personal
+                ? azar.nextInt(ReglasValidacion.MIN_CUOTAS_PERSONAL, ReglasValidacion.MAX_CUOTAS_PERSONAL + 1)
+                : azar.nextInt(ReglasValidacion.MIN_CUOTAS_HIPOTECARIO, ReglasValidacion.MAX_CUOTAS_HIPOTECARIO + 1);
+        long centavosMinimos = (long) (personal ? ReglasValidacion.MONTO_MIN_PERSONAL : ReglasValidacion.MONTO_MIN_HIPOTECARIO) * 100;
+        long centavosMaximos = (long) (personal ? ReglasValidacion.MONTO_MAX_PERSONAL : ReglasValidacion.MONTO_MAX_HIPOTECARIO) * 100;
+        double monto = azar.nextLong(centavosMinimos, centavosMaximos + 1) / 100.0;
+        if (azar.nextInt(4) == 0) {
+            monto += 0.005;
+        }
+        double tasa;
+        if (azar.nextBoolean()) {
+            tasa = personal ? ValidadorPrestamo.obtenerTasaPersonal(numeroCuotas)
+                    : TASAS_HIPOTECARIO[azar.nextInt(TASAS_HIPOTECARIO.length)];
+        } else {
+            tasa = azar.nextLong(1, 1_500_001) / 10_000.0;
+        }
+        LocalDate fechaCreacion = PRIMERA_FECHA.plusDays(azar.nextInt(DIAS_DE_FECHAS));
+        String prestamo = idPrestamo + " (monto " + monto + ", tasa " + tasa + ", " + numeroCuotas + " cuotas, " +
+                fechaCreacion + ")";
+
+        List<Cuota> esperadas;
+        List<Cuota> obtenidas;
+        try {
+            esperadas = CalculadoraCuotas.calcularCuota(idPrestamo, monto, tasa, numeroCuotas, fechaCreacion);
+        } catch (RuntimeException e) {
+            informar(prestamo, "CalculadoraCuotas falló: " + e.getMessage());
+            return 0;
+        }
+        try {
+            obtenidas = CalculadoraCuotasCentavos.calcularCuota(idPrestamo, monto, tasa, numeroCuotas, fechaCreacion);
+        } catch (RuntimeException e) {
+            informar(prestamo, "CalculadoraCuotasCentavos falló: " + e.getMessage());
+            return 0;
+        }
+        if (esperadas.size() != obtenidas.size()) {
+            informar(prestamo, esperadas.size() + " cuotas esperadas, " + obtenidas.size() + " obtenidas");
+            return 0;
+        }
+        for (int i = 0; i < esperadas.size(); i++) {
+            compararCuota(prestamo, esperadas.get(i), obtenidas.get(i));
+        }
+
+        long centavosMonto = FormatoMoneda.aCentavos(monto);
+        long tasaDiezMilesimas = CalculadoraCuotasCentavos.aDiezMilesimas(tasa);
+        int[] pagadas = {0, 1, azar.nextInt(numeroCuotas + 1), numeroCuotas - 1, numeroCuotas};
+        for (int cuotasPagadas : pagadas) {
+            BigDecimal saldo = new BigDecimal(monto).setScale(2, RoundingMode.HALF_UP);
+            for (int i = 0; i < cuotasPagadas; i++) {
+                saldo = saldo.subtract(BigDecimal.valueOf(esperadas.get(i).getCapitalAmortizado()));
+            }
+            long esperado = saldo.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            long obtenido = CalculadoraCuotasCentavos.saldoPendienteCentavos(centavosMonto, tasaDiezMilesimas,
+                    numeroCuotas, cuotasPagadas);
+            if (esperado != obtenido) {
+                informar(prestamo, "saldo tras " + cuotasPagadas + " cuotas: " + esperado + " centavos esperados, " +
+                        obtenido + " obtenidos");
+            }
+        }
+        return esperadas.size();
+    }
+
+    private void compararCuota(String prestamo, Cuota esperada, Cuota obtenida) {
+        String cuota = "cuota " + esperada.getNumeroCuota() + ": ";
+        if (!Objects.equals(esperada.getIdPrestamo(), obtenida.getIdPrestamo())) {
+            informar(prestamo, cuota + "idPrestamo " + esperada.getIdPrestamo() + " ≠ " + obtenida.getIdPrestamo());
+        }
+        if (esperada.getNumeroCuota() != obtenida.getNumeroCuota()) {
+            informar(prestamo, cuota + "numeroCuota ≠ " + obtenida.getNumeroCuota());
+        }
+        if (Double.compare(esperada.getMontoCuota(), obtenida.getMontoCuota()) != 0) {
+            informar(prestamo, cuota + "montoCuota " + esperada.getMontoCuota() + " ≠ " + obtenida.getMontoCuota());
+        }
+        if (Double.compare(esperada.getTasaAplicada(), obtenida.getTasaAplicada()) != 0) {
+            informar(prestamo, cuota + "tasaAplicada " + esperada.getTasaAplicada() + " ≠ " + obtenida.getTasaAplicada());
+        }
+        if (!Objects.equals(esperada.getFechaVencimiento(), obtenida.getFechaVencimiento())) {
+            informar(prestamo, cuota + "fechaVencimiento " + esperada.getFechaVencimiento() + " ≠ " +
+                    obtenida.getFechaVencimiento());
+        }
+        if (Double.compare(esperada.getCapitalAmortizado(), obtenida.getCapitalAmortizado()) != 0) {
+            informar(prestamo, cuota + "capitalAmortizado " + esperada.getCapitalAmortizado() + " ≠ " +
+                    obtenida.getCapitalAmortizado());
+        }
+    }
+
+    private void informar(String prestamo, String diferencia) {
+        diferencias++;
+        if (detalle || diferencias <= DIFERENCIAS_INFORMADAS) {
+            System.out.println("⚠️  " + prestamo + ": " + diferencia);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.ResumenPrestamoDAO;
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.diario.ReproduccionDiario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Reproduce el diario de pagos y compara los saldos, estados y penalidades que resultan con los de la base:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.VerificacionDiario -Dexec.args="--hilos=4"
+ * </pre>
+ * Opciones: --archivo=ruta (por defecto, el diario configurado en db.diario.archivo), --fecha=AAAA-MM-DD (fecha a
+ * la que se evalúa la mora; por defecto, hoy), --hilos=N y --detalle (imprime todas las diferencias, no solo las
+ * primeras).
+ * Termina con código 0 si el diario coincide con la base, 1 si hay diferencias, líneas inválidas o errores y 2 si
+ * los argumentos son inválidos.
+ */
+public class VerificacionDiario {
+    private static final int HILOS_POR_DEFECTO = 4;
+    private static final int DIFERENCIAS_INFORMADAS = 20;
+
+    public static void main(String[] args) {
+        Path archivo = null;
+        LocalDate fecha = LocalDate.now();
+        int hilos = HILOS_POR_DEFECTO;
+        boolean detalle = false;
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--archivo=")) {
+                    archivo = Path.of(valor(arg));
+                } else if (arg.startsWith("--fecha=")) {
+                    fecha = LocalDate.parse(valor(arg));
+                } else if (arg.startsWith("--hilos=")) {
+                    hilos = Integer.parseInt(valor(arg));
+                } else if (arg.equals("--detalle")) {
+                    detalle = true;
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+                }
+            }
+            if (hilos <= 0) {
+                throw new IllegalArgumentException("--hilos debe ser positivo.");
+            }
+            if (archivo == null) {
+                archivo = ConexionDB.getArchivoDiario();
+                if (archivo == null) {
+                    throw new IllegalArgumentException("El diario está desactivado (db.diario.archivo vacío); indique --archivo.");
+                }
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            System.err.println("❌ Argumento inválido: " + e.getMessage());
+            System.err.println("Uso: VerificacionDiario [--archivo=ruta] [--fecha=AAAA-MM-DD] [--hilos=N] [--detalle]");
+            System.exit(2);
+            return;
+        }
+        if (!Files.isRegularFile(archivo)) {
+            System.err.println("❌ No existe el diario " + archivo);
+            System.exit(1);
+            return;
+        }
+
+        System.out.println("📒 Reproduciendo " + archivo + " con " + hilos + " hilos (mora al " + fecha + ")...");
+        ReproduccionDiario.Resultado resultado;
+        try {
+            resultado = new ReproduccionDiario(new ResumenPrestamoDAO(), hilos).reproducir(archivo, fecha);
+        } catch (IOException | ClienteDAOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        for (String linea : resultado.getDetalleLineasInvalidas()) {
+            System.out.println("⚠️  Línea inválida, " + linea);
+        }
+        List<ReproduccionDiario.Discrepancia> discrepancias = resultado.getDiscrepancias();
+        int mostradas = detalle ? discrepancias.size() : Math.min(discrepancias.size(), DIFERENCIAS_INFORMADAS);
+        for (int i = 0; i < mostradas; i++) {
+            System.out.println("⚠️  " + discrepancias.get(i));
+        }
+        if (mostradas < discrepancias.size()) {
+            System.out.println("   ... y " + (discrepancias.size() - mostradas) + " diferencias más (use --detalle).");
+        }
+        System.out.println((resultado.isConsistente() ? "✅ " : "⚠️  ") + resultado);
+        System.exit(resultado.isConsistente() ? 0 : 1);
+    }
+
+    private static String valor(String arg) {
+        return arg.substring(arg.indexOf('=') + 1).trim();
+    }
+}
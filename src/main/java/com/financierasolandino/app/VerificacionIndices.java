@@ -0,0 +1,62 @@
+package com.financierasolandino.app;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.ConsultasFrecuentes;
+import com.financierasolandino.dao.ConsultasFrecuentes.PlanConsulta;
+
+import java.util.List;
+
+/**
+ * Muestra el plan de ejecución de las consultas frecuentes de los DAO y verifica que ninguna recorra una tabla
+ * completa. Aplica las migraciones pendientes antes de analizar, como cualquier otro acceso a la base:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.financierasolandino.app.VerificacionIndices -Dexec.args="--detalle"
+ * </pre>
+ * Con --detalle imprime el plan completo de cada consulta.
+ * Termina con código 0 si todas las consultas usan índices, 1 si alguna recorre una tabla completa o falla
+ * la conexión y 2 si los argumentos son inválidos. Contra la base embebida, la misma comprobación corre en las
+ * pruebas (ConsultasFrecuentesTest).
+ */
+public class VerificacionIndices {
+
+    public static void main(String[] args) {
+        boolean detalle = false;
+        for (String arg : args) {
+            if (arg.equals("--detalle")) {
+                detalle = true;
+            } else {
+                System.err.println("❌ Opción desconocida: " + arg);
+                System.err.println("Uso: VerificacionIndices [--detalle]");
+                System.exit(2);
+                return;
+            }
+        }
+
+        List<PlanConsulta> planes;
+        try {
+            planes = new ConsultasFrecuentes().analizar();
+        } catch (ClienteDAOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        int conRecorrido = 0;
+        for (PlanConsulta plan : planes) {
+            if (plan.usaIndices()) {
+                System.out.println("✅ " + plan.getNombre());
+            } else {
+                conRecorrido++;
+                System.out.println("⚠️  " + plan.getNombre() + ": recorre completa " +
+                        String.join(", ", plan.getTablasRecorridas()));
+            }
+            if (detalle || !plan.usaIndices()) {
+                System.out.println(plan.getPlan().replaceAll("(?m)^", "      "));
+            }
+        }
+        System.out.println(conRecorrido == 0
+                ? "✅ Las " + planes.size() + " consultas frecuentes usan índices."
+                : "⚠️  " + conRecorrido + " de " + planes.size() + " consultas recorren tablas completas.");
+        System.exit(conRecorrido == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,204 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.model.Pago;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria, compartida por todos los DAO del proceso, con el cronograma, los pagos y las penalidades
+ * de los préstamos consultados recientemente. Tiene un tamaño máximo (db.cache.maximoPrestamos) y descarta
+ * el préstamo usado hace más tiempo (LRU).
+ * <p>
+ * El cronograma no cambia después de crearse, por lo que solo se invalida cuando CuotaDAO escribe cuotas.
+ * Los pagos se invalidan al registrar un pago y las penalidades al insertar una penalidad.
+ * Un valor leído de la base mientras ocurre una invalidación no se guarda, para no volver a cachear datos viejos.
+ * Los cambios hechos por otros procesos (por ejemplo, el proceso nocturno de mora) no se ven hasta que el
+ * préstamo sale de la caché.
+ */
+public final class CachePrestamos {
+    private static final CachePrestamos INSTANCIA = new CachePrestamos(ConexionDB.getTamanoCachePrestamos());
+
+    private final int maximoPrestamos;
+    private final LinkedHashMap<String, Entrada> entradas;
+    // Se incrementa en cada invalidación; una carga que empezó antes no se guarda
+    private long generacion;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long invalidaciones;
+
+    private static class Entrada {
+        private List<Cuota> cuotas;
+        private List<Pago> pagos;
+        private Map<Integer, Double> penalidades;
+
+        boolean vacia() {
+            return cuotas == null && pagos == null && penalidades == null;
+        }
+    }
+
+    CachePrestamos(int maximoPrestamos) {
+        this.maximoPrestamos = maximoPrestamos;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> masAntigua) {
+                if (size() > CachePrestamos.this.maximoPrestamos) {
+                    desalojos++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static CachePrestamos getInstancia() {
+        return INSTANCIA;
+    }
+
+    List<Cuota> obtenerCuotas(String idPrestamo, Supplier<List<Cuota>> cargador) {
+        synchronized (this) {
+            Entrada entrada = entradas.get(idPrestamo);
+            if (entrada != null && entrada.cuotas != null) {
+                aciertos++;
+                return entrada.cuotas;
+            }
+            fallos++;
+        }
+        long generacionInicial = generacion();
+        List<Cuota> cuotas = List.copyOf(cargador.get());
+        // Un cronograma vacío puede ser un préstamo cuyas cuotas todavía no se confirmaron: no se guarda
+        if (!cuotas.isEmpty()) {
+            synchronized (this) {
+                if (generacion == generacionInicial) {
+                    entrada(idPrestamo).cuotas = cuotas;
+                }
+            }
+        }
+        return cuotas;
+    }
+
+    List<Pago> obtenerPagos(String idPrestamo, Supplier<List<Pago>> cargador) {
+        synchronized (this) {
+            Entrada entrada = entradas.get(idPrestamo);
+            if (entrada != null && entrada.pagos != null) {
+                aciertos++;
+                return entrada.pagos;
+            }
+            fallos++;
+        }
+        long generacionInicial = generacion();
+        List<Pago> pagos = List.copyOf(cargador.get());
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entrada(idPrestamo).pagos = pagos;
+            }
+        }
+        return pagos;
+    }
+
+    /**
+     * Penalidades del préstamo por número de cuota.
+     */
+    Map<Integer, Double> obtenerPenalidades(String idPrestamo, Supplier<Map<Integer, Double>> cargador) {
+        synchronized (this) {
+            Entrada entrada = entradas.get(idPrestamo);
+            if (entrada != null && entrada.penalidades != null) {
+                aciertos++;
+                return entrada.penalidades;
+            }
+            fallos++;
+        }
+        long generacionInicial = generacion();
+        Map<Integer, Double> penalidades = Map.copyOf(cargador.get());
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entrada(idPrestamo).penalidades = penalidades;
+            }
+        }
+        return penalidades;
+    }
+
+    public synchronized void invalidarCuotas(String idPrestamo) {
+        generacion++;
+        Entrada entrada = entradas.get(idPrestamo);
+        if (entrada != null && entrada.cuotas != null) {
+            entrada.cuotas = null;
+            invalidaciones++;
+            quitarSiVacia(idPrestamo, entrada);
+        }
+    }
+
+    public synchronized void invalidarPagos(String idPrestamo) {
+        generacion++;
+        Entrada entrada = entradas.get(idPrestamo);
+        if (entrada != null && entrada.pagos != null) {
+            entrada.pagos = null;
+            invalidaciones++;
+            quitarSiVacia(idPrestamo, entrada);
+        }
+    }
+
+    public synchronized void invalidarPenalidades(String idPrestamo) {
+        generacion++;
+        Entrada entrada = entradas.get(idPrestamo);
+        if (entrada != null && entrada.penalidades != null) {
+            entrada.penalidades = null;
+            invalidaciones++;
+            quitarSiVacia(idPrestamo, entrada);
+        }
+    }
+
+    /**
+     * Invalida las penalidades de todos los préstamos con idPrestamo entre desde y hasta (inclusive).
+     */
+    public synchronized void invalidarPenalidades(String desde, String hasta) {
+        generacion++;
+        Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<String, Entrada> elemento = iterador.next();
+            Entrada entrada = elemento.getValue();
+            if (entrada.penalidades != null && elemento.getKey().compareTo(desde) >= 0 && elemento.getKey().compareTo(hasta) <= 0) {
+                entrada.penalidades = null;
+                invalidaciones++;
+                if (entrada.vacia()) {
+                    iterador.remove();
+                }
+            }
+        }
+    }
+
+    public synchronized void limpiar() {
+        generacion++;
+        invalidaciones += entradas.size();
+        entradas.clear();
+    }
+
+    public synchronized EstadisticasCache obtenerEstadisticas() {
+        return new EstadisticasCache(entradas.size(), maximoPrestamos, aciertos, fallos, desalojos, invalidaciones);
+    }
+
+    private synchronized long generacion() {
+        return generacion;
+    }
+
+    private Entrada entrada(String idPrestamo) {
+        Entrada entrada = entradas.get(idPrestamo);
+        if (entrada == null) {
+            entrada = new Entrada();
+            entradas.put(idPrestamo, entrada);
+        }
+        return entrada;
+    }
+
+    private void quitarSiVacia(String idPrestamo, Entrada entrada) {
+        if (entrada.vacia()) {
+            entradas.remove(idPrestamo);
+        }
+    }
+}
@@ -5,15 +5,24 @@ import com.financierasolandino.model.Cliente;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class ClienteDAO implements DAO<Cliente, String> {
     private static final String SQL_VERIFICAR_CLIENTE = "SELECT idCliente FROM clientes WHERE idCliente = ?";
     private static final String SQL_INSERTAR_CLIENTE = "INSERT INTO clientes (idCliente, nombre, direccion, telefono, correoElectronico) VALUES (?, ?, ?, ?, ?)";
-    private static final String SQL_OBTENER_CLIENTE = "SELECT * FROM clientes WHERE idCliente = ?";
+    static final String SQL_OBTENER_CLIENTE = "SELECT * FROM clientes WHERE idCliente = ?";
     private static final String SQL_ACTUALIZAR_CLIENTE = "UPDATE clientes SET direccion = ?, telefono = ?, correoElectronico = ? WHERE idCliente = ?";
-    private static final String SQL_LISTAR_CLIENTES = "SELECT * FROM clientes";
+    private static final String SQL_CLIENTES_EXISTENTES = "SELECT idCliente FROM clientes WHERE idCliente IN ";
+    private static final int TAMANO_LOTE = 500;
+    private static final String SQL_LISTAR_CLIENTES = "SELECT * FROM clientes ORDER BY idCliente";
+    static final String SQL_LISTAR_PAGINA_CLIENTES =
+            "SELECT * FROM clientes WHERE idCliente > ? ORDER BY idCliente LIMIT ?";
 
     /**
      * Verifica si un cliente existe en la base de datos según su ID.
@@ -61,12 +70,105 @@ public class ClienteDAO implements DAO<Cliente, String> {
             stmt.setString(4, cliente.getTelefono());
             stmt.setString(5, cliente.getCorreoElectronico());
             stmt.executeUpdate();
+            IndiceClientes.getInstancia().actualizar(cliente);
             return true;
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al registrar el cliente con DNI: " + cliente.getIdCliente(), e);
         }
     }
 
+    /**
+     * Registra varios clientes en una sola transacción, con una consulta de existencia y una inserción en lote
+     * por cada bloque de TAMANO_LOTE clientes. Los clientes cuyo DNI ya está registrado no se insertan; si un DNI
+     * se repite en la lista se inserta solo la primera aparición.
+     * @param clientes Los clientes a registrar.
+     * @return Los clientes de la lista que no se insertaron.
+     * @throws ClienteDAOException Si hay un error en la base de datos; en ese caso no se registra ningún cliente.
+     */
+    public List<Cliente> registrarClientes(List<Cliente> clientes) throws ClienteDAOException {
+        List<Cliente> omitidos = new ArrayList<>();
+        if (clientes.isEmpty()) {
+            return omitidos;
+        }
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+            List<Cliente> registrados = new ArrayList<>(clientes.size());
+            for (int inicio = 0; inicio < clientes.size(); inicio += TAMANO_LOTE) {
+                List<Cliente> bloque = clientes.subList(inicio, Math.min(inicio + TAMANO_LOTE, clientes.size()));
+                Map<String, Cliente> nuevos = new LinkedHashMap<>();
+                for (Cliente cliente : bloque) {
+                    if (nuevos.putIfAbsent(cliente.getIdCliente(), cliente) != null) {
+                        omitidos.add(cliente);
+                    }
+                }
+                // Incluye los insertados en bloques anteriores, visibles dentro de la misma transacción
+                for (String existente : obtenerExistentes(conn, nuevos.keySet())) {
+                    omitidos.add(nuevos.remove(existente));
+                }
+                if (nuevos.isEmpty()) {
+                    continue;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERTAR_CLIENTE)) {
+                    for (Cliente cliente : nuevos.values()) {
+                        stmt.setString(1, cliente.getIdCliente());
+                        stmt.setString(2, cliente.getNombre());
+                        stmt.setString(3, cliente.getDireccion());
+                        stmt.setString(4, cliente.getTelefono());
+                        stmt.setString(5, cliente.getCorreoElectronico());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                registrados.addAll(nuevos.values());
+            }
+            conn.commit();
+            for (Cliente cliente : registrados) {
+                IndiceClientes.getInstancia().actualizar(cliente);
+            }
+            return omitidos;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("❌ Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("❌ Error al registrar los clientes en lote: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("❌ Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private List<String> obtenerExistentes(Connection conn, Set<String> idsClientes) throws SQLException {
+        List<String> existentes = new ArrayList<>();
+        if (idsClientes.isEmpty()) {
+            return existentes;
+        }
+        String sql = SQL_CLIENTES_EXISTENTES + "(" + String.join(", ", Collections.nCopies(idsClientes.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            for (String idCliente : idsClientes) {
+                stmt.setString(indice++, idCliente);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existentes.add(rs.getString(1));
+                }
+            }
+        }
+        return existentes;
+    }
+
     /**
      * Obtiene un cliente de la base de datos según su ID.
      * @param idCliente El identificador único del cliente.
@@ -83,13 +185,7 @@ public class ClienteDAO implements DAO<Cliente, String> {
             stmt.setString(1, idCliente);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return Optional.of(new Cliente(
-                        rs.getString("idCliente"),
-                        rs.getString("nombre"),
-                        rs.getString("direccion"),
-                        rs.getString("telefono"),
-                        rs.getString("correoElectronico")
-                ));
+                return Optional.of(mapearCliente(rs));
             }
             return Optional.empty();
         } catch (SQLException e) {
@@ -130,6 +226,7 @@ public class ClienteDAO implements DAO<Cliente, String> {
             stmt.setString(3, cliente.getCorreoElectronico());
             stmt.setString(4, cliente.getIdCliente());
             stmt.executeUpdate();
+            IndiceClientes.getInstancia().actualizarContacto(cliente);
             return true;
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al editar el cliente con DNI: " + cliente.getIdCliente(), e);
@@ -137,27 +234,74 @@ public class ClienteDAO implements DAO<Cliente, String> {
     }
 
     /**
-     * Devuelve una lista con todos los clientes registrados en la base de datos.
+     * Devuelve una lista con todos los clientes registrados en la base de datos, ordenados por DNI.
+     * Con muchos clientes conviene usar {@link #listarClientes(String, int)} o {@link #forEachCliente(Consumer)}.
      * @return Una lista de objetos Cliente.
      * @throws ClienteDAOException Si ocurre un error al consultar la base de datos.
      */
     public List<Cliente> listarClientes() throws ClienteDAOException {
         List<Cliente> clientes = new ArrayList<>();
+        forEachCliente(clientes::add);
+        return clientes;
+    }
+
+    /**
+     * Devuelve una página de clientes ordenados por DNI. La página siguiente se pide con el DNI del último
+     * cliente recibido, de modo que cada consulta recorre el índice desde esa posición en lugar de saltear filas.
+     * @param despuesDe DNI del último cliente de la página anterior, o null para la primera página.
+     * @param tamanoPagina Cantidad máxima de clientes a devolver.
+     * @return Los clientes de la página; si tiene menos de tamanoPagina elementos es la última.
+     * @throws ClienteDAOException Si ocurre un error al consultar la base de datos.
+     */
+    public List<Cliente> listarClientes(String despuesDe, int tamanoPagina) throws ClienteDAOException {
+        if (tamanoPagina <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        List<Cliente> clientes = new ArrayList<>(tamanoPagina);
         try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_LISTAR_CLIENTES);
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                clientes.add(new Cliente(
-                        rs.getString("idCliente"),
-                        rs.getString("nombre"),
-                        rs.getString("direccion"),
-                        rs.getString("telefono"),
-                        rs.getString("correoElectronico")
-                ));
+             PreparedStatement stmt = conn.prepareStatement(SQL_LISTAR_PAGINA_CLIENTES)) {
+            stmt.setString(1, despuesDe != null ? despuesDe : "");
+            stmt.setInt(2, tamanoPagina);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    clientes.add(mapearCliente(rs));
+                }
             }
             return clientes;
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al listar los clientes", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recorre todos los clientes ordenados por DNI con un cursor de solo avance, sin cargarlos en memoria.
+     * El consumidor se ejecuta mientras la conexión está abierta, por lo que no debe usar otra conexión del pool
+     * por cada cliente.
+     * @param accion Acción a ejecutar con cada cliente.
+     * @throws ClienteDAOException Si ocurre un error al consultar la base de datos.
+     */
+    public void forEachCliente(Consumer<Cliente> accion) throws ClienteDAOException {
+        try (Connection conn = ConexionDB.conectar();
+             PreparedStatement stmt = conn.prepareStatement(SQL_LISTAR_CLIENTES,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(ConexionDB.getTamanoFetchExportacion());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accion.accept(mapearCliente(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new ClienteDAOException("❌ Error al listar los clientes", e);
+        }
+    }
+
+    private Cliente mapearCliente(ResultSet rs) throws SQLException {
+        return new Cliente(
+                rs.getString("idCliente"),
+                rs.getString("nombre"),
+                rs.getString("direccion"),
+                rs.getString("telefono"),
+                rs.getString("correoElectronico")
+        );
+    }
+}
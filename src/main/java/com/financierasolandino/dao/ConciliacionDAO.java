@@ -0,0 +1,172 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso a datos de la conciliación de saldos: lee por rangos de idPrestamo las condiciones de cada préstamo, su
+ * saldo y estado registrados y las cuotas pagadas con el capital amortizado guardado. Solo lee; las diferencias las
+ * decide {@link com.financierasolandino.service.ConciliacionSaldos}.
+ */
+public class ConciliacionDAO {
+    static final String SQL_PRESTAMOS_RANGO =
+            "SELECT idPrestamo, monto, tasaInteres, numeroCuotas, saldo_pendiente, estado FROM prestamos " +
+                    "WHERE idPrestamo BETWEEN ? AND ? ORDER BY idPrestamo";
+    // El rango se repite sobre cuotas para que el optimizador no la recorra completa al armar el join
+    static final String SQL_CUOTAS_PAGADAS_RANGO =
+            "SELECT pg.idPrestamo, pg.numeroCuota, cu.capitalAmortizado FROM pagos pg " +
+                    "JOIN cuotas cu ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
+                    "WHERE pg.idPrestamo BETWEEN ? AND ? AND cu.idPrestamo BETWEEN ? AND ? " +
+                    "ORDER BY pg.idPrestamo, pg.numeroCuota";
+
+    private final ResumenPrestamoDAO resumenDAO = new ResumenPrestamoDAO();
+
+    /**
+     * Condiciones, saldo registrado y cuotas pagadas de un préstamo, con los importes en centavos.
+     */
+    public static class PrestamoConciliable {
+        private final String idPrestamo;
+        private final long centavosMonto;
+        private final long tasaDiezMilesimas;
+        private final int numeroCuotas;
+        private final long centavosSaldo;
+        private final Prestamo.EstadoPrestamo estado;
+        private int cuotasPagadas;
+        private int[] numerosPagados = new int[0];
+        private long[] centavosCapitalPagado = new long[0];
+
+        PrestamoConciliable(String idPrestamo, long centavosMonto, long tasaDiezMilesimas, int numeroCuotas,
+                            long centavosSaldo, Prestamo.EstadoPrestamo estado) {
+            this.idPrestamo = idPrestamo;
+            this.centavosMonto = centavosMonto;
+            this.tasaDiezMilesimas = tasaDiezMilesimas;
+            this.numeroCuotas = numeroCuotas;
+            this.centavosSaldo = centavosSaldo;
+            this.estado = estado;
+        }
+
+        void agregarPago(int numeroCuota, long centavosCapital) {
+            if (cuotasPagadas == numerosPagados.length) {
+                int capacidad = Math.max(4, cuotasPagadas * 2);
+                numerosPagados = Arrays.copyOf(numerosPagados, capacidad);
+                centavosCapitalPagado = Arrays.copyOf(centavosCapitalPagado, capacidad);
+            }
+            numerosPagados[cuotasPagadas] = numeroCuota;
+            centavosCapitalPagado[cuotasPagadas] = centavosCapital;
+            cuotasPagadas++;
+        }
+
+        public String getIdPrestamo() {
+            return idPrestamo;
+        }
+
+        public long getCentavosMonto() {
+            return centavosMonto;
+        }
+
+        /**
+         * @return La tasa nominal anual en diezmilésimas de punto porcentual (95,5% → 955000).
+         */
+        public long getTasaDiezMilesimas() {
+            return tasaDiezMilesimas;
+        }
+
+        public int getNumeroCuotas() {
+            return numeroCuotas;
+        }
+
+        public long getCentavosSaldo() {
+            return centavosSaldo;
+        }
+
+        public Prestamo.EstadoPrestamo getEstado() {
+            return estado;
+        }
+
+        public int getCuotasPagadas() {
+            return cuotasPagadas;
+        }
+
+        /**
+         * @param i Posición entre las cuotas pagadas, de 0 a getCuotasPagadas() - 1, en orden de número de cuota.
+         */
+        public int getNumeroPagado(int i) {
+            return numerosPagados[i];
+        }
+
+        /**
+         * @return El capital amortizado guardado en la cuota pagada de la posición i, en centavos.
+         */
+        public long getCentavosCapitalPagado(int i) {
+            return centavosCapitalPagado[i];
+        }
+    }
+
+    /**
+     * Divide todos los préstamos, en cualquier estado, en rangos de a lo sumo tamanoParticion préstamos.
+     * @throws ClienteDAOException Si ocurre un error al consultar los préstamos.
+     */
+    public List<MoraDAO.Particion> obtenerParticiones(int tamanoParticion) throws ClienteDAOException {
+        return resumenDAO.obtenerParticiones(tamanoParticion);
+    }
+
+    /**
+     * Lee los préstamos de un rango con sus cuotas pagadas, con dos consultas por rango de clave primaria.
+     * @return Los préstamos del rango, ordenados por idPrestamo.
+     * @throws ClienteDAOException Si ocurre un error al consultar la base.
+     */
+    public List<PrestamoConciliable> leerParticion(MoraDAO.Particion particion) throws ClienteDAOException {
+        List<PrestamoConciliable> prestamos = new ArrayList<>(particion.getCantidad());
+        Map<String, PrestamoConciliable> porId = new HashMap<>(particion.getCantidad() * 2);
+        try (Connection conn = ConexionDB.conectar()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_PRESTAMOS_RANGO)) {
+                stmt.setString(1, particion.getDesde());
+                stmt.setString(2, particion.getHasta());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        PrestamoConciliable prestamo = new PrestamoConciliable(
+                                rs.getString("idPrestamo"),
+                                FormatoMoneda.aCentavos(rs.getBigDecimal("monto")),
+                                rs.getBigDecimal("tasaInteres").setScale(4, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                                rs.getInt("numeroCuotas"),
+                                FormatoMoneda.aCentavos(rs.getBigDecimal("saldo_pendiente")),
+                                Prestamo.EstadoPrestamo.valueOf(rs.getString("estado")));
+                        prestamos.add(prestamo);
+                        porId.put(prestamo.getIdPrestamo(), prestamo);
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CUOTAS_PAGADAS_RANGO)) {
+                stmt.setString(1, particion.getDesde());
+                stmt.setString(2, particion.getHasta());
+                stmt.setString(3, particion.getDesde());
+                stmt.setString(4, particion.getHasta());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        PrestamoConciliable prestamo = porId.get(rs.getString("idPrestamo"));
+                        if (prestamo != null) {
+                            prestamo.agregarPago(rs.getInt("numeroCuota"),
+                                    FormatoMoneda.aCentavos(rs.getBigDecimal("capitalAmortizado")));
+                        }
+                    }
+                }
+            }
+            return prestamos;
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al leer los préstamos " + particion.getDesde() + " a " +
+                    particion.getHasta() + " para conciliar: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Consultas de lectura más frecuentes de los DAO, con parámetros de ejemplo, para revisar sus planes de ejecución
+ * con EXPLAIN. Cada consulta debe resolverse con la clave primaria o con un índice de db/migraciones; un recorrido
+ * completo de tabla indica que falta un índice o que la consulta cambió sin actualizar las migraciones.
+ */
+public class ConsultasFrecuentes {
+    // H2 marca el recorrido completo como /* PUBLIC.TABLA.tableScan */
+    private static final Pattern RECORRIDO_COMPLETO_H2 = Pattern.compile("(\\w+)\\.tableScan");
+    private static final String ID_CLIENTE = "12345678";
+    private static final String ID_PRESTAMO = "00000000-0000-0000-0000-000000000000";
+
+    private final Map<String, Object[]> consultas = new LinkedHashMap<>();
+
+    /**
+     * Resultado del EXPLAIN de una consulta.
+     */
+    public static class PlanConsulta {
+        private final String nombre;
+        private final String plan;
+        private final List<String> tablasRecorridas;
+
+        PlanConsulta(String nombre, String plan, List<String> tablasRecorridas) {
+            this.nombre = nombre;
+            this.plan = plan;
+            this.tablasRecorridas = tablasRecorridas;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        /**
+         * @return Las tablas que el plan recorre completas; vacía si todas se acceden por índice.
+         */
+        public List<String> getTablasRecorridas() {
+            return tablasRecorridas;
+        }
+
+        public boolean usaIndices() {
+            return tablasRecorridas.isEmpty();
+        }
+    }
+
+    public ConsultasFrecuentes() {
+        Date hoy = Date.valueOf(LocalDate.now());
+        agregar("ClienteDAO.obtenerCliente", ClienteDAO.SQL_OBTENER_CLIENTE, ID_CLIENTE);
+        agregar("ClienteDAO.listarClientes", ClienteDAO.SQL_LISTAR_PAGINA_CLIENTES, ID_CLIENTE, 20);
+        agregar("CuotaDAO.obtenerCuotas", CuotaDAO.SQL_OBTENER_CUOTAS, ID_PRESTAMO);
+        agregar("PagoDAO.obtenerPagos", PagoDAO.SQL_OBTENER_PAGOS, ID_PRESTAMO);
+        agregar("PagoDAO.obtenerPenalidades", PagoDAO.SQL_OBTENER_PENALIDADES, ID_PRESTAMO);
+        agregar("PagoDAO.registrarPago", PagoDAO.SQL_DATOS_PAGO, ID_PRESTAMO, 1);
+        agregar("PagoDAO.obtenerHistorialPagos", PagoDAO.SQL_OBTENER_HISTORIAL_PAGOS_CON_PENALIDAD, ID_PRESTAMO);
+        agregar("PrestamoDAO.obtenerPrestamosPorCliente", PrestamoDAOImpl.SQL_OBTENER_PRESTAMOS_CLIENTE, ID_CLIENTE);
+        agregar("PrestamoDAO.obtenerInstantanea (cronograma)", PrestamoDAOImpl.SQL_INSTANTANEA_CRONOGRAMA, ID_PRESTAMO);
+        agregar("PrestamoDAO.obtenerInstantanea (pagos)", PrestamoDAOImpl.SQL_INSTANTANEA_PAGOS, ID_PRESTAMO);
+        agregar("MoraDAO.particionar", MoraDAO.SQL_PRESTAMOS_VIGENTES, "");
+        agregar("MoraDAO.procesarParticion", MoraDAO.SQL_CUOTAS_VENCIDAS, ID_PRESTAMO, ID_PRESTAMO, hoy);
+        agregar("ReporteDAO.obtenerClientesConPrestamosActivos", ReporteDAO.SQL_CLIENTES_CON_PRESTAMOS_ACTIVOS);
+        agregar("ReporteDAO.proyectarIngresos", ReporteDAO.SQL_PROYECTAR_INGRESOS, ID_PRESTAMO, hoy);
+        agregar("ReporteDAO.obtenerClientesEnMora", ReporteDAO.SQL_CLIENTES_EN_MORA, hoy);
+        agregar("ProyeccionDAO.recorrerCuotasPendientes", ProyeccionDAO.SQL_CUOTAS_PENDIENTES_CARTERA, hoy);
+        agregar("ResumenPrestamoDAO.reconstruirParticion", ResumenPrestamoDAO.SQL_RECALCULAR_RANGO,
+                hoy, hoy, ID_PRESTAMO, ID_PRESTAMO);
+        agregar("ConciliacionDAO.leerParticion (préstamos)", ConciliacionDAO.SQL_PRESTAMOS_RANGO, ID_PRESTAMO, ID_PRESTAMO);
+        agregar("ConciliacionDAO.leerParticion (cuotas pagadas)", ConciliacionDAO.SQL_CUOTAS_PAGADAS_RANGO,
+                ID_PRESTAMO, ID_PRESTAMO, ID_PRESTAMO, ID_PRESTAMO);
+    }
+
+    private void agregar(String nombre, String sql, Object... parametros) {
+        Object[] consulta = new Object[parametros.length + 1];
+        consulta[0] = sql;
+        System.arraycopy(parametros, 0, consulta, 1, parametros.length);
+        consultas.put(nombre, consulta);
+    }
+
+    /**
+     * Ejecuta EXPLAIN sobre cada consulta frecuente en la base configurada (MySQL o H2).
+     * @return Los planes, en el orden en que se registraron las consultas.
+     */
+    public List<PlanConsulta> analizar() throws ClienteDAOException {
+        List<PlanConsulta> planes = new ArrayList<>();
+        try (Connection conn = ConexionDB.conectar()) {
+            boolean esMySQL = conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            for (Map.Entry<String, Object[]> consulta : consultas.entrySet()) {
+                Object[] datos = consulta.getValue();
+                try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + datos[0])) {
+                    for (int i = 1; i < datos.length; i++) {
+                        stmt.setObject(i, datos[i]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        planes.add(esMySQL ? planMySQL(consulta.getKey(), rs) : planH2(consulta.getKey(), rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al obtener los planes de ejecución: " + e.getMessage(), e);
+        }
+        return planes;
+    }
+
+    private PlanConsulta planH2(String nombre, ResultSet rs) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        while (rs.next()) {
+            plan.append(rs.getString(1));
+        }
+        List<String> recorridas = new ArrayList<>();
+        Matcher matcher = RECORRIDO_COMPLETO_H2.matcher(plan);
+        while (matcher.find()) {
+            recorridas.add(matcher.group(1).toLowerCase());
+        }
+        return new PlanConsulta(nombre, plan.toString(), recorridas);
+    }
+
+    // En MySQL cada fila es una tabla del plan; type = ALL es un recorrido completo
+    private PlanConsulta planMySQL(String nombre, ResultSet rs) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        List<String> recorridas = new ArrayList<>();
+        ResultSetMetaData metadatos = rs.getMetaData();
+        while (rs.next()) {
+            if (plan.length() > 0) {
+                plan.append('\n');
+            }
+            for (int i = 1; i <= metadatos.getColumnCount(); i++) {
+                plan.append(i > 1 ? " | " : "").append(metadatos.getColumnLabel(i)).append('=').append(rs.getString(i));
+            }
+            if ("ALL".equalsIgnoreCase(rs.getString("type"))) {
+                recorridas.add(rs.getString("table"));
+            }
+        }
+        return new PlanConsulta(nombre, plan.toString(), recorridas);
+    }
+}
@@ -9,31 +9,128 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CuotaDAO {
     private static final String SQL_INSERTAR_CUOTA = "INSERT INTO cuotas (idPrestamo, numeroCuota, montoCuota, tasaAplicada, fechaVencimiento, capitalAmortizado) VALUES (?, ?, ?, ?, ?, ?)";
-    private static final String SQL_OBTENER_CUOTAS = "SELECT * FROM cuotas WHERE idPrestamo = ? ORDER BY numeroCuota";
+    static final String SQL_OBTENER_CUOTAS = "SELECT * FROM cuotas WHERE idPrestamo = ? ORDER BY numeroCuota";
+    private static final int TAMANO_LOTE = 500;
 
+    /**
+     * Registra una cuota y actualiza el resumen de su préstamo en la misma transacción.
+     */
     public boolean registrarCuota(Cuota cuota) throws ClienteDAOException {
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_INSERTAR_CUOTA)) {
-            stmt.setString(1, cuota.getIdPrestamo());
-            stmt.setInt(2, cuota.getNumeroCuota());
-            stmt.setBigDecimal(3, new BigDecimal(cuota.getMontoCuota()).setScale(2, RoundingMode.HALF_UP));
-            stmt.setBigDecimal(4, new BigDecimal(cuota.getTasaAplicada()).setScale(4, RoundingMode.HALF_UP));
-            stmt.setObject(5, cuota.getFechaVencimiento());
-            stmt.setBigDecimal(6, new BigDecimal(cuota.getCapitalAmortizado()).setScale(2, RoundingMode.HALF_UP));
-            int rows = stmt.executeUpdate();
-            return rows > 0;
+        return registrarCuotas(List.of(cuota));
+    }
+
+    /**
+     * Registra todas las cuotas de un cronograma con una sola conexión y en una única transacción,
+     * usando lotes JDBC, y recalcula el resumen de los préstamos afectados. Si alguna cuota falla, no se registra ninguna.
+     * @param cuotas Las cuotas a registrar.
+     * @return true si se registraron todas las cuotas.
+     * @throws ClienteDAOException Si ocurre un error al registrar las cuotas.
+     */
+    public boolean registrarCuotas(List<Cuota> cuotas) throws ClienteDAOException {
+        if (cuotas == null || cuotas.isEmpty()) {
+            return false;
+        }
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+            int registradas = registrarCuotas(conn, cuotas);
+            LocalDate hoy = LocalDate.now();
+            String anterior = null;
+            for (Cuota cuota : cuotas) {
+                if (!cuota.getIdPrestamo().equals(anterior)) {
+                    anterior = cuota.getIdPrestamo();
+                    ResumenPrestamoDAO.recalcular(conn, anterior, anterior, hoy);
+                }
+            }
+            conn.commit();
+            return registradas == cuotas.size();
         } catch (SQLException e) {
-            throw new ClienteDAOException("Error al registrar la cuota número " + cuota.getNumeroCuota() + " del préstamo " + cuota.getIdPrestamo(), e);
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("Error al registrar las cuotas del préstamo " + cuotas.get(0).getIdPrestamo() + ": " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
         }
     }
 
+    /**
+     * Inserta las cuotas en lotes sobre una conexión existente, sin confirmar la transacción.
+     * Permite que el alta del préstamo y de su cronograma compartan la misma transacción.
+     * @return Cantidad de cuotas insertadas.
+     */
+    int registrarCuotas(Connection conn, List<Cuota> cuotas) throws SQLException {
+        int registradas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERTAR_CUOTA)) {
+            int enLote = 0;
+            for (Cuota cuota : cuotas) {
+                stmt.setString(1, cuota.getIdPrestamo());
+                stmt.setInt(2, cuota.getNumeroCuota());
+                stmt.setBigDecimal(3, new BigDecimal(cuota.getMontoCuota()).setScale(2, RoundingMode.HALF_UP));
+                stmt.setBigDecimal(4, new BigDecimal(cuota.getTasaAplicada()).setScale(4, RoundingMode.HALF_UP));
+                stmt.setObject(5, cuota.getFechaVencimiento());
+                stmt.setBigDecimal(6, new BigDecimal(cuota.getCapitalAmortizado()).setScale(2, RoundingMode.HALF_UP));
+                stmt.addBatch();
+                if (++enLote == TAMANO_LOTE) {
+                    registradas += contarFilas(stmt.executeBatch());
+                    enLote = 0;
+                }
+            }
+            if (enLote > 0) {
+                registradas += contarFilas(stmt.executeBatch());
+            }
+        }
+        invalidarCache(cuotas);
+        return registradas;
+    }
+
+    private void invalidarCache(List<Cuota> cuotas) {
+        String anterior = null;
+        for (Cuota cuota : cuotas) {
+            if (!cuota.getIdPrestamo().equals(anterior)) {
+                anterior = cuota.getIdPrestamo();
+                CachePrestamos.getInstancia().invalidarCuotas(anterior);
+            }
+        }
+    }
+
+    private int contarFilas(int[] resultados) {
+        int filas = 0;
+        for (int resultado : resultados) {
+            // Con rewriteBatchedStatements el driver puede informar SUCCESS_NO_INFO en lugar del conteo
+            filas += resultado == Statement.SUCCESS_NO_INFO ? 1 : resultado;
+        }
+        return filas;
+    }
+
+    /**
+     * Devuelve el cronograma del préstamo, desde la caché si ya fue leído.
+     * La lista devuelta no se puede modificar.
+     */
     public List<Cuota> obtenerCuotas(String idPrestamo) throws ClienteDAOException {
+        return CachePrestamos.getInstancia().obtenerCuotas(idPrestamo, () -> leerCuotas(idPrestamo));
+    }
+
+    private List<Cuota> leerCuotas(String idPrestamo) throws ClienteDAOException {
         List<Cuota> cuotas = new ArrayList<>();
         try (Connection conn = ConexionDB.conectar();
              PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_CUOTAS)) {
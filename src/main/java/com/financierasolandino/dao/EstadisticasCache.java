@@ -0,0 +1,63 @@
+package com.financierasolandino.dao;
+
+/**
+ * Instantánea de las estadísticas de {@link CachePrestamos}, útil para dimensionar db.cache.maximoPrestamos.
+ */
+public class EstadisticasCache {
+    private final int prestamosEnCache;
+    private final int maximoPrestamos;
+    private final long aciertos;
+    private final long fallos;
+    private final long desalojos;
+    private final long invalidaciones;
+
+    EstadisticasCache(int prestamosEnCache, int maximoPrestamos, long aciertos, long fallos,
+                      long desalojos, long invalidaciones) {
+        this.prestamosEnCache = prestamosEnCache;
+        this.maximoPrestamos = maximoPrestamos;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+        this.invalidaciones = invalidaciones;
+    }
+
+    public int getPrestamosEnCache() {
+        return prestamosEnCache;
+    }
+
+    public int getMaximoPrestamos() {
+        return maximoPrestamos;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    public long getInvalidaciones() {
+        return invalidaciones;
+    }
+
+    /**
+     * Proporción de lecturas resueltas desde la caché (entre 0 y 1).
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché de préstamos [préstamos=%d/%d, aciertos=%d, fallos=%d, tasa de aciertos=%.1f%%, " +
+                        "desalojos=%d, invalidaciones=%d]",
+                prestamosEnCache, maximoPrestamos, aciertos, fallos, getTasaAciertos() * 100,
+                desalojos, invalidaciones);
+    }
+}
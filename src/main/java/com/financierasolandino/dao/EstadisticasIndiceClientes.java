@@ -0,0 +1,63 @@
+package com.financierasolandino.dao;
+
+/**
+ * Instantánea del tamaño de {@link IndiceClientes} y de la memoria aproximada que ocupa.
+ */
+public class EstadisticasIndiceClientes {
+    private final int clientes;
+    private final int palabras;
+    private final int telefonos;
+    private final int correos;
+    private final long memoriaEstimadaBytes;
+    private final long milisConstruccion;
+
+    EstadisticasIndiceClientes(int clientes, int palabras, int telefonos, int correos,
+                               long memoriaEstimadaBytes, long milisConstruccion) {
+        this.clientes = clientes;
+        this.palabras = palabras;
+        this.telefonos = telefonos;
+        this.correos = correos;
+        this.memoriaEstimadaBytes = memoriaEstimadaBytes;
+        this.milisConstruccion = milisConstruccion;
+    }
+
+    public int getClientes() {
+        return clientes;
+    }
+
+    /**
+     * Cantidad de palabras distintas de los nombres.
+     */
+    public int getPalabras() {
+        return palabras;
+    }
+
+    public int getTelefonos() {
+        return telefonos;
+    }
+
+    public int getCorreos() {
+        return correos;
+    }
+
+    /**
+     * Memoria aproximada de las estructuras del índice, sin contar los objetos Cliente.
+     */
+    public long getMemoriaEstimadaBytes() {
+        return memoriaEstimadaBytes;
+    }
+
+    /**
+     * Duración de la última construcción completa del índice.
+     */
+    public long getMilisConstruccion() {
+        return milisConstruccion;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Índice de clientes [clientes=%d, palabras=%d, teléfonos=%d, correos=%d, " +
+                        "memoria aprox.=%.1f MB, construcción=%d ms]",
+                clientes, palabras, telefonos, correos, memoriaEstimadaBytes / (1024.0 * 1024.0), milisConstruccion);
+    }
+}
@@ -0,0 +1,549 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.model.Cliente;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria para buscar clientes sin acceder a la base de datos:
+ * <ul>
+ *   <li>por prefijo de cualquiera de las palabras del nombre, sin distinguir mayúsculas ni acentos
+ *       ("jose ga" encuentra a "José García");</li>
+ *   <li>por prefijo del teléfono (solo se comparan los dígitos);</li>
+ *   <li>por correo electrónico exacto, sin distinguir mayúsculas.</li>
+ * </ul>
+ * Se construye con un recorrido completo de la tabla clientes y luego ClienteDAO lo mantiene al registrar
+ * o editar clientes. Las palabras y los teléfonos se guardan en mapas ordenados, por lo que una búsqueda por
+ * prefijo recorre solo las claves que empiezan con ese prefijo.
+ */
+public final class IndiceClientes {
+    private static final IndiceClientes INSTANCIA = new IndiceClientes();
+    private static final Pattern NO_DIGITOS = Pattern.compile("\\D+");
+    // Letras latinas (Latin-1 y Latin Extended-A/B) ya sin acentos y en minúsculas, para no normalizar cada carácter
+    private static final String[] LETRAS_LATINAS = new String[0x250];
+
+    static {
+        for (char c = 128; c < LETRAS_LATINAS.length; c++) {
+            LETRAS_LATINAS[c] = sinAcentos(c);
+        }
+    }
+
+    // Tamaños aproximados (JVM de 64 bits con referencias comprimidas) para estimar la memoria ocupada
+    private static final int BYTES_ENTRADA_HASHMAP = 48;
+    private static final int BYTES_ENTRADA_TREEMAP = 40;
+    private static final int BYTES_LISTA = 40;
+    private static final int BYTES_REFERENCIA = 4;
+    private static final int BYTES_ENTRADA_CLIENTE = 40;
+    private static final int BYTES_CADENA = 40;
+
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private Datos datos = new Datos(true);
+    private boolean construido;
+    // Cambios recibidos mientras se construye el índice; se aplican antes de publicarlo
+    private List<Cliente> pendientes;
+    private long milisConstruccion;
+
+    /**
+     * Cliente indexado junto con las palabras normalizadas de su nombre.
+     */
+    private static class Entrada {
+        private final Cliente cliente;
+        private final String[] palabras;
+        // Posición de la entrada en la lista de cada una de sus palabras, para quitarla sin buscarla
+        private final int[] posiciones;
+        private final String telefono;
+        private final String correo;
+        // Otros clientes con el mismo teléfono o correo; casi siempre null, por eso no se usa una lista por clave
+        private Entrada otraConTelefono;
+        private Entrada otraConCorreo;
+
+        Entrada(Cliente cliente) {
+            this.cliente = cliente;
+            this.palabras = palabras(cliente.getNombre());
+            this.posiciones = new int[palabras.length];
+            this.telefono = normalizarTelefono(cliente.getTelefono());
+            this.correo = normalizarCorreo(cliente.getCorreoElectronico());
+        }
+
+        boolean contienePrefijo(String prefijo) {
+            for (String palabra : palabras) {
+                if (palabra.startsWith(prefijo)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Clientes que tienen una palabra en el nombre. Las entradas guardan la misma instancia de texto
+     * que la clave del índice, para no repetir la palabra por cada cliente.
+     */
+    private static class Palabra {
+        private final String texto;
+        private final List<Entrada> entradas = new ArrayList<>(1);
+
+        Palabra(String texto) {
+            this.texto = texto;
+        }
+
+        void agregar(Entrada entrada, int indicePalabra) {
+            entrada.posiciones[indicePalabra] = entradas.size();
+            entradas.add(entrada);
+        }
+
+        /**
+         * Quita la entrada en tiempo constante: la última de la lista pasa a ocupar su posición. Las palabras más
+         * comunes ("maria", "gonzalez") tienen decenas de miles de clientes y se quitan con el bloqueo de escritura.
+         */
+        void quitar(Entrada entrada, int indicePalabra) {
+            int posicion = entrada.posiciones[indicePalabra];
+            Entrada ultima = entradas.remove(entradas.size() - 1);
+            if (ultima != entrada) {
+                entradas.set(posicion, ultima);
+                ultima.posiciones[indiceDe(ultima)] = posicion;
+            }
+        }
+
+        /**
+         * Índice de esta palabra entre las de la entrada (las entradas comparten la instancia de texto).
+         */
+        private int indiceDe(Entrada entrada) {
+            for (int i = 0; i < entrada.palabras.length; i++) {
+                if (entrada.palabras[i] == texto) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("La palabra " + texto + " no está en la entrada del cliente " +
+                    entrada.cliente.getIdCliente());
+        }
+    }
+
+    private static class Datos {
+        private final Map<String, Entrada> porDni = new HashMap<>();
+        // Durante la carga inicial son HashMap y luego se pasan a TreeMap en orden (ver ordenar())
+        private Map<String, Palabra> porPalabra;
+        private Map<String, Entrada> porTelefono;
+        private final Map<String, Entrada> porCorreo = new HashMap<>();
+        private long referenciasPalabras;
+        private long caracteresPalabras;
+
+        Datos(boolean ordenado) {
+            porPalabra = ordenado ? new TreeMap<>() : new HashMap<>();
+            porTelefono = ordenado ? new TreeMap<>() : new HashMap<>();
+        }
+
+        /**
+         * Pasa los índices de palabras y teléfonos a mapas ordenados. Insertar las claves ya ordenadas es
+         * mucho más rápido que insertarlas al azar durante la carga de todos los clientes.
+         */
+        void ordenar() {
+            porPalabra = ordenado(porPalabra);
+            porTelefono = ordenado(porTelefono);
+        }
+
+        private static <V> TreeMap<String, V> ordenado(Map<String, V> mapa) {
+            if (mapa instanceof TreeMap<String, V> arbol) {
+                return arbol;
+            }
+            String[] claves = mapa.keySet().toArray(new String[0]);
+            Arrays.sort(claves);
+            TreeMap<String, V> arbol = new TreeMap<>();
+            for (String clave : claves) {
+                arbol.put(clave, mapa.get(clave));
+            }
+            return arbol;
+        }
+
+        TreeMap<String, Palabra> palabrasOrdenadas() {
+            return (TreeMap<String, Palabra>) porPalabra;
+        }
+
+        TreeMap<String, Entrada> telefonosOrdenados() {
+            return (TreeMap<String, Entrada>) porTelefono;
+        }
+
+        void agregar(Cliente cliente) {
+            Entrada anterior = porDni.get(cliente.getIdCliente());
+            if (anterior != null) {
+                quitar(anterior);
+            }
+            Entrada entrada = new Entrada(cliente);
+            porDni.put(cliente.getIdCliente(), entrada);
+            for (int i = 0; i < entrada.palabras.length; i++) {
+                Palabra palabra = porPalabra.get(entrada.palabras[i]);
+                if (palabra == null) {
+                    palabra = new Palabra(entrada.palabras[i]);
+                    porPalabra.put(palabra.texto, palabra);
+                    caracteresPalabras += palabra.texto.length();
+                }
+                entrada.palabras[i] = palabra.texto;
+                palabra.agregar(entrada, i);
+                referenciasPalabras++;
+            }
+            if (!entrada.telefono.isEmpty()) {
+                entrada.otraConTelefono = porTelefono.put(entrada.telefono, entrada);
+            }
+            if (!entrada.correo.isEmpty()) {
+                entrada.otraConCorreo = porCorreo.put(entrada.correo, entrada);
+            }
+        }
+
+        private void quitar(Entrada entrada) {
+            porDni.remove(entrada.cliente.getIdCliente());
+            for (int i = 0; i < entrada.palabras.length; i++) {
+                String texto = entrada.palabras[i];
+                Palabra palabra = porPalabra.get(texto);
+                palabra.quitar(entrada, i);
+                referenciasPalabras--;
+                if (palabra.entradas.isEmpty()) {
+                    porPalabra.remove(texto);
+                    caracteresPalabras -= texto.length();
+                }
+            }
+            quitarTelefono(entrada);
+            quitarCorreo(entrada);
+        }
+
+        private void quitarTelefono(Entrada entrada) {
+            Entrada primera = porTelefono.get(entrada.telefono);
+            if (primera == entrada) {
+                if (entrada.otraConTelefono != null) {
+                    porTelefono.put(entrada.telefono, entrada.otraConTelefono);
+                } else {
+                    porTelefono.remove(entrada.telefono);
+                }
+                return;
+            }
+            for (Entrada actual = primera; actual != null; actual = actual.otraConTelefono) {
+                if (actual.otraConTelefono == entrada) {
+                    actual.otraConTelefono = entrada.otraConTelefono;
+                    return;
+                }
+            }
+        }
+
+        private void quitarCorreo(Entrada entrada) {
+            Entrada primera = porCorreo.get(entrada.correo);
+            if (primera == entrada) {
+                if (entrada.otraConCorreo != null) {
+                    porCorreo.put(entrada.correo, entrada.otraConCorreo);
+                } else {
+                    porCorreo.remove(entrada.correo);
+                }
+                return;
+            }
+            for (Entrada actual = primera; actual != null; actual = actual.otraConCorreo) {
+                if (actual.otraConCorreo == entrada) {
+                    actual.otraConCorreo = entrada.otraConCorreo;
+                    return;
+                }
+            }
+        }
+    }
+
+    private IndiceClientes() {
+    }
+
+    public static IndiceClientes getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Reconstruye el índice recorriendo todos los clientes con un cursor de solo avance.
+     * Las búsquedas siguen usando el índice anterior hasta que el nuevo está completo.
+     * @param clienteDAO DAO con el que se leen los clientes.
+     * @throws ClienteDAOException Si ocurre un error al leer los clientes; en ese caso se conserva el índice anterior.
+     */
+    public synchronized void construir(ClienteDAO clienteDAO) throws ClienteDAOException {
+        long inicio = System.nanoTime();
+        bloqueo.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+        Datos nuevos = new Datos(false);
+        try {
+            clienteDAO.forEachCliente(nuevos::agregar);
+        } catch (RuntimeException e) {
+            bloqueo.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+            throw e;
+        }
+        nuevos.ordenar();
+        bloqueo.writeLock().lock();
+        try {
+            for (Cliente cliente : pendientes) {
+                nuevos.agregar(cliente);
+            }
+            pendientes = null;
+            datos = nuevos;
+            construido = true;
+            milisConstruccion = (System.nanoTime() - inicio) / 1_000_000;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Construye el índice si todavía no se construyó.
+     * @throws ClienteDAOException Si ocurre un error al leer los clientes.
+     */
+    public void construirSiHaceFalta(ClienteDAO clienteDAO) throws ClienteDAOException {
+        bloqueo.readLock().lock();
+        try {
+            if (construido) {
+                return;
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+        construir(clienteDAO);
+    }
+
+    /**
+     * Agrega o reemplaza un cliente en el índice. Lo llama ClienteDAO después de registrar o editar un cliente.
+     */
+    void actualizar(Cliente cliente) {
+        bloqueo.writeLock().lock();
+        try {
+            aplicar(cliente);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza dirección, teléfono y correo de un cliente conservando el nombre indexado, ya que
+     * ClienteDAO.editarCliente no modifica el nombre en la base de datos.
+     */
+    void actualizarContacto(Cliente cliente) {
+        bloqueo.writeLock().lock();
+        try {
+            Entrada anterior = datos.porDni.get(cliente.getIdCliente());
+            String nombre = anterior != null ? anterior.cliente.getNombre() : cliente.getNombre();
+            aplicar(new Cliente(cliente.getIdCliente(), nombre, cliente.getDireccion(), cliente.getTelefono(),
+                    cliente.getCorreoElectronico()));
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private void aplicar(Cliente cliente) {
+        datos.agregar(cliente);
+        if (pendientes != null) {
+            pendientes.add(cliente);
+        }
+    }
+
+    /**
+     * Busca clientes cuyo nombre tenga, para cada palabra buscada, alguna palabra que empiece con ella.
+     * @param texto Texto a buscar, por ejemplo "maria gonz".
+     * @param limite Cantidad máxima de resultados.
+     * @return Los clientes encontrados, ordenados por la palabra coincidente más selectiva.
+     */
+    public List<Cliente> buscarPorNombre(String texto, int limite) {
+        String[] buscadas = palabras(texto);
+        if (buscadas.length == 0 || limite <= 0) {
+            return Collections.emptyList();
+        }
+        bloqueo.readLock().lock();
+        try {
+            // Se recorren las coincidencias de la palabra más larga, que suele ser la más selectiva,
+            // y se filtran por el resto de las palabras
+            String principal = buscadas[0];
+            for (String buscada : buscadas) {
+                if (buscada.length() > principal.length()) {
+                    principal = buscada;
+                }
+            }
+            Set<Cliente> resultado = new LinkedHashSet<>();
+            for (Palabra palabra : prefijos(datos.palabrasOrdenadas(), principal).values()) {
+                for (Entrada entrada : palabra.entradas) {
+                    if (coincideConTodas(entrada, buscadas)) {
+                        resultado.add(entrada.cliente);
+                        if (resultado.size() == limite) {
+                            return new ArrayList<>(resultado);
+                        }
+                    }
+                }
+            }
+            return new ArrayList<>(resultado);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca clientes cuyo teléfono empiece con los dígitos indicados (se ignoran espacios, guiones y paréntesis).
+     */
+    public List<Cliente> buscarPorTelefono(String telefono, int limite) {
+        String digitos = normalizarTelefono(telefono);
+        if (digitos.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        bloqueo.readLock().lock();
+        try {
+            List<Cliente> resultado = new ArrayList<>();
+            for (Entrada primera : prefijos(datos.telefonosOrdenados(), digitos).values()) {
+                for (Entrada entrada = primera; entrada != null; entrada = entrada.otraConTelefono) {
+                    resultado.add(entrada.cliente);
+                    if (resultado.size() == limite) {
+                        return resultado;
+                    }
+                }
+            }
+            return resultado;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los clientes con el correo electrónico indicado (sin distinguir mayúsculas).
+     */
+    public List<Cliente> buscarPorCorreo(String correo) {
+        bloqueo.readLock().lock();
+        try {
+            List<Cliente> resultado = new ArrayList<>(1);
+            for (Entrada entrada = datos.porCorreo.get(normalizarCorreo(correo)); entrada != null;
+                 entrada = entrada.otraConCorreo) {
+                resultado.add(entrada.cliente);
+            }
+            return resultado;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    public boolean isConstruido() {
+        bloqueo.readLock().lock();
+        try {
+            return construido;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    public EstadisticasIndiceClientes obtenerEstadisticas() {
+        bloqueo.readLock().lock();
+        try {
+            return new EstadisticasIndiceClientes(datos.porDni.size(), datos.porPalabra.size(),
+                    datos.porTelefono.size(), datos.porCorreo.size(), estimarMemoria(datos), milisConstruccion);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimación de la memoria propia del índice (mapas, listas y palabras normalizadas). No incluye los objetos
+     * Cliente, que se comparten con el resto de la aplicación, ni el teléfono y el correo normalizados: cuando ya
+     * vienen normalizados (solo dígitos, minúsculas) son la misma cadena que guarda el cliente.
+     */
+    private static long estimarMemoria(Datos datos) {
+        long clientes = datos.porDni.size();
+        long bytes = clientes * (BYTES_ENTRADA_HASHMAP + BYTES_ENTRADA_CLIENTE);
+        // Arreglos de palabras y posiciones de cada entrada y referencias desde las listas del índice de nombres
+        bytes += clientes * 32 + datos.referenciasPalabras * (BYTES_REFERENCIA * 2 + Integer.BYTES);
+        bytes += (long) datos.porPalabra.size() * (BYTES_ENTRADA_TREEMAP + 16 + BYTES_LISTA + BYTES_CADENA)
+                + datos.caracteresPalabras;
+        bytes += (long) datos.porTelefono.size() * BYTES_ENTRADA_TREEMAP;
+        bytes += (long) datos.porCorreo.size() * BYTES_ENTRADA_HASHMAP;
+        return bytes;
+    }
+
+    private static boolean coincideConTodas(Entrada entrada, String[] buscadas) {
+        for (String buscada : buscadas) {
+            if (!entrada.contienePrefijo(buscada)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <V> Map<String, V> prefijos(TreeMap<String, V> mapa, String prefijo) {
+        return mapa.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Pasa el texto a minúsculas, le quita los acentos y lo separa en palabras (sin repetidas).
+     * Los caracteres ASCII se procesan directamente; solo los demás pasan por Normalizer.
+     */
+    static String[] palabras(String texto) {
+        if (texto == null) {
+            return new String[0];
+        }
+        List<String> palabras = new ArrayList<>(4);
+        StringBuilder actual = new StringBuilder(16);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 128) {
+                if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    actual.append(c);
+                } else if (c >= 'A' && c <= 'Z') {
+                    actual.append((char) (c + ('a' - 'A')));
+                } else {
+                    cerrarPalabra(actual, palabras);
+                }
+                continue;
+            }
+            String base = c < LETRAS_LATINAS.length ? LETRAS_LATINAS[c] : sinAcentos(c);
+            if (base.isEmpty()) {
+                cerrarPalabra(actual, palabras);
+            } else {
+                actual.append(base);
+            }
+        }
+        cerrarPalabra(actual, palabras);
+        return palabras.toArray(new String[0]);
+    }
+
+    /**
+     * Letras del carácter sin marcas diacríticas y en minúsculas, o "" si no es letra ni dígito.
+     */
+    private static String sinAcentos(char c) {
+        String descompuesto = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        StringBuilder base = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char letra = descompuesto.charAt(i);
+            if (Character.getType(letra) != Character.NON_SPACING_MARK && Character.isLetterOrDigit(letra)) {
+                base.append(Character.toLowerCase(letra));
+            }
+        }
+        return base.toString();
+    }
+
+    private static void cerrarPalabra(StringBuilder actual, List<String> palabras) {
+        if (actual.length() > 0) {
+            String palabra = actual.toString();
+            if (!palabras.contains(palabra)) {
+                palabras.add(palabra);
+            }
+            actual.setLength(0);
+        }
+    }
+
+    private static String normalizarTelefono(String telefono) {
+        return telefono == null ? "" : NO_DIGITOS.matcher(telefono).replaceAll("");
+    }
+
+    private static String normalizarCorreo(String correo) {
+        return correo == null ? "" : correo.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,305 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.diario.DiarioPagos;
+import com.financierasolandino.diario.EventoDiario;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acceso a datos del proceso de mora: recorre la cartera por rangos de idPrestamo, registra la penalidad
+ * del 5% de cada cuota vencida e impaga que aún no la tenga y pasa a EN_MORA los préstamos activos con
+ * cuotas vencidas. Todas las operaciones son idempotentes, por lo que un rango puede reprocesarse sin duplicar datos.
+ * En la misma transacción actualiza las cuotas vencidas y las penalidades acumuladas del resumen de cada préstamo.
+ */
+public class MoraDAO {
+    public static final BigDecimal PORCENTAJE_PENALIDAD = new BigDecimal("0.05");
+    private static final int TAMANO_LOTE = 500;
+
+    static final String SQL_PRESTAMOS_VIGENTES =
+            "SELECT idPrestamo FROM prestamos " +
+                    "WHERE estado IN ('ACTIVO', 'EN_MORA') AND idPrestamo > ? " +
+                    "ORDER BY idPrestamo";
+
+    // Cuotas vencidas sin pago del rango; 'penalizada' indica si ya tienen penalidad registrada
+    static final String SQL_CUOTAS_VENCIDAS =
+            "SELECT cu.idPrestamo, cu.numeroCuota, cu.montoCuota, p.estado, " +
+                    "(pen.idPrestamo IS NOT NULL) AS penalizada " +
+                    "FROM prestamos p " +
+                    "JOIN cuotas cu ON cu.idPrestamo = p.idPrestamo " +
+                    "LEFT JOIN pagos pg ON pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota " +
+                    "LEFT JOIN penalidades pen ON pen.idPrestamo = cu.idPrestamo AND pen.numeroCuota = cu.numeroCuota " +
+                    "WHERE p.idPrestamo BETWEEN ? AND ? " +
+                    "AND p.estado IN ('ACTIVO', 'EN_MORA') " +
+                    "AND cu.fechaVencimiento < ? " +
+                    "AND pg.idPrestamo IS NULL " +
+                    "ORDER BY cu.idPrestamo, cu.numeroCuota";
+
+    private static final String SQL_INSERTAR_PENALIDAD =
+            "INSERT INTO penalidades (idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion) VALUES (?, ?, ?, ?)";
+
+    private static final String SQL_MARCAR_EN_MORA =
+            "UPDATE prestamos SET estado = 'EN_MORA' WHERE estado = 'ACTIVO' AND idPrestamo IN ";
+
+    /**
+     * Rango contiguo de préstamos vigentes (ambos extremos incluidos), en orden de idPrestamo.
+     */
+    public static class Particion {
+        private final String desde;
+        private final String hasta;
+        private final int cantidad;
+
+        Particion(String desde, String hasta, int cantidad) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cantidad = cantidad;
+        }
+
+        public String getDesde() {
+            return desde;
+        }
+
+        public String getHasta() {
+            return hasta;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+    }
+
+    /**
+     * Cambios realizados al procesar una partición.
+     */
+    public static class ResultadoParticion {
+        private final int penalidadesRegistradas;
+        private final int prestamosEnMora;
+
+        ResultadoParticion(int penalidadesRegistradas, int prestamosEnMora) {
+            this.penalidadesRegistradas = penalidadesRegistradas;
+            this.prestamosEnMora = prestamosEnMora;
+        }
+
+        public int getPenalidadesRegistradas() {
+            return penalidadesRegistradas;
+        }
+
+        public int getPrestamosEnMora() {
+            return prestamosEnMora;
+        }
+    }
+
+    /**
+     * Penalidad de una cuota vencida: el 5% de su monto redondeado HALF_UP al centavo. La usan el proceso de mora,
+     * el pago de una cuota vencida y la proyección de ingresos, para que todos registren el mismo importe.
+     */
+    public static BigDecimal calcularPenalidad(BigDecimal montoCuota) {
+        return montoCuota.multiply(PORCENTAJE_PENALIDAD).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Divide los préstamos vigentes (ACTIVO o EN_MORA) en rangos de a lo sumo tamanoParticion préstamos.
+     * Solo se leen los identificadores y se guardan los extremos de cada rango, no la lista completa.
+     * @param ultimoProcesado Último idPrestamo ya procesado (los rangos empiezan después de él), o null para empezar desde el principio.
+     * @param tamanoParticion Cantidad máxima de préstamos por partición.
+     * @throws ClienteDAOException Si ocurre un error al consultar los préstamos.
+     */
+    public List<Particion> obtenerParticiones(String ultimoProcesado, int tamanoParticion) throws ClienteDAOException {
+        List<Particion> particiones = new ArrayList<>();
+        try (Connection conn = ConexionDB.conectar();
+             PreparedStatement stmt = conn.prepareStatement(SQL_PRESTAMOS_VIGENTES,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(ConexionDB.getTamanoFetchExportacion());
+            stmt.setString(1, ultimoProcesado != null ? ultimoProcesado : "");
+            try (ResultSet rs = stmt.executeQuery()) {
+                String desde = null;
+                String hasta = null;
+                int cantidad = 0;
+                while (rs.next()) {
+                    hasta = rs.getString(1);
+                    if (cantidad == 0) {
+                        desde = hasta;
+                    }
+                    if (++cantidad == tamanoParticion) {
+                        particiones.add(new Particion(desde, hasta, cantidad));
+                        cantidad = 0;
+                    }
+                }
+                if (cantidad > 0) {
+                    particiones.add(new Particion(desde, hasta, cantidad));
+                }
+            }
+            return particiones;
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al obtener las particiones de préstamos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Procesa un rango de préstamos en una única transacción: una consulta para las cuotas vencidas e impagas,
+     * inserción de las penalidades faltantes en lotes y actualización del estado en bloques.
+     * @param particion Rango de préstamos a procesar.
+     * @param fechaCorte Las cuotas que vencen antes de esta fecha se consideran en mora; también es la fecha de aplicación de la penalidad.
+     * @throws ClienteDAOException Si ocurre un error; en ese caso no se aplica ningún cambio del rango.
+     */
+    public ResultadoParticion procesarParticion(Particion particion, LocalDate fechaCorte) throws ClienteDAOException {
+        try {
+            return procesarRango(particion, fechaCorte);
+        } catch (ClienteDAOException e) {
+            if (!(e.getCause() instanceof SQLException causa) || !esPenalidadDuplicada(causa)) {
+                throw e;
+            }
+            // Un pago o una proyección penalizó una cuota del rango durante la transacción (índice único
+            // ux_penalidades_prestamo_cuota): se vuelve a procesar, y esa cuota ahora se lee como penalizada
+            return procesarRango(particion, fechaCorte);
+        }
+    }
+
+    private ResultadoParticion procesarRango(Particion particion, LocalDate fechaCorte) throws ClienteDAOException {
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+
+            int penalidades = 0;
+            List<String> prestamosActivosEnMora = new ArrayList<>();
+            List<EventoDiario> eventos = new ArrayList<>();
+            try (PreparedStatement consulta = conn.prepareStatement(SQL_CUOTAS_VENCIDAS);
+                 PreparedStatement insercion = conn.prepareStatement(SQL_INSERTAR_PENALIDAD);
+                 ResumenPrestamoDAO.ActualizacionMora resumen = new ResumenPrestamoDAO.ActualizacionMora(conn, particion, fechaCorte)) {
+                consulta.setString(1, particion.getDesde());
+                consulta.setString(2, particion.getHasta());
+                consulta.setObject(3, fechaCorte);
+                int pendientes = 0;
+                try (ResultSet rs = consulta.executeQuery()) {
+                    String ultimoPrestamo = null;
+                    int cuotasVencidas = 0;
+                    BigDecimal penalidadesPrestamo = BigDecimal.ZERO;
+                    while (rs.next()) {
+                        String idPrestamo = rs.getString("idPrestamo");
+                        // Las filas vienen ordenadas por préstamo: cada uno se agrega una sola vez
+                        if (!idPrestamo.equals(ultimoPrestamo)) {
+                            if (ultimoPrestamo != null) {
+                                resumen.agregar(ultimoPrestamo, cuotasVencidas, penalidadesPrestamo);
+                            }
+                            ultimoPrestamo = idPrestamo;
+                            cuotasVencidas = 0;
+                            penalidadesPrestamo = BigDecimal.ZERO;
+                            if (Prestamo.EstadoPrestamo.ACTIVO.name().equals(rs.getString("estado"))) {
+                                prestamosActivosEnMora.add(idPrestamo);
+                            }
+                        }
+                        cuotasVencidas++;
+                        if (rs.getBoolean("penalizada")) {
+                            continue;
+                        }
+                        BigDecimal penalidad = calcularPenalidad(rs.getBigDecimal("montoCuota"));
+                        penalidadesPrestamo = penalidadesPrestamo.add(penalidad);
+                        int numeroCuota = rs.getInt("numeroCuota");
+                        insercion.setString(1, idPrestamo);
+                        insercion.setInt(2, numeroCuota);
+                        insercion.setBigDecimal(3, penalidad);
+                        insercion.setObject(4, fechaCorte);
+                        insercion.addBatch();
+                        eventos.add(EventoDiario.penalidad(idPrestamo, numeroCuota, FormatoMoneda.aCentavos(penalidad), fechaCorte));
+                        if (++pendientes == TAMANO_LOTE) {
+                            penalidades += contarFilas(insercion.executeBatch());
+                            pendientes = 0;
+                        }
+                    }
+                    if (ultimoPrestamo != null) {
+                        resumen.agregar(ultimoPrestamo, cuotasVencidas, penalidadesPrestamo);
+                    }
+                }
+                if (pendientes > 0) {
+                    penalidades += contarFilas(insercion.executeBatch());
+                }
+                resumen.ejecutar();
+            }
+
+            int prestamosEnMora = marcarEnMora(conn, prestamosActivosEnMora);
+
+            conn.commit();
+            if (penalidades > 0) {
+                CachePrestamos.getInstancia().invalidarPenalidades(particion.getDesde(), particion.getHasta());
+            }
+            DiarioPagos.getInstancia().registrar(eventos);
+            return new ResultadoParticion(penalidades, prestamosEnMora);
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("Error al procesar la mora de los préstamos " + particion.getDesde() +
+                    " a " + particion.getHasta() + ": " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pasa a EN_MORA los préstamos indicados con un UPDATE ... IN (...) por cada bloque de TAMANO_LOTE identificadores.
+     */
+    private int marcarEnMora(Connection conn, List<String> idsPrestamos) throws SQLException {
+        int actualizados = 0;
+        for (int inicio = 0; inicio < idsPrestamos.size(); inicio += TAMANO_LOTE) {
+            List<String> bloque = idsPrestamos.subList(inicio, Math.min(inicio + TAMANO_LOTE, idsPrestamos.size()));
+            String sql = SQL_MARCAR_EN_MORA + "(" + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < bloque.size(); i++) {
+                    stmt.setString(i + 1, bloque.get(i));
+                }
+                actualizados += stmt.executeUpdate();
+            }
+        }
+        return actualizados;
+    }
+
+    /**
+     * Indica si el error se debe a una penalidad ya registrada. En un lote el driver informa la violación de la clave
+     * en la causa o en la siguiente excepción de la BatchUpdateException, según el motor.
+     */
+    private static boolean esPenalidadDuplicada(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getNextException() instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int contarFilas(int[] resultados) {
+        int filas = 0;
+        for (int resultado : resultados) {
+            // Con rewriteBatchedStatements el driver puede informar SUCCESS_NO_INFO en lugar del conteo
+            filas += resultado == Statement.SUCCESS_NO_INFO ? 1 : resultado;
+        }
+        return filas;
+    }
+}
@@ -1,8 +1,10 @@
 package com.financierasolandino.dao;
 
 import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.diario.DiarioPagos;
+import com.financierasolandino.diario.EventoDiario;
 import com.financierasolandino.model.Pago;
-import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -10,56 +12,96 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PagoDAO {
     private static final String SQL_INSERTAR_PAGO = "INSERT INTO pagos (idPrestamo, numeroCuota, montoPagado, fechaPago) VALUES (?, ?, ?, ?)";
-    private static final String SQL_OBTENER_PAGOS = "SELECT * FROM pagos WHERE idPrestamo = ? ORDER BY numeroCuota";
-    private static final String SQL_VERIFICAR_PAGO = "SELECT COUNT(*) FROM pagos WHERE idPrestamo = ? AND numeroCuota = ?";
-    private static final String SQL_ACTUALIZAR_SALDO = "UPDATE prestamos SET saldo_pendiente = saldo_pendiente - ? WHERE idPrestamo = ?";
-    private static final String SQL_OBTENER_CUOTA = "SELECT capitalAmortizado FROM cuotas WHERE idPrestamo = ? AND numeroCuota = ?";
-    private static final String SQL_OBTENER_PENALIDAD = "SELECT montoPenalidad FROM penalidades WHERE idPrestamo = ? AND numeroCuota = ?";
-    private static final String SQL_OBTENER_CUOTAS = "SELECT numeroCuota, fechaVencimiento FROM cuotas WHERE idPrestamo = ? ORDER BY numeroCuota";
-    private static final String SQL_ACTUALIZAR_ESTADO = "UPDATE prestamos SET estado = ? WHERE idPrestamo = ?";
-    private static final String SQL_CONTAR_PAGOS = "SELECT COUNT(*) FROM pagos WHERE idPrestamo = ?";
-    private static final String SQL_OBTENER_NUMERO_CUOTAS = "SELECT numeroCuotas FROM prestamos WHERE idPrestamo = ?";
-    private static final String SQL_FORCE_ZERO_SALDO = "UPDATE prestamos SET saldo_pendiente = 0 WHERE idPrestamo = ?";
-    private static final String SQL_OBTENER_HISTORIAL_PAGOS_CON_PENALIDAD =
+    static final String SQL_OBTENER_PAGOS = "SELECT * FROM pagos WHERE idPrestamo = ? ORDER BY numeroCuota";
+    private static final String SQL_INSERTAR_PENALIDAD = "INSERT INTO penalidades (idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion) VALUES (?, ?, ?, ?)";
+    static final String SQL_OBTENER_PENALIDADES = "SELECT numeroCuota, montoPenalidad FROM penalidades WHERE idPrestamo = ?";
+    // Datos de la cuota, del préstamo y conteo de pagos en una sola consulta
+    static final String SQL_DATOS_PAGO =
+            "SELECT cu.capitalAmortizado, cu.fechaVencimiento, p.numeroCuotas, " +
+                    "(SELECT COUNT(*) FROM pagos pg WHERE pg.idPrestamo = p.idPrestamo) AS numeroPagos, " +
+                    "EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota) AS pagada " +
+                    "FROM prestamos p JOIN cuotas cu ON cu.idPrestamo = p.idPrestamo " +
+                    "WHERE p.idPrestamo = ? AND cu.numeroCuota = ?";
+    // Actualiza saldo y estado en una sola sentencia; la mora se detecta con un anti-join sobre cuotas vencidas impagas
+    private static final String SQL_ACTUALIZAR_SALDO_Y_ESTADO =
+            "UPDATE prestamos SET " +
+                    "saldo_pendiente = CASE WHEN ? THEN 0 ELSE saldo_pendiente - ? END, " +
+                    "estado = CASE WHEN ? THEN 'CANCELADO' " +
+                    "WHEN EXISTS (SELECT 1 FROM cuotas cu LEFT JOIN pagos pg ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
+                    "WHERE cu.idPrestamo = ? AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ?) THEN 'EN_MORA' " +
+                    "ELSE 'ACTIVO' END " +
+                    "WHERE idPrestamo = ?";
+    static final String SQL_OBTENER_HISTORIAL_PAGOS_CON_PENALIDAD =
             "SELECT p.idPrestamo, p.numeroCuota, p.montoPagado, p.fechaPago, COALESCE(pen.montoPenalidad, 0.0) AS montoPenalidad " +
                     "FROM pagos p LEFT JOIN penalidades pen ON p.idPrestamo = pen.idPrestamo AND p.numeroCuota = pen.numeroCuota " +
                     "WHERE p.idPrestamo = ? ORDER BY p.numeroCuota";
 
+    /**
+     * Registra el pago de una cuota cuya penalidad, si corresponde, ya está registrada, y actualiza el saldo
+     * pendiente y el estado del préstamo.
+     * Usa una cantidad fija de sentencias (consulta de datos, inserción del pago, actualización del resumen
+     * del préstamo y de saldo y estado), independiente del número de cuotas del préstamo.
+     * @param pago El pago a registrar (montoPagado incluye cuota + penalidad).
+     * @param penalidad La penalidad incluida en el pago.
+     * @return true si el pago se registró correctamente.
+     * @throws ClienteDAOException Si la cuota ya está pagada, no existe o hay un error en la base de datos.
+     */
     public boolean registrarPago(Pago pago, double penalidad) throws ClienteDAOException {
+        return registrar(pago, null);
+    }
+
+    /**
+     * Registra la penalidad de una cuota vencida que todavía no la tiene y su pago en la misma transacción, con dos
+     * sentencias más que {@link #registrarPago}. Si el pago falla, la penalidad tampoco queda registrada; si otro
+     * proceso penalizó la cuota mientras tanto, se conserva esa penalidad, que se calcula igual.
+     * @param pago El pago a registrar (montoPagado incluye cuota + penalidad).
+     * @param penalidad Penalidad a registrar, calculada con {@link MoraDAO#calcularPenalidad}.
+     * @return true si el pago se registró correctamente.
+     * @throws ClienteDAOException Si la cuota ya está pagada, no existe o hay un error en la base de datos.
+     */
+    public boolean registrarPagoConPenalidad(Pago pago, BigDecimal penalidad) throws ClienteDAOException {
+        return registrar(pago, penalidad);
+    }
+
+    private boolean registrar(Pago pago, BigDecimal penalidadNueva) throws ClienteDAOException {
         Connection conn = null;
         try {
             conn = ConexionDB.conectar();
             conn.setAutoCommit(false);
 
-            // Verificar si el pago ya existe
-            try (PreparedStatement stmtVerificar = conn.prepareStatement(SQL_VERIFICAR_PAGO)) {
-                stmtVerificar.setString(1, pago.getIdPrestamo());
-                stmtVerificar.setInt(2, pago.getNumeroCuota());
-                ResultSet rs = stmtVerificar.executeQuery();
-                if (rs.next() && rs.getInt(1) > 0) {
-                    throw new ClienteDAOException("La cuota " + pago.getNumeroCuota() + " del préstamo " + pago.getIdPrestamo() + " ya está pagada.");
-                }
-            }
-
-            // Obtener capitalAmortizado de la cuota
+            // Obtener capitalAmortizado, número de cuotas y pagos registrados, y verificar si la cuota ya está pagada
             BigDecimal capitalAmortizado;
-            try (PreparedStatement stmtCuota = conn.prepareStatement(SQL_OBTENER_CUOTA)) {
-                stmtCuota.setString(1, pago.getIdPrestamo());
-                stmtCuota.setInt(2, pago.getNumeroCuota());
-                ResultSet rs = stmtCuota.executeQuery();
-                if (rs.next()) {
-                    capitalAmortizado = rs.getBigDecimal("capitalAmortizado").setScale(2, RoundingMode.HALF_UP);
-                } else {
+            LocalDate vencimiento;
+            int numeroCuotasTotales;
+            int numeroPagos;
+            try (PreparedStatement stmtDatos = conn.prepareStatement(SQL_DATOS_PAGO)) {
+                stmtDatos.setString(1, pago.getIdPrestamo());
+                stmtDatos.setInt(2, pago.getNumeroCuota());
+                ResultSet rs = stmtDatos.executeQuery();
+                if (!rs.next()) {
                     throw new ClienteDAOException("Cuota " + pago.getNumeroCuota() + " no encontrada para el préstamo " + pago.getIdPrestamo());
                 }
+                if (rs.getBoolean("pagada")) {
+                    throw new ClienteDAOException("La cuota " + pago.getNumeroCuota() + " del préstamo " + pago.getIdPrestamo() + " ya está pagada.");
+                }
+                capitalAmortizado = rs.getBigDecimal("capitalAmortizado").setScale(2, RoundingMode.HALF_UP);
+                vencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
+                numeroCuotasTotales = rs.getInt("numeroCuotas");
+                numeroPagos = rs.getInt("numeroPagos");
             }
 
+            boolean penalidadRegistrada = penalidadNueva != null
+                    && insertarPenalidad(conn, pago.getIdPrestamo(), pago.getNumeroCuota(), penalidadNueva, pago.getFechaPago());
+
             // Registrar el pago (montoPagado incluye cuota + penalidad)
             try (PreparedStatement stmtPago = conn.prepareStatement(SQL_INSERTAR_PAGO)) {
                 stmtPago.setString(1, pago.getIdPrestamo());
@@ -67,78 +109,41 @@ public class PagoDAO {
                 stmtPago.setBigDecimal(3, new BigDecimal(pago.getMontoPagado()).setScale(2, RoundingMode.HALF_UP));
                 stmtPago.setObject(4, pago.getFechaPago());
                 stmtPago.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Otro pago de la misma cuota se confirmó después de la verificación (índice único ux_pagos_prestamo_cuota);
+                // se deshace también la penalidad registrada para este pago
+                conn.rollback();
+                throw new ClienteDAOException("La cuota " + pago.getNumeroCuota() + " del préstamo " + pago.getIdPrestamo() + " ya está pagada.", e);
             }
+            ResumenPrestamoDAO.registrarPago(conn, pago.getIdPrestamo(), vencimiento, pago.getFechaPago());
 
-            // Actualizar saldo pendiente con capitalAmortizado
-            try (PreparedStatement stmtSaldo = conn.prepareStatement(SQL_ACTUALIZAR_SALDO)) {
-                stmtSaldo.setBigDecimal(1, capitalAmortizado);
-                stmtSaldo.setString(2, pago.getIdPrestamo());
-                stmtSaldo.executeUpdate();
-            }
-
-            // Verificar si todas las cuotas están pagadas
-            int numeroCuotasTotales = 0;
-            try (PreparedStatement stmtCuotas = conn.prepareStatement(SQL_OBTENER_NUMERO_CUOTAS)) {
-                stmtCuotas.setString(1, pago.getIdPrestamo());
-                ResultSet rs = stmtCuotas.executeQuery();
-                if (rs.next()) {
-                    numeroCuotasTotales = rs.getInt("numeroCuotas");
-                }
-            }
-
-            int numeroPagos = 0;
-            try (PreparedStatement stmtPagos = conn.prepareStatement(SQL_CONTAR_PAGOS)) {
-                stmtPagos.setString(1, pago.getIdPrestamo());
-                ResultSet rs = stmtPagos.executeQuery();
-                if (rs.next()) {
-                    numeroPagos = rs.getInt(1);
-                }
+            // Si todas las cuotas están pagadas, el saldo se fuerza a 0 y el préstamo queda CANCELADO;
+            // si no, se descuenta el capital amortizado y se determina si hay cuotas vencidas impagas
+            boolean cancelado = numeroPagos + 1 >= numeroCuotasTotales;
+            try (PreparedStatement stmtActualizar = conn.prepareStatement(SQL_ACTUALIZAR_SALDO_Y_ESTADO)) {
+                stmtActualizar.setBoolean(1, cancelado);
+                stmtActualizar.setBigDecimal(2, capitalAmortizado);
+                stmtActualizar.setBoolean(3, cancelado);
+                stmtActualizar.setString(4, pago.getIdPrestamo());
+                stmtActualizar.setObject(5, LocalDate.now());
+                stmtActualizar.setString(6, pago.getIdPrestamo());
+                stmtActualizar.executeUpdate();
             }
 
-            // Si todas las cuotas están pagadas, forzar saldo_pendiente a 0
-            if (numeroPagos >= numeroCuotasTotales) {
-                try (PreparedStatement stmtForceZero = conn.prepareStatement(SQL_FORCE_ZERO_SALDO)) {
-                    stmtForceZero.setString(1, pago.getIdPrestamo());
-                    stmtForceZero.executeUpdate();
-                }
+            conn.commit();
+            CachePrestamos.getInstancia().invalidarPagos(pago.getIdPrestamo());
+            EventoDiario eventoPago = EventoDiario.pago(pago.getIdPrestamo(), pago.getNumeroCuota(),
+                    FormatoMoneda.aCentavos(capitalAmortizado), FormatoMoneda.aCentavos(new BigDecimal(pago.getMontoPagado())),
+                    pago.getFechaPago());
+            if (penalidadNueva != null) {
+                CachePrestamos.getInstancia().invalidarPenalidades(pago.getIdPrestamo());
             }
-
-            // Determinar el estado del préstamo
-            String nuevoEstado;
-            if (numeroPagos >= numeroCuotasTotales) {
-                nuevoEstado = Prestamo.EstadoPrestamo.CANCELADO.name();
+            if (penalidadRegistrada) {
+                DiarioPagos.getInstancia().registrar(List.of(EventoDiario.penalidad(pago.getIdPrestamo(), pago.getNumeroCuota(),
+                        FormatoMoneda.aCentavos(penalidadNueva), pago.getFechaPago()), eventoPago));
             } else {
-                boolean hayMora = false;
-                try (PreparedStatement stmtCuotas = conn.prepareStatement(SQL_OBTENER_CUOTAS)) {
-                    stmtCuotas.setString(1, pago.getIdPrestamo());
-                    ResultSet rs = stmtCuotas.executeQuery();
-                    LocalDate hoy = LocalDate.now();
-                    while (rs.next()) {
-                        LocalDate fechaVencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
-                        int numeroCuota = rs.getInt("numeroCuota");
-                        try (PreparedStatement stmtPago = conn.prepareStatement(SQL_VERIFICAR_PAGO)) {
-                            stmtPago.setString(1, pago.getIdPrestamo());
-                            stmtPago.setInt(2, numeroCuota);
-                            ResultSet rsPago = stmtPago.executeQuery();
-                            boolean pagada = rsPago.next() && rsPago.getInt(1) > 0;
-                            if (!pagada && fechaVencimiento.isBefore(hoy)) {
-                                hayMora = true;
-                                break;
-                            }
-                        }
-                    }
-                }
-                nuevoEstado = hayMora ? Prestamo.EstadoPrestamo.EN_MORA.name() : Prestamo.EstadoPrestamo.ACTIVO.name();
-            }
-
-            // Actualizar estado del préstamo
-            try (PreparedStatement stmtEstado = conn.prepareStatement(SQL_ACTUALIZAR_ESTADO)) {
-                stmtEstado.setString(1, nuevoEstado);
-                stmtEstado.setString(2, pago.getIdPrestamo());
-                stmtEstado.executeUpdate();
+                DiarioPagos.getInstancia().registrar(eventoPago);
             }
-
-            conn.commit();
             return true;
         } catch (SQLException e) {
             if (conn != null) {
@@ -161,7 +166,15 @@ public class PagoDAO {
         }
     }
 
+    /**
+     * Devuelve los pagos del préstamo ordenados por número de cuota, desde la caché si ya fueron leídos.
+     * La lista devuelta no se puede modificar.
+     */
     public List<Pago> obtenerPagos(String idPrestamo) throws ClienteDAOException {
+        return CachePrestamos.getInstancia().obtenerPagos(idPrestamo, () -> leerPagos(idPrestamo));
+    }
+
+    private List<Pago> leerPagos(String idPrestamo) throws ClienteDAOException {
         List<Pago> pagos = new ArrayList<>();
         try (Connection conn = ConexionDB.conectar();
              PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_PAGOS)) {
@@ -203,18 +216,94 @@ public class PagoDAO {
         }
     }
 
+    /**
+     * Registra la penalidad de una cuota vencida y la suma al resumen del préstamo en la misma transacción.
+     * @param idPrestamo ID del préstamo.
+     * @param numeroCuota Número de la cuota penalizada.
+     * @param monto Importe de la penalidad, calculado con {@link MoraDAO#calcularPenalidad}.
+     * @param fechaAplicacion Fecha en que se aplica.
+     * @return true si se registró; false si la cuota ya tenía penalidad (índice único ux_penalidades_prestamo_cuota).
+     * @throws ClienteDAOException Si ocurre un error al insertar la penalidad.
+     */
+    public boolean registrarPenalidad(String idPrestamo, int numeroCuota, BigDecimal monto, LocalDate fechaAplicacion) throws ClienteDAOException {
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+            if (!insertarPenalidad(conn, idPrestamo, numeroCuota, monto, fechaAplicacion)) {
+                conn.rollback();
+                CachePrestamos.getInstancia().invalidarPenalidades(idPrestamo);
+                return false;
+            }
+            conn.commit();
+            CachePrestamos.getInstancia().invalidarPenalidades(idPrestamo);
+            DiarioPagos.getInstancia().registrar(EventoDiario.penalidad(idPrestamo, numeroCuota,
+                    FormatoMoneda.aCentavos(monto), fechaAplicacion));
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("Error al registrar la penalidad de la cuota " + numeroCuota + " del préstamo " + idPrestamo, e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta la penalidad y la suma al resumen del préstamo, sin confirmar la transacción.
+     * @return false si la cuota ya tenía penalidad: otro proceso la registró después de la verificación del llamador
+     * (índice único ux_penalidades_prestamo_cuota) y queda la existente.
+     */
+    private static boolean insertarPenalidad(Connection conn, String idPrestamo, int numeroCuota, BigDecimal monto,
+                                             LocalDate fechaAplicacion) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERTAR_PENALIDAD)) {
+            stmt.setString(1, idPrestamo);
+            stmt.setInt(2, numeroCuota);
+            stmt.setBigDecimal(3, monto);
+            stmt.setObject(4, fechaAplicacion);
+            stmt.executeUpdate();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return false;
+        }
+        ResumenPrestamoDAO.sumarPenalidad(conn, idPrestamo, monto);
+        return true;
+    }
+
+    /**
+     * Devuelve la penalidad registrada para la cuota, o 0 si no tiene. Las penalidades de todo el préstamo
+     * se leen juntas y quedan en la caché.
+     */
     public double obtenerPenalidad(String idPrestamo, int numeroCuota) throws ClienteDAOException {
+        return CachePrestamos.getInstancia()
+                .obtenerPenalidades(idPrestamo, () -> leerPenalidades(idPrestamo))
+                .getOrDefault(numeroCuota, 0.0);
+    }
+
+    private Map<Integer, Double> leerPenalidades(String idPrestamo) throws ClienteDAOException {
+        Map<Integer, Double> penalidades = new HashMap<>();
         try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_PENALIDAD)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_PENALIDADES)) {
             stmt.setString(1, idPrestamo);
-            stmt.setInt(2, numeroCuota);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getBigDecimal("montoPenalidad").doubleValue();
+            while (rs.next()) {
+                // Si hubiera más de una penalidad para la misma cuota se conserva la primera, como antes
+                penalidades.putIfAbsent(rs.getInt("numeroCuota"), rs.getBigDecimal("montoPenalidad").doubleValue());
             }
-            return 0.0;
+            return penalidades;
         } catch (SQLException e) {
-            throw new ClienteDAOException("Error al obtener la penalidad para la cuota " + numeroCuota + " del préstamo " + idPrestamo, e);
+            throw new ClienteDAOException("Error al obtener las penalidades del préstamo " + idPrestamo, e);
         }
     }
 }
\ No newline at end of file
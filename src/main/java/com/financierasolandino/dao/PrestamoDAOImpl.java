@@ -1,10 +1,13 @@
 package com.financierasolandino.dao;
 
 import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.diario.DiarioPagos;
+import com.financierasolandino.diario.EventoDiario;
 import com.financierasolandino.model.Cuota;
+import com.financierasolandino.model.InstantaneaPrestamo;
 import com.financierasolandino.model.Pago;
 import com.financierasolandino.model.Prestamo;
-import com.financierasolandino.util.Utilidad;
+import com.financierasolandino.util.FormatoMoneda;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -13,7 +16,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.Normalizer;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,19 +25,76 @@ import java.util.Scanner;
 public class PrestamoDAOImpl implements PrestamoDAO {
     private static final String SQL_CREAR_PRESTAMO = "INSERT INTO prestamos (idPrestamo, idCliente, monto, tasaInteres, numeroCuotas, tipoPrestamo, fecha_creacion, saldo_pendiente, estado) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String SQL_VERIFICAR_PRESTAMO = "SELECT COUNT(*) FROM prestamos WHERE idPrestamo = ?";
-    private static final String SQL_OBTENER_PRESTAMOS_CLIENTE = "SELECT * FROM prestamos WHERE idCliente = ?";
+    static final String SQL_OBTENER_PRESTAMOS_CLIENTE = "SELECT * FROM prestamos WHERE idCliente = ?";
     private static final String SQL_OBTENER_PRESTAMO = "SELECT * FROM prestamos WHERE idPrestamo = ?";
-    private static final String SQL_ACTUALIZAR_ESTADO = "UPDATE prestamos SET estado = ? WHERE idPrestamo = ?";
-    private static final String SQL_INSERTAR_PENALIDAD = "INSERT INTO penalidades (idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion) VALUES (?, ?, ?, ?)";
-    private static final String SQL_VERIFICAR_PENALIDAD = "SELECT COUNT(*) FROM penalidades WHERE idPrestamo = ? AND numeroCuota = ?";
-    private static final String SQL_OBTENER_PENALIDADES = "SELECT SUM(montoPenalidad) AS totalPenalidades FROM penalidades WHERE idPrestamo = ?";
-    private static final String SQL_OBTENER_PENALIDADES_CUOTAS = "SELECT numeroCuota, montoPenalidad FROM penalidades WHERE idPrestamo = ?";
-    private final NumberFormat formatoMoneda = Utilidad.getArgentinaNumberFormat();
+    // Préstamo, cronograma y penalidades en una sola consulta (una fila por cuota); el total de penalidades
+    // sale del resumen del préstamo
+    static final String SQL_INSTANTANEA_CRONOGRAMA =
+            "SELECT p.*, cu.numeroCuota, cu.montoCuota, cu.tasaAplicada, cu.fechaVencimiento, cu.capitalAmortizado, " +
+                    "pen.montoPenalidad, r.penalidadesAcumuladas AS totalPenalidades " +
+                    "FROM prestamos p " +
+                    "LEFT JOIN prestamo_resumen r ON r.idPrestamo = p.idPrestamo " +
+                    "LEFT JOIN cuotas cu ON cu.idPrestamo = p.idPrestamo " +
+                    "LEFT JOIN penalidades pen ON pen.idPrestamo = cu.idPrestamo AND pen.numeroCuota = cu.numeroCuota " +
+                    "WHERE p.idPrestamo = ? ORDER BY cu.numeroCuota";
+    static final String SQL_INSTANTANEA_PAGOS =
+            "SELECT numeroCuota, montoPagado, fechaPago FROM pagos WHERE idPrestamo = ? ORDER BY numeroCuota";
+    private final CuotaDAO cuotaDAO = new CuotaDAO();
+    private final MoraDAO moraDAO = new MoraDAO();
 
     @Override
     public boolean crearPrestamo(Prestamo prestamo) throws ClienteDAOException {
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_CREAR_PRESTAMO)) {
+        // Sin cronograma: el préstamo y su resumen se registran igual en una transacción
+        return crearPrestamo(prestamo, List.of());
+    }
+
+    @Override
+    public boolean crearPrestamo(Prestamo prestamo, List<Cuota> cuotas) throws ClienteDAOException {
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+
+            if (!insertarPrestamo(conn, prestamo)) {
+                conn.rollback();
+                return false;
+            }
+
+            // Registrar el cronograma completo en lotes y el resumen del préstamo dentro de la misma transacción
+            int registradas = cuotaDAO.registrarCuotas(conn, cuotas);
+            if (registradas != cuotas.size()) {
+                conn.rollback();
+                return false;
+            }
+            ResumenPrestamoDAO.recalcular(conn, prestamo.getIdPrestamo(), prestamo.getIdPrestamo(), LocalDate.now());
+
+            conn.commit();
+            DiarioPagos.getInstancia().registrar(EventoDiario.alta(prestamo.getIdPrestamo(), prestamo.getNumeroCuotas(),
+                    FormatoMoneda.aCentavos(new BigDecimal(prestamo.getSaldoPendiente())), prestamo.getFechaCreacion()));
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("Error al crear el préstamo y sus cuotas: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private boolean insertarPrestamo(Connection conn, Prestamo prestamo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_CREAR_PRESTAMO)) {
             stmt.setString(1, prestamo.getIdPrestamo());
             stmt.setString(2, prestamo.getIdCliente());
             stmt.setBigDecimal(3, new BigDecimal(prestamo.getMonto()).setScale(2, RoundingMode.HALF_UP));
@@ -47,8 +106,6 @@ public class PrestamoDAOImpl implements PrestamoDAO {
             stmt.setString(9, prestamo.getEstado().name());
             int rows = stmt.executeUpdate();
             return rows > 0;
-        } catch (SQLException e) {
-            throw new ClienteDAOException("Error al crear el préstamo: " + e.getMessage(), e);
         }
     }
 
@@ -75,17 +132,7 @@ public class PrestamoDAOImpl implements PrestamoDAO {
             stmt.setString(1, idCliente);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                Prestamo prestamo = new Prestamo(
-                        rs.getString("idPrestamo"),
-                        rs.getString("idCliente"),
-                        rs.getBigDecimal("monto").doubleValue(),
-                        rs.getBigDecimal("tasaInteres").doubleValue(),
-                        rs.getInt("numeroCuotas"),
-                        Prestamo.TipoPrestamo.valueOf(rs.getString("tipoPrestamo")),
-                        rs.getObject("fecha_creacion", LocalDate.class),
-                        rs.getBigDecimal("saldo_pendiente").doubleValue(),
-                        Prestamo.EstadoPrestamo.valueOf(rs.getString("estado"))
-                );
+                Prestamo prestamo = mapearPrestamo(rs);
                 prestamos.add(prestamo);
             }
             return prestamos;
@@ -101,17 +148,7 @@ public class PrestamoDAOImpl implements PrestamoDAO {
             stmt.setString(1, idPrestamo);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                Prestamo prestamo = new Prestamo(
-                        rs.getString("idPrestamo"),
-                        rs.getString("idCliente"),
-                        rs.getBigDecimal("monto").doubleValue(),
-                        rs.getBigDecimal("tasaInteres").doubleValue(),
-                        rs.getInt("numeroCuotas"),
-                        Prestamo.TipoPrestamo.valueOf(rs.getString("tipoPrestamo")),
-                        rs.getObject("fecha_creacion", LocalDate.class),
-                        rs.getBigDecimal("saldo_pendiente").doubleValue(),
-                        Prestamo.EstadoPrestamo.valueOf(rs.getString("estado"))
-                );
+                Prestamo prestamo = mapearPrestamo(rs);
                 return Optional.of(prestamo);
             }
             return Optional.empty();
@@ -121,57 +158,108 @@ public class PrestamoDAOImpl implements PrestamoDAO {
     }
 
     @Override
-    public void consultarEstadoPrestamo(String idPrestamo, CuotaDAO cuotaDAO, PagoDAO pagoDAO) throws ClienteDAOException {
-        Optional<Prestamo> prestamoOpt = obtenerPrestamo(idPrestamo);
-        if (!prestamoOpt.isPresent()) {
-            throw new ClienteDAOException("Préstamo con ID " + idPrestamo + " no encontrado.");
+    public Optional<InstantaneaPrestamo> obtenerInstantanea(String idPrestamo) throws ClienteDAOException {
+        try (Connection conn = ConexionDB.conectar()) {
+            return leerInstantanea(conn, idPrestamo);
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al obtener el estado del préstamo " + idPrestamo + ": " + e.getMessage(), e);
         }
-        Prestamo prestamo = prestamoOpt.get();
+    }
 
-        List<Cuota> cuotas;
-        List<Pago> pagos;
-        try {
-            cuotas = cuotaDAO.obtenerCuotas(idPrestamo);
-            pagos = pagoDAO.obtenerPagos(idPrestamo);
-        } catch (ClienteDAOException e) {
-            throw new ClienteDAOException("Error al obtener cuotas o pagos del préstamo " + idPrestamo + ": " + e.getMessage(), e);
+    /**
+     * Lee el préstamo con su cronograma y penalidades (una consulta) y sus pagos (otra), sobre la misma conexión.
+     */
+    private Optional<InstantaneaPrestamo> leerInstantanea(Connection conn, String idPrestamo) throws SQLException {
+        Prestamo prestamo = null;
+        BigDecimal totalPenalidades = BigDecimal.ZERO;
+        List<Cuota> cuotas = new ArrayList<>();
+        List<BigDecimal> penalidades = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSTANTANEA_CRONOGRAMA)) {
+            stmt.setString(1, idPrestamo);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                if (prestamo == null) {
+                    prestamo = mapearPrestamo(rs);
+                    BigDecimal total = rs.getBigDecimal("totalPenalidades");
+                    if (total != null) {
+                        totalPenalidades = total;
+                    }
+                }
+                int numeroCuota = rs.getInt("numeroCuota");
+                if (rs.wasNull()) {
+                    continue; // Préstamo sin cronograma registrado
+                }
+                BigDecimal penalidad = rs.getBigDecimal("montoPenalidad");
+                int ultima = cuotas.size() - 1;
+                if (ultima >= 0 && cuotas.get(ultima).getNumeroCuota() == numeroCuota) {
+                    // Más de una penalidad registrada para la misma cuota: se suman
+                    if (penalidad != null) {
+                        BigDecimal anterior = penalidades.get(ultima);
+                        penalidades.set(ultima, anterior == null ? penalidad : anterior.add(penalidad));
+                    }
+                    continue;
+                }
+                cuotas.add(new Cuota(
+                        idPrestamo,
+                        numeroCuota,
+                        rs.getBigDecimal("montoCuota").doubleValue(),
+                        rs.getBigDecimal("tasaAplicada").doubleValue(),
+                        rs.getObject("fechaVencimiento", LocalDate.class),
+                        rs.getBigDecimal("capitalAmortizado").doubleValue()
+                ));
+                penalidades.add(penalidad);
+            }
         }
-
-        // Verificar mora y aplicar penalidades
-        List<Cuota> cuotasEnMora = verificarMora(cuotas, pagos);
-        double totalPenalidadesNuevas = calcularPenalidad(cuotasEnMora, idPrestamo);
-        if (!cuotasEnMora.isEmpty()) {
-            aplicarPenalidad(idPrestamo, cuotasEnMora);
+        if (prestamo == null) {
+            return Optional.empty();
         }
 
-        // Obtener penalidades totales acumuladas
-        double totalPenalidadesAcumuladas = obtenerTotalPenalidades(idPrestamo);
-
-        // Calcular total de cuotas pendientes incluyendo penalidades de cuotas en mora
-        double totalCuotasPendientes = calcularSaldoPendiente(cuotas, pagos);
-        // Sumar penalidades de cuotas en mora actuales
-        double penalidadesCuotasEnMora = 0.0;
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_PENALIDADES_CUOTAS)) {
+        List<Pago> pagos = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSTANTANEA_PAGOS)) {
             stmt.setString(1, idPrestamo);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                int numeroCuota = rs.getInt("numeroCuota");
-                if (cuotasEnMora.stream().anyMatch(c -> c.getNumeroCuota() == numeroCuota)) {
-                    penalidadesCuotasEnMora += rs.getDouble("montoPenalidad");
-                }
+                pagos.add(new Pago(
+                        idPrestamo,
+                        rs.getInt("numeroCuota"),
+                        rs.getBigDecimal("montoPagado").doubleValue(),
+                        rs.getObject("fechaPago", LocalDate.class)
+                ));
             }
-        } catch (SQLException e) {
-            throw new ClienteDAOException("Error al obtener penalidades de cuotas en mora: " + e.getMessage(), e);
         }
-        totalCuotasPendientes += penalidadesCuotasEnMora;
+        return Optional.of(new InstantaneaPrestamo(prestamo, cuotas, pagos,
+                penalidades.toArray(new BigDecimal[0]), totalPenalidades));
+    }
+
+    @Override
+    public void consultarEstadoPrestamo(String idPrestamo) throws ClienteDAOException {
+        LocalDate hoy = LocalDate.now();
+        InstantaneaPrestamo instantanea = obtenerInstantanea(idPrestamo)
+                .orElseThrow(() -> new ClienteDAOException("Préstamo con ID " + idPrestamo + " no encontrado."));
+
+        // Registrar las penalidades faltantes y pasar a EN_MORA solo si hace falta; luego se vuelve a leer el estado
+        if (requiereActualizarMora(instantanea, instantanea.getCuotasEnMora(hoy))) {
+            moraDAO.procesarParticion(new MoraDAO.Particion(idPrestamo, idPrestamo, 1), hoy);
+            instantanea = obtenerInstantanea(idPrestamo)
+                    .orElseThrow(() -> new ClienteDAOException("Préstamo con ID " + idPrestamo + " no encontrado."));
+        }
 
-        int cuotasPagadas = pagos.size();
+        Prestamo prestamo = instantanea.getPrestamo();
+        List<Cuota> cuotasEnMora = instantanea.getCuotasEnMora(hoy);
+
+        // Total de cuotas pendientes: cuotas impagas más las penalidades de las cuotas en mora actuales
+        double penalidadesCuotasEnMora = 0.0;
+        for (Cuota cuota : cuotasEnMora) {
+            penalidadesCuotasEnMora += instantanea.getPenalidad(cuota.getNumeroCuota());
+        }
+        double totalCuotasPendientes = instantanea.getTotalCuotasImpagas() + penalidadesCuotasEnMora;
+
+        int cuotasPagadas = instantanea.getPagos().size();
 
         System.out.println("\n=== Estado del Préstamo ID " + idPrestamo + " ===");
         System.out.println("Tipo de Préstamo: " + prestamo.getTipoPrestamo());
         System.out.println("Estado del Préstamo: " + prestamo.getEstado());
-        System.out.println("Monto Original: " + formatoMoneda.format(prestamo.getMonto()));
+        System.out.println("Monto Original: " + FormatoMoneda.formatear(prestamo.getMonto()));
         System.out.println("Número Total de Cuotas: " + prestamo.getNumeroCuotas());
         System.out.println("Cuotas Pagadas: " + cuotasPagadas);
         System.out.println("Cuotas Pendientes: " + (prestamo.getNumeroCuotas() - cuotasPagadas));
@@ -180,17 +268,16 @@ public class PrestamoDAOImpl implements PrestamoDAO {
             System.out.println("⚠ ALERTA: El préstamo tiene cuotas en mora con penalidades aplicadas.");
             System.out.println("  Cuotas en Mora:");
             for (Cuota cuota : cuotasEnMora) {
-                double penalidad = obtenerPenalidad(idPrestamo, cuota.getNumeroCuota());
                 System.out.println("    Cuota " + cuota.getNumeroCuota() +
-                        ": " + formatoMoneda.format(cuota.getMontoCuota()) +
+                        ": " + FormatoMoneda.formatear(cuota.getMontoCuota()) +
                         ", Vencimiento: " + cuota.getFechaVencimiento() +
-                        ", Penalidad: " + formatoMoneda.format(penalidad));
+                        ", Penalidad: " + FormatoMoneda.formatear(instantanea.getPenalidad(cuota.getNumeroCuota())));
             }
         }
-        System.out.println("  Total Penalidades Acumuladas: " + formatoMoneda.format(totalPenalidadesAcumuladas) +
+        System.out.println("  Total Penalidades Acumuladas: " + FormatoMoneda.formatear(instantanea.getTotalPenalidades()) +
                 " (incluye penalidades de cuotas en mora actuales y de cuotas previamente pagadas)");
-        System.out.println("Saldo Pendiente (Capital): " + formatoMoneda.format(prestamo.getSaldoPendiente()));
-        System.out.println("Total de Cuotas Pendientes: " + formatoMoneda.format(totalCuotasPendientes));
+        System.out.println("Saldo Pendiente (Capital): " + FormatoMoneda.formatear(prestamo.getSaldoPendiente()));
+        System.out.println("Total de Cuotas Pendientes: " + FormatoMoneda.formatear(totalCuotasPendientes));
         System.out.println("Nota: El Saldo Pendiente (Capital) refleja el capital restante, mientras que el Total de Cuotas Pendientes incluye capital, intereses y penalidades de cuotas en mora actuales.");
 
         // Preguntar si desea ver el historial de pagos
@@ -201,7 +288,7 @@ public class PrestamoDAOImpl implements PrestamoDAO {
             String respuestaNormalizada = Normalizer.normalize(respuesta.toLowerCase(), Normalizer.Form.NFD)
                     .replaceAll("[^\\p{ASCII}]", "");
             if (respuestaNormalizada.equals("si")) {
-                mostrarHistorialPagos(idPrestamo, pagoDAO, formatoMoneda);
+                mostrarHistorialPagos(instantanea);
                 break;
             } else if (respuestaNormalizada.equals("no")) {
                 break;
@@ -212,117 +299,34 @@ public class PrestamoDAOImpl implements PrestamoDAO {
         }
     }
 
-    private List<Cuota> verificarMora(List<Cuota> cuotas, List<Pago> pagos) {
-        List<Cuota> cuotasEnMora = new ArrayList<>();
-        LocalDate hoy = LocalDate.now();
-        for (Cuota cuota : cuotas) {
-            boolean pagada = pagos.stream().anyMatch(p -> p.getNumeroCuota() == cuota.getNumeroCuota());
-            if (!pagada && cuota.getFechaVencimiento().isBefore(hoy)) {
-                cuotasEnMora.add(cuota);
-            }
-        }
-        return cuotasEnMora;
-    }
-
-    private double calcularPenalidad(List<Cuota> cuotasEnMora, String idPrestamo) throws ClienteDAOException {
-        double totalPenalidades = 0.0;
-        Connection conn = null;
-        try {
-            conn = ConexionDB.conectar();
-            conn.setAutoCommit(false);
-
-            for (Cuota cuota : cuotasEnMora) {
-                // Verificar si la penalidad ya fue aplicada
-                try (PreparedStatement stmtVerificar = conn.prepareStatement(SQL_VERIFICAR_PENALIDAD)) {
-                    stmtVerificar.setString(1, idPrestamo);
-                    stmtVerificar.setInt(2, cuota.getNumeroCuota());
-                    ResultSet rs = stmtVerificar.executeQuery();
-                    if (rs.next() && rs.getInt(1) > 0) {
-                        continue; // Penalidad ya aplicada
-                    }
-                }
-
-                double penalidad = cuota.getMontoCuota() * 0.05; // 5% penalidad
-                totalPenalidades += penalidad;
-
-                // Registrar penalidad
-                try (PreparedStatement stmtPenalidad = conn.prepareStatement(SQL_INSERTAR_PENALIDAD)) {
-                    stmtPenalidad.setString(1, idPrestamo);
-                    stmtPenalidad.setInt(2, cuota.getNumeroCuota());
-                    stmtPenalidad.setDouble(3, penalidad);
-                    stmtPenalidad.setObject(4, LocalDate.now());
-                    stmtPenalidad.executeUpdate();
-                }
-            }
-
-            conn.commit();
-            return Math.round(totalPenalidades * 100.0) / 100.0;
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
-                }
-            }
-            throw new ClienteDAOException("Error al calcular y registrar penalidades: " + e.getMessage(), e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
-                }
-            }
+    /**
+     * Indica si hay cuotas en mora sin penalidad registrada o si el préstamo sigue ACTIVO teniendo cuotas en mora.
+     */
+    private boolean requiereActualizarMora(InstantaneaPrestamo instantanea, List<Cuota> cuotasEnMora) {
+        if (cuotasEnMora.isEmpty()) {
+            return false;
         }
-    }
-
-    private void aplicarPenalidad(String idPrestamo, List<Cuota> cuotasEnMora) throws ClienteDAOException {
-        if (cuotasEnMora.isEmpty()) return;
-
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_ACTUALIZAR_ESTADO)) {
-            stmt.setString(1, Prestamo.EstadoPrestamo.EN_MORA.name());
-            stmt.setString(2, idPrestamo);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new ClienteDAOException("Error al actualizar el estado del préstamo " + idPrestamo + ": " + e.getMessage(), e);
+        if (instantanea.getPrestamo().getEstado() == Prestamo.EstadoPrestamo.ACTIVO) {
+            return true;
         }
-    }
-
-    private double obtenerPenalidad(String idPrestamo, int numeroCuota) throws ClienteDAOException {
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement("SELECT montoPenalidad FROM penalidades WHERE idPrestamo = ? AND numeroCuota = ?")) {
-            stmt.setString(1, idPrestamo);
-            stmt.setInt(2, numeroCuota);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getBigDecimal("montoPenalidad").doubleValue();
+        for (Cuota cuota : cuotasEnMora) {
+            if (!instantanea.tienePenalidad(cuota.getNumeroCuota())) {
+                return true;
             }
-            return 0.0;
-        } catch (SQLException e) {
-            throw new ClienteDAOException("Error al obtener penalidad para cuota " + numeroCuota + ": " + e.getMessage(), e);
         }
+        return false;
     }
 
-    private double obtenerTotalPenalidades(String idPrestamo) throws ClienteDAOException {
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_OBTENER_PENALIDADES)) {
-            stmt.setString(1, idPrestamo);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                BigDecimal totalPenalidades = rs.getBigDecimal("totalPenalidades");
-                return totalPenalidades != null ? totalPenalidades.doubleValue() : 0.0;
-            }
-            return 0.0;
-        } catch (SQLException e) {
-            throw new ClienteDAOException("Error al obtener el total de penalidades para el préstamo " + idPrestamo + ": " + e.getMessage(), e);
-        }
+    @Override
+    public void mostrarHistorialPagos(String idPrestamo) throws ClienteDAOException {
+        InstantaneaPrestamo instantanea = obtenerInstantanea(idPrestamo)
+                .orElseThrow(() -> new ClienteDAOException("Préstamo con ID " + idPrestamo + " no encontrado."));
+        mostrarHistorialPagos(instantanea);
     }
 
-    public void mostrarHistorialPagos(String idPrestamo, PagoDAO pagoDAO, NumberFormat formatoMoneda) throws ClienteDAOException {
-        List<Pago> historial = pagoDAO.obtenerHistorialPagos(idPrestamo);
+    private void mostrarHistorialPagos(InstantaneaPrestamo instantanea) {
+        String idPrestamo = instantanea.getPrestamo().getIdPrestamo();
+        List<Pago> historial = instantanea.getPagos();
         if (historial.isEmpty()) {
             System.out.println("No hay pagos registrados para el préstamo ID " + idPrestamo + ".");
             return;
@@ -330,23 +334,26 @@ public class PrestamoDAOImpl implements PrestamoDAO {
 
         System.out.println("\n=== Historial de Pagos del Préstamo ID " + idPrestamo + " ===");
         for (Pago pago : historial) {
-            double penalidad = pagoDAO.obtenerPenalidad(idPrestamo, pago.getNumeroCuota());
+            double penalidad = instantanea.getPenalidad(pago.getNumeroCuota());
             System.out.println("Cuota " + pago.getNumeroCuota() +
-                    ": " + formatoMoneda.format(pago.getMontoPagado()) +
-                    (penalidad > 0 ? " (Incluye penalidad: " + formatoMoneda.format(penalidad) + ")" : "") +
+                    ": " + FormatoMoneda.formatear(pago.getMontoPagado()) +
+                    (penalidad > 0 ? " (Incluye penalidad: " + FormatoMoneda.formatear(penalidad) + ")" : "") +
                     ", Fecha: " + pago.getFechaPago());
         }
     }
 
-    private double calcularSaldoPendiente(List<Cuota> cuotas, List<Pago> pagos) {
-        BigDecimal saldoPendiente = BigDecimal.ZERO;
-        for (Cuota cuota : cuotas) {
-            boolean pagada = pagos.stream().anyMatch(p -> p.getNumeroCuota() == cuota.getNumeroCuota());
-            if (!pagada) {
-                saldoPendiente = saldoPendiente.add(new BigDecimal(cuota.getMontoCuota()).setScale(2, RoundingMode.HALF_UP));
-            }
-        }
-        return saldoPendiente.doubleValue();
+    private Prestamo mapearPrestamo(ResultSet rs) throws SQLException {
+        return new Prestamo(
+                rs.getString("idPrestamo"),
+                rs.getString("idCliente"),
+                rs.getBigDecimal("monto").doubleValue(),
+                rs.getBigDecimal("tasaInteres").doubleValue(),
+                rs.getInt("numeroCuotas"),
+                Prestamo.TipoPrestamo.valueOf(rs.getString("tipoPrestamo")),
+                rs.getObject("fecha_creacion", LocalDate.class),
+                rs.getBigDecimal("saldo_pendiente").doubleValue(),
+                Prestamo.EstadoPrestamo.valueOf(rs.getString("estado"))
+        );
     }
 
     @Override
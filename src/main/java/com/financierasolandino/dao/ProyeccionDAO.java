@@ -0,0 +1,168 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Acceso a datos de la proyección de ingresos de la cartera: recorre en una sola consulta, ordenada por préstamo
+ * y cuota, todas las cuotas impagas de los préstamos vigentes con su penalidad registrada, y las entrega por bloques.
+ */
+public class ProyeccionDAO {
+    static final String SQL_CUOTAS_PENDIENTES_CARTERA =
+            "SELECT cu.idPrestamo, p.tipoPrestamo, p.estado, cu.fechaVencimiento, cu.montoCuota, pen.montoPenalidad " +
+                    "FROM prestamos p " +
+                    "JOIN cuotas cu ON cu.idPrestamo = p.idPrestamo " +
+                    "LEFT JOIN pagos pg ON pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota " +
+                    "LEFT JOIN penalidades pen ON pen.idPrestamo = cu.idPrestamo AND pen.numeroCuota = cu.numeroCuota " +
+                    "WHERE p.estado IN ('ACTIVO', 'EN_MORA') " +
+                    "AND pg.idPrestamo IS NULL " +
+                    "AND cu.fechaVencimiento <= ? " +
+                    "ORDER BY cu.idPrestamo, cu.numeroCuota";
+
+    private static final Prestamo.TipoPrestamo[] TIPOS = Prestamo.TipoPrestamo.values();
+    private static final Prestamo.EstadoPrestamo[] ESTADOS = Prestamo.EstadoPrestamo.values();
+
+    /**
+     * Bloque de cuotas impagas en columnas de tipos primitivos, sin un objeto por fila. Las cuotas de un mismo
+     * préstamo nunca se reparten entre dos bloques. Los préstamos se identifican con un número correlativo
+     * dentro del recorrido, en lugar del idPrestamo.
+     */
+    public static class BloqueCuotas {
+        private int cantidad;
+        private int[] prestamo;
+        private byte[] tipo;
+        private byte[] estado;
+        private long[] diaVencimiento;
+        private long[] centavosCuota;
+        private long[] centavosPenalidad;
+
+        BloqueCuotas(int capacidad) {
+            prestamo = new int[capacidad];
+            tipo = new byte[capacidad];
+            estado = new byte[capacidad];
+            diaVencimiento = new long[capacidad];
+            centavosCuota = new long[capacidad];
+            centavosPenalidad = new long[capacidad];
+        }
+
+        void agregar(int numeroPrestamo, Prestamo.TipoPrestamo tipoPrestamo, Prestamo.EstadoPrestamo estadoPrestamo,
+                     LocalDate vencimiento, long cuota, long penalidad) {
+            if (cantidad == prestamo.length) {
+                int capacidad = cantidad * 2;
+                prestamo = Arrays.copyOf(prestamo, capacidad);
+                tipo = Arrays.copyOf(tipo, capacidad);
+                estado = Arrays.copyOf(estado, capacidad);
+                diaVencimiento = Arrays.copyOf(diaVencimiento, capacidad);
+                centavosCuota = Arrays.copyOf(centavosCuota, capacidad);
+                centavosPenalidad = Arrays.copyOf(centavosPenalidad, capacidad);
+            }
+            prestamo[cantidad] = numeroPrestamo;
+            tipo[cantidad] = (byte) tipoPrestamo.ordinal();
+            estado[cantidad] = (byte) estadoPrestamo.ordinal();
+            diaVencimiento[cantidad] = vencimiento.toEpochDay();
+            centavosCuota[cantidad] = cuota;
+            centavosPenalidad[cantidad] = penalidad;
+            cantidad++;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        /**
+         * @return Número correlativo del préstamo de la fila (creciente en el orden del recorrido).
+         */
+        public int getPrestamo(int fila) {
+            return prestamo[fila];
+        }
+
+        public Prestamo.TipoPrestamo getTipo(int fila) {
+            return TIPOS[tipo[fila]];
+        }
+
+        public Prestamo.EstadoPrestamo getEstado(int fila) {
+            return ESTADOS[estado[fila]];
+        }
+
+        /**
+         * @return Fecha de vencimiento de la cuota como día de época ({@link LocalDate#toEpochDay()}).
+         */
+        public long getDiaVencimiento(int fila) {
+            return diaVencimiento[fila];
+        }
+
+        public long getCentavosCuota(int fila) {
+            return centavosCuota[fila];
+        }
+
+        /**
+         * @return La penalidad registrada en centavos, o -1 si la cuota no tiene penalidad.
+         */
+        public long getCentavosPenalidad(int fila) {
+            return centavosPenalidad[fila];
+        }
+    }
+
+    /**
+     * Recorre las cuotas impagas de los préstamos ACTIVO o EN_MORA que vencen hasta la fecha indicada, incluidas
+     * las ya vencidas. Las filas se leen en modo streaming y se entregan en bloques de al menos tamanoBloque cuotas
+     * (salvo el último), cortados al cambiar de préstamo. El consumidor se invoca en el hilo que llama y puede
+     * bloquearse para limitar la cantidad de bloques pendientes.
+     * @param hasta Fecha de vencimiento máxima, incluida.
+     * @param tamanoBloque Cantidad mínima de cuotas por bloque.
+     * @param consumidor Recibe cada bloque; después de la llamada el bloque ya no se modifica.
+     * @return Cantidad de préstamos recorridos.
+     * @throws ClienteDAOException Si ocurre un error al consultar las cuotas.
+     */
+    public int recorrerCuotasPendientes(LocalDate hasta, int tamanoBloque, Consumer<BloqueCuotas> consumidor)
+            throws ClienteDAOException {
+        try (Connection conn = ConexionDB.conectar();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CUOTAS_PENDIENTES_CARTERA,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(ConexionDB.getTamanoFetchExportacion());
+            stmt.setObject(1, hasta);
+            try (ResultSet rs = stmt.executeQuery()) {
+                BloqueCuotas bloque = new BloqueCuotas(tamanoBloque);
+                String idAnterior = null;
+                int prestamos = 0;
+                Prestamo.TipoPrestamo tipo = null;
+                Prestamo.EstadoPrestamo estado = null;
+                while (rs.next()) {
+                    String idPrestamo = rs.getString(1);
+                    if (!idPrestamo.equals(idAnterior)) {
+                        if (bloque.cantidad >= tamanoBloque) {
+                            consumidor.accept(bloque);
+                            bloque = new BloqueCuotas(tamanoBloque);
+                        }
+                        // El tipo y el estado son del préstamo: se leen una vez por préstamo, no por cuota
+                        tipo = Prestamo.TipoPrestamo.valueOf(rs.getString(2));
+                        estado = Prestamo.EstadoPrestamo.valueOf(rs.getString(3));
+                        idAnterior = idPrestamo;
+                        prestamos++;
+                    }
+                    LocalDate vencimiento = rs.getObject(4, LocalDate.class);
+                    long cuota = FormatoMoneda.aCentavos(rs.getBigDecimal(5));
+                    BigDecimal penalidad = rs.getBigDecimal(6);
+                    bloque.agregar(prestamos, tipo, estado, vencimiento, cuota,
+                            penalidad != null ? FormatoMoneda.aCentavos(penalidad) : -1);
+                }
+                if (bloque.cantidad > 0) {
+                    consumidor.accept(bloque);
+                }
+                return prestamos;
+            }
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al recorrer las cuotas pendientes de la cartera: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,32 +1,33 @@
 package com.financierasolandino.dao;
 
 import com.financierasolandino.db.ConexionDB;
-import com.financierasolandino.util.Utilidad;
+import com.financierasolandino.util.EscritorCsv;
+import com.financierasolandino.util.FormatoMoneda;
 
 import java.io.File;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.time.format.DateTimeFormatter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 public class ReporteDAO {
-    private static final String SQL_CLIENTES_CON_PRESTAMOS_ACTIVOS =
+    static final String SQL_CLIENTES_CON_PRESTAMOS_ACTIVOS =
             "SELECT c.idCliente, c.nombre, p.idPrestamo, p.saldo_pendiente, p.estado " +
                     "FROM clientes c " +
                     "JOIN prestamos p ON c.idCliente = p.idCliente " +
                     "WHERE p.estado IN ('ACTIVO', 'EN_MORA') " +
                     "ORDER BY c.idCliente, p.idPrestamo";
 
-    private static final String SQL_PROYECTAR_INGRESOS =
+    static final String SQL_PROYECTAR_INGRESOS =
             "SELECT cu.idPrestamo, cu.numeroCuota, cu.montoCuota, cu.fechaVencimiento, " +
                     "COALESCE(pen.montoPenalidad, 0) as montoPenalidad " +
                     "FROM cuotas cu " +
@@ -34,18 +35,42 @@ public class ReporteDAO {
                     "LEFT JOIN penalidades pen ON cu.idPrestamo = pen.idPrestamo AND cu.numeroCuota = pen.numeroCuota " +
                     "WHERE cu.idPrestamo = ? AND pg.idPrestamo IS NULL AND cu.fechaVencimiento <= ?";
 
-    private static final String SQL_CLIENTES_EN_MORA =
-            "SELECT c.idCliente, c.nombre, p.idPrestamo, cu.numeroCuota, cu.montoCuota, pen.montoPenalidad, cu.fechaVencimiento " +
+    // Cuotas vencidas e impagas de los préstamos en mora, con la penalidad de la cuota y la penalidad acumulada del
+    // préstamo, que se lee del resumen (una fila por préstamo) en lugar de sumar sus penalidades.
+    private static final String SQL_CLIENTES_EN_MORA_BASE =
+            "SELECT c.idCliente, c.nombre, p.idPrestamo, cu.numeroCuota, cu.montoCuota, cu.fechaVencimiento, " +
+                    "pen.montoPenalidad, r.penalidadesAcumuladas AS totalPenalidad " +
                     "FROM clientes c " +
                     "JOIN prestamos p ON c.idCliente = p.idCliente " +
                     "JOIN cuotas cu ON p.idPrestamo = cu.idPrestamo " +
                     "LEFT JOIN pagos pg ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
                     "LEFT JOIN penalidades pen ON cu.idPrestamo = pen.idPrestamo AND cu.numeroCuota = pen.numeroCuota " +
-                    "WHERE p.estado = 'EN_MORA' AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ? " +
-                    "ORDER BY c.idCliente, p.idPrestamo, cu.numeroCuota";
+                    "LEFT JOIN prestamo_resumen r ON r.idPrestamo = p.idPrestamo " +
+                    "WHERE p.estado = 'EN_MORA' AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ? ";
+
+    private static final String SQL_CLIENTES_EN_MORA_ORDEN = "ORDER BY c.idCliente, p.idPrestamo, cu.numeroCuota";
+
+    static final String SQL_CLIENTES_EN_MORA = SQL_CLIENTES_EN_MORA_BASE + SQL_CLIENTES_EN_MORA_ORDEN;
+
+    private static final String SQL_CLIENTES_EN_MORA_CLIENTE =
+            SQL_CLIENTES_EN_MORA_BASE + "AND c.idCliente = ? " + SQL_CLIENTES_EN_MORA_ORDEN;
+
+    // Cada préstamo con su resumen, sin agrupar cuotas ni pagos. Las cuotas en mora se toman del resumen si se
+    // contaron hoy o si la próxima cuota impaga todavía no venció; si no, se cuentan solo las de ese préstamo.
+    static final String SQL_EXPORTAR_PRESTAMOS =
+            "SELECT p.idPrestamo, p.idCliente, p.monto, p.tasaInteres, p.numeroCuotas, p.tipoPrestamo, p.fecha_creacion, " +
+                    "p.saldo_pendiente, p.estado, " +
+                    "COALESCE(r.cuotasPagadas, 0) AS cuotasPagadas, " +
+                    "CASE WHEN r.proximoVencimiento IS NULL OR r.proximoVencimiento >= ? THEN 0 " +
+                    "WHEN r.fechaCorte = ? THEN r.cuotasVencidas " +
+                    "ELSE (SELECT COUNT(*) FROM cuotas cu WHERE cu.idPrestamo = p.idPrestamo AND cu.fechaVencimiento < ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)) " +
+                    "END AS cuotasEnMora " +
+                    "FROM prestamos p " +
+                    "LEFT JOIN prestamo_resumen r ON r.idPrestamo = p.idPrestamo ";
+
+    private final PagoDAO pagoDAO = new PagoDAO();
 
-    //private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.forLanguageTag("es-AR"));
-    private final NumberFormat formatoMoneda = Utilidad.getArgentinaNumberFormat();
     /**
      * Obtiene los clientes con préstamos activos o en mora, mostrando sus préstamos y saldos pendientes.
      */
@@ -80,7 +105,7 @@ public class ReporteDAO {
 
                 // Formatear cada línea para que todo esté alineado
                 String idPrestamoFormateado = String.format("%-36s", idPrestamo); // ID de préstamo con 36 caracteres de ancho
-                String saldoPendienteFormateado = String.format("%-15s", formatoMoneda.format(saldoPendiente)); // Saldo pendiente con 20 caracteres de ancho
+                String saldoPendienteFormateado = String.format("%-15s", FormatoMoneda.formatear(saldoPendiente)); // Saldo pendiente con 20 caracteres de ancho
                 String estadoFormateado = String.format("%-30s", estadoDescripcion); // Estado con 30 caracteres de ancho
 
                 // Agregar la información del préstamo con formato
@@ -120,26 +145,28 @@ public class ReporteDAO {
         int cuotasPagadas = 0;
         LocalDate fechaCreacion = null;
         LocalDate ultimaFecha = null;
+        // Penalidades por registrar de las cuotas vencidas que no la tienen, por número de cuota
+        Map<Integer, BigDecimal> penalidadesFaltantes = new LinkedHashMap<>();
 
         // Formateador de fechas
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
         // Obtener información del préstamo
-        String sqlPrestamo = "SELECT numeroCuotas, fecha_creacion FROM prestamos WHERE idPrestamo = ?";
+        String sqlPrestamo = "SELECT p.numeroCuotas, p.fecha_creacion, r.cuotasPagadas FROM prestamos p " +
+                "LEFT JOIN prestamo_resumen r ON r.idPrestamo = p.idPrestamo WHERE p.idPrestamo = ?";
         String sqlUltimaCuota = "SELECT MAX(fechaVencimiento) as ultimaFecha FROM cuotas WHERE idPrestamo = ?";
-        String sqlCuotasPagadas = "SELECT COUNT(*) as cuotasPagadas FROM pagos WHERE idPrestamo = ?";
 
         try (Connection conn = ConexionDB.conectar();
              PreparedStatement stmtPrestamo = conn.prepareStatement(sqlPrestamo);
-             PreparedStatement stmtUltima = conn.prepareStatement(sqlUltimaCuota);
-             PreparedStatement stmtPagadas = conn.prepareStatement(sqlCuotasPagadas)) {
+             PreparedStatement stmtUltima = conn.prepareStatement(sqlUltimaCuota)) {
 
-            // Obtener número de cuotas y fecha de creación
+            // Obtener número de cuotas, fecha de creación y cuotas pagadas (del resumen del préstamo)
             stmtPrestamo.setString(1, idPrestamo);
             ResultSet rsPrestamo = stmtPrestamo.executeQuery();
             if (rsPrestamo.next()) {
                 totalCuotasPrestamo = rsPrestamo.getInt("numeroCuotas");
                 fechaCreacion = rsPrestamo.getObject("fecha_creacion", LocalDate.class);
+                cuotasPagadas = rsPrestamo.getInt("cuotasPagadas");
             } else {
                 throw new ClienteDAOException("Préstamo ID " + idPrestamo + " no encontrado.");
             }
@@ -151,13 +178,6 @@ public class ReporteDAO {
                 ultimaFecha = rsUltima.getObject("ultimaFecha", LocalDate.class);
             }
 
-            // Obtener número de cuotas pagadas
-            stmtPagadas.setString(1, idPrestamo);
-            ResultSet rsPagadas = stmtPagadas.executeQuery();
-            if (rsPagadas.next()) {
-                cuotasPagadas = rsPagadas.getInt("cuotasPagadas");
-            }
-
             // Consultar cuotas
             try (PreparedStatement stmt = conn.prepareStatement(SQL_PROYECTAR_INGRESOS)) {
                 stmt.setString(1, idPrestamo);
@@ -170,18 +190,11 @@ public class ReporteDAO {
                     LocalDate fechaVencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
                     double montoPenalidad = rs.getDouble("montoPenalidad");
 
-                    // Si la cuota está en mora y no tiene penalidad registrada, calcularla
+                    // Si la cuota está en mora y no tiene penalidad registrada, calcularla; se registra al terminar la lectura
                     if (fechaVencimiento.isBefore(hoy) && montoPenalidad == 0) {
-                        montoPenalidad = montoCuota * 0.05; // 5% de penalidad
-                        // Registrar la penalidad en la base de datos
-                        try (PreparedStatement penalidadStmt = conn.prepareStatement(
-                                "INSERT INTO penalidades (idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion) VALUES (?, ?, ?, ?)")) {
-                            penalidadStmt.setString(1, idPrestamo);
-                            penalidadStmt.setInt(2, numeroCuota);
-                            penalidadStmt.setDouble(3, montoPenalidad);
-                            penalidadStmt.setDate(4, java.sql.Date.valueOf(hoy));
-                            penalidadStmt.executeUpdate();
-                        }
+                        BigDecimal penalidad = MoraDAO.calcularPenalidad(rs.getBigDecimal("montoCuota"));
+                        montoPenalidad = penalidad.doubleValue();
+                        penalidadesFaltantes.put(numeroCuota, penalidad);
                     }
 
                     if (fechaVencimiento.isBefore(hoy)) {
@@ -195,111 +208,67 @@ public class ReporteDAO {
                         totalCuotasPendientes += montoCuota;
                     }
                 }
-
-                if (cuotasEnMora == 0 && cuotasPendientes == 0) {
-                    System.out.println("No hay cuotas pendientes para el préstamo ID " + idPrestamo + " en el período especificado.");
-                } else {
-                    System.out.println("\n=== Proyección de Ingresos para Préstamo ID " + idPrestamo + " ===");
-                    System.out.println("Período de proyección: " + hoy.format(formatter) + " a " + fechaFin.format(formatter) + " (" + meses + " meses)");
-                    System.out.println("Préstamo con " + totalCuotasPrestamo + " cuotas en total | cuotas pagadas: " + cuotasPagadas +
-                            " | fecha creación: " + (fechaCreacion != null ? fechaCreacion.format(formatter) : "N/A") +
-                            " | última cuota vence el: " + (ultimaFecha != null ? ultimaFecha.format(formatter) : "N/A"));
-                    if (meses > totalCuotasPrestamo) {
-                        System.out.println("Nota: La proyección incluye todas las cuotas pendientes del préstamo, ya que el período solicitado (" +
-                                meses + " meses) excede la duración del préstamo (" + totalCuotasPrestamo + " meses).");
-                    }
-                    System.out.println();
-                    if (cuotasEnMora > 0) {
-                        System.out.println("Cuotas pendientes (en mora): " + cuotasEnMora + " cuota(s) | Penalidad por mora: " +
-                                formatoMoneda.format(totalPenalidades) + " | Total sin penalidad: " +
-                                formatoMoneda.format(totalCuotasMora) + " | Total con penalidades: " +
-                                formatoMoneda.format(totalCuotasMora + totalPenalidades));
-                    } else {
-                        System.out.println("No hay cuotas en mora.");
-                    }
-                    if (cuotasPendientes > 0) {
-                        System.out.println("Cuotas pendientes (no en mora): " + cuotasPendientes + " cuota(s) | Total: " +
-                                formatoMoneda.format(totalCuotasPendientes));
-                    } else {
-                        System.out.println("No hay cuotas pendientes futuras.");
-                    }
-                    double totalIngresos = totalCuotasMora + totalCuotasPendientes + totalPenalidades;
-                    System.out.println("\nIngresos proyectados totales: " + formatoMoneda.format(totalIngresos));
-                }
             }
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al proyectar ingresos para el préstamo ID " + idPrestamo, e);
         }
-    }
-
-    public void obtenerClientesEnMora() throws ClienteDAOException {
-        List<String> resultados = new ArrayList<>();
-        double totalPenalidadesGlobal = 0.0;
-
-        String SQL_TOTAL_PENALIDADES_PRESTAMO =
-                "SELECT SUM(montoPenalidad) AS totalPenalidad " +
-                        "FROM penalidades WHERE idPrestamo = ?";
-
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(SQL_CLIENTES_EN_MORA);
-             PreparedStatement penalidadStmt = conn.prepareStatement(SQL_TOTAL_PENALIDADES_PRESTAMO)) {
-
-            stmt.setDate(1, java.sql.Date.valueOf(LocalDate.now()));
-            ResultSet rs = stmt.executeQuery();
-
-            String clienteActual = "";
-            String prestamoActual = "";
-            String idPrestamoAnterior = null;
-            double totalPenalidadPrestamo = 0.0;
-
-            while (rs.next()) {
-                String idCliente = rs.getString("idCliente");
-                String nombre = rs.getString("nombre");
-                String idPrestamo = rs.getString("idPrestamo");
-                int numeroCuota = rs.getInt("numeroCuota");
-                double montoCuota = rs.getDouble("montoCuota");
-                double montoPenalidad = rs.getDouble("montoPenalidad");
-                LocalDate fechaVencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
-
-                if (!idCliente.equals(clienteActual)) {
-                    resultados.add("\nCliente: " + nombre + " (DNI: " + idCliente + ")");
-                    clienteActual = idCliente;
-                    prestamoActual = "";
-                }
 
-                if (!idPrestamo.equals(prestamoActual)) {
-                    // Consultar penalidades acumuladas para este préstamo
-                    penalidadStmt.setString(1, idPrestamo);
-                    try (ResultSet penalidadRs = penalidadStmt.executeQuery()) {
-                        if (penalidadRs.next()) {
-                            totalPenalidadPrestamo = penalidadRs.getDouble("totalPenalidad");
-                            totalPenalidadesGlobal += totalPenalidadPrestamo;
-                        } else {
-                            totalPenalidadPrestamo = 0;
-                        }
-                    }
-
-                    resultados.add("  Préstamo ID: " + idPrestamo);
-                    resultados.add("    Penalidad acumulada: " + formatoMoneda.format(totalPenalidadPrestamo));
-                    prestamoActual = idPrestamo;
-                }
-
-                resultados.add("    Cuota " + numeroCuota + ": " + formatoMoneda.format(montoCuota) +
-                        ", Vencimiento: " + fechaVencimiento +
-                        (montoPenalidad > 0 ? ", Penalidad: " + formatoMoneda.format(montoPenalidad) : ""));
+        // Registrar las penalidades faltantes, cada una en su propia transacción, con la conexión del reporte ya cerrada.
+        // Si otro proceso penalizó la cuota mientras tanto, se informa la penalidad que quedó registrada.
+        for (Map.Entry<Integer, BigDecimal> faltante : penalidadesFaltantes.entrySet()) {
+            if (!pagoDAO.registrarPenalidad(idPrestamo, faltante.getKey(), faltante.getValue(), hoy)) {
+                totalPenalidades += pagoDAO.obtenerPenalidad(idPrestamo, faltante.getKey()) - faltante.getValue().doubleValue();
             }
+        }
 
-            if (resultados.isEmpty()) {
-                System.out.println("No hay clientes con préstamos en mora.");
+        if (cuotasEnMora == 0 && cuotasPendientes == 0) {
+            System.out.println("No hay cuotas pendientes para el préstamo ID " + idPrestamo + " en el período especificado.");
+        } else {
+            System.out.println("\n=== Proyección de Ingresos para Préstamo ID " + idPrestamo + " ===");
+            System.out.println("Período de proyección: " + hoy.format(formatter) + " a " + fechaFin.format(formatter) + " (" + meses + " meses)");
+            System.out.println("Préstamo con " + totalCuotasPrestamo + " cuotas en total | cuotas pagadas: " + cuotasPagadas +
+                    " | fecha creación: " + (fechaCreacion != null ? fechaCreacion.format(formatter) : "N/A") +
+                    " | última cuota vence el: " + (ultimaFecha != null ? ultimaFecha.format(formatter) : "N/A"));
+            if (meses > totalCuotasPrestamo) {
+                System.out.println("Nota: La proyección incluye todas las cuotas pendientes del préstamo, ya que el período solicitado (" +
+                        meses + " meses) excede la duración del préstamo (" + totalCuotasPrestamo + " meses).");
+            }
+            System.out.println();
+            if (cuotasEnMora > 0) {
+                System.out.println("Cuotas pendientes (en mora): " + cuotasEnMora + " cuota(s) | Penalidad por mora: " +
+                        FormatoMoneda.formatear(totalPenalidades) + " | Total sin penalidad: " +
+                        FormatoMoneda.formatear(totalCuotasMora) + " | Total con penalidades: " +
+                        FormatoMoneda.formatear(totalCuotasMora + totalPenalidades));
             } else {
-                System.out.println("\n=== Clientes con Préstamos en Mora ===");
-                resultados.forEach(System.out::println);
-                System.out.println("\nSuma total penalidades: " + formatoMoneda.format(totalPenalidadesGlobal));
+                System.out.println("No hay cuotas en mora.");
             }
+            if (cuotasPendientes > 0) {
+                System.out.println("Cuotas pendientes (no en mora): " + cuotasPendientes + " cuota(s) | Total: " +
+                        FormatoMoneda.formatear(totalCuotasPendientes));
+            } else {
+                System.out.println("No hay cuotas pendientes futuras.");
+            }
+            double totalIngresos = totalCuotasMora + totalCuotasPendientes + totalPenalidades;
+            System.out.println("\nIngresos proyectados totales: " + FormatoMoneda.formatear(totalIngresos));
+        }
+    }
 
-        } catch (SQLException e) {
+    /**
+     * Muestra los clientes con préstamos en mora, con la penalidad acumulada de cada préstamo y sus cuotas vencidas
+     * e impagas. Las filas se imprimen a medida que se leen, sin acumular el reporte en memoria.
+     */
+    public void obtenerClientesEnMora() throws ClienteDAOException {
+        VistaClientesEnMora vista = new VistaClientesEnMora();
+        try {
+            recorrerClientesEnMora(null, vista);
+        } catch (SQLException | IOException e) {
             throw new ClienteDAOException("❌ Error al obtener clientes en mora", e);
         }
+        if (vista.cuotas == 0) {
+            System.out.println("No hay clientes con préstamos en mora.");
+        } else {
+            System.out.println("\nSuma total penalidades: " + FormatoMoneda.formatear(vista.totalPenalidades));
+        }
     }
 
     /**
@@ -319,7 +288,7 @@ public class ReporteDAO {
         crearDirectorioExportacion();
 
         try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+             PreparedStatement stmt = prepararConsultaExportacion(conn, sql)) {
 
             if (idCliente != null) {
                 stmt.setString(1, idCliente);
@@ -327,35 +296,27 @@ public class ReporteDAO {
 
             ResultSet rs = stmt.executeQuery();
 
-            // Verificar si hay datos
+            // Verificar si hay datos: el primer registro se lee antes de crear el archivo
             if (!rs.next()) {
                 System.out.println("❌ No se encontraron clientes para exportar" + (idCliente != null ? " con DNI " + idCliente : "") + ".");
                 return null;
             }
 
-            // Volver al inicio del ResultSet
-            rs.beforeFirst();
-
-            try (FileWriter writer = new FileWriter(nombreArchivo, StandardCharsets.UTF_8)) {
-                // Agregar BOM para UTF-8
-                writer.write('\uFEFF');
-
+            try (EscritorCsv escritor = new EscritorCsv(nombreArchivo)) {
                 // Escribir encabezados
-                writer.write("ID Cliente,Nombre,Dirección,Teléfono,Correo Electrónico\n");
-
-                // Escribir datos
-                while (rs.next()) {
-                    String id = rs.getString("idCliente");
-                    String nombre = rs.getString("nombre");
-                    String direccion = rs.getString("direccion");
-                    String telefono = rs.getString("telefono");
-                    String correo = rs.getString("correoElectronico");
-                    writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                            escapeCsv(id), escapeCsv(nombre), escapeCsv(direccion), escapeCsv(telefono), escapeCsv(correo)));
-                }
-
-                //System.out.println("Datos de clientes exportados a: " + nombreArchivo);
-                return nombreArchivo;
+                escritor.encabezado("ID Cliente,Nombre,Dirección,Teléfono,Correo Electrónico");
+
+                // Escribir datos (el cursor ya está posicionado en el primer registro)
+                do {
+                    escritor.campo(rs.getString("idCliente"))
+                            .campo(rs.getString("nombre"))
+                            .campo(rs.getString("direccion"))
+                            .campo(rs.getString("telefono"))
+                            .campo(rs.getString("correoElectronico"))
+                            .finFila();
+                } while (rs.next());
+
+                return finalizarExportacion(escritor, nombreArchivo);
             }
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al exportar datos de clientes", e);
@@ -371,43 +332,39 @@ public class ReporteDAO {
      * @throws ClienteDAOException Si ocurre un error durante la exportación.
      */
     public String exportarDatosPrestamos(String idCliente) throws ClienteDAOException {
-        String sql = idCliente == null ?
-                "SELECT idPrestamo, idCliente, monto, tasaInteres, numeroCuotas, tipoPrestamo, fecha_creacion, saldo_pendiente, estado FROM prestamos" :
-                "SELECT idPrestamo, idCliente, monto, tasaInteres, numeroCuotas, tipoPrestamo, fecha_creacion, saldo_pendiente, estado FROM prestamos WHERE idCliente = ?";
+        // Una fila por préstamo: las cuotas pagadas y en mora salen del resumen del préstamo
+        String sql = idCliente == null ? SQL_EXPORTAR_PRESTAMOS : SQL_EXPORTAR_PRESTAMOS + "WHERE p.idCliente = ?";
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String nombreArchivo = "exportacion/prestamos_" + timestamp + ".csv";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
         // Crear directorio exportacion si no existe
         crearDirectorioExportacion();
 
         try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+             PreparedStatement stmt = prepararConsultaExportacion(conn, sql)) {
 
+            java.sql.Date hoy = java.sql.Date.valueOf(LocalDate.now());
+            stmt.setDate(1, hoy);
+            stmt.setDate(2, hoy);
+            stmt.setDate(3, hoy);
             if (idCliente != null) {
-                stmt.setString(1, idCliente);
+                stmt.setString(4, idCliente);
             }
 
             ResultSet rs = stmt.executeQuery();
 
-            // Verificar si hay datos
+            // Verificar si hay datos: el primer registro se lee antes de crear el archivo
             if (!rs.next()) {
                 System.out.println("❌ No se encontraron préstamos para exportar" + (idCliente != null ? " para el cliente con DNI " + idCliente : "") + ".");
                 return null;
             }
 
-            // Volver al inicio del ResultSet
-            rs.beforeFirst();
-
-            try (FileWriter writer = new FileWriter(nombreArchivo, StandardCharsets.UTF_8)) {
-                // Agregar BOM para UTF-8
-                writer.write('\uFEFF');
-
+            try (EscritorCsv escritor = new EscritorCsv(nombreArchivo)) {
                 // Escribir encabezados
-                writer.write("ID Préstamo,ID Cliente,Monto,Tasa Interés,Número Cuotas,Tipo Préstamo,Fecha Creación,Saldo Pendiente,Estado,Cuotas Pagadas,Cuotas Pendientes,Cuotas en Mora\n");
+                escritor.encabezado("ID Préstamo,ID Cliente,Monto,Tasa Interés,Número Cuotas,Tipo Préstamo,Fecha Creación,Saldo Pendiente,Estado,Cuotas Pagadas,Cuotas Pendientes,Cuotas en Mora");
 
-                // Escribir datos
-                while (rs.next()) {
+                // Escribir datos (el cursor ya está posicionado en el primer registro)
+                do {
                     String idPrestamo = rs.getString("idPrestamo");
                     String idCli = rs.getString("idCliente");
                     double monto = rs.getDouble("monto");
@@ -418,25 +375,20 @@ public class ReporteDAO {
                     double saldoPendiente = rs.getDouble("saldo_pendiente");
                     String estado = rs.getString("estado");
 
-                    // Calcular cuotas pagadas
-                    int cuotasPagadas = getCuotasPagadas(conn, idPrestamo);
-
-                    // Calcular cuotas en mora
-                    int cuotasEnMora = getCuotasEnMora(conn, idPrestamo);
+                    int cuotasPagadas = rs.getInt("cuotasPagadas");
+                    int cuotasEnMora = rs.getInt("cuotasEnMora");
 
                     // Calcular cuotas pendientes (no pagadas y no vencidas)
                     int cuotasPendientes = numeroCuotas - cuotasPagadas - cuotasEnMora;
 
-                    writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%.2f\",\"%d\",\"%s\",\"%s\",\"%s\",\"%s\",\"%d\",\"%d\",\"%d\"\n",
-                            escapeCsv(idPrestamo), escapeCsv(idCli), formatoMoneda.format(monto), tasaInteres,
-                            numeroCuotas, escapeCsv(tipoPrestamo),
-                            fechaCreacion != null ? fechaCreacion.format(formatter) : "N/A",
-                            formatoMoneda.format(saldoPendiente), escapeCsv(estado),
-                            cuotasPagadas, cuotasPendientes, cuotasEnMora));
-                }
+                    escritor.campo(idPrestamo).campo(idCli).campoMoneda(monto).campoDecimal(tasaInteres)
+                            .campo(numeroCuotas).campo(tipoPrestamo).campoFecha(fechaCreacion)
+                            .campoMoneda(saldoPendiente).campo(estado)
+                            .campo(cuotasPagadas).campo(cuotasPendientes).campo(cuotasEnMora)
+                            .finFila();
+                } while (rs.next());
 
-                //System.out.println("Datos de préstamos exportados a: " + nombreArchivo);
-                return nombreArchivo;
+                return finalizarExportacion(escritor, nombreArchivo);
             }
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al exportar datos de préstamos", e);
@@ -460,13 +412,12 @@ public class ReporteDAO {
                         "WHERE p.idPrestamo = ?";
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String nombreArchivo = "exportacion/pagos_" + timestamp + ".csv";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
         // Crear directorio exportacion si no existe
         crearDirectorioExportacion();
 
         try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+             PreparedStatement stmt = prepararConsultaExportacion(conn, sql)) {
 
             if (idPrestamo != null) {
                 stmt.setString(1, idPrestamo);
@@ -474,37 +425,28 @@ public class ReporteDAO {
 
             ResultSet rs = stmt.executeQuery();
 
-            // Verificar si hay datos
+            // Verificar si hay datos: el primer registro se lee antes de crear el archivo
             if (!rs.next()) {
                 System.out.println("❌ No se encontraron pagos para exportar" + (idPrestamo != null ? " para el préstamo ID " + idPrestamo : "") + ".");
                 return null;
             }
 
-            // Volver al inicio del ResultSet
-            rs.beforeFirst();
-
-            try (FileWriter writer = new FileWriter(nombreArchivo, StandardCharsets.UTF_8)) {
-                // Agregar BOM para UTF-8
-                writer.write('\uFEFF');
-
+            try (EscritorCsv escritor = new EscritorCsv(nombreArchivo)) {
                 // Escribir encabezados
-                writer.write("ID Préstamo,Número Cuota,Monto Pagado,Fecha Pago,Penalidad\n");
+                escritor.encabezado("ID Préstamo,Número Cuota,Monto Pagado,Fecha Pago,Penalidad");
 
-                // Escribir datos
-                while (rs.next()) {
-                    String id = rs.getString("idPrestamo");
-                    int numeroCuota = rs.getInt("numeroCuota");
-                    double montoPagado = rs.getDouble("montoPagado");
-                    LocalDate fechaPago = rs.getObject("fechaPago", LocalDate.class);
+                // Escribir datos (el cursor ya está posicionado en el primer registro)
+                do {
                     double penalidad = rs.getDouble("montoPenalidad");
-                    writer.write(String.format("\"%s\",\"%d\",\"%s\",\"%s\",\"%s\"\n",
-                            escapeCsv(id), numeroCuota, formatoMoneda.format(montoPagado),
-                            fechaPago != null ? fechaPago.format(formatter) : "N/A",
-                            penalidad > 0 ? formatoMoneda.format(penalidad) : "$0,00"));
-                }
-
-                //System.out.println("Historial de pagos exportado a: " + nombreArchivo);
-                return nombreArchivo;
+                    escritor.campo(rs.getString("idPrestamo"))
+                            .campo(rs.getInt("numeroCuota"))
+                            .campoMoneda(rs.getDouble("montoPagado"))
+                            .campoFecha(rs.getObject("fechaPago", LocalDate.class))
+                            .campoMoneda(penalidad > 0 ? penalidad : 0.0)
+                            .finFila();
+                } while (rs.next());
+
+                return finalizarExportacion(escritor, nombreArchivo);
             }
         } catch (SQLException e) {
             throw new ClienteDAOException("❌ Error al exportar historial de pagos", e);
@@ -520,138 +462,191 @@ public class ReporteDAO {
      * @throws ClienteDAOException Si ocurre un error durante la exportación.
      */
     public String exportarClientesEnMora(String idCliente) throws ClienteDAOException {
-        String sql = idCliente == null ?
-                "SELECT p.idPrestamo, c.idCliente, c.nombre, cu.numeroCuota, cu.montoCuota, cu.fechaVencimiento, COALESCE(pen.montoPenalidad, 0) AS montoPenalidad " +
-                        "FROM clientes c " +
-                        "JOIN prestamos p ON c.idCliente = p.idCliente " +
-                        "JOIN cuotas cu ON p.idPrestamo = cu.idPrestamo " +
-                        "LEFT JOIN pagos pg ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
-                        "LEFT JOIN penalidades pen ON cu.idPrestamo = pen.idPrestamo AND cu.numeroCuota = pen.numeroCuota " +
-                        "WHERE p.estado = 'EN_MORA' AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ? " +
-                        "ORDER BY c.idCliente, p.idPrestamo, cu.numeroCuota" :
-                "SELECT p.idPrestamo, c.idCliente, c.nombre, cu.numeroCuota, cu.montoCuota, cu.fechaVencimiento, COALESCE(pen.montoPenalidad, 0) AS montoPenalidad " +
-                        "FROM clientes c " +
-                        "JOIN prestamos p ON c.idCliente = p.idCliente " +
-                        "JOIN cuotas cu ON p.idPrestamo = cu.idPrestamo " +
-                        "LEFT JOIN pagos pg ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
-                        "LEFT JOIN penalidades pen ON cu.idPrestamo = pen.idPrestamo AND cu.numeroCuota = pen.numeroCuota " +
-                        "WHERE p.estado = 'EN_MORA' AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ? AND c.idCliente = ? " +
-                        "ORDER BY c.idCliente, p.idPrestamo, cu.numeroCuota";
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String nombreArchivo = "exportacion/clientes_en_mora_" + timestamp + ".csv";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
         // Crear directorio exportacion si no existe
         crearDirectorioExportacion();
 
-        try (Connection conn = ConexionDB.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
-
-            stmt.setDate(1, java.sql.Date.valueOf(LocalDate.now()));
-            if (idCliente != null) {
-                stmt.setString(2, idCliente);
-            }
-
-            ResultSet rs = stmt.executeQuery();
-
-            // Verificar si hay datos
-            if (!rs.next()) {
+        ExportacionClientesEnMora exportacion = new ExportacionClientesEnMora(nombreArchivo);
+        try {
+            // El archivo se crea con la primera fila, para no dejar archivos vacíos
+            if (!recorrerClientesEnMora(idCliente, exportacion)) {
                 System.out.println(idCliente == null ?
                         "✅ No se encontraron clientes con cuotas en mora." :
                         "✅ El cliente con DNI " + idCliente + " no tiene cuotas en mora.");
                 return null;
             }
+            return finalizarExportacion(exportacion.escritor, nombreArchivo);
+        } catch (SQLException e) {
+            throw new ClienteDAOException("❌ Error al exportar datos de clientes en mora", e);
+        } catch (IOException e) {
+            throw new ClienteDAOException("❌ Error al escribir el archivo " + nombreArchivo, e);
+        } finally {
+            exportacion.cerrar();
+        }
+    }
 
-            // Volver al inicio del ResultSet
-            rs.beforeFirst();
-
-            try (FileWriter writer = new FileWriter(nombreArchivo, StandardCharsets.UTF_8)) {
-                // Agregar BOM para UTF-8
-                writer.write('\uFEFF');
+    /**
+     * Cuota vencida e impaga de un préstamo en mora. {@link #recorrerClientesEnMora} reutiliza la misma instancia
+     * para todas las filas.
+     */
+    private static class CuotaEnMora {
+        private String idCliente;
+        private String nombre;
+        private String idPrestamo;
+        private int numeroCuota;
+        private double montoCuota;
+        private LocalDate fechaVencimiento;
+        private double montoPenalidad;
+        private double penalidadPrestamo;
+        private boolean nuevoCliente;
+        private boolean nuevoPrestamo;
+    }
 
-                // Escribir encabezados
-                writer.write("ID Préstamo,ID Cliente,Nombre,Número Cuota,Monto Cuota,Fecha Vencimiento,Penalidad,Total a Pagar\n");
+    private interface ProcesadorCuotasEnMora {
+        void procesar(CuotaEnMora cuota) throws IOException;
+    }
 
-                // Escribir datos
+    /**
+     * Ejecuta una única vez la consulta de cuotas en mora y entrega las filas de a una, en orden de cliente, préstamo y
+     * cuota, con un cursor de solo avance. Alimenta tanto el reporte por consola como la exportación a CSV.
+     * @param idCliente DNI para filtrar, o null para todos los clientes.
+     * @param procesador Recibe cada fila; la instancia se reutiliza, por lo que no debe conservarse.
+     * @return true si hubo al menos una fila.
+     */
+    private boolean recorrerClientesEnMora(String idCliente, ProcesadorCuotasEnMora procesador)
+            throws SQLException, IOException {
+        try (Connection conn = ConexionDB.conectar();
+             PreparedStatement stmt = prepararConsultaExportacion(conn,
+                     idCliente == null ? SQL_CLIENTES_EN_MORA : SQL_CLIENTES_EN_MORA_CLIENTE)) {
+            stmt.setDate(1, java.sql.Date.valueOf(LocalDate.now()));
+            if (idCliente != null) {
+                stmt.setString(2, idCliente);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                CuotaEnMora cuota = new CuotaEnMora();
+                boolean hayFilas = false;
                 while (rs.next()) {
-                    String idPrestamo = rs.getString("idPrestamo");
-                    String idCli = rs.getString("idCliente");
-                    String nombre = rs.getString("nombre");
-                    int numeroCuota = rs.getInt("numeroCuota");
-                    double montoCuota = rs.getDouble("montoCuota");
-                    LocalDate fechaVencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
-                    double penalidad = rs.getDouble("montoPenalidad");
-                    double totalAPagar = montoCuota + penalidad;
-                    writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%d\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                            escapeCsv(idPrestamo), escapeCsv(idCli), escapeCsv(nombre), numeroCuota,
-                            formatoMoneda.format(montoCuota),
-                            fechaVencimiento != null ? fechaVencimiento.format(formatter) : "N/A",
-                            penalidad > 0 ? formatoMoneda.format(penalidad) : "0,00",
-                            formatoMoneda.format(totalAPagar)));
+                    String cliente = rs.getString("idCliente");
+                    String prestamo = rs.getString("idPrestamo");
+                    cuota.nuevoCliente = !cliente.equals(cuota.idCliente);
+                    cuota.nuevoPrestamo = cuota.nuevoCliente || !prestamo.equals(cuota.idPrestamo);
+                    cuota.idCliente = cliente;
+                    cuota.idPrestamo = prestamo;
+                    if (cuota.nuevoCliente) {
+                        cuota.nombre = rs.getString("nombre");
+                    }
+                    if (cuota.nuevoPrestamo) {
+                        cuota.penalidadPrestamo = rs.getDouble("totalPenalidad");
+                    }
+                    cuota.numeroCuota = rs.getInt("numeroCuota");
+                    cuota.montoCuota = rs.getDouble("montoCuota");
+                    cuota.fechaVencimiento = rs.getObject("fechaVencimiento", LocalDate.class);
+                    cuota.montoPenalidad = rs.getDouble("montoPenalidad");
+                    procesador.procesar(cuota);
+                    hayFilas = true;
                 }
-
-                //System.out.println("Datos de clientes en mora exportados a: " + nombreArchivo);
-                return nombreArchivo;
+                return hayFilas;
             }
-        } catch (SQLException e) {
-            throw new ClienteDAOException("❌ Error al exportar datos de clientes en mora", e);
-        } catch (IOException e) {
-            throw new ClienteDAOException("❌ Error al escribir el archivo " + nombreArchivo, e);
         }
     }
 
     /**
-     * Obtiene el número de cuotas pagadas para un préstamo.
-     * @param conn Conexión a la base de datos.
-     * @param idPrestamo ID del préstamo.
-     * @return Número de cuotas pagadas.
-     * @throws SQLException Si ocurre un error en la consulta.
+     * Reporte por consola de clientes en mora: imprime cada línea al recibir la fila.
      */
-    private int getCuotasPagadas(Connection conn, String idPrestamo) throws SQLException {
-        String sql = "SELECT COUNT(*) as cuotasPagadas FROM pagos WHERE idPrestamo = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, idPrestamo);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("cuotasPagadas");
+    private static class VistaClientesEnMora implements ProcesadorCuotasEnMora {
+        private long cuotas;
+        private double totalPenalidades;
+
+        @Override
+        public void procesar(CuotaEnMora cuota) {
+            if (cuotas++ == 0) {
+                System.out.println("\n=== Clientes con Préstamos en Mora ===");
+            }
+            if (cuota.nuevoCliente) {
+                System.out.println("\nCliente: " + cuota.nombre + " (DNI: " + cuota.idCliente + ")");
+            }
+            if (cuota.nuevoPrestamo) {
+                totalPenalidades += cuota.penalidadPrestamo;
+                System.out.println("  Préstamo ID: " + cuota.idPrestamo);
+                System.out.println("    Penalidad acumulada: " + FormatoMoneda.formatear(cuota.penalidadPrestamo));
             }
-            return 0;
+            System.out.println("    Cuota " + cuota.numeroCuota + ": " + FormatoMoneda.formatear(cuota.montoCuota) +
+                    ", Vencimiento: " + cuota.fechaVencimiento +
+                    (cuota.montoPenalidad > 0 ? ", Penalidad: " + FormatoMoneda.formatear(cuota.montoPenalidad) : ""));
         }
     }
 
     /**
-     * Obtiene el número de cuotas en mora para un préstamo.
-     * @param conn Conexión a la base de datos.
-     * @param idPrestamo ID del préstamo.
-     * @return Número de cuotas en mora.
-     * @throws SQLException Si ocurre un error en la consulta.
+     * Exportación a CSV de clientes en mora: crea el archivo al recibir la primera fila.
      */
-    private int getCuotasEnMora(Connection conn, String idPrestamo) throws SQLException {
-        String sql = "SELECT COUNT(*) as cuotasEnMora " +
-                "FROM cuotas cu " +
-                "LEFT JOIN pagos pg ON cu.idPrestamo = pg.idPrestamo AND cu.numeroCuota = pg.numeroCuota " +
-                "WHERE cu.idPrestamo = ? AND pg.idPrestamo IS NULL AND cu.fechaVencimiento < ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, idPrestamo);
-            stmt.setDate(2, java.sql.Date.valueOf(LocalDate.now()));
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("cuotasEnMora");
+    private static class ExportacionClientesEnMora implements ProcesadorCuotasEnMora {
+        private final String nombreArchivo;
+        private EscritorCsv escritor;
+
+        ExportacionClientesEnMora(String nombreArchivo) {
+            this.nombreArchivo = nombreArchivo;
+        }
+
+        @Override
+        public void procesar(CuotaEnMora cuota) throws IOException {
+            if (escritor == null) {
+                escritor = new EscritorCsv(nombreArchivo);
+                escritor.encabezado("ID Préstamo,ID Cliente,Nombre,Número Cuota,Monto Cuota,Fecha Vencimiento,Penalidad,Total a Pagar");
+            }
+            escritor.campo(cuota.idPrestamo)
+                    .campo(cuota.idCliente)
+                    .campo(cuota.nombre)
+                    .campo(cuota.numeroCuota)
+                    .campoMoneda(cuota.montoCuota)
+                    .campoFecha(cuota.fechaVencimiento);
+            if (cuota.montoPenalidad > 0) {
+                escritor.campoMoneda(cuota.montoPenalidad);
+            } else {
+                escritor.campo("0,00");
+            }
+            escritor.campoMoneda(cuota.montoCuota + cuota.montoPenalidad).finFila();
+        }
+
+        void cerrar() {
+            if (escritor == null) {
+                return;
+            }
+            try {
+                escritor.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el archivo " + nombreArchivo + ": " + e.getMessage());
             }
-            return 0;
         }
     }
 
     /**
-     * Escapa comas y comillas en campos para formato CSV.
-     * @param value Valor a escapar.
-     * @return Valor escapado.
+     * Prepara una consulta de exportación con un cursor de solo avance y solo lectura.
+     * El tamaño de fetch se toma de la configuración: por defecto el driver entrega las filas de a una
+     * (streaming), de modo que el uso de memoria no crece con el tamaño del resultado.
+     * @param conn Conexión a la base de datos.
+     * @param sql Consulta a preparar.
+     * @return La sentencia preparada.
+     * @throws SQLException Si ocurre un error al preparar la consulta.
      */
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value.replace("\"", "\"\"");
+    private PreparedStatement prepararConsultaExportacion(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(ConexionDB.getTamanoFetchExportacion());
+        return stmt;
+    }
+
+    /**
+     * Cierra el archivo exportado e informa el rendimiento de la escritura.
+     * @param escritor Escritor CSV de la exportación.
+     * @param nombreArchivo Nombre del archivo generado.
+     * @return Nombre del archivo generado.
+     * @throws IOException Si ocurre un error al cerrar el archivo.
+     */
+    private String finalizarExportacion(EscritorCsv escritor, String nombreArchivo) throws IOException {
+        escritor.close();
+        System.out.println("📈 Exportación: " + escritor.resumen());
+        return nombreArchivo;
     }
 
     /**
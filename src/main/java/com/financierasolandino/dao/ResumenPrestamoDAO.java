@@ -0,0 +1,324 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.db.ConexionDB;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso al resumen por préstamo (tabla prestamo_resumen): cuotas pagadas, próximo vencimiento impago, cuotas
+ * vencidas a la fecha de corte, penalidades acumuladas y fecha del último pago.
+ * <p>
+ * Los métodos de mantenimiento reciben la conexión de la transacción que registra el préstamo, el pago o la
+ * penalidad, de modo que el resumen nunca queda desfasado de las tablas de origen. La reconstrucción recalcula
+ * rangos de idPrestamo desde cero, uno por transacción, para poder repartirlos entre varios hilos.
+ */
+public class ResumenPrestamoDAO {
+    private static final String SQL_PRESTAMOS = "SELECT idPrestamo FROM prestamos ORDER BY idPrestamo";
+
+    private static final String SQL_BORRAR_RANGO = "DELETE FROM prestamo_resumen WHERE idPrestamo BETWEEN ? AND ?";
+
+    // Misma consulta que la carga inicial de V3__prestamo_resumen.sql; cada subconsulta se resuelve por índice
+    static final String SQL_RECALCULAR_RANGO =
+            "INSERT INTO prestamo_resumen (idPrestamo, cuotasPagadas, proximoVencimiento, cuotasVencidas, fechaCorte, " +
+                    "penalidadesAcumuladas, fechaUltimoPago) " +
+                    "SELECT p.idPrestamo, " +
+                    "(SELECT COUNT(*) FROM pagos pg WHERE pg.idPrestamo = p.idPrestamo), " +
+                    "(SELECT MIN(cu.fechaVencimiento) FROM cuotas cu WHERE cu.idPrestamo = p.idPrestamo " +
+                    "AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)), " +
+                    "(SELECT COUNT(*) FROM cuotas cu WHERE cu.idPrestamo = p.idPrestamo AND cu.fechaVencimiento < ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)), " +
+                    "CAST(? AS DATE), " +
+                    "COALESCE((SELECT SUM(pt.montoPenalidad) FROM penalidades pt WHERE pt.idPrestamo = p.idPrestamo), 0), " +
+                    "(SELECT MAX(pg.fechaPago) FROM pagos pg WHERE pg.idPrestamo = p.idPrestamo) " +
+                    "FROM prestamos p WHERE p.idPrestamo BETWEEN ? AND ?";
+
+    // El próximo vencimiento solo cambia si se pagó la cuota que lo tenía; la cuota pagada ya está en pagos
+    private static final String SQL_REGISTRAR_PAGO =
+            "UPDATE prestamo_resumen SET " +
+                    "cuotasPagadas = cuotasPagadas + 1, " +
+                    "cuotasVencidas = CASE WHEN ? < fechaCorte AND cuotasVencidas > 0 THEN cuotasVencidas - 1 ELSE cuotasVencidas END, " +
+                    "proximoVencimiento = CASE WHEN proximoVencimiento = ? THEN " +
+                    "(SELECT MIN(cu.fechaVencimiento) FROM cuotas cu WHERE cu.idPrestamo = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)) " +
+                    "ELSE proximoVencimiento END, " +
+                    "fechaUltimoPago = CASE WHEN fechaUltimoPago IS NULL OR fechaUltimoPago < ? THEN ? ELSE fechaUltimoPago END " +
+                    "WHERE idPrestamo = ?";
+
+    private static final String SQL_SUMAR_PENALIDAD =
+            "UPDATE prestamo_resumen SET penalidadesAcumuladas = penalidadesAcumuladas + ? WHERE idPrestamo = ?";
+
+    // Solo los préstamos vigentes del rango, que son los que recorre el proceso de mora
+    private static final String SQL_REINICIAR_VENCIDAS_RANGO =
+            "UPDATE prestamo_resumen SET cuotasVencidas = 0, fechaCorte = ? WHERE idPrestamo IN (" +
+                    "SELECT p.idPrestamo FROM prestamos p WHERE p.idPrestamo BETWEEN ? AND ? " +
+                    "AND p.estado IN ('ACTIVO', 'EN_MORA'))";
+
+    // Se completan con "(?, ?, ...)" para un bloque de préstamos
+    private static final String SQL_SALDOS_REGISTRADOS =
+            "SELECT p.idPrestamo, p.saldo_pendiente, p.estado, r.penalidadesAcumuladas FROM prestamos p " +
+                    "LEFT JOIN prestamo_resumen r ON r.idPrestamo = p.idPrestamo WHERE p.idPrestamo IN ";
+    private static final String SQL_CUOTAS_VENCIDAS_PRESTAMOS =
+            "SELECT idPrestamo, numeroCuota FROM cuotas WHERE fechaVencimiento < ? AND idPrestamo IN ";
+
+    private static final String SQL_ACTUALIZAR_MORA =
+            "UPDATE prestamo_resumen SET cuotasVencidas = ?, penalidadesAcumuladas = penalidadesAcumuladas + ? " +
+                    "WHERE idPrestamo = ?";
+
+    /**
+     * Saldo, estado y penalidades acumuladas de un préstamo tal como están en la base, con los números de sus
+     * cuotas vencidas (pagadas o no) a una fecha.
+     */
+    public static class SaldoRegistrado {
+        private final long centavosSaldo;
+        private final Prestamo.EstadoPrestamo estado;
+        private final long centavosPenalidades;
+        private final BitSet cuotasVencidas = new BitSet();
+
+        SaldoRegistrado(long centavosSaldo, Prestamo.EstadoPrestamo estado, long centavosPenalidades) {
+            this.centavosSaldo = centavosSaldo;
+            this.estado = estado;
+            this.centavosPenalidades = centavosPenalidades;
+        }
+
+        public long getCentavosSaldo() {
+            return centavosSaldo;
+        }
+
+        public Prestamo.EstadoPrestamo getEstado() {
+            return estado;
+        }
+
+        /**
+         * @return Las penalidades acumuladas del resumen del préstamo, o 0 si no tiene resumen.
+         */
+        public long getCentavosPenalidades() {
+            return centavosPenalidades;
+        }
+
+        /**
+         * @return Los números de las cuotas que vencen antes de la fecha consultada; no se debe modificar.
+         */
+        public BitSet getCuotasVencidas() {
+            return cuotasVencidas;
+        }
+    }
+
+    /**
+     * Recalcula desde las tablas de origen el resumen de los préstamos del rango, sin confirmar la transacción.
+     * @param fechaCorte Fecha a la que se cuentan las cuotas vencidas.
+     * @return Cantidad de préstamos recalculados.
+     */
+    static int recalcular(Connection conn, String desde, String hasta, LocalDate fechaCorte) throws SQLException {
+        try (PreparedStatement borrar = conn.prepareStatement(SQL_BORRAR_RANGO);
+             PreparedStatement insertar = conn.prepareStatement(SQL_RECALCULAR_RANGO)) {
+            borrar.setString(1, desde);
+            borrar.setString(2, hasta);
+            borrar.executeUpdate();
+            insertar.setObject(1, fechaCorte);
+            insertar.setObject(2, fechaCorte);
+            insertar.setString(3, desde);
+            insertar.setString(4, hasta);
+            return insertar.executeUpdate();
+        }
+    }
+
+    /**
+     * Actualiza el resumen después de insertar el pago de una cuota, sin confirmar la transacción.
+     * @param vencimiento Fecha de vencimiento de la cuota pagada.
+     * @param fechaPago Fecha del pago.
+     */
+    static void registrarPago(Connection conn, String idPrestamo, LocalDate vencimiento, LocalDate fechaPago) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_REGISTRAR_PAGO)) {
+            stmt.setObject(1, vencimiento);
+            stmt.setObject(2, vencimiento);
+            stmt.setString(3, idPrestamo);
+            stmt.setObject(4, fechaPago);
+            stmt.setObject(5, fechaPago);
+            stmt.setString(6, idPrestamo);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Suma una penalidad recién registrada al acumulado del préstamo, sin confirmar la transacción.
+     */
+    static void sumarPenalidad(Connection conn, String idPrestamo, BigDecimal montoPenalidad) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SUMAR_PENALIDAD)) {
+            stmt.setBigDecimal(1, montoPenalidad);
+            stmt.setString(2, idPrestamo);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Lote de actualizaciones del proceso de mora para una partición: primero se ponen en cero las cuotas vencidas
+     * de los préstamos vigentes del rango a la nueva fecha de corte y luego se agregan, por cada préstamo con cuotas
+     * vencidas, su cantidad y las penalidades registradas en la corrida.
+     */
+    static class ActualizacionMora implements AutoCloseable {
+        private final PreparedStatement stmt;
+        private int pendientes;
+
+        ActualizacionMora(Connection conn, MoraDAO.Particion particion, LocalDate fechaCorte) throws SQLException {
+            try (PreparedStatement reiniciar = conn.prepareStatement(SQL_REINICIAR_VENCIDAS_RANGO)) {
+                reiniciar.setObject(1, fechaCorte);
+                reiniciar.setString(2, particion.getDesde());
+                reiniciar.setString(3, particion.getHasta());
+                reiniciar.executeUpdate();
+            }
+            stmt = conn.prepareStatement(SQL_ACTUALIZAR_MORA);
+        }
+
+        void agregar(String idPrestamo, int cuotasVencidas, BigDecimal penalidadesNuevas) throws SQLException {
+            stmt.setInt(1, cuotasVencidas);
+            stmt.setBigDecimal(2, penalidadesNuevas);
+            stmt.setString(3, idPrestamo);
+            stmt.addBatch();
+            pendientes++;
+        }
+
+        void ejecutar() throws SQLException {
+            if (pendientes > 0) {
+                stmt.executeBatch();
+                pendientes = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            stmt.close();
+        }
+    }
+
+    /**
+     * Lee el saldo registrado de un bloque de préstamos con dos consultas por clave primaria.
+     * @param idsPrestamos Préstamos a leer (conviene no pasar más de unos cientos por llamada).
+     * @param fecha Las cuotas que vencen antes de esta fecha se informan como vencidas.
+     * @return Los préstamos encontrados, por idPrestamo; los que no existen no aparecen.
+     * @throws ClienteDAOException Si ocurre un error al consultar la base.
+     */
+    public Map<String, SaldoRegistrado> obtenerSaldos(List<String> idsPrestamos, LocalDate fecha) throws ClienteDAOException {
+        Map<String, SaldoRegistrado> saldos = new HashMap<>();
+        if (idsPrestamos.isEmpty()) {
+            return saldos;
+        }
+        String marcadores = "(" + String.join(", ", Collections.nCopies(idsPrestamos.size(), "?")) + ")";
+        try (Connection conn = ConexionDB.conectar()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_SALDOS_REGISTRADOS + marcadores)) {
+                for (int i = 0; i < idsPrestamos.size(); i++) {
+                    stmt.setString(i + 1, idsPrestamos.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        BigDecimal penalidades = rs.getBigDecimal("penalidadesAcumuladas");
+                        saldos.put(rs.getString("idPrestamo"), new SaldoRegistrado(
+                                FormatoMoneda.aCentavos(rs.getBigDecimal("saldo_pendiente")),
+                                Prestamo.EstadoPrestamo.valueOf(rs.getString("estado")),
+                                penalidades != null ? FormatoMoneda.aCentavos(penalidades) : 0));
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CUOTAS_VENCIDAS_PRESTAMOS + marcadores)) {
+                stmt.setObject(1, fecha);
+                for (int i = 0; i < idsPrestamos.size(); i++) {
+                    stmt.setString(i + 2, idsPrestamos.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        SaldoRegistrado saldo = saldos.get(rs.getString("idPrestamo"));
+                        if (saldo != null) {
+                            saldo.cuotasVencidas.set(rs.getInt("numeroCuota"));
+                        }
+                    }
+                }
+            }
+            return saldos;
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al obtener los saldos registrados: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Divide todos los préstamos, en cualquier estado, en rangos de a lo sumo tamanoParticion préstamos.
+     * @throws ClienteDAOException Si ocurre un error al consultar los préstamos.
+     */
+    public List<MoraDAO.Particion> obtenerParticiones(int tamanoParticion) throws ClienteDAOException {
+        List<MoraDAO.Particion> particiones = new ArrayList<>();
+        try (Connection conn = ConexionDB.conectar();
+             PreparedStatement stmt = conn.prepareStatement(SQL_PRESTAMOS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(ConexionDB.getTamanoFetchExportacion());
+            try (ResultSet rs = stmt.executeQuery()) {
+                String desde = null;
+                String hasta = null;
+                int cantidad = 0;
+                while (rs.next()) {
+                    hasta = rs.getString(1);
+                    if (cantidad == 0) {
+                        desde = hasta;
+                    }
+                    if (++cantidad == tamanoParticion) {
+                        particiones.add(new MoraDAO.Particion(desde, hasta, cantidad));
+                        cantidad = 0;
+                    }
+                }
+                if (cantidad > 0) {
+                    particiones.add(new MoraDAO.Particion(desde, hasta, cantidad));
+                }
+            }
+            return particiones;
+        } catch (SQLException e) {
+            throw new ClienteDAOException("Error al obtener las particiones de préstamos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconstruye desde cero el resumen de un rango de préstamos en una única transacción.
+     * @param particion Rango de préstamos a reconstruir.
+     * @param fechaCorte Fecha a la que se cuentan las cuotas vencidas (normalmente hoy).
+     * @return Cantidad de préstamos reconstruidos.
+     * @throws ClienteDAOException Si ocurre un error; en ese caso el rango conserva el resumen anterior.
+     */
+    public int reconstruirParticion(MoraDAO.Particion particion, LocalDate fechaCorte) throws ClienteDAOException {
+        Connection conn = null;
+        try {
+            conn = ConexionDB.conectar();
+            conn.setAutoCommit(false);
+            int prestamos = recalcular(conn, particion.getDesde(), particion.getHasta(), fechaCorte);
+            conn.commit();
+            return prestamos;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    throw new ClienteDAOException("Error al hacer rollback: " + ex.getMessage(), ex);
+                }
+            }
+            throw new ClienteDAOException("Error al reconstruir el resumen de los préstamos " + particion.getDesde() +
+                    " a " + particion.getHasta() + ": " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new ClienteDAOException("Error al cerrar la conexión: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
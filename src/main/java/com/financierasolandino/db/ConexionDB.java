@@ -2,45 +2,223 @@ package com.financierasolandino.db;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
+/**
+ * Punto de acceso a la base de datos. La configuración se lee de config.properties (en el classpath) y cualquier
+ * clave db.* se puede sobrescribir con una propiedad del sistema, por ejemplo {@code -Ddb.motor=h2} para usar la
+ * base embebida sin archivo de configuración. El motor y el pool se crean con la primera conexión; si falta la
+ * configuración o la base no responde, conectar() lanza SQLException en lugar de terminar el proceso.
+ */
 public class ConexionDB {
-    private static final String ARCHIVO_PROPIEDADES = "config.properties";
+    static final String ARCHIVO_PROPIEDADES = "config.properties";
+    private static final String PREFIJO_PROPIEDADES = "db.";
+    private static final String MOTOR = "db.motor";
     private static final String URL = "db.url";
     private static final String USUARIO = "db.usuario";
     private static final String CONTRASENA = "db.contrasena";
+    private static final String H2_URL = "db.h2.url";
+    private static final String POOL_MINIMO = "db.pool.minimo";
+    private static final String POOL_MAXIMO = "db.pool.maximo";
+    private static final String POOL_INACTIVIDAD_MAXIMA_MS = "db.pool.inactividadMaximaMs";
+    private static final String POOL_ESPERA_MAXIMA_MS = "db.pool.esperaMaximaMs";
+    private static final String POOL_VALIDAR_AL_PRESTAR = "db.pool.validarAlPrestar";
+    private static final String EXPORTACION_FETCH_SIZE = "db.exportacion.fetchSize";
+    private static final String CACHE_MAXIMO_PRESTAMOS = "db.cache.maximoPrestamos";
+    private static final String APLICAR_MIGRACIONES = "db.migraciones";
+    private static final String ARCHIVO_DIARIO = "db.diario.archivo";
+    private static final String ARCHIVO_DIARIO_POR_DEFECTO = "procesos/diario-pagos.log";
+    private static final String METRICAS = "db.metricas";
+    private static final String ARCHIVO_METRICAS = "db.metricas.archivo";
+    private static final String INTERVALO_METRICAS_SEGUNDOS = "db.metricas.intervaloSegundos";
     private static final Properties propiedades = new Properties();
+    private static String errorConfiguracion;
+    private static MotorBaseDatos motor;
+    private static volatile PoolConexiones pool;
 
     static {
+        cargarPropiedades();
+    }
+
+    /**
+     * Obtiene una conexión del pool. Al cerrarla, la conexión vuelve al pool en lugar de cerrarse físicamente.
+     * La primera llamada inicializa el motor, aplica las migraciones pendientes del esquema (salvo con
+     * db.migraciones=false) y crea el pool.
+     * @return Una conexión lista para usar.
+     * @throws SQLException Si la configuración es inválida o no se puede obtener una conexión dentro del tiempo
+     * de espera configurado.
+     */
+    public static Connection conectar() throws SQLException {
+        PoolConexiones actual = pool;
+        return (actual != null ? actual : iniciarPool()).prestar();
+    }
+
+    /**
+     * Reemplaza la configuración leída de config.properties (por ejemplo, para que un benchmark use la base embebida).
+     * Debe llamarse antes de la primera conexión.
+     * @throws IllegalStateException Si el pool ya está en uso.
+     */
+    public static synchronized void configurar(Properties configuracion) {
+        if (pool != null) {
+            throw new IllegalStateException("La conexión a la base de datos ya fue inicializada.");
+        }
+        propiedades.clear();
+        propiedades.putAll(configuracion);
+        errorConfiguracion = null;
+        motor = crearMotor();
+    }
+
+    /**
+     * Nombre del motor configurado, o null si la configuración es inválida.
+     */
+    public static synchronized String getNombreMotor() {
+        return motor != null ? motor.getNombre() : null;
+    }
+
+    /**
+     * Devuelve las estadísticas actuales del pool de conexiones (activas, inactivas, hilos en espera
+     * y tiempo promedio de préstamo). Antes de la primera conexión devuelve todo en cero.
+     */
+    public static EstadisticasPool obtenerEstadisticasPool() {
+        PoolConexiones actual = pool;
+        if (actual == null) {
+            return new EstadisticasPool(0, 0, 0, leerEntero(POOL_MINIMO, 2), leerEntero(POOL_MAXIMO, 10), 0, 0, 0, 0, 0);
+        }
+        return actual.obtenerEstadisticas();
+    }
+
+    /**
+     * Tamaño de fetch para las consultas de exportación. Si no se configura (o es 0 o negativo) se usa el del motor:
+     * en MySQL, Integer.MIN_VALUE, que hace que el driver entregue las filas de a una sin cargar el resultado
+     * completo en memoria. Un valor positivo en MySQL usa un cursor del servidor y requiere useCursorFetch=true en db.url.
+     */
+    public static int getTamanoFetchExportacion() {
+        int tamano = leerEntero(EXPORTACION_FETCH_SIZE, 0);
+        if (tamano > 0) {
+            return tamano;
+        }
+        synchronized (ConexionDB.class) {
+            return motor != null ? motor.getTamanoFetchPorDefecto() : Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Cantidad máxima de préstamos cuyo cronograma, pagos y penalidades se guardan en la caché en memoria
+     * (por defecto 256; 0 la desactiva).
+     */
+    public static int getTamanoCachePrestamos() {
+        return Math.max(leerEntero(CACHE_MAXIMO_PRESTAMOS, 256), 0);
+    }
+
+    /**
+     * Archivo del diario de pagos y penalidades (por defecto procesos/diario-pagos.log).
+     * @return La ruta configurada, o null si db.diario.archivo está vacío y el diario queda desactivado.
+     */
+    public static Path getArchivoDiario() {
+        String archivo = propiedades.getProperty(ARCHIVO_DIARIO, ARCHIVO_DIARIO_POR_DEFECTO).trim();
+        return archivo.isEmpty() ? null : Path.of(archivo);
+    }
+
+    /**
+     * Si el pool registra métricas de cada sentencia ({@link MetricasSql}); por defecto sí.
+     */
+    static boolean isMetricasActivas() {
+        return Boolean.parseBoolean(propiedades.getProperty(METRICAS, "true").trim());
+    }
+
+    /**
+     * Archivo donde se escribe periódicamente la instantánea de métricas, o null si no se configuró.
+     */
+    static Path getArchivoMetricas() {
+        String archivo = propiedades.getProperty(ARCHIVO_METRICAS, "").trim();
+        return archivo.isEmpty() ? null : Path.of(archivo);
+    }
+
+    static int getIntervaloMetricasSegundos() {
+        return Math.max(leerEntero(INTERVALO_METRICAS_SEGUNDOS, 60), 1);
+    }
+
+    private static synchronized PoolConexiones iniciarPool() throws SQLException {
+        if (pool != null) {
+            return pool;
+        }
+        if (motor == null) {
+            throw new SQLException(errorConfiguracion);
+        }
+        motor.inicializar();
+        if (Boolean.parseBoolean(propiedades.getProperty(APLICAR_MIGRACIONES, "true").trim())) {
+            try (Connection conexion = motor.abrirConexion()) {
+                Migraciones.aplicar(conexion);
+            }
+        }
+        PoolConexiones nuevo = new PoolConexiones(
+                motor::abrirConexion,
+                leerEntero(POOL_MINIMO, 2),
+                leerEntero(POOL_MAXIMO, 10),
+                leerEntero(POOL_INACTIVIDAD_MAXIMA_MS, 300000),
+                leerEntero(POOL_ESPERA_MAXIMA_MS, 5000),
+                Boolean.parseBoolean(propiedades.getProperty(POOL_VALIDAR_AL_PRESTAR, "true").trim())
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(nuevo::cerrar, "pool-conexiones-cierre"));
+        pool = nuevo;
+        return nuevo;
+    }
+
+    private static void cargarPropiedades() {
+        boolean hayArchivo = false;
         try (InputStream input = ConexionDB.class.getClassLoader().getResourceAsStream(ARCHIVO_PROPIEDADES)) {
-            if (input == null) {
-                System.err.println("⚠️  No se encontró el archivo de configuración: '" + ARCHIVO_PROPIEDADES + "'");
-                System.err.println("💡  Asegúrate de haber copiado y renombrado 'config.properties.ejemplo' como 'config.properties' en la carpeta 'resources'.");
-                System.exit(1);  // Termina la ejecución para evitar stack trace confuso
+            if (input != null) {
+                propiedades.load(input);
+                hayArchivo = true;
             }
-            propiedades.load(input);
         } catch (IOException e) {
-            System.err.println("❌ Error al cargar el archivo de propiedades: " + ARCHIVO_PROPIEDADES);
-            e.printStackTrace();
-            System.exit(1);
+            errorConfiguracion = "Error al cargar el archivo de propiedades " + ARCHIVO_PROPIEDADES + ": " + e.getMessage();
+            System.err.println("❌ " + errorConfiguracion);
+            return;
         }
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("❌ No se encontró el driver JDBC de MySQL");
-            e.printStackTrace();
-            System.exit(1);
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith(PREFIJO_PROPIEDADES)) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        if (!hayArchivo && !propiedades.containsKey(MOTOR)) {
+            errorConfiguracion = "No se encontró el archivo de configuración '" + ARCHIVO_PROPIEDADES + "'.";
+            System.err.println("⚠️  " + errorConfiguracion);
+            System.err.println("💡  Asegúrate de haber copiado y renombrado 'config.properties.ejemplo' como 'config.properties' en la carpeta 'resources'" +
+                    " o ejecuta con -Ddb.motor=h2 para usar la base embebida.");
+            return;
         }
+        motor = crearMotor();
     }
 
-    public static Connection conectar() throws SQLException {
-        return DriverManager.getConnection(
-                propiedades.getProperty(URL),
-                propiedades.getProperty(USUARIO),
-                propiedades.getProperty(CONTRASENA)
-        );
+    private static MotorBaseDatos crearMotor() {
+        String nombre = propiedades.getProperty(MOTOR, "mysql").trim().toLowerCase();
+        switch (nombre) {
+            case "mysql":
+                return new MotorMySQL(propiedades.getProperty(URL), propiedades.getProperty(USUARIO),
+                        propiedades.getProperty(CONTRASENA));
+            case "h2":
+                return new MotorH2Embebido(propiedades.getProperty(H2_URL));
+            default:
+                errorConfiguracion = "Valor inválido para '" + MOTOR + "': " + nombre + " (use mysql o h2).";
+                System.err.println("❌ " + errorConfiguracion);
+                return null;
+        }
+    }
+
+    private static int leerEntero(String clave, int valorPorDefecto) {
+        String valor = propiedades.getProperty(clave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return valorPorDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️  Valor inválido para '" + clave + "': " + valor + ". Se usa " + valorPorDefecto + ".");
+            return valorPorDefecto;
+        }
     }
-}
\ No newline at end of file
+}
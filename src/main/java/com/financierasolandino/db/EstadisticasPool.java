@@ -0,0 +1,86 @@
+package com.financierasolandino.db;
+
+/**
+ * Instantánea de las estadísticas del pool de conexiones, útil para dimensionar
+ * los valores db.pool.minimo y db.pool.maximo.
+ */
+public class EstadisticasPool {
+    private final int conexionesActivas;
+    private final int conexionesInactivas;
+    private final int hilosEnEspera;
+    private final int minimo;
+    private final int maximo;
+    private final long totalPrestamos;
+    private final long nanosPrestamo;
+    private final long conexionesCreadas;
+    private final long conexionesDesalojadas;
+    private final long esperasAgotadas;
+
+    EstadisticasPool(int conexionesActivas, int conexionesInactivas, int hilosEnEspera, int minimo, int maximo,
+                     long totalPrestamos, long nanosPrestamo, long conexionesCreadas,
+                     long conexionesDesalojadas, long esperasAgotadas) {
+        this.conexionesActivas = conexionesActivas;
+        this.conexionesInactivas = conexionesInactivas;
+        this.hilosEnEspera = hilosEnEspera;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.totalPrestamos = totalPrestamos;
+        this.nanosPrestamo = nanosPrestamo;
+        this.conexionesCreadas = conexionesCreadas;
+        this.conexionesDesalojadas = conexionesDesalojadas;
+        this.esperasAgotadas = esperasAgotadas;
+    }
+
+    public int getConexionesActivas() {
+        return conexionesActivas;
+    }
+
+    public int getConexionesInactivas() {
+        return conexionesInactivas;
+    }
+
+    public int getHilosEnEspera() {
+        return hilosEnEspera;
+    }
+
+    public int getMinimo() {
+        return minimo;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getTotalPrestamos() {
+        return totalPrestamos;
+    }
+
+    /**
+     * Tiempo promedio (en milisegundos) que tarda en obtenerse una conexión del pool,
+     * incluyendo la espera, la validación y la apertura de conexiones nuevas.
+     */
+    public double getTiempoPromedioPrestamoMs() {
+        return totalPrestamos == 0 ? 0.0 : nanosPrestamo / 1_000_000.0 / totalPrestamos;
+    }
+
+    public long getConexionesCreadas() {
+        return conexionesCreadas;
+    }
+
+    public long getConexionesDesalojadas() {
+        return conexionesDesalojadas;
+    }
+
+    public long getEsperasAgotadas() {
+        return esperasAgotadas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool de conexiones [activas=%d, inactivas=%d, en espera=%d, mínimo=%d, máximo=%d, " +
+                        "préstamos=%d, tiempo promedio=%.3f ms, creadas=%d, desalojadas=%d, esperas agotadas=%d]",
+                conexionesActivas, conexionesInactivas, hilosEnEspera, minimo, maximo,
+                totalPrestamos, getTiempoPromedioPrestamoMs(), conexionesCreadas,
+                conexionesDesalojadas, esperasAgotadas);
+    }
+}
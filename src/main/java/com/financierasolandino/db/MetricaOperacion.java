@@ -0,0 +1,54 @@
+package com.financierasolandino.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conexiones tomadas del pool por una operación (un método de DAO o un alcance abierto con
+ * {@link MetricasSql#iniciarOperacion}) y sentencias ejecutadas en ellas. Muchas conexiones con una sola sentencia
+ * cada una delatan accesos que convendría agrupar.
+ */
+public final class MetricaOperacion {
+    private final String nombre;
+    private final LongAdder conexiones = new LongAdder();
+    private final LongAdder sentencias = new LongAdder();
+    private final LongAdder nanosPrestadas = new LongAdder();
+    private final AtomicLong maximoSentencias = new AtomicLong();
+
+    MetricaOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    void registrar(int sentenciasConexion, long nanosPrestada) {
+        conexiones.increment();
+        sentencias.add(sentenciasConexion);
+        nanosPrestadas.add(nanosPrestada);
+        maximoSentencias.accumulateAndGet(sentenciasConexion, Math::max);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getConexiones() {
+        return conexiones.sum();
+    }
+
+    public long getSentencias() {
+        return sentencias.sum();
+    }
+
+    /**
+     * @return La mayor cantidad de sentencias ejecutadas en una sola conexión.
+     */
+    public long getMaximoSentencias() {
+        return maximoSentencias.get();
+    }
+
+    /**
+     * @return Tiempo total que las conexiones estuvieron fuera del pool.
+     */
+    public long getNanosPrestadas() {
+        return nanosPrestadas.sum();
+    }
+}
@@ -0,0 +1,349 @@
+package com.financierasolandino.db;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de acceso a datos: latencia (p50, p99 y máximo), ejecuciones, errores y filas de cada sentencia SQL, y
+ * conexiones y sentencias por operación. Las registra el pool de conexiones, que con db.metricas=true (por defecto)
+ * entrega sentencias y resultados instrumentados, así que los DAO no cambian.
+ * <p>
+ * Cada sentencia se nombra con la constante SQL_* de la clase que la ejecuta (por ejemplo PagoDAO.SQL_DATOS_PAGO;
+ * si el texto es la constante más un filtro agregado, con el nombre de esa constante) y, si no tiene constante, con
+ * la clase y el método. El nombre se resuelve una vez por texto SQL. Las conexiones se atribuyen a la operación
+ * abierta en el hilo con {@link #iniciarOperacion} (el modo por lotes abre una por comando y el menú una por acción)
+ * o, si no hay, al método que llamó a {@link ConexionDB#conectar()}, que se busca en la pila en cada préstamo.
+ * <p>
+ * Con db.metricas.archivo se escribe además una instantánea cada db.metricas.intervaloSegundos (60 por defecto), en
+ * JSON si el archivo termina en .json y en texto si no, reemplazando la anterior.
+ */
+public final class MetricasSql {
+    private static final String PREFIJO_CONSTANTE = "SQL_";
+    private static final String PAQUETE_DB = MetricasSql.class.getPackageName() + ".";
+    private static final int MAXIMO_TEXTOS_NOMBRADOS = 4096;
+    private static final int LARGO_SQL_INFORMADO = 200;
+    private static final StackWalker PILA = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final ThreadLocal<String> OPERACION_ACTUAL = new ThreadLocal<>();
+    private static volatile MetricasSql instancia;
+
+    private final boolean activa;
+    private final ConcurrentHashMap<String, MetricaSentencia> sentencias = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MetricaOperacion> operaciones = new ConcurrentHashMap<>();
+    // Texto SQL → nombre de la sentencia, para no recorrer la pila en cada ejecución
+    private final ConcurrentHashMap<String, String> nombres = new ConcurrentHashMap<>();
+    private volatile long inicioNanos = System.nanoTime();
+
+    /**
+     * Alcance de una operación de alto nivel en el hilo actual; se cierra con try-with-resources.
+     */
+    public static final class Operacion implements AutoCloseable {
+        private final String anterior;
+
+        private Operacion(String anterior) {
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void close() {
+            if (anterior == null) {
+                OPERACION_ACTUAL.remove();
+            } else {
+                OPERACION_ACTUAL.set(anterior);
+            }
+        }
+    }
+
+    private MetricasSql(boolean activa) {
+        this.activa = activa;
+    }
+
+    /**
+     * @return Las métricas del proceso, creadas con la primera llamada según la configuración.
+     */
+    public static MetricasSql getInstancia() {
+        MetricasSql actual = instancia;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (MetricasSql.class) {
+            if (instancia == null) {
+                instancia = new MetricasSql(ConexionDB.isMetricasActivas());
+                instancia.programarInstantaneas(ConexionDB.getArchivoMetricas(), ConexionDB.getIntervaloMetricasSegundos());
+            }
+            return instancia;
+        }
+    }
+
+    /**
+     * Atribuye a la operación indicada las conexiones que se tomen en este hilo hasta cerrar el alcance (por ejemplo,
+     * un comando del modo por lotes). Los alcances se pueden anidar; no se heredan en otros hilos.
+     */
+    public static Operacion iniciarOperacion(String nombre) {
+        String anterior = OPERACION_ACTUAL.get();
+        OPERACION_ACTUAL.set(nombre);
+        return new Operacion(anterior);
+    }
+
+    public boolean isActiva() {
+        return activa;
+    }
+
+    /**
+     * Nombre de la operación a la que se atribuye una conexión tomada ahora por este hilo.
+     */
+    String operacionActual() {
+        String operacion = OPERACION_ACTUAL.get();
+        return operacion != null ? operacion : PILA.walk(pila -> pila
+                .filter(marco -> !esInterno(marco.getClassName()))
+                .findFirst()
+                .map(marco -> marco.getDeclaringClass().getSimpleName() + "." + marco.getMethodName())
+                .orElse("desconocida"));
+    }
+
+    /**
+     * Métrica de la sentencia con este texto, nombrada la primera vez a partir de quien la ejecuta.
+     */
+    MetricaSentencia sentencia(String sql) {
+        String nombre = nombres.get(sql);
+        if (nombre == null) {
+            nombre = nombrar(sql);
+            if (nombres.size() < MAXIMO_TEXTOS_NOMBRADOS) {
+                nombres.put(sql, nombre);
+            }
+        }
+        MetricaSentencia metrica = sentencias.get(nombre);
+        return metrica != null ? metrica : sentencias.computeIfAbsent(nombre, n -> new MetricaSentencia(n, resumirSql(sql)));
+    }
+
+    void registrarConexion(String operacion, int sentenciasConexion, long nanosPrestada) {
+        MetricaOperacion metrica = operaciones.get(operacion);
+        if (metrica == null) {
+            metrica = operaciones.computeIfAbsent(operacion, MetricaOperacion::new);
+        }
+        metrica.registrar(sentenciasConexion, nanosPrestada);
+    }
+
+    private String nombrar(String sql) {
+        Optional<StackWalker.StackFrame> llamador = PILA.walk(pila -> pila
+                .filter(marco -> !esInterno(marco.getClassName()))
+                .findFirst());
+        if (llamador.isEmpty()) {
+            return "sql:" + resumirSql(sql);
+        }
+        Class<?> clase = llamador.get().getDeclaringClass();
+        String constante = buscarConstante(clase, sql);
+        return clase.getSimpleName() + "." + (constante != null ? constante : llamador.get().getMethodName());
+    }
+
+    /**
+     * Busca la constante SQL_* de la clase cuyo texto es el ejecutado o, si no hay, la más larga con la que empieza.
+     */
+    private static String buscarConstante(Class<?> clase, String sql) {
+        String mejor = null;
+        int largoMejor = 0;
+        for (Field campo : clase.getDeclaredFields()) {
+            if (!Modifier.isStatic(campo.getModifiers()) || campo.getType() != String.class ||
+                    !campo.getName().startsWith(PREFIJO_CONSTANTE)) {
+                continue;
+            }
+            try {
+                campo.setAccessible(true);
+                String valor = (String) campo.get(null);
+                if (valor == null) {
+                    continue;
+                }
+                if (valor.equals(sql)) {
+                    return campo.getName();
+                }
+                if (sql.startsWith(valor) && valor.length() > largoMejor) {
+                    mejor = campo.getName();
+                    largoMejor = valor.length();
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Un campo inaccesible simplemente no se usa para nombrar
+            }
+        }
+        return mejor;
+    }
+
+    private static boolean esInterno(String clase) {
+        return clase.startsWith(PAQUETE_DB) || clase.contains("$Proxy") || clase.startsWith("java.") ||
+                clase.startsWith("jdk.");
+    }
+
+    private static String resumirSql(String sql) {
+        String compacto = sql.replaceAll("\\s+", " ").trim();
+        return compacto.length() <= LARGO_SQL_INFORMADO ? compacto : compacto.substring(0, LARGO_SQL_INFORMADO) + "...";
+    }
+
+    /**
+     * @return Las sentencias registradas, de mayor a menor tiempo total.
+     */
+    public List<MetricaSentencia> obtenerSentencias() {
+        List<MetricaSentencia> lista = new ArrayList<>(sentencias.values());
+        lista.sort(Comparator.comparingLong(MetricaSentencia::getNanosTotales).reversed());
+        return lista;
+    }
+
+    /**
+     * @return Las operaciones registradas, de mayor a menor cantidad de conexiones.
+     */
+    public List<MetricaOperacion> obtenerOperaciones() {
+        List<MetricaOperacion> lista = new ArrayList<>(operaciones.values());
+        lista.sort(Comparator.comparingLong(MetricaOperacion::getConexiones).reversed());
+        return lista;
+    }
+
+    /**
+     * Descarta lo acumulado, por ejemplo para medir solo una parte de la ejecución.
+     */
+    public void reiniciar() {
+        sentencias.clear();
+        operaciones.clear();
+        inicioNanos = System.nanoTime();
+    }
+
+    /**
+     * @return Las métricas en una tabla de texto, para la consola.
+     */
+    public String volcarTexto() {
+        if (!activa) {
+            return "Métricas de acceso a datos desactivadas (db.metricas=false).";
+        }
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "Métricas de acceso a datos (últimos %.0f s)%n",
+                (System.nanoTime() - inicioNanos) / 1_000_000_000.0));
+        texto.append(String.format("%-58s %9s %6s %11s %9s %9s %9s %9s%n", "Sentencia", "Ejec.", "Error",
+                "Filas", "Total ms", "p50 µs", "p99 µs", "Máx. µs"));
+        for (MetricaSentencia metrica : obtenerSentencias()) {
+            texto.append(String.format(Locale.ROOT, "%-58s %9d %6d %11d %9.1f %9d %9d %9d%n",
+                    recortar(metrica.getNombre(), 58), metrica.getEjecuciones(), metrica.getErrores(),
+                    metrica.getFilas(), metrica.getNanosTotales() / 1_000_000.0, metrica.getPercentilMicros(0.50),
+                    metrica.getPercentilMicros(0.99), metrica.getMaximoMicros()));
+        }
+        texto.append(String.format("%n%-58s %9s %11s %9s %9s%n", "Operación", "Conex.", "Sentencias",
+                "Sent./con", "Máx./con"));
+        for (MetricaOperacion metrica : obtenerOperaciones()) {
+            texto.append(String.format(Locale.ROOT, "%-58s %9d %11d %9.1f %9d%n", recortar(metrica.getNombre(), 58),
+                    metrica.getConexiones(), metrica.getSentencias(),
+                    (double) metrica.getSentencias() / Math.max(metrica.getConexiones(), 1),
+                    metrica.getMaximoSentencias()));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @return Las métricas en JSON, para procesarlas con otras herramientas.
+     */
+    public String volcarJson() {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\"fecha\":\"").append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .append("\",\"activa\":").append(activa)
+                .append(",\"segundos\":").append((System.nanoTime() - inicioNanos) / 1_000_000_000L)
+                .append(",\"sentencias\":[");
+        boolean primero = true;
+        for (MetricaSentencia metrica : obtenerSentencias()) {
+            json.append(primero ? "" : ",").append("{\"nombre\":");
+            cadenaJson(json, metrica.getNombre());
+            json.append(",\"ejecuciones\":").append(metrica.getEjecuciones())
+                    .append(",\"errores\":").append(metrica.getErrores())
+                    .append(",\"filas\":").append(metrica.getFilas())
+                    .append(",\"totalMicros\":").append(metrica.getNanosTotales() / 1000)
+                    .append(",\"p50Micros\":").append(metrica.getPercentilMicros(0.50))
+                    .append(",\"p99Micros\":").append(metrica.getPercentilMicros(0.99))
+                    .append(",\"maximoMicros\":").append(metrica.getMaximoMicros())
+                    .append(",\"sql\":");
+            cadenaJson(json, metrica.getSql());
+            json.append('}');
+            primero = false;
+        }
+        json.append("],\"operaciones\":[");
+        primero = true;
+        for (MetricaOperacion metrica : obtenerOperaciones()) {
+            json.append(primero ? "" : ",").append("{\"nombre\":");
+            cadenaJson(json, metrica.getNombre());
+            json.append(",\"conexiones\":").append(metrica.getConexiones())
+                    .append(",\"sentencias\":").append(metrica.getSentencias())
+                    .append(",\"maximoSentenciasPorConexion\":").append(metrica.getMaximoSentencias())
+                    .append(",\"prestadaMicros\":").append(metrica.getNanosPrestadas() / 1000)
+                    .append('}');
+            primero = false;
+        }
+        return json.append("]}\n").toString();
+    }
+
+    private static void cadenaJson(StringBuilder json, String valor) {
+        json.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String recortar(String texto, int largo) {
+        return texto.length() <= largo ? texto : texto.substring(0, largo - 3) + "...";
+    }
+
+    /**
+     * Escribe la instantánea en el archivo, reemplazando la anterior de forma atómica.
+     * @throws IOException Si no se puede escribir.
+     */
+    public void escribirInstantanea(Path archivo) throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        Files.createDirectories(directorio);
+        String contenido = archivo.getFileName().toString().endsWith(".json") ? volcarJson() : volcarTexto();
+        Path temporal = directorio.resolve(archivo.getFileName() + ".tmp");
+        Files.writeString(temporal, contenido, StandardCharsets.UTF_8);
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void programarInstantaneas(Path archivo, int intervaloSegundos) {
+        if (!activa || archivo == null) {
+            return;
+        }
+        ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "metricas-sql");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Runnable escribir = () -> {
+            try {
+                escribirInstantanea(archivo);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️  No se pudo escribir la instantánea de métricas " + archivo + ": " + e.getMessage());
+            }
+        };
+        planificador.scheduleAtFixedRate(escribir, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(escribir, "metricas-sql-cierre"));
+    }
+}
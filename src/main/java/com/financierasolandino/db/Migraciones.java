@@ -0,0 +1,115 @@
+package com.financierasolandino.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Migraciones versionadas del esquema. Cada script db/migraciones/V{n}__{descripcion}.sql se aplica una sola vez,
+ * en orden, y queda registrado en la tabla esquema_version. Para cambiar el esquema se agrega un script nuevo al
+ * final de {@link #MIGRACIONES}; los scripts ya publicados no se modifican.
+ */
+class Migraciones {
+    private static final String CARPETA = "db/migraciones/";
+    static final String[] MIGRACIONES = {
+            "V1__esquema_inicial.sql",
+            "V2__indices_consultas.sql",
+            "V3__prestamo_resumen.sql",
+            "V4__pago_unico_por_cuota.sql",
+            "V5__penalidad_unica_por_cuota.sql",
+    };
+    // Conteos que se informan al aplicar una migración, si no son cero: script, consulta y descripción
+    private static final String[][] AVISOS = {
+            {"V4__pago_unico_por_cuota.sql", "SELECT COUNT(*) FROM pagos_duplicados",
+                    "pagos repetidos de una misma cuota movidos a pagos_duplicados; revise esos saldos con ConciliacionCartera"},
+            {"V5__penalidad_unica_por_cuota.sql", "SELECT COUNT(*) FROM penalidades_duplicadas",
+                    "penalidades repetidas de una misma cuota movidas a penalidades_duplicadas"},
+    };
+
+    private static final String SQL_CREAR_TABLA_VERSION =
+            "CREATE TABLE IF NOT EXISTS esquema_version (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "descripcion VARCHAR(200) NOT NULL, " +
+                    "aplicada_en TIMESTAMP NOT NULL)";
+    private static final String SQL_VERSIONES_APLICADAS = "SELECT version FROM esquema_version";
+    private static final String SQL_REGISTRAR_VERSION =
+            "INSERT INTO esquema_version (version, descripcion, aplicada_en) VALUES (?, ?, ?)";
+
+    private Migraciones() {
+    }
+
+    /**
+     * Aplica las migraciones pendientes.
+     * @return La versión del esquema después de aplicarlas.
+     * @throws SQLException Si falla una migración; las anteriores quedan registradas.
+     */
+    static int aplicar(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            stmt.execute(SQL_CREAR_TABLA_VERSION);
+        }
+        Set<Integer> aplicadas = versionesAplicadas(conexion);
+        int version = 0;
+        for (String script : MIGRACIONES) {
+            version = numeroVersion(script);
+            if (aplicadas.contains(version)) {
+                continue;
+            }
+            try {
+                ScriptSql.ejecutar(conexion, CARPETA + script);
+            } catch (SQLException e) {
+                // Otro proceso que arrancó al mismo tiempo pudo haberla aplicado primero
+                if (versionesAplicadas(conexion).contains(version)) {
+                    continue;
+                }
+                throw new SQLException("Error al aplicar la migración " + script + ": " + e.getMessage(), e);
+            }
+            try (PreparedStatement stmt = conexion.prepareStatement(SQL_REGISTRAR_VERSION)) {
+                stmt.setInt(1, version);
+                stmt.setString(2, descripcion(script));
+                stmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                stmt.executeUpdate();
+            }
+            System.out.println("🗄️  Migración aplicada: " + script);
+            avisar(conexion, script);
+        }
+        return version;
+    }
+
+    private static void avisar(Connection conexion, String script) throws SQLException {
+        for (String[] aviso : AVISOS) {
+            if (!aviso[0].equals(script)) {
+                continue;
+            }
+            try (Statement stmt = conexion.createStatement();
+                 ResultSet rs = stmt.executeQuery(aviso[1])) {
+                if (rs.next() && rs.getLong(1) > 0) {
+                    System.out.println("⚠️  " + script + ": " + rs.getLong(1) + " " + aviso[2] + ".");
+                }
+            }
+        }
+    }
+
+    private static Set<Integer> versionesAplicadas(Connection conexion) throws SQLException {
+        Set<Integer> versiones = new HashSet<>();
+        try (Statement stmt = conexion.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_VERSIONES_APLICADAS)) {
+            while (rs.next()) {
+                versiones.add(rs.getInt(1));
+            }
+        }
+        return versiones;
+    }
+
+    private static int numeroVersion(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String descripcion(String script) {
+        return script.substring(script.indexOf("__") + 2, script.length() - ".sql".length()).replace('_', ' ');
+    }
+}
@@ -0,0 +1,29 @@
+package com.financierasolandino.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Motor de base de datos detrás del pool de conexiones. ConexionDB elige la implementación según la clave db.motor
+ * de la configuración: "mysql" (por defecto) o "h2" para la base embebida.
+ */
+public interface MotorBaseDatos {
+
+    String getNombre();
+
+    /**
+     * Abre una conexión física nueva; el pool se encarga de reutilizarla.
+     */
+    Connection abrirConexion() throws SQLException;
+
+    /**
+     * Tamaño de fetch de las exportaciones cuando db.exportacion.fetchSize no está configurado.
+     */
+    int getTamanoFetchPorDefecto();
+
+    /**
+     * Se llama una vez, antes de crear el pool (por ejemplo, para crear las tablas).
+     */
+    default void inicializar() throws SQLException {
+    }
+}
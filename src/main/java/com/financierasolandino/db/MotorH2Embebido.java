@@ -0,0 +1,40 @@
+package com.financierasolandino.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Base H2 dentro del mismo proceso, en modo de compatibilidad con MySQL, para ejecutar la aplicación, los
+ * benchmarks o pruebas de carga sin un servidor. Por defecto vive en memoria y se pierde al terminar el proceso;
+ * con db.h2.url se puede usar un archivo (por ejemplo jdbc:h2:./datos/sistema_financiero;MODE=MySQL).
+ * Las tablas las crean las migraciones que ConexionDB aplica al iniciar.
+ */
+class MotorH2Embebido implements MotorBaseDatos {
+    static final String URL_POR_DEFECTO = "jdbc:h2:mem:sistema_financiero;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int TAMANO_FETCH = 1000;
+
+    private final String url;
+
+    MotorH2Embebido(String url) {
+        this.url = url == null || url.trim().isEmpty() ? URL_POR_DEFECTO : url.trim();
+    }
+
+    @Override
+    public String getNombre() {
+        return "H2 embebido (" + url + ")";
+    }
+
+    @Override
+    public Connection abrirConexion() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    /**
+     * H2 no acepta el Integer.MIN_VALUE de MySQL; con un tamaño positivo recorre el resultado por bloques.
+     */
+    @Override
+    public int getTamanoFetchPorDefecto() {
+        return TAMANO_FETCH;
+    }
+}
@@ -0,0 +1,50 @@
+package com.financierasolandino.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Servidor MySQL indicado por db.url, db.usuario y db.contrasena.
+ */
+class MotorMySQL implements MotorBaseDatos {
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+
+    MotorMySQL(String url, String usuario, String contrasena) {
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+    }
+
+    @Override
+    public String getNombre() {
+        return "MySQL";
+    }
+
+    @Override
+    public Connection abrirConexion() throws SQLException {
+        return DriverManager.getConnection(url, usuario, contrasena);
+    }
+
+    /**
+     * Integer.MIN_VALUE hace que el driver de MySQL entregue las filas de a una sin cargar el resultado en memoria.
+     */
+    @Override
+    public int getTamanoFetchPorDefecto() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public void inicializar() throws SQLException {
+        if (url == null || url.trim().isEmpty()) {
+            throw new SQLException("Falta la clave db.url en " + ConexionDB.ARCHIVO_PROPIEDADES + ".");
+        }
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("No se encontró el driver JDBC de MySQL", e);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.financierasolandino.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de conexiones JDBC con tamaño mínimo y máximo, desalojo de conexiones inactivas,
+ * validación al prestar y tiempo máximo de espera.
+ * Las conexiones entregadas son envoltorios: al llamar a close() vuelven al pool en lugar de cerrarse y, con las
+ * métricas activas, entregan sentencias que registran cada ejecución en {@link MetricasSql}.
+ */
+class PoolConexiones {
+
+    @FunctionalInterface
+    interface FabricaConexiones {
+        Connection crear() throws SQLException;
+    }
+
+    private static final int SEGUNDOS_VALIDACION = 2;
+
+    private final FabricaConexiones fabrica;
+    private final int minimo;
+    private final int maximo;
+    private final long inactividadMaximaNanos;
+    private final long esperaMaximaNanos;
+    private final boolean validarAlPrestar;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition disponible = lock.newCondition();
+    // Pila LIFO: la conexión usada más recientemente se reutiliza primero y las viejas quedan al fondo para el desalojo
+    private final Deque<ConexionInactiva> inactivas = new ArrayDeque<>();
+    private int totalConexiones;
+    private int activas;
+    private int enEspera;
+    private boolean cerrado;
+
+    private final LongAdder prestamos = new LongAdder();
+    private final LongAdder nanosPrestamo = new LongAdder();
+    private final LongAdder conexionesCreadas = new LongAdder();
+    private final LongAdder conexionesDesalojadas = new LongAdder();
+    private final LongAdder esperasAgotadas = new LongAdder();
+
+    private final ScheduledExecutorService mantenimiento;
+
+    PoolConexiones(FabricaConexiones fabrica, int minimo, int maximo, long inactividadMaximaMs,
+                   long esperaMaximaMs, boolean validarAlPrestar) {
+        if (minimo < 0 || maximo <= 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Tamaño de pool inválido: mínimo=" + minimo + ", máximo=" + maximo);
+        }
+        this.fabrica = fabrica;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.inactividadMaximaNanos = TimeUnit.MILLISECONDS.toNanos(inactividadMaximaMs);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.validarAlPrestar = validarAlPrestar;
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-conexiones-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodoMs = Math.max(1000, Math.min(inactividadMaximaMs / 2, 30000));
+        mantenimiento.scheduleWithFixedDelay(this::mantener, 0, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Si no hay conexiones libres y se alcanzó el máximo,
+     * espera hasta el tiempo configurado.
+     * @return Una conexión que vuelve al pool al cerrarse.
+     * @throws SQLTimeoutException Si se agota el tiempo de espera.
+     * @throws SQLException Si no se puede abrir una conexión nueva.
+     */
+    Connection prestar() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + esperaMaximaNanos;
+        while (true) {
+            Connection fisica = reservar(limite);
+            if (fisica == null) {
+                // Se reservó un lugar para una conexión nueva
+                try {
+                    fisica = fabrica.crear();
+                    conexionesCreadas.increment();
+                } catch (SQLException | RuntimeException e) {
+                    descartar(null);
+                    throw e;
+                }
+            } else if (validarAlPrestar && !esValida(fisica)) {
+                descartar(fisica);
+                continue;
+            }
+            prestamos.increment();
+            nanosPrestamo.add(System.nanoTime() - inicio);
+            return envolver(fisica);
+        }
+    }
+
+    /**
+     * Devuelve una instantánea de las estadísticas del pool.
+     */
+    EstadisticasPool obtenerEstadisticas() {
+        lock.lock();
+        try {
+            return new EstadisticasPool(activas, inactivas.size(), enEspera, minimo, maximo,
+                    prestamos.sum(), nanosPrestamo.sum(), conexionesCreadas.sum(),
+                    conexionesDesalojadas.sum(), esperasAgotadas.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones inactivas y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran cuando son devueltas.
+     */
+    void cerrar() {
+        List<ConexionInactiva> aCerrar;
+        lock.lock();
+        try {
+            cerrado = true;
+            aCerrar = new ArrayList<>(inactivas);
+            totalConexiones -= inactivas.size();
+            inactivas.clear();
+            disponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        mantenimiento.shutdownNow();
+        aCerrar.forEach(c -> cerrarSilenciosamente(c.conexion));
+    }
+
+    /**
+     * Toma una conexión inactiva o reserva un lugar para crear una nueva (devuelve null en ese caso).
+     */
+    private Connection reservar(long limite) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (cerrado) {
+                    throw new SQLException("El pool de conexiones está cerrado.");
+                }
+                ConexionInactiva inactiva = inactivas.pollFirst();
+                if (inactiva != null) {
+                    activas++;
+                    return inactiva.conexion;
+                }
+                if (totalConexiones < maximo) {
+                    totalConexiones++;
+                    activas++;
+                    return null;
+                }
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    esperasAgotadas.increment();
+                    throw new SQLTimeoutException("Tiempo de espera agotado al obtener una conexión del pool (máximo "
+                            + maximo + " conexiones en uso).");
+                }
+                enEspera++;
+                try {
+                    disponible.awaitNanos(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+                } finally {
+                    enEspera--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void devolver(Connection fisica) {
+        boolean reutilizable = restablecer(fisica);
+        lock.lock();
+        try {
+            activas--;
+            if (reutilizable && !cerrado) {
+                inactivas.addFirst(new ConexionInactiva(fisica, System.nanoTime()));
+                disponible.signal();
+                return;
+            }
+            totalConexiones--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+        cerrarSilenciosamente(fisica);
+    }
+
+    private void descartar(Connection fisica) {
+        lock.lock();
+        try {
+            activas--;
+            totalConexiones--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (fisica != null) {
+            cerrarSilenciosamente(fisica);
+        }
+    }
+
+    /**
+     * Deja la conexión en modo autocommit antes de devolverla, deshaciendo cualquier transacción abierta.
+     * @return false si la conexión quedó inutilizable.
+     */
+    private boolean restablecer(Connection fisica) {
+        try {
+            if (fisica.isClosed()) {
+                return false;
+            }
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean esValida(Connection fisica) {
+        try {
+            return fisica.isValid(SEGUNDOS_VALIDACION);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Desaloja las conexiones inactivas vencidas (sin bajar del mínimo) y completa el mínimo de conexiones.
+     */
+    private void mantener() {
+        List<Connection> desalojadas = new ArrayList<>();
+        int faltantes;
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            long ahora = System.nanoTime();
+            Iterator<ConexionInactiva> it = inactivas.descendingIterator();
+            while (it.hasNext() && totalConexiones > minimo) {
+                ConexionInactiva inactiva = it.next();
+                if (ahora - inactiva.desde < inactividadMaximaNanos) {
+                    break;
+                }
+                it.remove();
+                totalConexiones--;
+                desalojadas.add(inactiva.conexion);
+            }
+            faltantes = minimo - totalConexiones;
+            if (faltantes > 0) {
+                totalConexiones += faltantes;
+            }
+        } finally {
+            lock.unlock();
+        }
+        conexionesDesalojadas.add(desalojadas.size());
+        desalojadas.forEach(this::cerrarSilenciosamente);
+
+        for (int i = 0; i < faltantes; i++) {
+            try {
+                Connection nueva = fabrica.crear();
+                conexionesCreadas.increment();
+                lock.lock();
+                try {
+                    inactivas.addLast(new ConexionInactiva(nueva, System.nanoTime()));
+                    disponible.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException | RuntimeException e) {
+                // La base no está disponible: se libera la reserva y se reintenta en el próximo ciclo
+                lock.lock();
+                try {
+                    totalConexiones -= faltantes - i;
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void cerrarSilenciosamente(Connection conexion) {
+        try {
+            conexion.close();
+        } catch (SQLException ignored) {
+            // La conexión ya no se usa
+        }
+    }
+
+    private Connection envolver(Connection fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionPrestada(fisica));
+    }
+
+    private static final class ConexionInactiva {
+        private final Connection conexion;
+        private final long desde;
+
+        private ConexionInactiva(Connection conexion, long desde) {
+            this.conexion = conexion;
+            this.desde = desde;
+        }
+    }
+
+    /**
+     * Delegador de la conexión física que intercepta close() para devolverla al pool y, con las métricas activas,
+     * envuelve las sentencias que crea.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        private Connection fisica;
+        private final MetricasSql metricas = MetricasSql.getInstancia();
+        private final String operacion;
+        private final long inicio;
+        private final SentenciaMedida.ContadorSentencias contador;
+
+        private ConexionPrestada(Connection fisica) {
+            this.fisica = fisica;
+            if (metricas.isActiva()) {
+                operacion = metricas.operacionActual();
+                inicio = System.nanoTime();
+                contador = new SentenciaMedida.ContadorSentencias();
+            } else {
+                operacion = null;
+                inicio = 0;
+                contador = null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (fisica != null) {
+                        Connection aDevolver = fisica;
+                        fisica = null;
+                        devolver(aDevolver);
+                        if (contador != null) {
+                            metricas.registrarConexion(operacion, contador.sentencias, System.nanoTime() - inicio);
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return fisica == null || fisica.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "ConexionPrestada[" + fisica + "]";
+                }
+                default -> {
+                    if (fisica == null) {
+                        throw new SQLException("La conexión ya fue devuelta al pool.");
+                    }
+                    Object resultado;
+                    try {
+                        resultado = method.invoke(fisica, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (contador != null && resultado instanceof Statement sentencia) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return SentenciaMedida.envolver(sentencia, method.getReturnType(), sql, (Connection) proxy,
+                                metricas, contador);
+                    }
+                    return resultado;
+                }
+            }
+        }
+    }
+}
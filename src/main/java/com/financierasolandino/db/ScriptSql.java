@@ -0,0 +1,102 @@
+package com.financierasolandino.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lee y ejecuta scripts SQL del classpath: sentencias terminadas en ';' al final de la línea y comentarios
+ * de línea con "--". No admite ';' dentro de literales al final de una línea.
+ * <p>
+ * En MySQL cada sentencia DDL se confirma sola, así que un script que falla a mitad de camino deja aplicadas las
+ * sentencias anteriores sin registrar la versión. Para poder reintentarlo, los CREATE INDEX de un índice que ya
+ * existe en la tabla y los DROP INDEX de uno que ya no existe se omiten. Los índices se comparan por nombre: para
+ * cambiar la definición de un índice se crea uno con otro nombre.
+ */
+class ScriptSql {
+    private static final Pattern CREAR_INDICE =
+            Pattern.compile("^CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BORRAR_INDICE =
+            Pattern.compile("^DROP\\s+INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private ScriptSql() {
+    }
+
+    static List<String> leerSentencias(String recurso) throws SQLException {
+        InputStream entrada = ScriptSql.class.getClassLoader().getResourceAsStream(recurso);
+        if (entrada == null) {
+            throw new SQLException("No se encontró el script " + recurso + " en el classpath.");
+        }
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String recortada = linea.trim();
+                if (recortada.isEmpty() || recortada.startsWith("--")) {
+                    continue;
+                }
+                if (actual.length() > 0) {
+                    actual.append('\n');
+                }
+                if (recortada.endsWith(";")) {
+                    actual.append(recortada, 0, recortada.length() - 1);
+                    sentencias.add(actual.toString());
+                    actual.setLength(0);
+                } else {
+                    actual.append(recortada);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error al leer el script " + recurso, e);
+        }
+        if (actual.length() > 0) {
+            sentencias.add(actual.toString());
+        }
+        return sentencias;
+    }
+
+    static void ejecutar(Connection conexion, String recurso) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            for (String sentencia : leerSentencias(recurso)) {
+                Matcher indice = CREAR_INDICE.matcher(sentencia);
+                if (indice.find() && existeIndice(conexion, indice.group(2), indice.group(1))) {
+                    System.out.println("🗄️  El índice " + indice.group(1) + " ya existe, se omite.");
+                    continue;
+                }
+                indice = BORRAR_INDICE.matcher(sentencia);
+                if (indice.find() && !existeIndice(conexion, indice.group(2), indice.group(1))) {
+                    System.out.println("🗄️  El índice " + indice.group(1) + " ya no existe, se omite.");
+                    continue;
+                }
+                stmt.execute(sentencia);
+            }
+        }
+    }
+
+    private static boolean existeIndice(Connection conexion, String tabla, String indice) throws SQLException {
+        DatabaseMetaData metadatos = conexion.getMetaData();
+        String nombreTabla = metadatos.storesUpperCaseIdentifiers() ? tabla.toUpperCase(Locale.ROOT)
+                : metadatos.storesLowerCaseIdentifiers() ? tabla.toLowerCase(Locale.ROOT) : tabla;
+        try (ResultSet rs = metadatos.getIndexInfo(conexion.getCatalog(), null, nombreTabla, false, true)) {
+            while (rs.next()) {
+                if (indice.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
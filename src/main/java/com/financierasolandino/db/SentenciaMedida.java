@@ -0,0 +1,193 @@
+package com.financierasolandino.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Envoltorio de una sentencia de una conexión prestada por el pool que mide cada ejecución en {@link MetricasSql}:
+ * latencia hasta que la base responde, filas afectadas y, mediante {@link Resultado}, filas leídas del resultado.
+ */
+final class SentenciaMedida implements InvocationHandler {
+    private final Statement fisica;
+    private final Connection conexion;
+    private final MetricasSql metricas;
+    private final ContadorSentencias contador;
+    // Null para un Statement simple: el SQL llega en cada execute y se nombra en ese momento
+    private final MetricaSentencia preparada;
+    private Resultado ultimoResultado;
+
+    /**
+     * Sentencias ejecutadas en una conexión prestada.
+     */
+    static final class ContadorSentencias {
+        int sentencias;
+    }
+
+    private SentenciaMedida(Statement fisica, Connection conexion, MetricasSql metricas, ContadorSentencias contador,
+                            MetricaSentencia preparada) {
+        this.fisica = fisica;
+        this.conexion = conexion;
+        this.metricas = metricas;
+        this.contador = contador;
+        this.preparada = preparada;
+    }
+
+    /**
+     * @param sql Texto de la sentencia preparada, o null para un Statement simple.
+     */
+    static Statement envolver(Statement fisica, Class<?> tipo, String sql, Connection conexion, MetricasSql metricas,
+                              ContadorSentencias contador) {
+        Class<?> interfaz = tipo == CallableStatement.class ? CallableStatement.class
+                : tipo == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{interfaz},
+                new SentenciaMedida(fisica, conexion, metricas, contador, sql != null ? metricas.sentencia(sql) : null));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String nombre = method.getName();
+        if (nombre.startsWith("execute")) {
+            return ejecutar(proxy, method, args);
+        }
+        switch (nombre) {
+            case "close" -> volcarResultado();
+            case "getConnection" -> {
+                return conexion;
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            default -> {
+            }
+        }
+        return delegar(method, args);
+    }
+
+    private Object ejecutar(Object proxy, Method method, Object[] args) throws Throwable {
+        volcarResultado();
+        MetricaSentencia metrica = args != null && args.length > 0 && args[0] instanceof String sql
+                ? metricas.sentencia(sql) : preparada;
+        if (metrica == null) {
+            return delegar(method, args);
+        }
+        contador.sentencias++;
+        long inicio = System.nanoTime();
+        Object resultado;
+        try {
+            resultado = delegar(method, args);
+        } catch (Throwable e) {
+            metrica.registrar(System.nanoTime() - inicio, true);
+            throw e;
+        }
+        metrica.registrar(System.nanoTime() - inicio, false);
+        if (resultado instanceof ResultSet filas) {
+            ultimoResultado = new Resultado(filas, proxy, metrica);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    ultimoResultado);
+        }
+        if (resultado instanceof Integer afectadas && afectadas > 0) {
+            metrica.agregarFilas(afectadas);
+        } else if (resultado instanceof Long afectadas && afectadas > 0) {
+            metrica.agregarFilas(afectadas);
+        } else if (resultado instanceof int[] lote) {
+            metrica.agregarFilas(sumar(lote));
+        } else if (resultado instanceof long[] lote) {
+            for (long afectadas : lote) {
+                metrica.agregarFilas(Math.max(afectadas, 0));
+            }
+        }
+        return resultado;
+    }
+
+    private static long sumar(int[] lote) {
+        long total = 0;
+        for (int afectadas : lote) {
+            total += Math.max(afectadas, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Al cerrar la sentencia o volver a ejecutarla, el driver cierra el resultado anterior sin pasar por su
+     * envoltorio: se cuentan aquí sus filas.
+     */
+    private void volcarResultado() {
+        if (ultimoResultado != null) {
+            ultimoResultado.volcar();
+            ultimoResultado = null;
+        }
+    }
+
+    private Object delegar(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(fisica, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Envoltorio de un resultado que cuenta las filas leídas con next().
+     */
+    private static final class Resultado implements InvocationHandler {
+        private final ResultSet fisico;
+        private final Object sentencia;
+        private final MetricaSentencia metrica;
+        private long filas;
+
+        private Resultado(ResultSet fisico, Object sentencia, MetricaSentencia metrica) {
+            this.fisico = fisico;
+            this.sentencia = sentencia;
+            this.metrica = metrica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean hay = fisico.next();
+                    if (hay) {
+                        filas++;
+                    } else {
+                        volcar();
+                    }
+                    return hay;
+                }
+                case "close" -> volcar();
+                case "getStatement" -> {
+                    return sentencia;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(fisico, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void volcar() {
+            if (filas > 0) {
+                metrica.agregarFilas(filas);
+                filas = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.financierasolandino.diario;
+
+import com.financierasolandino.db.ConexionDB;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Diario local, de solo agregado, con las altas de préstamos, los pagos y las penalidades confirmados en la base,
+ * para auditar y recalcular saldos y estados ({@link ReproduccionDiario}). El archivo se configura con
+ * db.diario.archivo (por defecto procesos/diario-pagos.log); con un valor vacío el diario se desactiva.
+ * <p>
+ * Los DAO registran el evento después de confirmar la transacción: {@link #registrar} solo lo encola, sin despertar
+ * a nadie, por lo que el pago no espera al disco ni cede el procesador. Un único hilo despierta cada
+ * {@value #VENTANA_MS} ms, escribe en orden todo lo acumulado en la cola en una sola escritura secuencial y
+ * sincroniza el archivo con un fsync por lote (commit agrupado); sin actividad, espacia sus despertares hasta
+ * {@value #ESPERA_INACTIVO_MS} ms. Los eventos que todavía no llegaron al disco se pierden si el proceso cae; la
+ * reproducción los informa como diferencias con la base.
+ */
+public final class DiarioPagos {
+    private static final int CAPACIDAD_COLA = 65536;
+    private static final int MAXIMO_POR_LOTE = 4096;
+    private static final long VENTANA_MS = 5;
+    private static final long ESPERA_INACTIVO_MS = 100;
+    private static final long ESPERA_CIERRE_MS = 5000;
+    private static volatile DiarioPagos instancia;
+
+    private final Path archivo;
+    private final FileChannel canal;
+    private final BlockingQueue<EventoDiario> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final Thread escritor;
+    // Eventos escritos o descartados por el hilo escritor, y fsync realizados; protegidos por this
+    private long procesados;
+    private long escritos;
+    private long sincronizaciones;
+    private volatile boolean cerrado;
+    private volatile boolean fallido;
+
+    private DiarioPagos(Path archivo, FileChannel canal) {
+        this.archivo = archivo;
+        this.canal = canal;
+        if (canal != null) {
+            escritor = new Thread(this::escribirLotes, "diario-pagos");
+            escritor.setDaemon(true);
+            escritor.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::cerrar, "diario-pagos-cierre"));
+        } else {
+            escritor = null;
+        }
+    }
+
+    /**
+     * @return El diario del proceso, abierto con la primera llamada; si está desactivado o no se pudo abrir,
+     * una instancia que descarta los eventos.
+     */
+    public static DiarioPagos getInstancia() {
+        DiarioPagos actual = instancia;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (DiarioPagos.class) {
+            if (instancia == null) {
+                instancia = abrir(ConexionDB.getArchivoDiario());
+            }
+            return instancia;
+        }
+    }
+
+    private static DiarioPagos abrir(Path archivo) {
+        if (archivo == null) {
+            return new DiarioPagos(null, null);
+        }
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            completarUltimaLinea(archivo, canal);
+            return new DiarioPagos(archivo, canal);
+        } catch (IOException e) {
+            System.err.println("⚠️  No se pudo abrir el diario de pagos " + archivo + ": " + e.getMessage() +
+                    ". Los pagos se registran sin diario.");
+            return new DiarioPagos(null, null);
+        }
+    }
+
+    /**
+     * Si una caída dejó la última línea cortada, agrega el salto de línea para que el primer evento nuevo no quede
+     * pegado a ella (la línea cortada no pasa la verificación del CRC y se informa al reproducir).
+     */
+    private static void completarUltimaLinea(Path archivo, FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano == 0) {
+            return;
+        }
+        try (FileChannel lectura = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer ultimo = ByteBuffer.allocate(1);
+            lectura.read(ultimo, tamano - 1);
+            if (ultimo.get(0) != '\n') {
+                canal.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+    }
+
+    public boolean isActivo() {
+        return canal != null && !fallido;
+    }
+
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Encola un evento ya confirmado en la base. Solo se bloquea si la cola está llena porque el disco no da abasto.
+     */
+    public void registrar(EventoDiario evento) {
+        if (canal == null || cerrado || fallido) {
+            return;
+        }
+        try {
+            cola.put(evento);
+            encolados.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            descartados.incrementAndGet();
+        }
+    }
+
+    /**
+     * Registra los eventos en orden.
+     */
+    public void registrar(List<EventoDiario> eventos) {
+        for (EventoDiario evento : eventos) {
+            registrar(evento);
+        }
+    }
+
+    /**
+     * Espera a que los eventos registrados hasta ahora estén escritos y sincronizados en el disco.
+     * @return true si se sincronizaron antes de la espera máxima.
+     */
+    public boolean sincronizar(long esperaMaximaMs) {
+        if (canal == null) {
+            return true;
+        }
+        long objetivo = encolados.get();
+        LockSupport.unpark(escritor);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        synchronized (this) {
+            while (procesados < objetivo) {
+                long restante = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (restante <= 0 || !escritor.isAlive()) {
+                    return false;
+                }
+                try {
+                    wait(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void escribirLotes() {
+        List<EventoDiario> lote = new ArrayList<>(MAXIMO_POR_LOTE);
+        StringBuilder texto = new StringBuilder(MAXIMO_POR_LOTE * 80);
+        long espera = TimeUnit.MILLISECONDS.toNanos(VENTANA_MS);
+        // No se interrumpe este hilo (una interrupción durante la escritura cerraría el canal): se lo despierta con
+        // unpark. Tampoco espera en la cola, para que cada registrar no lo despierte y le quite el procesador al pago
+        while (!cerrado || !cola.isEmpty()) {
+            LockSupport.parkNanos(this, espera);
+            if (cola.drainTo(lote, MAXIMO_POR_LOTE) == 0) {
+                espera = Math.min(espera * 2, TimeUnit.MILLISECONDS.toNanos(ESPERA_INACTIVO_MS));
+                continue;
+            }
+            espera = TimeUnit.MILLISECONDS.toNanos(VENTANA_MS);
+            texto.setLength(0);
+            for (EventoDiario evento : lote) {
+                evento.escribir(texto);
+            }
+            boolean escrito = false;
+            if (!fallido) {
+                try {
+                    ByteBuffer datos = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+                    while (datos.hasRemaining()) {
+                        canal.write(datos);
+                    }
+                    canal.force(false);
+                    escrito = true;
+                } catch (IOException e) {
+                    fallido = true;
+                    System.err.println("❌ Error al escribir el diario de pagos " + archivo + ": " + e.getMessage() +
+                            ". Los pagos siguientes se registran sin diario.");
+                }
+            }
+            synchronized (this) {
+                procesados += lote.size();
+                if (escrito) {
+                    escritos += lote.size();
+                    sincronizaciones++;
+                } else {
+                    descartados.addAndGet(lote.size());
+                }
+                notifyAll();
+            }
+            lote.clear();
+        }
+    }
+
+    /**
+     * Escribe los eventos pendientes y cierra el archivo. Se llama al terminar el proceso.
+     */
+    public void cerrar() {
+        if (canal == null || cerrado) {
+            return;
+        }
+        sincronizar(ESPERA_CIERRE_MS);
+        cerrado = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(ESPERA_CIERRE_MS);
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("⚠️  Error al cerrar el diario de pagos: " + e.getMessage());
+        }
+    }
+
+    public synchronized long getEventosEscritos() {
+        return escritos;
+    }
+
+    /**
+     * @return Cantidad de fsync realizados; cada uno confirma un lote de eventos.
+     */
+    public synchronized long getSincronizaciones() {
+        return sincronizaciones;
+    }
+
+    /**
+     * @return Eventos que no se escribieron por un error de escritura o una interrupción.
+     */
+    public long getEventosDescartados() {
+        return descartados.get();
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (canal == null) {
+            return "Diario de pagos desactivado";
+        }
+        return String.format("Diario de pagos %s: %d eventos en %d fsync (%.1f eventos por fsync), %d descartados",
+                archivo, escritos, sincronizaciones, sincronizaciones > 0 ? (double) escritos / sincronizaciones : 0.0,
+                descartados.get());
+    }
+}
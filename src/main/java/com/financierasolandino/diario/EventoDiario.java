@@ -0,0 +1,144 @@
+package com.financierasolandino.diario;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+/**
+ * Evento del diario de pagos: alta de un préstamo, pago de una cuota o penalidad registrada. Los importes se
+ * guardan en centavos.
+ * <p>
+ * Cada evento ocupa una línea de texto con los campos separados por ';' y un CRC32 al final, para detectar una
+ * línea cortada por una caída a mitad de escritura:
+ * <pre>
+ * PRESTAMO;fecha;idPrestamo;numeroCuotas;centavosSaldoInicial;0;crc
+ * PAGO;fecha;idPrestamo;numeroCuota;centavosCapitalAmortizado;centavosPagados;crc
+ * PENALIDAD;fecha;idPrestamo;numeroCuota;centavosPenalidad;0;crc
+ * </pre>
+ */
+public final class EventoDiario {
+    private static final char SEPARADOR = ';';
+
+    public enum Tipo {
+        PRESTAMO, PAGO, PENALIDAD
+    }
+
+    private final Tipo tipo;
+    private final LocalDate fecha;
+    private final String idPrestamo;
+    private final int numeroCuota;
+    private final long centavos;
+    private final long centavosPagados;
+
+    private EventoDiario(Tipo tipo, LocalDate fecha, String idPrestamo, int numeroCuota, long centavos, long centavosPagados) {
+        this.tipo = tipo;
+        this.fecha = fecha;
+        this.idPrestamo = idPrestamo;
+        this.numeroCuota = numeroCuota;
+        this.centavos = centavos;
+        this.centavosPagados = centavosPagados;
+    }
+
+    /**
+     * @param centavosSaldoInicial Saldo pendiente con el que se crea el préstamo.
+     */
+    public static EventoDiario alta(String idPrestamo, int numeroCuotas, long centavosSaldoInicial, LocalDate fecha) {
+        return new EventoDiario(Tipo.PRESTAMO, fecha, idPrestamo, numeroCuotas, centavosSaldoInicial, 0);
+    }
+
+    /**
+     * @param centavosCapital Capital amortizado de la cuota, que se descuenta del saldo pendiente.
+     * @param centavosPagados Importe pagado (cuota más penalidad).
+     */
+    public static EventoDiario pago(String idPrestamo, int numeroCuota, long centavosCapital, long centavosPagados, LocalDate fecha) {
+        return new EventoDiario(Tipo.PAGO, fecha, idPrestamo, numeroCuota, centavosCapital, centavosPagados);
+    }
+
+    public static EventoDiario penalidad(String idPrestamo, int numeroCuota, long centavosPenalidad, LocalDate fecha) {
+        return new EventoDiario(Tipo.PENALIDAD, fecha, idPrestamo, numeroCuota, centavosPenalidad, 0);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public String getIdPrestamo() {
+        return idPrestamo;
+    }
+
+    /**
+     * @return El número de cuota, o la cantidad de cuotas del préstamo en un evento {@link Tipo#PRESTAMO}.
+     */
+    public int getNumeroCuota() {
+        return numeroCuota;
+    }
+
+    /**
+     * @return El saldo inicial (PRESTAMO), el capital amortizado (PAGO) o la penalidad (PENALIDAD), en centavos.
+     */
+    public long getCentavos() {
+        return centavos;
+    }
+
+    /**
+     * @return El importe pagado en un evento PAGO, en centavos; 0 en los demás.
+     */
+    public long getCentavosPagados() {
+        return centavosPagados;
+    }
+
+    /**
+     * Agrega la línea del evento, con su CRC y el salto de línea, al final del buffer.
+     */
+    void escribir(StringBuilder destino) {
+        int inicio = destino.length();
+        destino.append(tipo.name()).append(SEPARADOR)
+                .append(fecha).append(SEPARADOR)
+                .append(idPrestamo).append(SEPARADOR)
+                .append(numeroCuota).append(SEPARADOR)
+                .append(centavos).append(SEPARADOR)
+                .append(centavosPagados);
+        long crc = crc(destino, inicio, destino.length());
+        destino.append(SEPARADOR).append(Long.toHexString(crc)).append('\n');
+    }
+
+    /**
+     * Interpreta una línea del diario (sin el salto de línea).
+     * @throws IllegalArgumentException Si la línea está incompleta, mal formada o su CRC no coincide.
+     */
+    static EventoDiario leer(String linea) {
+        int ultimo = linea.lastIndexOf(SEPARADOR);
+        if (ultimo < 0) {
+            throw new IllegalArgumentException("Línea sin CRC");
+        }
+        long crc;
+        try {
+            crc = Long.parseLong(linea.substring(ultimo + 1), 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("CRC inválido");
+        }
+        if (crc != crc(linea, 0, ultimo)) {
+            throw new IllegalArgumentException("El CRC no coincide");
+        }
+        String[] campos = linea.substring(0, ultimo).split(String.valueOf(SEPARADOR), -1);
+        if (campos.length != 6) {
+            throw new IllegalArgumentException("Se esperaban 6 campos y hay " + campos.length);
+        }
+        try {
+            return new EventoDiario(Tipo.valueOf(campos[0]), LocalDate.parse(campos[1]), campos[2],
+                    Integer.parseInt(campos[3]), Long.parseLong(campos[4]), Long.parseLong(campos[5]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Campo inválido: " + e.getMessage());
+        }
+    }
+
+    private static long crc(CharSequence texto, int desde, int hasta) {
+        CRC32 crc = new CRC32();
+        crc.update(texto.subSequence(desde, hasta).toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,401 @@
+package com.financierasolandino.diario;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.ResumenPrestamoDAO;
+import com.financierasolandino.dao.ResumenPrestamoDAO.SaldoRegistrado;
+import com.financierasolandino.model.Prestamo.EstadoPrestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reproduce el diario de pagos ({@link DiarioPagos}) para recalcular el saldo pendiente, el estado y las penalidades
+ * de cada préstamo, y los compara con los registrados en la base.
+ * <p>
+ * El hilo que llama lee el archivo de forma secuencial y reparte los eventos, en bloques, entre los hilos de
+ * reproducción según el idPrestamo: todos los eventos de un préstamo los aplica el mismo hilo y en el orden del
+ * diario, sin sincronización entre hilos. Al terminar la lectura, cada hilo compara sus préstamos con la base en
+ * bloques de {@value #PRESTAMOS_POR_CONSULTA}.
+ * <p>
+ * Solo se verifican los préstamos cuya alta está en el diario; los creados antes de activarlo se cuentan aparte.
+ * Un préstamo con cuotas vencidas impagas que la base todavía tiene ACTIVO no es una diferencia: queda pendiente
+ * del proceso de mora.
+ */
+public class ReproduccionDiario {
+    private static final int EVENTOS_POR_BLOQUE = 1024;
+    private static final int BLOQUES_EN_COLA = 8;
+    private static final int PRESTAMOS_POR_CONSULTA = 500;
+    private static final int LINEAS_INVALIDAS_INFORMADAS = 20;
+    private static final List<EventoDiario> FIN = new ArrayList<>();
+
+    private final ResumenPrestamoDAO resumenDAO;
+    private final int hilos;
+
+    /**
+     * Diferencia entre lo que resulta del diario y lo registrado en la base para un préstamo.
+     */
+    public static class Discrepancia {
+        private final String idPrestamo;
+        private final String campo;
+        private final String segunDiario;
+        private final String enBase;
+
+        Discrepancia(String idPrestamo, String campo, String segunDiario, String enBase) {
+            this.idPrestamo = idPrestamo;
+            this.campo = campo;
+            this.segunDiario = segunDiario;
+            this.enBase = enBase;
+        }
+
+        public String getIdPrestamo() {
+            return idPrestamo;
+        }
+
+        public String getCampo() {
+            return campo;
+        }
+
+        public String getSegunDiario() {
+            return segunDiario;
+        }
+
+        public String getEnBase() {
+            return enBase;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: diario %s, base %s", idPrestamo, campo, segunDiario, enBase);
+        }
+    }
+
+    /**
+     * Resultado de una reproducción.
+     */
+    public static class Resultado {
+        private final long eventos;
+        private final long prestamos;
+        private final long prestamosSinAlta;
+        private final long lineasInvalidas;
+        private final List<String> detalleLineasInvalidas;
+        private final List<Discrepancia> discrepancias;
+        private final long nanos;
+
+        Resultado(long eventos, long prestamos, long prestamosSinAlta, long lineasInvalidas,
+                  List<String> detalleLineasInvalidas, List<Discrepancia> discrepancias, long nanos) {
+            this.eventos = eventos;
+            this.prestamos = prestamos;
+            this.prestamosSinAlta = prestamosSinAlta;
+            this.lineasInvalidas = lineasInvalidas;
+            this.detalleLineasInvalidas = detalleLineasInvalidas;
+            this.discrepancias = discrepancias;
+            this.nanos = nanos;
+        }
+
+        public long getEventos() {
+            return eventos;
+        }
+
+        /**
+         * @return Préstamos con alta en el diario, comparados con la base.
+         */
+        public long getPrestamos() {
+            return prestamos;
+        }
+
+        /**
+         * @return Préstamos con pagos o penalidades en el diario pero sin alta (creados antes de activarlo).
+         */
+        public long getPrestamosSinAlta() {
+            return prestamosSinAlta;
+        }
+
+        public long getLineasInvalidas() {
+            return lineasInvalidas;
+        }
+
+        /**
+         * @return Las primeras líneas inválidas, con su número y el motivo.
+         */
+        public List<String> getDetalleLineasInvalidas() {
+            return detalleLineasInvalidas;
+        }
+
+        public List<Discrepancia> getDiscrepancias() {
+            return discrepancias;
+        }
+
+        public boolean isConsistente() {
+            return discrepancias.isEmpty() && lineasInvalidas == 0;
+        }
+
+        public double getSegundos() {
+            return nanos / 1_000_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Diario reproducido: %d eventos, %d préstamos verificados (%d sin alta en el diario), " +
+                            "%d líneas inválidas, %d diferencias, %.3f s (%.0f eventos/s)",
+                    eventos, prestamos, prestamosSinAlta, lineasInvalidas, discrepancias.size(), getSegundos(),
+                    eventos / Math.max(getSegundos(), 1e-9));
+        }
+    }
+
+    /**
+     * Estado de un préstamo reconstruido con sus eventos.
+     */
+    private static class PrestamoReproducido {
+        private boolean alta;
+        private int numeroCuotas;
+        private long centavosSaldo;
+        private int pagos;
+        private final BitSet cuotasPagadas = new BitSet();
+        private long centavosPenalidades;
+        private final List<String> errores = new ArrayList<>(0);
+
+        void aplicar(EventoDiario evento) {
+            switch (evento.getTipo()) {
+                case PRESTAMO -> {
+                    if (alta) {
+                        errores.add("alta duplicada del " + evento.getFecha());
+                        return;
+                    }
+                    alta = true;
+                    numeroCuotas = evento.getNumeroCuota();
+                    centavosSaldo = evento.getCentavos();
+                }
+                case PAGO -> {
+                    if (cuotasPagadas.get(evento.getNumeroCuota())) {
+                        errores.add("cuota " + evento.getNumeroCuota() + " pagada dos veces");
+                        return;
+                    }
+                    cuotasPagadas.set(evento.getNumeroCuota());
+                    pagos++;
+                    // Igual que PagoDAO: al pagar la última cuota el saldo queda en cero sin arrastrar redondeos
+                    centavosSaldo = pagos >= numeroCuotas ? 0 : centavosSaldo - evento.getCentavos();
+                }
+                case PENALIDAD -> centavosPenalidades += evento.getCentavos();
+            }
+        }
+
+        EstadoPrestamo estadoEsperado(BitSet cuotasVencidas) {
+            if (pagos >= numeroCuotas) {
+                return EstadoPrestamo.CANCELADO;
+            }
+            BitSet impagas = (BitSet) cuotasVencidas.clone();
+            impagas.andNot(cuotasPagadas);
+            return impagas.isEmpty() ? EstadoPrestamo.ACTIVO : EstadoPrestamo.EN_MORA;
+        }
+    }
+
+    /**
+     * Aplica los eventos de los préstamos que le tocan y después los compara con la base.
+     */
+    private class Reproductor {
+        private final BlockingQueue<List<EventoDiario>> cola = new ArrayBlockingQueue<>(BLOQUES_EN_COLA);
+        private final Map<String, PrestamoReproducido> prestamos = new HashMap<>();
+        private final List<Discrepancia> discrepancias = new ArrayList<>();
+        private long verificados;
+        private long sinAlta;
+
+        Reproductor ejecutar(LocalDate fecha) throws InterruptedException, ClienteDAOException {
+            List<EventoDiario> bloque;
+            while ((bloque = cola.take()) != FIN) {
+                for (EventoDiario evento : bloque) {
+                    prestamos.computeIfAbsent(evento.getIdPrestamo(), id -> new PrestamoReproducido()).aplicar(evento);
+                }
+            }
+            List<String> pendientes = new ArrayList<>(PRESTAMOS_POR_CONSULTA);
+            for (Map.Entry<String, PrestamoReproducido> entrada : prestamos.entrySet()) {
+                if (!entrada.getValue().alta) {
+                    sinAlta++;
+                    continue;
+                }
+                pendientes.add(entrada.getKey());
+                if (pendientes.size() == PRESTAMOS_POR_CONSULTA) {
+                    comparar(pendientes, fecha);
+                    pendientes.clear();
+                }
+            }
+            comparar(pendientes, fecha);
+            return this;
+        }
+
+        private void comparar(List<String> ids, LocalDate fecha) throws ClienteDAOException {
+            if (ids.isEmpty()) {
+                return;
+            }
+            Map<String, SaldoRegistrado> saldos = resumenDAO.obtenerSaldos(ids, fecha);
+            for (String id : ids) {
+                verificados++;
+                PrestamoReproducido prestamo = prestamos.get(id);
+                for (String error : prestamo.errores) {
+                    discrepancias.add(new Discrepancia(id, "eventos", error, "-"));
+                }
+                SaldoRegistrado registrado = saldos.get(id);
+                if (registrado == null) {
+                    discrepancias.add(new Discrepancia(id, "préstamo", "existe", "no existe"));
+                    continue;
+                }
+                if (prestamo.centavosSaldo != registrado.getCentavosSaldo()) {
+                    discrepancias.add(new Discrepancia(id, "saldo", centavos(prestamo.centavosSaldo),
+                            centavos(registrado.getCentavosSaldo())));
+                }
+                if (prestamo.centavosPenalidades != registrado.getCentavosPenalidades()) {
+                    discrepancias.add(new Discrepancia(id, "penalidades", centavos(prestamo.centavosPenalidades),
+                            centavos(registrado.getCentavosPenalidades())));
+                }
+                EstadoPrestamo esperado = prestamo.estadoEsperado(registrado.getCuotasVencidas());
+                boolean pendienteDeMora = esperado == EstadoPrestamo.EN_MORA && registrado.getEstado() == EstadoPrestamo.ACTIVO;
+                if (esperado != registrado.getEstado() && !pendienteDeMora) {
+                    discrepancias.add(new Discrepancia(id, "estado", esperado.name(), registrado.getEstado().name()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param resumenDAO Acceso a los saldos registrados.
+     * @param hilos Hilos de reproducción (cada uno usa una conexión del pool al comparar).
+     */
+    public ReproduccionDiario(ResumenPrestamoDAO resumenDAO, int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser positiva.");
+        }
+        this.resumenDAO = resumenDAO;
+        this.hilos = hilos;
+    }
+
+    /**
+     * Reproduce el diario completo y compara el resultado con la base.
+     * @param archivo Archivo del diario.
+     * @param fecha Fecha a la que se evalúan las cuotas vencidas para el estado esperado (normalmente hoy).
+     * @return El resultado, con las diferencias encontradas.
+     * @throws IOException Si no se puede leer el archivo.
+     * @throws ClienteDAOException Si falla la consulta de los saldos registrados.
+     */
+    public Resultado reproducir(Path archivo, LocalDate fecha) throws IOException, ClienteDAOException {
+        long inicio = System.nanoTime();
+        List<Reproductor> reproductores = new ArrayList<>(hilos);
+        List<Future<Reproductor>> resultados = new ArrayList<>(hilos);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        long eventos = 0;
+        long lineasInvalidas = 0;
+        List<String> detalleLineasInvalidas = new ArrayList<>();
+        try {
+            for (int i = 0; i < hilos; i++) {
+                Reproductor reproductor = new Reproductor();
+                reproductores.add(reproductor);
+                resultados.add(ejecutor.submit(() -> reproductor.ejecutar(fecha)));
+            }
+
+            List<List<EventoDiario>> bloques = new ArrayList<>(hilos);
+            for (int i = 0; i < hilos; i++) {
+                bloques.add(new ArrayList<>(EVENTOS_POR_BLOQUE));
+            }
+            try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                String linea;
+                long numeroLinea = 0;
+                while ((linea = lector.readLine()) != null) {
+                    numeroLinea++;
+                    if (linea.isBlank()) {
+                        continue;
+                    }
+                    EventoDiario evento;
+                    try {
+                        evento = EventoDiario.leer(linea);
+                    } catch (IllegalArgumentException e) {
+                        lineasInvalidas++;
+                        if (detalleLineasInvalidas.size() < LINEAS_INVALIDAS_INFORMADAS) {
+                            detalleLineasInvalidas.add("línea " + numeroLinea + ": " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    eventos++;
+                    int destino = Math.floorMod(evento.getIdPrestamo().hashCode(), hilos);
+                    List<EventoDiario> bloque = bloques.get(destino);
+                    bloque.add(evento);
+                    if (bloque.size() == EVENTOS_POR_BLOQUE) {
+                        entregar(reproductores.get(destino), resultados.get(destino), bloque);
+                        bloques.set(destino, new ArrayList<>(EVENTOS_POR_BLOQUE));
+                    }
+                }
+            } finally {
+                for (int i = 0; i < hilos; i++) {
+                    if (!bloques.get(i).isEmpty()) {
+                        entregar(reproductores.get(i), resultados.get(i), bloques.get(i));
+                    }
+                    entregar(reproductores.get(i), resultados.get(i), FIN);
+                }
+            }
+
+            long prestamos = 0;
+            long sinAlta = 0;
+            List<Discrepancia> discrepancias = new ArrayList<>();
+            for (Future<Reproductor> resultado : resultados) {
+                Reproductor reproductor = esperar(resultado);
+                prestamos += reproductor.verificados;
+                sinAlta += reproductor.sinAlta;
+                discrepancias.addAll(reproductor.discrepancias);
+            }
+            discrepancias.sort((a, b) -> a.getIdPrestamo().compareTo(b.getIdPrestamo()));
+            return new Resultado(eventos, prestamos, sinAlta, lineasInvalidas, detalleLineasInvalidas, discrepancias,
+                    System.nanoTime() - inicio);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Pasa un bloque a un reproductor; si el reproductor terminó con error, el bloque se descarta (el error se
+     * informa al esperar su resultado).
+     */
+    private static void entregar(Reproductor reproductor, Future<Reproductor> resultado, List<EventoDiario> bloque) {
+        try {
+            while (!resultado.isDone()) {
+                if (reproductor.cola.offer(bloque, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClienteDAOException("Reproducción del diario interrumpida", e);
+        }
+    }
+
+    private static Reproductor esperar(Future<Reproductor> resultado) throws ClienteDAOException {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClienteDAOException("Reproducción del diario interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClienteDAOException causa) {
+                throw causa;
+            }
+            throw new ClienteDAOException("Error al reproducir el diario: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static String centavos(long centavos) {
+        return FormatoMoneda.formatearCentavos(centavos, new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.financierasolandino.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estado completo de un préstamo leído de una sola vez: datos del préstamo, cronograma, pagos y penalidades.
+ * Los cruces entre cuotas, pagos y penalidades se resuelven al construirla con índices por número de cuota,
+ * por lo que todas las consultas posteriores son directas y no acceden a la base de datos.
+ */
+public class InstantaneaPrestamo {
+    private final Prestamo prestamo;
+    private final List<Cuota> cuotas;
+    private final List<Pago> pagos;
+    private final BigDecimal[] penalidades;
+    private final BigDecimal totalPenalidades;
+    // Posición de cada cuota en la lista, indexada por número de cuota (-1 si no existe)
+    private final int[] indicePorNumero;
+    private final boolean[] pagadas;
+
+    /**
+     * @param prestamo Datos del préstamo.
+     * @param cuotas Cronograma del préstamo.
+     * @param pagos Pagos registrados.
+     * @param penalidades Penalidad de cada cuota, en la misma posición que en la lista de cuotas (null si no tiene).
+     * @param totalPenalidades Suma de todas las penalidades registradas para el préstamo.
+     */
+    public InstantaneaPrestamo(Prestamo prestamo, List<Cuota> cuotas, List<Pago> pagos,
+                               BigDecimal[] penalidades, BigDecimal totalPenalidades) {
+        this.prestamo = prestamo;
+        this.cuotas = Collections.unmodifiableList(cuotas);
+        this.pagos = Collections.unmodifiableList(pagos);
+        this.penalidades = penalidades;
+        this.totalPenalidades = totalPenalidades;
+
+        int maximo = 0;
+        for (Cuota cuota : cuotas) {
+            maximo = Math.max(maximo, cuota.getNumeroCuota());
+        }
+        this.indicePorNumero = new int[maximo + 1];
+        Arrays.fill(indicePorNumero, -1);
+        for (int i = 0; i < cuotas.size(); i++) {
+            indicePorNumero[cuotas.get(i).getNumeroCuota()] = i;
+        }
+        this.pagadas = new boolean[cuotas.size()];
+        for (Pago pago : pagos) {
+            int indice = indice(pago.getNumeroCuota());
+            if (indice >= 0) {
+                pagadas[indice] = true;
+            }
+        }
+    }
+
+    public Prestamo getPrestamo() {
+        return prestamo;
+    }
+
+    public List<Cuota> getCuotas() {
+        return cuotas;
+    }
+
+    public List<Pago> getPagos() {
+        return pagos;
+    }
+
+    public boolean isPagada(int numeroCuota) {
+        int indice = indice(numeroCuota);
+        return indice >= 0 && pagadas[indice];
+    }
+
+    /**
+     * Penalidad registrada para la cuota, o 0 si no tiene.
+     */
+    public double getPenalidad(int numeroCuota) {
+        int indice = indice(numeroCuota);
+        return indice >= 0 && penalidades[indice] != null ? penalidades[indice].doubleValue() : 0.0;
+    }
+
+    public boolean tienePenalidad(int numeroCuota) {
+        int indice = indice(numeroCuota);
+        return indice >= 0 && penalidades[indice] != null;
+    }
+
+    /**
+     * Suma de todas las penalidades del préstamo, de cuotas pagadas e impagas.
+     */
+    public double getTotalPenalidades() {
+        return totalPenalidades.doubleValue();
+    }
+
+    /**
+     * Cuotas impagas con vencimiento anterior a la fecha indicada, en orden de número de cuota.
+     */
+    public List<Cuota> getCuotasEnMora(LocalDate fecha) {
+        List<Cuota> enMora = new ArrayList<>();
+        for (int i = 0; i < cuotas.size(); i++) {
+            Cuota cuota = cuotas.get(i);
+            if (!pagadas[i] && cuota.getFechaVencimiento().isBefore(fecha)) {
+                enMora.add(cuota);
+            }
+        }
+        return enMora;
+    }
+
+    /**
+     * Suma de los importes de las cuotas impagas (capital e intereses, sin penalidades).
+     */
+    public double getTotalCuotasImpagas() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < cuotas.size(); i++) {
+            if (!pagadas[i]) {
+                total = total.add(BigDecimal.valueOf(cuotas.get(i).getMontoCuota()));
+            }
+        }
+        return total.doubleValue();
+    }
+
+    private int indice(int numeroCuota) {
+        return numeroCuota >= 0 && numeroCuota < indicePorNumero.length ? indicePorNumero[numeroCuota] : -1;
+    }
+}
@@ -53,7 +53,18 @@ public class CalculadoraCuotas {
         return cuotas;
     }
 
-    private static BigDecimal calcularCuotaFija(BigDecimal monto, BigDecimal tasaMensual, int numeroCuotas) {
+    static BigDecimal calcularCuotaFija(BigDecimal monto, BigDecimal tasaMensual, int numeroCuotas) {
+        BigDecimal factor = calcularFactor(tasaMensual, numeroCuotas);
+
+        // Calcular cuota: monto * (tasaMensual / factor)
+        return monto.multiply(tasaMensual).divide(factor, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calcula el factor 1 - 1 / (1 + tasaMensual)^numeroCuotas del sistema francés.
+     * Depende solo de la tasa y del plazo, por lo que puede reutilizarse entre préstamos.
+     */
+    static BigDecimal calcularFactor(BigDecimal tasaMensual, int numeroCuotas) {
         // Calcular (1 + tasaMensual)^numeroCuotas
         BigDecimal unoMasTasa = BigDecimal.ONE.add(tasaMensual);
         BigDecimal baseElevada = unoMasTasa.pow(numeroCuotas, new java.math.MathContext(10, RoundingMode.HALF_UP));
@@ -62,9 +73,6 @@ public class CalculadoraCuotas {
         BigDecimal denominador = BigDecimal.ONE.divide(baseElevada, 10, RoundingMode.HALF_UP);
 
         // Calcular 1 - [1 / (1 + tasaMensual)^numeroCuotas]
-        BigDecimal factor = BigDecimal.ONE.subtract(denominador);
-
-        // Calcular cuota: monto * (tasaMensual / factor)
-        return monto.multiply(tasaMensual).divide(factor, 2, RoundingMode.HALF_UP);
+        return BigDecimal.ONE.subtract(denominador);
     }
 }
\ No newline at end of file
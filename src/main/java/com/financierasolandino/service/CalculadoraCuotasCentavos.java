@@ -0,0 +1,176 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calculadora de cuotas del sistema francés en aritmética de punto fijo (centavos en long).
+ * Reproduce exactamente el redondeo HALF_UP de {@link CalculadoraCuotas}: montos con 2 decimales,
+ * tasas con 4, tasa mensual con 8 y factor de amortización con 10. Está pensada para simulaciones
+ * masivas y recálculos de cartera, donde evita crear objetos BigDecimal en cada cuota.
+ * <p>
+ * El factor 1 - 1/(1 + i)^n es lo único que se calcula con BigDecimal, para obtener el mismo redondeo
+ * intermedio de {@link BigDecimal#pow(int, java.math.MathContext)}; como depende solo de la tasa y del
+ * plazo, se calcula una vez por combinación y se reutiliza.
+ */
+public final class CalculadoraCuotasCentavos {
+    private static final long ESCALA_TASA_MENSUAL = 100_000_000L; // 8 decimales
+    private static final int MAX_CUOTAS_EN_CACHE = 4096;
+    private static final int MAX_FACTORES_EN_CACHE = 10_000;
+
+    // Clave: tasa mensual (8 decimales) * MAX_CUOTAS_EN_CACHE + número de cuotas
+    private static final ConcurrentHashMap<Long, Long> FACTORES = new ConcurrentHashMap<>();
+
+    private CalculadoraCuotasCentavos() {
+    }
+
+    /**
+     * Calcula el cronograma con los mismos parámetros que {@link CalculadoraCuotas#calcularCuota}.
+     * @param monto Monto del préstamo (se redondea a centavos).
+     * @param tasaInteres Tasa nominal anual en porcentaje (se redondea a 4 decimales).
+     * @param numeroCuotas Cantidad de cuotas mensuales.
+     */
+    public static CronogramaCentavos calcular(double monto, double tasaInteres, int numeroCuotas) {
+        if (monto <= 0 || tasaInteres < 0 || numeroCuotas <= 0) {
+            throw new IllegalArgumentException("Monto, tasa de interés y número de cuotas deben ser positivos.");
+        }
+        return calcularCentavos(FormatoMoneda.aCentavos(monto), aDiezMilesimas(tasaInteres), numeroCuotas);
+    }
+
+    /**
+     * Atajo que devuelve directamente las cuotas, idénticas a las de {@link CalculadoraCuotas#calcularCuota}.
+     */
+    public static List<Cuota> calcularCuota(String idPrestamo, double monto, double tasaInteres, int numeroCuotas,
+                                            LocalDate fechaCreacion) {
+        return calcular(monto, tasaInteres, numeroCuotas).aCuotas(idPrestamo, tasaInteres, fechaCreacion);
+    }
+
+    /**
+     * Calcula el cronograma a partir de valores ya escalados.
+     * @param montoCentavos Monto del préstamo en centavos.
+     * @param tasaDiezMilesimas Tasa nominal anual en diezmilésimas de punto porcentual (95,5% → 955000).
+     * @param numeroCuotas Cantidad de cuotas mensuales.
+     */
+    public static CronogramaCentavos calcularCentavos(long montoCentavos, long tasaDiezMilesimas, int numeroCuotas) {
+        if (montoCentavos <= 0 || tasaDiezMilesimas < 0 || numeroCuotas <= 0) {
+            throw new IllegalArgumentException("Monto, tasa de interés y número de cuotas deben ser positivos.");
+        }
+        long tasaMensual = tasaMensual(tasaDiezMilesimas);
+        long cuotaFija = cuotaFijaCentavos(montoCentavos, tasaMensual, numeroCuotas);
+
+        long[] cuotas = new long[numeroCuotas];
+        long[] capital = new long[numeroCuotas];
+        long[] intereses = new long[numeroCuotas];
+        long saldo = montoCentavos;
+        for (int i = 0; i < numeroCuotas; i++) {
+            long interes = dividirHalfUp(Math.multiplyExact(saldo, tasaMensual), ESCALA_TASA_MENSUAL);
+            long amortizado = i == numeroCuotas - 1 ? saldo : cuotaFija - interes;
+            intereses[i] = interes;
+            capital[i] = amortizado;
+            cuotas[i] = i == numeroCuotas - 1 ? amortizado + interes : cuotaFija;
+            saldo -= amortizado;
+        }
+        return new CronogramaCentavos(montoCentavos, cuotas, capital, intereses);
+    }
+
+    /**
+     * Capital pendiente después de pagar las primeras cuotas, sin construir el cronograma completo.
+     * Útil para conciliar saldos de toda la cartera.
+     */
+    public static long saldoPendienteCentavos(long montoCentavos, long tasaDiezMilesimas, int numeroCuotas, int cuotasPagadas) {
+        if (montoCentavos <= 0 || tasaDiezMilesimas < 0 || numeroCuotas <= 0) {
+            throw new IllegalArgumentException("Monto, tasa de interés y número de cuotas deben ser positivos.");
+        }
+        if (cuotasPagadas >= numeroCuotas) {
+            return 0;
+        }
+        long tasaMensual = tasaMensual(tasaDiezMilesimas);
+        long cuotaFija = cuotaFijaCentavos(montoCentavos, tasaMensual, numeroCuotas);
+        long saldo = montoCentavos;
+        for (int i = 0; i < cuotasPagadas; i++) {
+            saldo -= cuotaFija - dividirHalfUp(Math.multiplyExact(saldo, tasaMensual), ESCALA_TASA_MENSUAL);
+        }
+        return saldo;
+    }
+
+    /**
+     * Tasa mensual con 8 decimales (TNA / 1200) a partir de la tasa anual en diezmilésimas.
+     */
+    public static long tasaMensual(long tasaDiezMilesimas) {
+        // (tasa / 10^4) / 1200 * 10^8 = tasa * 25 / 3
+        return dividirHalfUp(Math.multiplyExact(tasaDiezMilesimas, 25), 3);
+    }
+
+    /**
+     * Convierte una tasa en porcentaje a diezmilésimas con redondeo HALF_UP sobre el valor exacto del double.
+     */
+    public static long aDiezMilesimas(double tasa) {
+        double escalado = tasa * 10_000.0;
+        double piso = Math.floor(escalado);
+        double fraccion = escalado - piso;
+        double tolerancia = Math.max(1e-6, Math.ulp(escalado) * 4);
+        if (Math.abs(fraccion - 0.5) > tolerancia) {
+            return (long) (fraccion < 0.5 ? piso : piso + 1);
+        }
+        return new BigDecimal(tasa).setScale(4, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Cuota fija en centavos: monto * tasaMensual / factor, redondeada HALF_UP a 2 decimales.
+     */
+    static long cuotaFijaCentavos(long montoCentavos, long tasaMensual, int numeroCuotas) {
+        long factor = factor(tasaMensual, numeroCuotas);
+        if (factor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        // monto (2 decimales) * tasa (8 decimales) / factor (10 decimales) = pesos; * 100 para obtener centavos
+        try {
+            return dividirHalfUp(Math.multiplyExact(Math.multiplyExact(montoCentavos, tasaMensual), 100), factor);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(montoCentavos, 2)
+                    .multiply(BigDecimal.valueOf(tasaMensual, 8))
+                    .divide(BigDecimal.valueOf(factor, 10), 2, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        }
+    }
+
+    private static long factor(long tasaMensual, int numeroCuotas) {
+        if (numeroCuotas >= MAX_CUOTAS_EN_CACHE || tasaMensual >= Long.MAX_VALUE / MAX_CUOTAS_EN_CACHE) {
+            return calcularFactor(tasaMensual, numeroCuotas);
+        }
+        long clave = tasaMensual * MAX_CUOTAS_EN_CACHE + numeroCuotas;
+        Long factor = FACTORES.get(clave);
+        if (factor == null) {
+            factor = calcularFactor(tasaMensual, numeroCuotas);
+            // Las tasas del sistema son pocas; el límite solo evita crecer sin control con tasas arbitrarias
+            if (FACTORES.size() < MAX_FACTORES_EN_CACHE) {
+                FACTORES.put(clave, factor);
+            }
+        }
+        return factor;
+    }
+
+    private static long calcularFactor(long tasaMensual, int numeroCuotas) {
+        return CalculadoraCuotas.calcularFactor(BigDecimal.valueOf(tasaMensual, 8), numeroCuotas)
+                .setScale(10, RoundingMode.UNNECESSARY)
+                .unscaledValue().longValueExact();
+    }
+
+    /**
+     * División entera con redondeo HALF_UP (las mitades se alejan del cero), como BigDecimal.
+     */
+    private static long dividirHalfUp(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) >= divisor - Math.abs(resto)) {
+            cociente += Long.signum(dividendo);
+        }
+        return cociente;
+    }
+}
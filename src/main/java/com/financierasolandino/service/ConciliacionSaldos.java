@@ -0,0 +1,299 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.ConciliacionDAO;
+import com.financierasolandino.dao.ConciliacionDAO.PrestamoConciliable;
+import com.financierasolandino.dao.MoraDAO;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.EscritorCsv;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concilia el saldo pendiente registrado de toda la cartera con el que resulta de las cuotas pagadas.
+ * <p>
+ * El pago descuenta del saldo el capital amortizado guardado en la cuota y, al pagar la última, lo fuerza a cero;
+ * un redondeo o un cambio hecho por fuera de la aplicación pueden dejarlo desalineado. Para cada préstamo se
+ * recalcula el cronograma con {@link CalculadoraCuotasCentavos} (los mismos importes que {@link CalculadoraCuotas})
+ * y se informan:
+ * <ul>
+ *     <li>SALDO: el saldo registrado no es el monto menos el capital de las cuotas pagadas (o cero si están todas);</li>
+ *     <li>CRONOGRAMA: el capital guardado en alguna cuota pagada no coincide con el recalculado;</li>
+ *     <li>ESTADO: el préstamo está CANCELADO con cuotas impagas, o tiene todas pagadas y no está CANCELADO;</li>
+ *     <li>CONDICIONES: monto, tasa o cantidad de cuotas con los que no se puede calcular el cronograma.</li>
+ * </ul>
+ * La cartera se divide en rangos de idPrestamo que se leen y concilian en paralelo; cada hilo tiene en memoria solo
+ * su rango, así que el uso de memoria no depende del tamaño de la cartera. Las diferencias de cada rango se agregan
+ * al reporte CSV a medida que se encuentran. Solo lee: no corrige nada.
+ */
+public class ConciliacionSaldos {
+    public enum TipoDiferencia {
+        SALDO, CRONOGRAMA, ESTADO, CONDICIONES
+    }
+
+    private final ConciliacionDAO conciliacionDAO;
+    private final int hilos;
+    private final int tamanoParticion;
+
+    /**
+     * Diferencia encontrada en un préstamo.
+     */
+    private static class Diferencia {
+        private final String idPrestamo;
+        private final TipoDiferencia tipo;
+        private final long centavosEsperado;
+        private final long centavosRegistrado;
+        private final String detalle;
+
+        Diferencia(String idPrestamo, TipoDiferencia tipo, long centavosEsperado, long centavosRegistrado, String detalle) {
+            this.idPrestamo = idPrestamo;
+            this.tipo = tipo;
+            this.centavosEsperado = centavosEsperado;
+            this.centavosRegistrado = centavosRegistrado;
+            this.detalle = detalle;
+        }
+    }
+
+    /**
+     * Resultado de una conciliación.
+     */
+    public static class Resultado {
+        private final String reporte;
+        private final int particiones;
+        private final int particionesFallidas;
+        private final long prestamos;
+        private final long cuotasPagadas;
+        private final long[] diferenciasPorTipo;
+        private final long centavosDiferenciaSaldo;
+        private final long nanos;
+
+        Resultado(String reporte, int particiones, int particionesFallidas, long prestamos, long cuotasPagadas,
+                  long[] diferenciasPorTipo, long centavosDiferenciaSaldo, long nanos) {
+            this.reporte = reporte;
+            this.particiones = particiones;
+            this.particionesFallidas = particionesFallidas;
+            this.prestamos = prestamos;
+            this.cuotasPagadas = cuotasPagadas;
+            this.diferenciasPorTipo = diferenciasPorTipo;
+            this.centavosDiferenciaSaldo = centavosDiferenciaSaldo;
+            this.nanos = nanos;
+        }
+
+        public String getReporte() {
+            return reporte;
+        }
+
+        public int getParticiones() {
+            return particiones;
+        }
+
+        public int getParticionesFallidas() {
+            return particionesFallidas;
+        }
+
+        public boolean isCompleto() {
+            return particionesFallidas == 0;
+        }
+
+        public long getPrestamos() {
+            return prestamos;
+        }
+
+        public long getCuotasPagadas() {
+            return cuotasPagadas;
+        }
+
+        public long getDiferencias(TipoDiferencia tipo) {
+            return diferenciasPorTipo[tipo.ordinal()];
+        }
+
+        public long getDiferencias() {
+            long total = 0;
+            for (long cantidad : diferenciasPorTipo) {
+                total += cantidad;
+            }
+            return total;
+        }
+
+        /**
+         * @return La suma de los valores absolutos de las diferencias de saldo, en centavos.
+         */
+        public long getCentavosDiferenciaSaldo() {
+            return centavosDiferenciaSaldo;
+        }
+
+        public double getSegundos() {
+            return nanos / 1_000_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Conciliación de saldos: %d préstamos y %d cuotas pagadas en %d particiones (%d fallidas), " +
+                            "%d diferencias (saldo %d por %s, cronograma %d, estado %d, condiciones %d), %.3f s " +
+                            "(%.0f préstamos/s)",
+                    prestamos, cuotasPagadas, particiones, particionesFallidas, getDiferencias(),
+                    getDiferencias(TipoDiferencia.SALDO), FormatoMoneda.formatearCentavos(centavosDiferenciaSaldo, new StringBuilder()),
+                    getDiferencias(TipoDiferencia.CRONOGRAMA), getDiferencias(TipoDiferencia.ESTADO),
+                    getDiferencias(TipoDiferencia.CONDICIONES), getSegundos(), prestamos / Math.max(getSegundos(), 1e-9));
+        }
+    }
+
+    /**
+     * @param conciliacionDAO Acceso a los préstamos y sus cuotas pagadas.
+     * @param hilos Particiones conciliadas en simultáneo (cada una usa una conexión del pool mientras se lee).
+     * @param tamanoParticion Cantidad de préstamos por partición.
+     */
+    public ConciliacionSaldos(ConciliacionDAO conciliacionDAO, int hilos, int tamanoParticion) {
+        if (hilos <= 0 || tamanoParticion <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos y el tamaño de partición deben ser positivos.");
+        }
+        this.conciliacionDAO = conciliacionDAO;
+        this.hilos = hilos;
+        this.tamanoParticion = tamanoParticion;
+    }
+
+    /**
+     * Concilia toda la cartera y escribe las diferencias en el reporte.
+     * @param reporte Archivo CSV a generar (se reemplaza si existe).
+     * @return El resultado de la corrida, con las particiones que no se pudieron leer.
+     * @throws ClienteDAOException Si no se pueden obtener las particiones.
+     * @throws IOException Si no se puede escribir el reporte.
+     */
+    public Resultado conciliar(Path reporte) throws ClienteDAOException, IOException {
+        long inicio = System.nanoTime();
+        List<MoraDAO.Particion> particiones = conciliacionDAO.obtenerParticiones(tamanoParticion);
+        AtomicInteger completadas = new AtomicInteger();
+        Acumulado acumulado = new Acumulado();
+
+        try (EscritorCsv escritor = new EscritorCsv(reporte.toString())) {
+            escritor.encabezado("ID Préstamo,Tipo,Esperado,Registrado,Diferencia,Detalle");
+            ExecutorService ejecutor = Executors.newFixedThreadPool(Math.min(hilos, Math.max(particiones.size(), 1)));
+            try {
+                for (MoraDAO.Particion particion : particiones) {
+                    ejecutor.execute(() -> {
+                        try {
+                            List<PrestamoConciliable> prestamos = conciliacionDAO.leerParticion(particion);
+                            List<Diferencia> diferencias = new ArrayList<>();
+                            long cuotasPagadas = 0;
+                            for (PrestamoConciliable prestamo : prestamos) {
+                                conciliar(prestamo, diferencias);
+                                cuotasPagadas += prestamo.getCuotasPagadas();
+                            }
+                            acumulado.agregar(escritor, prestamos.size(), cuotasPagadas, diferencias);
+                            completadas.incrementAndGet();
+                        } catch (RuntimeException | IOException e) {
+                            System.err.println("❌ " + e.getMessage());
+                        }
+                    });
+                }
+            } finally {
+                ejecutor.shutdown();
+                try {
+                    while (!ejecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                        System.out.println("⏳ Conciliando saldos: " + completadas.get() + "/" + particiones.size() + " particiones...");
+                    }
+                } catch (InterruptedException e) {
+                    ejecutor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return new Resultado(reporte.toString(), particiones.size(), particiones.size() - completadas.get(),
+                acumulado.prestamos, acumulado.cuotasPagadas, acumulado.diferenciasPorTipo,
+                acumulado.centavosDiferenciaSaldo, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Totales de la corrida y escritura del reporte, compartidos por los hilos.
+     */
+    private static class Acumulado {
+        private long prestamos;
+        private long cuotasPagadas;
+        private final long[] diferenciasPorTipo = new long[TipoDiferencia.values().length];
+        private long centavosDiferenciaSaldo;
+
+        synchronized void agregar(EscritorCsv escritor, int prestamosParticion, long cuotasPagadasParticion,
+                                  List<Diferencia> diferencias) throws IOException {
+            prestamos += prestamosParticion;
+            cuotasPagadas += cuotasPagadasParticion;
+            for (Diferencia diferencia : diferencias) {
+                diferenciasPorTipo[diferencia.tipo.ordinal()]++;
+                escritor.campo(diferencia.idPrestamo).campo(diferencia.tipo.name());
+                if (diferencia.tipo == TipoDiferencia.SALDO || diferencia.tipo == TipoDiferencia.CRONOGRAMA) {
+                    long delta = diferencia.centavosRegistrado - diferencia.centavosEsperado;
+                    if (diferencia.tipo == TipoDiferencia.SALDO) {
+                        centavosDiferenciaSaldo += Math.abs(delta);
+                    }
+                    escritor.campoMoneda(diferencia.centavosEsperado / 100.0)
+                            .campoMoneda(diferencia.centavosRegistrado / 100.0)
+                            .campoMoneda(delta / 100.0);
+                } else {
+                    escritor.campo("").campo("").campo("");
+                }
+                escritor.campo(diferencia.detalle).finFila();
+            }
+        }
+    }
+
+    /**
+     * Compara un préstamo con su cronograma recalculado y agrega sus diferencias a la lista.
+     */
+    private static void conciliar(PrestamoConciliable prestamo, List<Diferencia> diferencias) {
+        String id = prestamo.getIdPrestamo();
+        int numeroCuotas = prestamo.getNumeroCuotas();
+        CronogramaCentavos cronograma;
+        try {
+            cronograma = CalculadoraCuotasCentavos.calcularCentavos(prestamo.getCentavosMonto(),
+                    prestamo.getTasaDiezMilesimas(), numeroCuotas);
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            diferencias.add(new Diferencia(id, TipoDiferencia.CONDICIONES, 0, 0, e.getMessage()));
+            return;
+        }
+
+        long capitalPagado = 0;
+        int cuotasDistintas = 0;
+        int primeraDistinta = 0;
+        long capitalEsperadoPrimera = 0;
+        long capitalRegistradoPrimera = 0;
+        for (int i = 0; i < prestamo.getCuotasPagadas(); i++) {
+            int numero = prestamo.getNumeroPagado(i);
+            if (numero < 1 || numero > numeroCuotas) {
+                diferencias.add(new Diferencia(id, TipoDiferencia.CONDICIONES, 0, 0,
+                        "pago de la cuota " + numero + " en un préstamo de " + numeroCuotas + " cuotas"));
+                return;
+            }
+            long capital = cronograma.getCapitalCentavos(numero);
+            capitalPagado += capital;
+            if (capital != prestamo.getCentavosCapitalPagado(i) && cuotasDistintas++ == 0) {
+                primeraDistinta = numero;
+                capitalEsperadoPrimera = capital;
+                capitalRegistradoPrimera = prestamo.getCentavosCapitalPagado(i);
+            }
+        }
+        if (cuotasDistintas > 0) {
+            diferencias.add(new Diferencia(id, TipoDiferencia.CRONOGRAMA, capitalEsperadoPrimera, capitalRegistradoPrimera,
+                    "capital de la cuota " + primeraDistinta + (cuotasDistintas > 1
+                            ? " y otras " + (cuotasDistintas - 1) + " cuotas pagadas" : "")));
+        }
+
+        boolean todasPagadas = prestamo.getCuotasPagadas() >= numeroCuotas;
+        long saldoEsperado = todasPagadas ? 0 : prestamo.getCentavosMonto() - capitalPagado;
+        if (saldoEsperado != prestamo.getCentavosSaldo()) {
+            diferencias.add(new Diferencia(id, TipoDiferencia.SALDO, saldoEsperado, prestamo.getCentavosSaldo(),
+                    prestamo.getCuotasPagadas() + " de " + numeroCuotas + " cuotas pagadas"));
+        }
+        boolean cancelado = prestamo.getEstado() == Prestamo.EstadoPrestamo.CANCELADO;
+        if (todasPagadas != cancelado) {
+            diferencias.add(new Diferencia(id, TipoDiferencia.ESTADO, 0, 0, prestamo.getEstado() + " con " +
+                    prestamo.getCuotasPagadas() + " de " + numeroCuotas + " cuotas pagadas"));
+        }
+    }
+}
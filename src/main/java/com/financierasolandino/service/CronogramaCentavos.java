@@ -0,0 +1,71 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.model.Cuota;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cronograma de amortización calculado por {@link CalculadoraCuotasCentavos}.
+ * Los importes se guardan en centavos (long) y las cuotas se numeran desde 1, como en {@link Cuota}.
+ */
+public class CronogramaCentavos {
+    private final long montoCentavos;
+    private final long[] cuotas;
+    private final long[] capital;
+    private final long[] intereses;
+
+    CronogramaCentavos(long montoCentavos, long[] cuotas, long[] capital, long[] intereses) {
+        this.montoCentavos = montoCentavos;
+        this.cuotas = cuotas;
+        this.capital = capital;
+        this.intereses = intereses;
+    }
+
+    public int getNumeroCuotas() {
+        return cuotas.length;
+    }
+
+    public long getMontoCentavos() {
+        return montoCentavos;
+    }
+
+    /**
+     * Importe de la cuota indicada (la última puede diferir de la cuota fija por el ajuste de redondeo).
+     */
+    public long getCuotaCentavos(int numeroCuota) {
+        return cuotas[numeroCuota - 1];
+    }
+
+    public long getCapitalCentavos(int numeroCuota) {
+        return capital[numeroCuota - 1];
+    }
+
+    public long getInteresesCentavos(int numeroCuota) {
+        return intereses[numeroCuota - 1];
+    }
+
+    /**
+     * Capital que queda por amortizar después de pagar las primeras cuotas indicadas.
+     */
+    public long getSaldoPendienteCentavos(int cuotasPagadas) {
+        long saldo = montoCentavos;
+        for (int i = 0; i < cuotasPagadas && i < capital.length; i++) {
+            saldo -= capital[i];
+        }
+        return saldo;
+    }
+
+    /**
+     * Convierte el cronograma en cuotas, idénticas a las que devuelve {@link CalculadoraCuotas#calcularCuota}.
+     */
+    public List<Cuota> aCuotas(String idPrestamo, double tasaInteres, LocalDate fechaCreacion) {
+        List<Cuota> resultado = new ArrayList<>(cuotas.length);
+        for (int i = 0; i < cuotas.length; i++) {
+            resultado.add(new Cuota(idPrestamo, i + 1, cuotas[i] / 100.0, tasaInteres,
+                    fechaCreacion.plusMonths(i + 1), capital[i] / 100.0));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,184 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.dao.ClienteDAO;
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.model.Cliente;
+import com.financierasolandino.util.EscritorCsv;
+import com.financierasolandino.util.LectorCsv;
+import com.financierasolandino.validation.ReglasValidacion;
+import com.financierasolandino.validation.ResultadoValidacion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importación masiva de clientes desde un CSV con las columnas DNI, nombre, dirección, teléfono y correo
+ * (el mismo formato que genera la exportación de clientes). Si la primera fila es un encabezado se omite.
+ * <p>
+ * El archivo se lee por bloques de filas. Cada bloque se valida en un hilo del pool con {@link ReglasValidacion}
+ * (las mismas reglas del alta por consola), mientras el hilo principal sigue leyendo y registra los bloques ya
+ * validados en orden con {@link ClienteDAO#registrarClientes(List)} (una transacción con inserción en lote por bloque).
+ * Las filas inválidas y los DNI ya registrados se escriben en un archivo de rechazos con el motivo.
+ */
+public class ImportadorClientes {
+    private static final int CAMPOS_POR_FILA = 5;
+    private static final String MOTIVO_DUPLICADO = "El DNI ya está registrado o se repite en el archivo.";
+
+    private final ClienteDAO clienteDAO;
+    private final int hilos;
+    private final int tamanoBloque;
+
+    /**
+     * Fila leída del archivo, con el cliente validado o los motivos del rechazo.
+     */
+    private static class Fila {
+        private final int linea;
+        private final String[] campos;
+        private Cliente cliente;
+        private String motivo;
+
+        Fila(int linea, String[] campos) {
+            this.linea = linea;
+            this.campos = campos;
+        }
+    }
+
+    /**
+     * @param clienteDAO Acceso a datos de clientes.
+     * @param hilos Hilos que validan bloques en paralelo.
+     * @param tamanoBloque Filas por bloque de validación y por transacción.
+     */
+    public ImportadorClientes(ClienteDAO clienteDAO, int hilos, int tamanoBloque) {
+        if (hilos <= 0 || tamanoBloque <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos y el tamaño de bloque deben ser positivos");
+        }
+        this.clienteDAO = clienteDAO;
+        this.hilos = hilos;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Importa el archivo completo.
+     * @param archivo CSV a importar.
+     * @param archivoRechazos CSV donde se escriben las filas rechazadas (se reemplaza si existe).
+     * @return Resumen con las filas importadas, rechazadas y por segundo.
+     * @throws IOException Si ocurre un error al leer el archivo o al escribir los rechazos.
+     * @throws ClienteDAOException Si falla la base de datos; los bloques anteriores ya quedaron registrados.
+     */
+    public ResumenImportacion importar(Path archivo, Path archivoRechazos) throws IOException, ClienteDAOException {
+        long inicio = System.nanoTime();
+        long[] contadores = new long[3]; // leídas, importadas, rechazadas
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        // Bloques en validación, en el orden del archivo; se limita para no leer el archivo entero a memoria
+        Deque<Future<List<Fila>>> enCurso = new ArrayDeque<>();
+        try (LectorCsv lector = new LectorCsv(archivo);
+             EscritorCsv rechazos = new EscritorCsv(archivoRechazos.toString())) {
+            rechazos.encabezado("Línea,DNI,Nombre,Dirección,Teléfono,Correo Electrónico,Motivo");
+            List<Fila> bloque = new ArrayList<>(tamanoBloque);
+            String[] campos;
+            while ((campos = lector.siguienteFila()) != null) {
+                if (lector.getLineaFila() == 1 && esEncabezado(campos)) {
+                    continue;
+                }
+                if (campos.length == 1 && campos[0].isBlank()) {
+                    continue;
+                }
+                bloque.add(new Fila(lector.getLineaFila(), campos));
+                contadores[0]++;
+                if (bloque.size() == tamanoBloque) {
+                    List<Fila> aValidar = bloque;
+                    enCurso.add(pool.submit(() -> validar(aValidar)));
+                    bloque = new ArrayList<>(tamanoBloque);
+                    if (enCurso.size() > hilos * 2) {
+                        registrar(esperar(enCurso.poll()), rechazos, contadores);
+                    }
+                }
+            }
+            if (!bloque.isEmpty()) {
+                List<Fila> aValidar = bloque;
+                enCurso.add(pool.submit(() -> validar(aValidar)));
+            }
+            while (!enCurso.isEmpty()) {
+                registrar(esperar(enCurso.poll()), rechazos, contadores);
+            }
+        } catch (ClienteDAOException e) {
+            throw new ClienteDAOException("Importación interrumpida después de registrar " + contadores[1] +
+                    " clientes: " + e.getMessage(), e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new ResumenImportacion(contadores[0], contadores[1], contadores[2], System.nanoTime() - inicio);
+    }
+
+    private List<Fila> validar(List<Fila> filas) {
+        for (Fila fila : filas) {
+            if (fila.campos.length != CAMPOS_POR_FILA) {
+                fila.motivo = "Se esperaban " + CAMPOS_POR_FILA + " campos y la fila tiene " + fila.campos.length + ".";
+                continue;
+            }
+            // Se informan todos los campos inválidos de la fila, no solo el primero
+            ResultadoValidacion resultado = ReglasValidacion.validarCliente(fila.campos[0], fila.campos[1],
+                    fila.campos[2], fila.campos[3], fila.campos[4]);
+            if (resultado.isValido()) {
+                fila.cliente = resultado.getCliente();
+            } else {
+                fila.motivo = resultado.getMotivos();
+            }
+        }
+        return filas;
+    }
+
+    private void registrar(List<Fila> filas, EscritorCsv rechazos, long[] contadores) throws IOException {
+        List<Cliente> validos = new ArrayList<>(filas.size());
+        Map<Cliente, Fila> filaPorCliente = new IdentityHashMap<>();
+        for (Fila fila : filas) {
+            if (fila.cliente != null) {
+                validos.add(fila.cliente);
+                filaPorCliente.put(fila.cliente, fila);
+            }
+        }
+        for (Cliente omitido : clienteDAO.registrarClientes(validos)) {
+            filaPorCliente.get(omitido).motivo = MOTIVO_DUPLICADO;
+        }
+        for (Fila fila : filas) {
+            if (fila.motivo == null) {
+                contadores[1]++;
+                continue;
+            }
+            contadores[2]++;
+            rechazos.campo(fila.linea);
+            for (int i = 0; i < CAMPOS_POR_FILA; i++) {
+                rechazos.campo(i < fila.campos.length ? fila.campos[i] : null);
+            }
+            rechazos.campo(fila.motivo).finFila();
+        }
+    }
+
+    private static List<Fila> esperar(Future<List<Fila>> validacion) throws IOException {
+        try {
+            return validacion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al validar un bloque de clientes: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * La primera fila es un encabezado si su primer campo no tiene ningún dígito (un DNI siempre tiene).
+     */
+    private static boolean esEncabezado(String[] campos) {
+        return !campos[0].chars().anyMatch(Character::isDigit);
+    }
+}
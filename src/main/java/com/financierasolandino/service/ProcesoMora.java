@@ -0,0 +1,198 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.MoraDAO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proceso nocturno de mora: recorre todos los préstamos vigentes en particiones procesadas en paralelo,
+ * registra las penalidades faltantes y actualiza el estado de los préstamos con cuotas vencidas.
+ * <p>
+ * El avance se guarda en un archivo de punto de control con el último préstamo tal que todas las particiones
+ * hasta él terminaron bien. Si la corrida se interrumpe o alguna partición falla, la siguiente corrida con la
+ * misma fecha de corte continúa desde ese punto; las particiones posteriores que ya se habían procesado se
+ * repiten sin efecto porque el procesamiento es idempotente. Al terminar sin errores el archivo se elimina.
+ */
+public class ProcesoMora {
+    private static final String CLAVE_FECHA_CORTE = "fechaCorte";
+    private static final String CLAVE_ULTIMO_PRESTAMO = "ultimoPrestamo";
+
+    private final MoraDAO moraDAO;
+    private final int hilos;
+    private final int tamanoParticion;
+    private final Path archivoPuntoControl;
+
+    /**
+     * @param moraDAO Acceso a datos del proceso.
+     * @param hilos Particiones procesadas en simultáneo (cada una usa una conexión del pool).
+     * @param tamanoParticion Cantidad de préstamos por partición (y por transacción).
+     * @param archivoPuntoControl Archivo donde se guarda el avance para poder reanudar.
+     */
+    public ProcesoMora(MoraDAO moraDAO, int hilos, int tamanoParticion, Path archivoPuntoControl) {
+        if (hilos <= 0 || tamanoParticion <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos y el tamaño de partición deben ser positivos.");
+        }
+        this.moraDAO = moraDAO;
+        this.hilos = hilos;
+        this.tamanoParticion = tamanoParticion;
+        this.archivoPuntoControl = archivoPuntoControl;
+    }
+
+    /**
+     * Ejecuta el proceso para la fecha de corte indicada, reanudando desde el punto de control si existe uno de la misma fecha.
+     * @param fechaCorte Las cuotas vencidas antes de esta fecha se consideran en mora.
+     * @param reiniciar Si es true se ignora el punto de control y se procesa toda la cartera.
+     * @return El resumen de la corrida; si hubo particiones fallidas el punto de control queda guardado.
+     * @throws ClienteDAOException Si no se pueden obtener las particiones.
+     */
+    public ResumenProcesoMora ejecutar(LocalDate fechaCorte, boolean reiniciar) throws ClienteDAOException {
+        long inicio = System.nanoTime();
+        String reanudarDesde = reiniciar ? null : leerPuntoControl(fechaCorte);
+        List<MoraDAO.Particion> particiones = moraDAO.obtenerParticiones(reanudarDesde, tamanoParticion);
+
+        AvanceParticiones avance = new AvanceParticiones(particiones, fechaCorte);
+        AtomicLong prestamos = new AtomicLong();
+        AtomicLong penalidades = new AtomicLong();
+        AtomicLong prestamosEnMora = new AtomicLong();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.min(hilos, Math.max(particiones.size(), 1)));
+        try {
+            for (int i = 0; i < particiones.size(); i++) {
+                int indice = i;
+                MoraDAO.Particion particion = particiones.get(i);
+                ejecutor.execute(() -> {
+                    try {
+                        MoraDAO.ResultadoParticion resultado = moraDAO.procesarParticion(particion, fechaCorte);
+                        prestamos.addAndGet(particion.getCantidad());
+                        penalidades.addAndGet(resultado.getPenalidadesRegistradas());
+                        prestamosEnMora.addAndGet(resultado.getPrestamosEnMora());
+                        avance.completar(indice);
+                    } catch (RuntimeException e) {
+                        System.err.println("❌ " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            ejecutor.shutdown();
+            try {
+                while (!ejecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    System.out.println("⏳ Procesando mora: " + avance.getCompletadas() + "/" + particiones.size() + " particiones...");
+                }
+            } catch (InterruptedException e) {
+                ejecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int particionesFallidas = particiones.size() - avance.getCompletadas();
+        if (particionesFallidas == 0) {
+            borrarPuntoControl();
+        }
+        return new ResumenProcesoMora(fechaCorte, reanudarDesde, particiones.size(), particionesFallidas,
+                prestamos.get(), penalidades.get(), prestamosEnMora.get(), System.nanoTime() - inicio);
+    }
+
+    /**
+     * Lleva la cuenta de las particiones terminadas y guarda como punto de control el final del tramo
+     * inicial de particiones completas (las particiones terminan en cualquier orden).
+     */
+    private class AvanceParticiones {
+        private final List<MoraDAO.Particion> particiones;
+        private final LocalDate fechaCorte;
+        private final boolean[] completadas;
+        private int siguiente;
+        private int cantidadCompletadas;
+
+        AvanceParticiones(List<MoraDAO.Particion> particiones, LocalDate fechaCorte) {
+            this.particiones = particiones;
+            this.fechaCorte = fechaCorte;
+            this.completadas = new boolean[particiones.size()];
+        }
+
+        synchronized void completar(int indice) {
+            completadas[indice] = true;
+            cantidadCompletadas++;
+            int anterior = siguiente;
+            while (siguiente < completadas.length && completadas[siguiente]) {
+                siguiente++;
+            }
+            if (siguiente > anterior) {
+                // La partición ya está confirmada: si el punto de control no se puede guardar, se avisa y una
+                // reanudación volverá a procesar desde el punto anterior, sin duplicar penalidades
+                try {
+                    guardarPuntoControl(fechaCorte, particiones.get(siguiente - 1).getHasta());
+                } catch (UncheckedIOException e) {
+                    System.err.println("⚠️  " + e.getMessage() + ": " + e.getCause().getMessage());
+                }
+            }
+        }
+
+        synchronized int getCompletadas() {
+            return cantidadCompletadas;
+        }
+    }
+
+    private String leerPuntoControl(LocalDate fechaCorte) {
+        if (archivoPuntoControl == null || !Files.exists(archivoPuntoControl)) {
+            return null;
+        }
+        Properties propiedades = new Properties();
+        try (InputStream input = Files.newInputStream(archivoPuntoControl)) {
+            propiedades.load(input);
+        } catch (IOException e) {
+            System.err.println("⚠️  No se pudo leer el punto de control " + archivoPuntoControl + ": " + e.getMessage());
+            return null;
+        }
+        if (!fechaCorte.toString().equals(propiedades.getProperty(CLAVE_FECHA_CORTE))) {
+            // Punto de control de otra fecha de corte: se procesa toda la cartera
+            return null;
+        }
+        return propiedades.getProperty(CLAVE_ULTIMO_PRESTAMO);
+    }
+
+    private void guardarPuntoControl(LocalDate fechaCorte, String ultimoPrestamo) {
+        if (archivoPuntoControl == null) {
+            return;
+        }
+        Properties propiedades = new Properties();
+        propiedades.setProperty(CLAVE_FECHA_CORTE, fechaCorte.toString());
+        propiedades.setProperty(CLAVE_ULTIMO_PRESTAMO, ultimoPrestamo);
+        try {
+            Path directorio = archivoPuntoControl.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            // Se escribe en un archivo temporal y se reemplaza, para no dejar un punto de control a medio escribir
+            Path temporal = Files.createTempFile(directorio, "mora", ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporal)) {
+                propiedades.store(output, "Punto de control del proceso de mora");
+            }
+            Files.move(temporal, archivoPuntoControl, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el punto de control " + archivoPuntoControl, e);
+        }
+    }
+
+    private void borrarPuntoControl() {
+        if (archivoPuntoControl == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivoPuntoControl);
+        } catch (IOException e) {
+            System.err.println("⚠️  No se pudo eliminar el punto de control " + archivoPuntoControl + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.MoraDAO;
+import com.financierasolandino.dao.ProyeccionDAO;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Proyección de ingresos de toda la cartera por mes, tipo y estado del préstamo.
+ * <p>
+ * Una sola consulta recorre las cuotas impagas de los préstamos vigentes ({@link ProyeccionDAO}). El hilo que
+ * llama lee las filas y arma bloques, mientras un pool de hilos los acumula: cada hilo suma sobre su propio
+ * acumulador, sin sincronización por fila, y al final se combinan. Como un préstamo nunca se reparte entre
+ * bloques, los préstamos distintos por período se cuentan sin guardar sus identificadores.
+ * <p>
+ * La proyección es de solo lectura: para las cuotas vencidas sin penalidad registrada se informa la penalidad
+ * estimada del 5% por separado, sin registrarla.
+ */
+public class ProyeccionCartera {
+    public static final int MESES_MAXIMO = 360;
+
+    private static final long PORCENTAJE_PENALIDAD = MoraDAO.PORCENTAJE_PENALIDAD.movePointRight(2).longValueExact();
+
+    private final ProyeccionDAO proyeccionDAO;
+    private final int hilos;
+    private final int tamanoBloque;
+
+    /**
+     * @param proyeccionDAO Acceso a las cuotas pendientes.
+     * @param hilos Hilos que acumulan bloques en paralelo con la lectura.
+     * @param tamanoBloque Cuotas por bloque.
+     */
+    public ProyeccionCartera(ProyeccionDAO proyeccionDAO, int hilos, int tamanoBloque) {
+        if (hilos <= 0 || tamanoBloque <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos y el tamaño de bloque deben ser positivos.");
+        }
+        this.proyeccionDAO = proyeccionDAO;
+        this.hilos = hilos;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Suma por período, tipo y estado las cuotas de los bloques que le tocan a un hilo.
+     */
+    private static class Acumulador {
+        private final long[] datos;
+        // Último préstamo contado en cada celda, para contar préstamos distintos
+        private final int[] ultimoPrestamo;
+
+        Acumulador(int meses) {
+            datos = new long[ProyeccionIngresos.tamanoDatos(meses)];
+            ultimoPrestamo = new int[datos.length / ProyeccionIngresos.METRICAS];
+        }
+
+        void acumular(ProyeccionDAO.BloqueCuotas bloque, long diaCorte, long[] inicioMes) {
+            for (int fila = 0; fila < bloque.getCantidad(); fila++) {
+                long dia = bloque.getDiaVencimiento(fila);
+                int periodo = dia < diaCorte ? ProyeccionIngresos.VENCIDAS : periodo(dia, inicioMes);
+                int celda = ProyeccionIngresos.celda(periodo, bloque.getTipo(fila).ordinal(), bloque.getEstado(fila).ordinal());
+                int prestamo = bloque.getPrestamo(fila);
+                if (ultimoPrestamo[celda / ProyeccionIngresos.METRICAS] != prestamo) {
+                    ultimoPrestamo[celda / ProyeccionIngresos.METRICAS] = prestamo;
+                    datos[celda + ProyeccionIngresos.PRESTAMOS]++;
+                }
+                long cuota = bloque.getCentavosCuota(fila);
+                long penalidad = bloque.getCentavosPenalidad(fila);
+                datos[celda + ProyeccionIngresos.CUOTAS]++;
+                datos[celda + ProyeccionIngresos.CENTAVOS_CUOTAS] += cuota;
+                if (penalidad >= 0) {
+                    datos[celda + ProyeccionIngresos.CENTAVOS_PENALIDADES] += penalidad;
+                } else if (periodo == ProyeccionIngresos.VENCIDAS) {
+                    // En centavos, el mismo importe que MoraDAO.calcularPenalidad: 5% redondeado HALF_UP
+                    datos[celda + ProyeccionIngresos.CENTAVOS_PENALIDADES_ESTIMADAS] += (cuota * PORCENTAJE_PENALIDAD + 50) / 100;
+                }
+            }
+        }
+
+        /**
+         * @return El período 1..meses cuyo mes contiene el día (inicioMes[k] es el primer día del período k + 1).
+         */
+        private static int periodo(long dia, long[] inicioMes) {
+            int indice = Arrays.binarySearch(inicioMes, dia);
+            return (indice >= 0 ? indice : -indice - 2) + 1;
+        }
+
+        void combinar(long[] total) {
+            for (int i = 0; i < datos.length; i++) {
+                total[i] += datos[i];
+            }
+        }
+    }
+
+    /**
+     * Proyecta los ingresos de las cuotas impagas que vencen hasta el fin del último mes del horizonte,
+     * más las ya vencidas a la fecha de corte.
+     * @param fechaCorte Fecha desde la que se proyecta (normalmente hoy).
+     * @param meses Meses calendario a proyectar, contando el de la fecha de corte (1 a {@value #MESES_MAXIMO}).
+     * @return La proyección agrupada por período, tipo y estado.
+     * @throws ClienteDAOException Si ocurre un error al leer las cuotas.
+     */
+    public ProyeccionIngresos proyectar(LocalDate fechaCorte, int meses) throws ClienteDAOException {
+        if (meses < 1 || meses > MESES_MAXIMO) {
+            throw new IllegalArgumentException("La cantidad de meses debe estar entre 1 y " + MESES_MAXIMO + ".");
+        }
+        long inicio = System.nanoTime();
+        YearMonth primerMes = YearMonth.from(fechaCorte);
+        long diaCorte = fechaCorte.toEpochDay();
+        long[] inicioMes = new long[meses];
+        inicioMes[0] = diaCorte;
+        for (int i = 1; i < meses; i++) {
+            inicioMes[i] = primerMes.plusMonths(i).atDay(1).toEpochDay();
+        }
+        LocalDate hasta = primerMes.plusMonths(meses - 1L).atEndOfMonth();
+
+        BlockingQueue<Acumulador> acumuladores = new ArrayBlockingQueue<>(hilos);
+        for (int i = 0; i < hilos; i++) {
+            acumuladores.add(new Acumulador(meses));
+        }
+        // Limita los bloques leídos y todavía no acumulados, para no cargar la cartera entera en memoria
+        Semaphore pendientes = new Semaphore(hilos * 2);
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        int prestamos;
+        try {
+            prestamos = proyeccionDAO.recorrerCuotasPendientes(hasta, tamanoBloque, bloque -> {
+                if (error.get() != null) {
+                    throw error.get();
+                }
+                pendientes.acquireUninterruptibly();
+                pool.execute(() -> {
+                    Acumulador acumulador = acumuladores.poll();
+                    try {
+                        acumulador.acumular(bloque, diaCorte, inicioMes);
+                    } catch (RuntimeException e) {
+                        error.compareAndSet(null, e);
+                    } finally {
+                        acumuladores.add(acumulador);
+                        pendientes.release();
+                    }
+                });
+            });
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("La acumulación de la proyección no terminó a tiempo.");
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Proyección interrumpida", e);
+        }
+        if (error.get() != null) {
+            throw error.get();
+        }
+
+        long[] datos = new long[ProyeccionIngresos.tamanoDatos(meses)];
+        for (Acumulador acumulador : acumuladores) {
+            acumulador.combinar(datos);
+        }
+        return new ProyeccionIngresos(fechaCorte, meses, datos, prestamos, System.nanoTime() - inicio);
+    }
+}
@@ -0,0 +1,261 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.EscritorCsv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de la proyección de ingresos de la cartera: cuotas impagas agrupadas por mes de vencimiento, tipo
+ * y estado del préstamo. El período 0 agrupa las cuotas ya vencidas a la fecha de corte; el período 1 va de la
+ * fecha de corte al fin de ese mes y los siguientes son meses calendario completos. Los importes se acumulan
+ * en centavos.
+ */
+public class ProyeccionIngresos {
+    /** Período de las cuotas vencidas antes de la fecha de corte. */
+    public static final int VENCIDAS = 0;
+
+    static final Prestamo.TipoPrestamo[] TIPOS = Prestamo.TipoPrestamo.values();
+    static final Prestamo.EstadoPrestamo[] ESTADOS = Prestamo.EstadoPrestamo.values();
+    static final int PRESTAMOS = 0;
+    static final int CUOTAS = 1;
+    static final int CENTAVOS_CUOTAS = 2;
+    static final int CENTAVOS_PENALIDADES = 3;
+    static final int CENTAVOS_PENALIDADES_ESTIMADAS = 4;
+    static final int METRICAS = 5;
+
+    private final LocalDate fechaCorte;
+    private final int meses;
+    private final long[] datos;
+    private final long prestamos;
+    private final long nanos;
+
+    /**
+     * Importes de un período, o de un período, tipo y estado.
+     */
+    public static class FilaProyeccion {
+        private final int periodo;
+        private final YearMonth mes;
+        private final Prestamo.TipoPrestamo tipo;
+        private final Prestamo.EstadoPrestamo estado;
+        private final long prestamos;
+        private final long cuotas;
+        private final long centavosCuotas;
+        private final long centavosPenalidades;
+        private final long centavosPenalidadesEstimadas;
+
+        FilaProyeccion(int periodo, YearMonth mes, Prestamo.TipoPrestamo tipo, Prestamo.EstadoPrestamo estado,
+                       long[] datos, int desde) {
+            this.periodo = periodo;
+            this.mes = mes;
+            this.tipo = tipo;
+            this.estado = estado;
+            this.prestamos = datos[desde + PRESTAMOS];
+            this.cuotas = datos[desde + CUOTAS];
+            this.centavosCuotas = datos[desde + CENTAVOS_CUOTAS];
+            this.centavosPenalidades = datos[desde + CENTAVOS_PENALIDADES];
+            this.centavosPenalidadesEstimadas = datos[desde + CENTAVOS_PENALIDADES_ESTIMADAS];
+        }
+
+        /**
+         * @return El período ({@link #VENCIDAS} o 1 a la cantidad de meses proyectados).
+         */
+        public int getPeriodo() {
+            return periodo;
+        }
+
+        /**
+         * @return El mes de vencimiento, o null para las cuotas vencidas.
+         */
+        public YearMonth getMes() {
+            return mes;
+        }
+
+        /**
+         * @return El tipo de préstamo, o null en los totales por período.
+         */
+        public Prestamo.TipoPrestamo getTipo() {
+            return tipo;
+        }
+
+        /**
+         * @return El estado del préstamo, o null en los totales por período.
+         */
+        public Prestamo.EstadoPrestamo getEstado() {
+            return estado;
+        }
+
+        /**
+         * @return Préstamos distintos con cuotas en el período.
+         */
+        public long getPrestamos() {
+            return prestamos;
+        }
+
+        public long getCuotas() {
+            return cuotas;
+        }
+
+        public long getCentavosCuotas() {
+            return centavosCuotas;
+        }
+
+        /**
+         * @return Penalidades ya registradas de las cuotas del período.
+         */
+        public long getCentavosPenalidades() {
+            return centavosPenalidades;
+        }
+
+        /**
+         * @return Penalidad del 5% de las cuotas vencidas que todavía no la tienen registrada (la registra
+         * el proceso de mora).
+         */
+        public long getCentavosPenalidadesEstimadas() {
+            return centavosPenalidadesEstimadas;
+        }
+
+        public long getCentavosTotal() {
+            return centavosCuotas + centavosPenalidades + centavosPenalidadesEstimadas;
+        }
+    }
+
+    ProyeccionIngresos(LocalDate fechaCorte, int meses, long[] datos, long prestamos, long nanos) {
+        this.fechaCorte = fechaCorte;
+        this.meses = meses;
+        this.datos = datos;
+        this.prestamos = prestamos;
+        this.nanos = nanos;
+    }
+
+    static int celda(int periodo, int tipo, int estado) {
+        return ((periodo * TIPOS.length + tipo) * ESTADOS.length + estado) * METRICAS;
+    }
+
+    static int tamanoDatos(int meses) {
+        return celda(meses + 1, 0, 0);
+    }
+
+    public LocalDate getFechaCorte() {
+        return fechaCorte;
+    }
+
+    public int getMeses() {
+        return meses;
+    }
+
+    /**
+     * @return El mes calendario del período, o null para {@link #VENCIDAS}.
+     */
+    public YearMonth getMes(int periodo) {
+        return periodo == VENCIDAS ? null : YearMonth.from(fechaCorte).plusMonths(periodo - 1);
+    }
+
+    /**
+     * @return Las combinaciones de período, tipo y estado con al menos una cuota, ordenadas por período.
+     */
+    public List<FilaProyeccion> getFilas() {
+        List<FilaProyeccion> filas = new ArrayList<>();
+        for (int periodo = 0; periodo <= meses; periodo++) {
+            for (int tipo = 0; tipo < TIPOS.length; tipo++) {
+                for (int estado = 0; estado < ESTADOS.length; estado++) {
+                    int desde = celda(periodo, tipo, estado);
+                    if (datos[desde + CUOTAS] > 0) {
+                        filas.add(new FilaProyeccion(periodo, getMes(periodo), TIPOS[tipo], ESTADOS[estado], datos, desde));
+                    }
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * @return Un total por período, del {@link #VENCIDAS} al último mes, incluidos los meses sin cuotas.
+     */
+    public List<FilaProyeccion> getTotalesPorPeriodo() {
+        List<FilaProyeccion> totales = new ArrayList<>(meses + 1);
+        for (int periodo = 0; periodo <= meses; periodo++) {
+            long[] suma = new long[METRICAS];
+            sumar(suma, celda(periodo, 0, 0), celda(periodo + 1, 0, 0));
+            totales.add(new FilaProyeccion(periodo, getMes(periodo), null, null, suma, 0));
+        }
+        return totales;
+    }
+
+    /**
+     * @return El total del horizonte; los préstamos se cuentan una sola vez aunque tengan cuotas en varios meses.
+     */
+    public FilaProyeccion getTotal() {
+        long[] suma = new long[METRICAS];
+        sumar(suma, 0, datos.length);
+        suma[PRESTAMOS] = prestamos;
+        return new FilaProyeccion(-1, null, null, null, suma, 0);
+    }
+
+    private void sumar(long[] suma, int desde, int hasta) {
+        for (int i = desde; i < hasta; i += METRICAS) {
+            for (int metrica = 0; metrica < METRICAS; metrica++) {
+                suma[metrica] += datos[i + metrica];
+            }
+        }
+    }
+
+    /**
+     * Exporta las filas de {@link #getFilas()}, una por período, tipo y estado, a un CSV en el directorio
+     * 'exportacion', junto con las demás exportaciones.
+     * @return Nombre del archivo generado.
+     * @throws IOException Si ocurre un error al escribir el archivo.
+     */
+    public String exportarCsv() throws IOException {
+        Files.createDirectories(Path.of("exportacion"));
+        String nombreArchivo = "exportacion/proyeccion_cartera_" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+        EscritorCsv escritor = new EscritorCsv(nombreArchivo);
+        try (escritor) {
+            escribir(escritor);
+        }
+        // resumen() incluye el tiempo hasta el cierre, así que se informa después del try
+        System.out.println("📈 Exportación: " + escritor.resumen());
+        return nombreArchivo;
+    }
+
+    private void escribir(EscritorCsv escritor) throws IOException {
+        escritor.encabezado("Mes,Tipo Préstamo,Estado,Préstamos,Cuotas,Monto Cuotas,Penalidades,Penalidades Estimadas,Total");
+        for (FilaProyeccion fila : getFilas()) {
+            escritor.campo(fila.getMes() != null ? fila.getMes().toString() : "Vencidas")
+                    .campo(fila.getTipo().name())
+                    .campo(fila.getEstado().name())
+                    .campo(fila.getPrestamos())
+                    .campo(fila.getCuotas())
+                    .campoMoneda(fila.getCentavosCuotas() / 100.0)
+                    .campoMoneda(fila.getCentavosPenalidades() / 100.0)
+                    .campoMoneda(fila.getCentavosPenalidadesEstimadas() / 100.0)
+                    .campoMoneda(fila.getCentavosTotal() / 100.0)
+                    .finFila();
+        }
+    }
+
+    public double getSegundos() {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public double getPrestamosPorSegundo() {
+        double segundos = getSegundos();
+        return segundos > 0 ? prestamos / segundos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        FilaProyeccion total = getTotal();
+        return String.format("Proyección de ingresos a %d meses desde %s: %d préstamos, %d cuotas en %.3f s (%.0f préstamos/s)",
+                meses, fechaCorte, prestamos, total.getCuotas(), getSegundos(), getPrestamosPorSegundo());
+    }
+}
@@ -0,0 +1,131 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.dao.ClienteDAOException;
+import com.financierasolandino.dao.MoraDAO;
+import com.financierasolandino.dao.ResumenPrestamoDAO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Regenera desde cero el resumen de todos los préstamos (tabla prestamo_resumen) a partir de pagos, cuotas y
+ * penalidades. La cartera se divide en rangos de idPrestamo que se reconstruyen en paralelo, cada uno en su propia
+ * transacción; un rango fallido conserva su resumen anterior y basta con volver a ejecutar la reconstrucción.
+ * <p>
+ * No hace falta en la operación normal, porque los DAO mantienen el resumen en cada alta, pago y penalidad. Sirve
+ * para corregirlo después de cargas o cambios hechos directamente en la base.
+ */
+public class ReconstruccionResumen {
+    private final ResumenPrestamoDAO resumenDAO;
+    private final int hilos;
+    private final int tamanoParticion;
+
+    /**
+     * Resultado de una reconstrucción.
+     */
+    public static class Resultado {
+        private final LocalDate fechaCorte;
+        private final int particiones;
+        private final int particionesFallidas;
+        private final long prestamos;
+        private final long nanos;
+
+        Resultado(LocalDate fechaCorte, int particiones, int particionesFallidas, long prestamos, long nanos) {
+            this.fechaCorte = fechaCorte;
+            this.particiones = particiones;
+            this.particionesFallidas = particionesFallidas;
+            this.prestamos = prestamos;
+            this.nanos = nanos;
+        }
+
+        public LocalDate getFechaCorte() {
+            return fechaCorte;
+        }
+
+        public int getParticiones() {
+            return particiones;
+        }
+
+        public int getParticionesFallidas() {
+            return particionesFallidas;
+        }
+
+        public boolean isCompleto() {
+            return particionesFallidas == 0;
+        }
+
+        public long getPrestamos() {
+            return prestamos;
+        }
+
+        public double getSegundos() {
+            return nanos / 1_000_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Resumen de préstamos reconstruido al %s: %d préstamos en %d particiones (%d fallidas), " +
+                            "%.3f s (%.0f préstamos/s)",
+                    fechaCorte, prestamos, particiones, particionesFallidas, getSegundos(),
+                    prestamos / Math.max(getSegundos(), 1e-9));
+        }
+    }
+
+    /**
+     * @param resumenDAO Acceso al resumen de préstamos.
+     * @param hilos Particiones reconstruidas en simultáneo (cada una usa una conexión del pool).
+     * @param tamanoParticion Cantidad de préstamos por partición (y por transacción).
+     */
+    public ReconstruccionResumen(ResumenPrestamoDAO resumenDAO, int hilos, int tamanoParticion) {
+        if (hilos <= 0 || tamanoParticion <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos y el tamaño de partición deben ser positivos.");
+        }
+        this.resumenDAO = resumenDAO;
+        this.hilos = hilos;
+        this.tamanoParticion = tamanoParticion;
+    }
+
+    /**
+     * Reconstruye el resumen de toda la cartera.
+     * @param fechaCorte Fecha a la que se cuentan las cuotas vencidas (normalmente hoy).
+     * @return El resultado de la corrida, con la cantidad de particiones fallidas.
+     * @throws ClienteDAOException Si no se pueden obtener las particiones.
+     */
+    public Resultado reconstruir(LocalDate fechaCorte) throws ClienteDAOException {
+        long inicio = System.nanoTime();
+        List<MoraDAO.Particion> particiones = resumenDAO.obtenerParticiones(tamanoParticion);
+        AtomicLong prestamos = new AtomicLong();
+        AtomicInteger completadas = new AtomicInteger();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.min(hilos, Math.max(particiones.size(), 1)));
+        try {
+            for (MoraDAO.Particion particion : particiones) {
+                ejecutor.execute(() -> {
+                    try {
+                        prestamos.addAndGet(resumenDAO.reconstruirParticion(particion, fechaCorte));
+                        completadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        System.err.println("❌ " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            ejecutor.shutdown();
+            try {
+                while (!ejecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    System.out.println("⏳ Reconstruyendo resumen: " + completadas.get() + "/" + particiones.size() + " particiones...");
+                }
+            } catch (InterruptedException e) {
+                ejecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new Resultado(fechaCorte, particiones.size(), particiones.size() - completadas.get(),
+                prestamos.get(), System.nanoTime() - inicio);
+    }
+}
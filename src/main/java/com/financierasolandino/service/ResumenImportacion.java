@@ -0,0 +1,45 @@
+package com.financierasolandino.service;
+
+/**
+ * Resultado de una importación de clientes.
+ */
+public class ResumenImportacion {
+    private final long filasLeidas;
+    private final long importadas;
+    private final long rechazadas;
+    private final long nanos;
+
+    ResumenImportacion(long filasLeidas, long importadas, long rechazadas, long nanos) {
+        this.filasLeidas = filasLeidas;
+        this.importadas = importadas;
+        this.rechazadas = rechazadas;
+        this.nanos = nanos;
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public double getSegundos() {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public double getFilasPorSegundo() {
+        double segundos = getSegundos();
+        return segundos > 0 ? filasLeidas / segundos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importación de clientes: %d filas leídas, %d importadas, %d rechazadas en %.3f s (%.0f filas/s)",
+                filasLeidas, importadas, rechazadas, getSegundos(), getFilasPorSegundo());
+    }
+}
@@ -0,0 +1,81 @@
+package com.financierasolandino.service;
+
+import java.time.LocalDate;
+
+/**
+ * Resultado de una corrida de {@link ProcesoMora}.
+ */
+public class ResumenProcesoMora {
+    private final LocalDate fechaCorte;
+    private final String reanudadoDesde;
+    private final int particiones;
+    private final int particionesFallidas;
+    private final long prestamosProcesados;
+    private final long penalidadesRegistradas;
+    private final long prestamosEnMora;
+    private final long nanos;
+
+    ResumenProcesoMora(LocalDate fechaCorte, String reanudadoDesde, int particiones, int particionesFallidas,
+                       long prestamosProcesados, long penalidadesRegistradas, long prestamosEnMora, long nanos) {
+        this.fechaCorte = fechaCorte;
+        this.reanudadoDesde = reanudadoDesde;
+        this.particiones = particiones;
+        this.particionesFallidas = particionesFallidas;
+        this.prestamosProcesados = prestamosProcesados;
+        this.penalidadesRegistradas = penalidadesRegistradas;
+        this.prestamosEnMora = prestamosEnMora;
+        this.nanos = nanos;
+    }
+
+    public LocalDate getFechaCorte() {
+        return fechaCorte;
+    }
+
+    /**
+     * Último préstamo del punto de control desde el que se reanudó la corrida, o null si empezó desde el principio.
+     */
+    public String getReanudadoDesde() {
+        return reanudadoDesde;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public int getParticionesFallidas() {
+        return particionesFallidas;
+    }
+
+    public boolean isCompleto() {
+        return particionesFallidas == 0;
+    }
+
+    public long getPrestamosProcesados() {
+        return prestamosProcesados;
+    }
+
+    public long getPenalidadesRegistradas() {
+        return penalidadesRegistradas;
+    }
+
+    public long getPrestamosEnMora() {
+        return prestamosEnMora;
+    }
+
+    public double getSegundos() {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public double getPrestamosPorSegundo() {
+        return prestamosProcesados / Math.max(getSegundos(), 1e-9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Proceso de mora al %s%s: %d préstamos en %d particiones (%d fallidas), " +
+                        "%d penalidades registradas, %d préstamos pasados a EN_MORA, %.3f s (%.0f préstamos/s)",
+                fechaCorte, reanudadoDesde != null ? " (reanudado después de " + reanudadoDesde + ")" : "",
+                prestamosProcesados, particiones, particionesFallidas, penalidadesRegistradas, prestamosEnMora,
+                getSegundos(), getPrestamosPorSegundo());
+    }
+}
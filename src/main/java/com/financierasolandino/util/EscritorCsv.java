@@ -0,0 +1,339 @@
+package com.financierasolandino.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Escritor de archivos CSV para las exportaciones.
+ * Los campos se agregan directamente en un buffer de caracteres reutilizable y se codifican en UTF-8
+ * hacia un FileChannel en bloques grandes, sin crear objetos por fila.
+ * Todos los campos se escriben entre comillas (RFC 4180), duplicando las comillas internas,
+ * por lo que las comas y los saltos de línea dentro de un valor se conservan correctamente.
+ * Como el FileWriter que usaban antes las exportaciones, un surrogate sin su par se escribe como '?'.
+ */
+public class EscritorCsv implements Closeable {
+    private static final char SEPARADOR = ',';
+    private static final char COMILLA = '"';
+    private static final String FIN_DE_LINEA = "\n";
+    private static final String SIN_FECHA = "N/A";
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    // Se vuelca al canal al terminar una fila que deja el buffer por encima de este umbral
+    private static final int UMBRAL_VOLCADO = TAMANO_BUFFER - 4 * 1024;
+
+    private final FileChannel canal;
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANO_BUFFER * 4);
+    private char[] caracteres = new char[TAMANO_BUFFER];
+    private CharBuffer vista = CharBuffer.wrap(caracteres);
+    private int posicion;
+    private boolean inicioDeFila = true;
+    private boolean cerrado;
+
+    private final long inicioNanos = System.nanoTime();
+    private long finNanos;
+    private long filas;
+    private long bytesEscritos;
+
+    /**
+     * Crea (o reemplaza) el archivo indicado y escribe la marca BOM de UTF-8 para que Excel reconozca la codificación.
+     * @param nombreArchivo Ruta del archivo a generar.
+     * @throws IOException Si no se puede crear el archivo.
+     */
+    public EscritorCsv(String nombreArchivo) throws IOException {
+        this.canal = FileChannel.open(Path.of(nombreArchivo),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        agregar('\uFEFF');
+    }
+
+    /**
+     * Escribe la línea de encabezados (sin comillas, como texto plano).
+     */
+    public void encabezado(String encabezados) throws IOException {
+        agregar(encabezados);
+        agregar(FIN_DE_LINEA);
+        volcarSiCorresponde();
+    }
+
+    /**
+     * Agrega un campo de texto entre comillas. Los valores nulos se escriben como campo vacío.
+     */
+    public EscritorCsv campo(CharSequence valor) {
+        abrirCampo();
+        if (valor != null) {
+            int largo = valor.length();
+            asegurarEspacio(largo * 2);
+            for (int i = 0; i < largo; i++) {
+                char c = valor.charAt(i);
+                if (c == COMILLA) {
+                    caracteres[posicion++] = COMILLA;
+                }
+                caracteres[posicion++] = c;
+            }
+        }
+        cerrarCampo();
+        return this;
+    }
+
+    /**
+     * Agrega un campo numérico entero entre comillas.
+     */
+    public EscritorCsv campo(long valor) {
+        abrirCampo();
+        agregarEntero(valor);
+        cerrarCampo();
+        return this;
+    }
+
+    /**
+     * Agrega un número con dos decimales redondeado HALF_UP, usando coma como separador decimal y sin separador de miles.
+     */
+    public EscritorCsv campoDecimal(double valor) {
+        abrirCampo();
+        agregarCentavos(FormatoMoneda.aCentavos(valor), false);
+        cerrarCampo();
+        return this;
+    }
+
+    /**
+     * Agrega un importe en formato moneda argentino ($#.##0,00) redondeado HALF_UP.
+     */
+    public EscritorCsv campoMoneda(double valor) {
+        abrirCampo();
+        // Como DecimalFormat, el signo se toma del valor original (-0,004 se muestra como -$0,00)
+        if (Math.copySign(1.0, valor) < 0) {
+            agregar('-');
+        }
+        agregar('$');
+        agregarCentavos(Math.abs(FormatoMoneda.aCentavos(valor)), true);
+        cerrarCampo();
+        return this;
+    }
+
+    /**
+     * Agrega una fecha con formato dd/MM/yyyy, o "N/A" si es nula.
+     */
+    public EscritorCsv campoFecha(LocalDate fecha) {
+        if (fecha == null) {
+            return campo(SIN_FECHA);
+        }
+        abrirCampo();
+        asegurarEspacio(10);
+        agregarDosDigitos(fecha.getDayOfMonth());
+        caracteres[posicion++] = '/';
+        agregarDosDigitos(fecha.getMonthValue());
+        caracteres[posicion++] = '/';
+        int anio = fecha.getYear();
+        if (anio >= 1000 && anio <= 9999) {
+            agregarDosDigitos(anio / 100);
+            agregarDosDigitos(anio % 100);
+        } else {
+            agregarEntero(anio);
+        }
+        cerrarCampo();
+        return this;
+    }
+
+    /**
+     * Termina la fila actual.
+     */
+    public void finFila() throws IOException {
+        agregar(FIN_DE_LINEA);
+        inicioDeFila = true;
+        filas++;
+        volcarSiCorresponde();
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    public double getFilasPorSegundo() {
+        return filas / segundosTranscurridos();
+    }
+
+    public double getBytesPorSegundo() {
+        return bytesEscritos / segundosTranscurridos();
+    }
+
+    /**
+     * Resumen del rendimiento de la exportación (filas y bytes por segundo).
+     */
+    public String resumen() {
+        return String.format("%d filas, %.1f KB en %.3f s (%.0f filas/s, %.1f KB/s)",
+                filas, bytesEscritos / 1024.0, segundosTranscurridos(),
+                getFilasPorSegundo(), getBytesPorSegundo() / 1024.0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        try {
+            volcar(true);
+            canal.force(false);
+        } finally {
+            finNanos = System.nanoTime();
+            canal.close();
+        }
+    }
+
+    private double segundosTranscurridos() {
+        long fin = finNanos != 0 ? finNanos : System.nanoTime();
+        return Math.max(fin - inicioNanos, 1) / 1_000_000_000.0;
+    }
+
+    private void abrirCampo() {
+        asegurarEspacio(2);
+        if (!inicioDeFila) {
+            caracteres[posicion++] = SEPARADOR;
+        }
+        caracteres[posicion++] = COMILLA;
+        inicioDeFila = false;
+    }
+
+    private void cerrarCampo() {
+        asegurarEspacio(1);
+        caracteres[posicion++] = COMILLA;
+    }
+
+    private void agregar(char c) {
+        asegurarEspacio(1);
+        caracteres[posicion++] = c;
+    }
+
+    private void agregar(String texto) {
+        int largo = texto.length();
+        asegurarEspacio(largo);
+        texto.getChars(0, largo, caracteres, posicion);
+        posicion += largo;
+    }
+
+    private void agregarEntero(long valor) {
+        if (valor == Long.MIN_VALUE) {
+            // -Long.MIN_VALUE desborda y sigue siendo negativo
+            agregar(Long.toString(valor));
+            return;
+        }
+        asegurarEspacio(20);
+        if (valor < 0) {
+            caracteres[posicion++] = '-';
+            valor = -valor;
+        }
+        int inicio = posicion;
+        do {
+            caracteres[posicion++] = (char) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor > 0);
+        invertir(inicio, posicion - 1);
+    }
+
+    /**
+     * Escribe un importe expresado en centavos (no negativo) con coma decimal y, opcionalmente, punto de miles.
+     */
+    private void agregarCentavos(long centavos, boolean separadorMiles) {
+        asegurarEspacio(32);
+        long centavosAbs = Math.abs(centavos);
+        if (centavos < 0) {
+            caracteres[posicion++] = '-';
+        }
+        long entero = centavosAbs / 100;
+        int decimales = (int) (centavosAbs % 100);
+        int inicio = posicion;
+        int digitos = 0;
+        do {
+            if (separadorMiles && digitos > 0 && digitos % 3 == 0) {
+                caracteres[posicion++] = '.';
+            }
+            caracteres[posicion++] = (char) ('0' + entero % 10);
+            entero /= 10;
+            digitos++;
+        } while (entero > 0);
+        invertir(inicio, posicion - 1);
+        caracteres[posicion++] = ',';
+        agregarDosDigitos(decimales);
+    }
+
+    private void agregarDosDigitos(int valor) {
+        caracteres[posicion++] = (char) ('0' + valor / 10);
+        caracteres[posicion++] = (char) ('0' + valor % 10);
+    }
+
+    private void invertir(int desde, int hasta) {
+        while (desde < hasta) {
+            char tmp = caracteres[desde];
+            caracteres[desde++] = caracteres[hasta];
+            caracteres[hasta--] = tmp;
+        }
+    }
+
+    private void asegurarEspacio(int necesarios) {
+        if (posicion + necesarios > caracteres.length) {
+            char[] nuevo = new char[Math.max(caracteres.length * 2, posicion + necesarios)];
+            System.arraycopy(caracteres, 0, nuevo, 0, posicion);
+            caracteres = nuevo;
+            vista = CharBuffer.wrap(caracteres);
+        }
+    }
+
+    private void volcarSiCorresponde() throws IOException {
+        if (posicion >= UMBRAL_VOLCADO) {
+            volcar(false);
+        }
+    }
+
+    /**
+     * Codifica el buffer de caracteres en UTF-8 y lo escribe en el canal.
+     * @param finDeEntrada true al cerrar: se termina la codificación, incluido un surrogate alto que haya quedado
+     * pendiente del volcado anterior, y se vacía el estado interno del codificador.
+     */
+    private void volcar(boolean finDeEntrada) throws IOException {
+        vista.limit(posicion).position(0);
+        while (true) {
+            CoderResult resultado = codificador.encode(vista, bytes, finDeEntrada);
+            if (resultado.isOverflow()) {
+                escribirBytes();
+            } else if (resultado.isUnderflow()) {
+                break;
+            } else {
+                resultado.throwException();
+            }
+        }
+        if (finDeEntrada) {
+            while (codificador.flush(bytes).isOverflow()) {
+                escribirBytes();
+            }
+        }
+        escribirBytes();
+        // Un surrogate alto al final queda pendiente hasta completar su par en el próximo volcado
+        int pendientes = vista.remaining();
+        System.arraycopy(caracteres, vista.position(), caracteres, 0, pendientes);
+        posicion = pendientes;
+        vista.clear();
+    }
+
+    private void escribirBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesEscritos += canal.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,142 @@
+package com.financierasolandino.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formateador de importes en pesos argentinos con el patrón $#.##0,00 y redondeo HALF_UP.
+ * Produce el mismo texto que {@link Utilidad#getArgentinaNumberFormat()}, pero no tiene estado,
+ * por lo que puede compartirse entre hilos, y escribe los dígitos directamente en el destino
+ * (StringBuilder o Appendable) sin crear objetos intermedios.
+ */
+public final class FormatoMoneda {
+    private static final long[] POTENCIAS_DE_10 = new long[19];
+
+    static {
+        POTENCIAS_DE_10[0] = 1;
+        for (int i = 1; i < POTENCIAS_DE_10.length; i++) {
+            POTENCIAS_DE_10[i] = POTENCIAS_DE_10[i - 1] * 10;
+        }
+    }
+
+    private FormatoMoneda() {
+    }
+
+    /**
+     * Formatea un importe y devuelve el texto (por ejemplo, 1234.5 → "$1.234,50").
+     */
+    public static String formatear(double valor) {
+        return formatear(valor, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Formatea un importe BigDecimal y devuelve el texto.
+     */
+    public static String formatear(BigDecimal valor) {
+        return formatear(valor, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Agrega el importe formateado al StringBuilder indicado.
+     * @return El mismo StringBuilder, para encadenar llamadas.
+     */
+    public static StringBuilder formatear(double valor, StringBuilder destino) {
+        try {
+            escribir(aCentavos(valor), Math.copySign(1.0, valor) < 0, destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder no lanza IOException
+        }
+        return destino;
+    }
+
+    /**
+     * Agrega el importe BigDecimal formateado al StringBuilder indicado.
+     * @return El mismo StringBuilder, para encadenar llamadas.
+     */
+    public static StringBuilder formatear(BigDecimal valor, StringBuilder destino) {
+        try {
+            escribir(aCentavos(valor), valor.signum() < 0, destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return destino;
+    }
+
+    /**
+     * Agrega un importe expresado en centavos al StringBuilder indicado (por ejemplo, 123450 → "$1.234,50").
+     * @return El mismo StringBuilder, para encadenar llamadas.
+     */
+    public static StringBuilder formatearCentavos(long centavos, StringBuilder destino) {
+        try {
+            escribir(centavos, centavos < 0, destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return destino;
+    }
+
+    /**
+     * Escribe el importe formateado en cualquier Appendable (Writer, StringBuilder, CharBuffer, etc.).
+     * @throws IOException Si el destino no puede escribirse.
+     */
+    public static void formatear(double valor, Appendable destino) throws IOException {
+        escribir(aCentavos(valor), Math.copySign(1.0, valor) < 0, destino);
+    }
+
+    /**
+     * Escribe un importe expresado en centavos en cualquier Appendable.
+     * @throws IOException Si el destino no puede escribirse.
+     */
+    public static void formatearCentavos(long centavos, Appendable destino) throws IOException {
+        escribir(centavos, centavos < 0, destino);
+    }
+
+    /**
+     * Convierte un importe a centavos redondeando HALF_UP sobre el valor binario exacto del double,
+     * igual que DecimalFormat. Solo los valores muy cercanos a la mitad de un centavo pasan por BigDecimal.
+     */
+    public static long aCentavos(double valor) {
+        double escalado = valor * 100.0;
+        double piso = Math.floor(escalado);
+        double fraccion = escalado - piso;
+        double tolerancia = Math.max(1e-6, Math.ulp(escalado) * 4);
+        if (Math.abs(fraccion - 0.5) > tolerancia) {
+            return (long) (fraccion < 0.5 ? piso : piso + 1);
+        }
+        return aCentavos(new BigDecimal(valor));
+    }
+
+    /**
+     * Convierte un importe BigDecimal a centavos con redondeo HALF_UP.
+     */
+    public static long aCentavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static void escribir(long centavos, boolean negativo, Appendable destino) throws IOException {
+        if (negativo) {
+            destino.append('-');
+        }
+        destino.append('$');
+        // Math.abs(Long.MIN_VALUE) es negativo; ese importe no es representable en la práctica
+        long absoluto = Math.abs(centavos);
+        long entero = absoluto / 100;
+        int decimales = (int) (absoluto % 100);
+
+        int digitos = 1;
+        while (digitos < POTENCIAS_DE_10.length && entero >= POTENCIAS_DE_10[digitos]) {
+            digitos++;
+        }
+        for (int i = digitos - 1; i >= 0; i--) {
+            destino.append((char) ('0' + (entero / POTENCIAS_DE_10[i]) % 10));
+            if (i > 0 && i % 3 == 0) {
+                destino.append('.');
+            }
+        }
+        destino.append(',');
+        destino.append((char) ('0' + decimales / 10));
+        destino.append((char) ('0' + decimales % 10));
+    }
+}
@@ -0,0 +1,99 @@
+package com.financierasolandino.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de archivos CSV en UTF-8, complementario de {@link EscritorCsv}: lee fila por fila sin cargar el archivo
+ * completo, ignora la marca BOM inicial y acepta campos con o sin comillas (RFC 4180), incluidas comillas duplicadas
+ * y saltos de línea dentro de un campo entre comillas.
+ */
+public class LectorCsv implements Closeable {
+    private static final char SEPARADOR = ',';
+    private static final char COMILLA = '"';
+
+    private final BufferedReader lector;
+    private final StringBuilder campo = new StringBuilder(64);
+    private int lineaActual;
+    private int lineaFila;
+
+    public LectorCsv(Path archivo) throws IOException {
+        this.lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lee la siguiente fila.
+     * @return Los campos de la fila, o null al llegar al final del archivo.
+     * @throws IOException Si ocurre un error de lectura o el archivo termina dentro de un campo entre comillas.
+     */
+    public String[] siguienteFila() throws IOException {
+        String linea = lector.readLine();
+        if (linea == null) {
+            return null;
+        }
+        lineaActual++;
+        lineaFila = lineaActual;
+        if (lineaActual == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+            linea = linea.substring(1);
+        }
+
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        int i = 0;
+        while (true) {
+            if (i == linea.length()) {
+                if (!entreComillas) {
+                    break;
+                }
+                // El campo entre comillas continúa en la línea siguiente
+                linea = lector.readLine();
+                if (linea == null) {
+                    throw new IOException("Comillas sin cerrar en el campo que empieza en la línea " + lineaFila + ".");
+                }
+                lineaActual++;
+                campo.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = linea.charAt(i++);
+            if (entreComillas) {
+                if (c != COMILLA) {
+                    campo.append(c);
+                } else if (i < linea.length() && linea.charAt(i) == COMILLA) {
+                    campo.append(COMILLA);
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == SEPARADOR) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == COMILLA && campo.length() == 0) {
+                entreComillas = true;
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * Número de línea (desde 1) en el que empieza la última fila leída.
+     */
+    public int getLineaFila() {
+        return lineaFila;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
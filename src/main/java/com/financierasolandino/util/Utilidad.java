@@ -10,6 +10,7 @@ public class Utilidad {
     /**
      * Metodo auxiliar para obtener el NumberFormat con el Locale de Argentina
      * y configurado específicamente para formato monetario (2 decimales).
+     * DecimalFormat no es thread-safe y crearlo es costoso: para formatear importes usar {@link FormatoMoneda}.
      */
     public static NumberFormat getArgentinaNumberFormat() {
         // Se crea los símbolos de formato para el Locale de Argentina
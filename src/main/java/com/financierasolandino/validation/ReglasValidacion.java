@@ -0,0 +1,513 @@
+package com.financierasolandino.validation;
+
+import com.financierasolandino.model.Cliente;
+import com.financierasolandino.model.Prestamo;
+import com.financierasolandino.util.FormatoMoneda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reglas de validación de clientes y solicitudes de préstamo, sin interacción con la consola. Las usan los
+ * validadores de la consola, el modo por lotes y la importación de clientes, así que un dato se acepta o se rechaza
+ * con el mismo mensaje en todos lados.
+ * <p>
+ * Las reglas están escritas a mano, recorriendo cada valor una sola vez, en lugar de con expresiones regulares: son
+ * equivalentes a los patrones que usaba ValidadorCliente y no crean objetos cuando el valor ya viene normalizado.
+ * Cada método de campo agrega a la lista recibida las reglas incumplidas (como mucho una por campo, la primera en el
+ * orden de siempre) y devuelve el valor normalizado, o null si el valor es inválido.
+ */
+public final class ReglasValidacion {
+    public static final double MONTO_MIN_PERSONAL = 100000;
+    public static final double MONTO_MAX_PERSONAL = 50000000;
+    public static final double MONTO_MIN_HIPOTECARIO = 20000000;
+    public static final double MONTO_MAX_HIPOTECARIO = 140000000;
+    public static final int MIN_CUOTAS_PERSONAL = 6;
+    public static final int MAX_CUOTAS_PERSONAL = 60;
+    public static final int MIN_CUOTAS_HIPOTECARIO = 12;
+    public static final int MAX_CUOTAS_HIPOTECARIO = 360;
+    /** Parte del valor de la propiedad que se puede financiar con un préstamo hipotecario. */
+    public static final double PORCION_FINANCIABLE_PROPIEDAD = 0.8;
+
+    static final Set<String> DOMINIOS_VALIDOS = Set.of(
+            "gmail.com", "yahoo.com", "outlook.com", "hotmail.com", "empresa.com", "icloud.com", "protonmail.com", "zoho.com", "itu.uncu.edu.ar", "uncu.edu.ar"
+    );
+
+    private static final String[] DOMINIOS = DOMINIOS_VALIDOS.toArray(new String[0]);
+
+    // Tolerancia para decidir si un monto double tiene más de 2 decimales (mayor que el error de redondeo a 10^10 centavos)
+    private static final double TOLERANCIA_CENTAVOS = 1e-4;
+
+    private ReglasValidacion() {
+    }
+
+    /**
+     * Valida y normaliza todos los campos de un cliente.
+     * @return El cliente normalizado o todas las reglas incumplidas (una por campo como máximo).
+     */
+    public static ResultadoValidacion validarCliente(String dni, String nombre, String direccion, String telefono,
+                                                     String correo) {
+        List<Violacion> violaciones = new ArrayList<>();
+        String dniNormalizado = normalizarDNI(dni, violaciones);
+        String nombreNormalizado = normalizarNombre(nombre, violaciones);
+        String direccionNormalizada = normalizarDireccion(direccion, violaciones);
+        String telefonoNormalizado = normalizarTelefono(telefono, violaciones);
+        String correoNormalizado = normalizarCorreoElectronico(correo, violaciones);
+        if (!violaciones.isEmpty()) {
+            return new ResultadoValidacion(null, violaciones);
+        }
+        return new ResultadoValidacion(new Cliente(dniNormalizado, nombreNormalizado, direccionNormalizada,
+                telefonoNormalizado, correoNormalizado), List.of());
+    }
+
+    public static ResultadoValidacion validarCliente(Cliente cliente) {
+        return validarCliente(cliente.getIdCliente(), cliente.getNombre(), cliente.getDireccion(),
+                cliente.getTelefono(), cliente.getCorreoElectronico());
+    }
+
+    /**
+     * DNI: 8 dígitos, 7 dígitos (se antepone un 0) o 'M'/'F' seguido de 7 dígitos.
+     */
+    public static String normalizarDNI(String valor, List<Violacion> violaciones) {
+        String input = valor == null ? "" : valor.trim();
+        int largo = input.length();
+        if (largo == 0) {
+            return violar(violaciones, Violacion.Campo.DNI, valor, "El DNI no puede estar vacío.");
+        }
+        if (largo == 8 && sonDigitos(input, 1, 8)) {
+            char primero = input.charAt(0);
+            if (esDigito(primero) || primero == 'M' || primero == 'F') {
+                return input;
+            }
+            if (primero == 'm' || primero == 'f') {
+                return Character.toUpperCase(primero) + input.substring(1);
+            }
+        } else if (largo == 7 && sonDigitos(input, 0, 7)) {
+            return "0" + input;
+        }
+        return violar(violaciones, Violacion.Campo.DNI, valor,
+                "DNI inválido. Debe ser 8 dígitos, 7 dígitos (se antepone 0), o 'M'/'F' seguido de 7 dígitos.");
+    }
+
+    /**
+     * Nombre completo: letras y espacios, nombre y apellido, 3 a 50 caracteres. Se capitaliza cada palabra.
+     */
+    public static String normalizarNombre(String valor, List<Violacion> violaciones) {
+        String input = valor == null ? "" : valor.trim();
+        int largo = input.length();
+        String error = null;
+        if (largo == 0) {
+            error = "El nombre no puede estar vacío.";
+        } else if (largo < 3) {
+            error = "El nombre debe tener al menos 3 caracteres.";
+        } else if (largo > 50) {
+            error = "El nombre no puede tener más de 50 caracteres.";
+        } else {
+            boolean caracterInvalido = false;
+            boolean espaciosMultiples = false;
+            boolean letrasRepetidas = false;
+            boolean tieneEspacio = false;
+            for (int i = 0; i < largo; i++) {
+                char c = input.charAt(i);
+                if (c == ' ') {
+                    tieneEspacio = true;
+                    espaciosMultiples |= i > 0 && input.charAt(i - 1) == ' ';
+                } else if (!esLetra(c)) {
+                    caracterInvalido = true;
+                    break;
+                } else if (i >= 2 && input.charAt(i - 1) == c && input.charAt(i - 2) == c) {
+                    letrasRepetidas = true;
+                }
+            }
+            if (caracterInvalido) {
+                error = "El nombre solo puede contener letras y espacios.";
+            } else if (espaciosMultiples) {
+                error = "El nombre no puede contener múltiples espacios seguidos.";
+            } else if (letrasRepetidas) {
+                error = "El nombre no puede contener tres letras iguales consecutivas.";
+            } else if (!tieneEspacio) {
+                error = "Debe ingresar al menos un nombre y un apellido.";
+            }
+        }
+        if (error != null) {
+            return violar(violaciones, Violacion.Campo.NOMBRE, valor, error);
+        }
+        return capitalizar(input);
+    }
+
+    /**
+     * Dirección: calle (letras, espacios y puntos) + número de 1 a 5 dígitos + ciudad, 5 a 50 caracteres.
+     * Se capitaliza cada palabra.
+     */
+    public static String normalizarDireccion(String valor, List<Violacion> violaciones) {
+        String input = valor == null ? "" : valor.trim();
+        int largo = input.length();
+        String error = null;
+        if (largo == 0) {
+            error = "La dirección no puede estar vacía.";
+        } else if (largo < 5) {
+            error = "La dirección debe tener al menos 5 caracteres.";
+        } else if (largo > 50) {
+            error = "La dirección no puede exceder los 50 caracteres.";
+        } else {
+            boolean caracterInvalido = false;
+            boolean espaciosMultiples = false;
+            boolean espacioAntesDeSigno = false;
+            for (int i = 0; i < largo; i++) {
+                char c = input.charAt(i);
+                boolean despuesDeEspacio = i > 0 && input.charAt(i - 1) == ' ';
+                if (c == ' ') {
+                    espaciosMultiples |= despuesDeEspacio;
+                } else if (c == '.' || c == ',' || c == '°') {
+                    espacioAntesDeSigno |= despuesDeEspacio;
+                } else if (!esLetra(c) && !esDigito(c)) {
+                    caracterInvalido = true;
+                    break;
+                }
+            }
+            if (caracterInvalido) {
+                error = "La dirección solo puede contener letras, números, espacios, punto (.), coma (,) y símbolo de grado (°).";
+            } else if (espaciosMultiples) {
+                error = "La dirección no puede contener múltiples espacios seguidos.";
+            } else if (espacioAntesDeSigno) {
+                error = "No debe haber espacio antes de los signos de puntuación (., °).";
+            } else if (!tieneFormatoDireccion(input)) {
+                error = "La dirección debe tener formato: Calle o Av. + número + ciudad (ejemplo: 'Av. Libertador 1234 Mendoza').";
+            }
+        }
+        if (error != null) {
+            return violar(violaciones, Violacion.Campo.DIRECCION, valor, error);
+        }
+        return capitalizar(input);
+    }
+
+    /**
+     * Teléfono: 10 a 15 dígitos, con un '+' opcional al inicio. Se quitan espacios, guiones, paréntesis y puntos.
+     */
+    public static String normalizarTelefono(String valor, List<Violacion> violaciones) {
+        String limpio = quitarSeparadoresTelefono(valor == null ? "" : valor.trim());
+        int largo = limpio.length();
+        int primerMas = limpio.indexOf('+');
+        if (primerMas > 0) {
+            return violar(violaciones, Violacion.Campo.TELEFONO, valor, "El símbolo '+' solo puede aparecer al inicio.");
+        }
+        int inicio = primerMas == 0 ? 1 : 0;
+        if (largo == inicio || !sonDigitos(limpio, inicio, largo)) {
+            return violar(violaciones, Violacion.Campo.TELEFONO, valor,
+                    "El teléfono solo puede contener dígitos numéricos y opcionalmente un '+' al inicio.");
+        }
+        int digitos = largo - inicio;
+        if (digitos < 10 || digitos > 15) {
+            return violar(violaciones, Violacion.Campo.TELEFONO, valor, "El teléfono debe tener entre 10 y 15 dígitos.");
+        }
+        return limpio;
+    }
+
+    /**
+     * Correo electrónico: formato usuario@dominio con un dominio permitido. Se pasa a minúsculas.
+     */
+    public static String normalizarCorreoElectronico(String valor, List<Violacion> violaciones) {
+        String input = valor == null ? "" : valor.trim().toLowerCase();
+        String error = null;
+        if (input.length() > 100) {
+            error = "El correo no puede tener más de 100 caracteres.";
+        } else if (input.startsWith(".") || input.endsWith(".")) {
+            error = "El correo no puede comenzar ni terminar con un punto.";
+        } else if (!tieneFormatoCorreo(input)) {
+            error = "El correo electrónico no es válido en formato.";
+        } else if (!esDominioValido(input, input.indexOf('@') + 1)) {
+            error = "El dominio del correo no es válido. Dominios permitidos: " + DOMINIOS_VALIDOS;
+        }
+        if (error != null) {
+            return violar(violaciones, Violacion.Campo.CORREO, valor, error);
+        }
+        return input;
+    }
+
+    /**
+     * Valida tipo, monto y plazo de una solicitud de préstamo.
+     * @return Las reglas incumplidas; vacía si la solicitud es válida.
+     */
+    public static List<Violacion> validarSolicitudPrestamo(Prestamo.TipoPrestamo tipo, double monto, int numeroCuotas) {
+        return validarSolicitudPrestamo(tipo, monto, numeroCuotas, null);
+    }
+
+    /**
+     * Igual que {@link #validarSolicitudPrestamo(Prestamo.TipoPrestamo, double, int)}, y para un préstamo hipotecario
+     * con el valor de la propiedad indicado verifica además que el monto no supere la porción financiable.
+     */
+    public static List<Violacion> validarSolicitudPrestamo(Prestamo.TipoPrestamo tipo, double monto, int numeroCuotas,
+                                                           Double valorPropiedad) {
+        List<Violacion> violaciones = new ArrayList<>();
+        if (tipo == null) {
+            violar(violaciones, Violacion.Campo.TIPO_PRESTAMO, null, "Debe indicar el tipo de préstamo.");
+            return violaciones;
+        }
+        validarMonto(tipo, monto, violaciones);
+        validarNumeroCuotas(tipo, numeroCuotas, violaciones);
+        if (tipo == Prestamo.TipoPrestamo.HIPOTECARIO && valorPropiedad != null) {
+            validarValorPropiedad(monto, valorPropiedad, violaciones);
+        }
+        return violaciones;
+    }
+
+    public static boolean validarMonto(Prestamo.TipoPrestamo tipo, double monto, List<Violacion> violaciones) {
+        boolean personal = tipo == Prestamo.TipoPrestamo.PERSONAL;
+        double montoMinimo = personal ? MONTO_MIN_PERSONAL : MONTO_MIN_HIPOTECARIO;
+        double montoMaximo = personal ? MONTO_MAX_PERSONAL : MONTO_MAX_HIPOTECARIO;
+        String error = null;
+        // Escrito así para que un NaN también quede fuera de rango
+        if (!(monto >= montoMinimo && monto <= montoMaximo)) {
+            error = "El monto debe estar entre " + FormatoMoneda.formatear(montoMinimo) + " y " + FormatoMoneda.formatear(montoMaximo) + ".";
+        } else if (personal && monto != Math.rint(monto)) {
+            error = "El monto debe ser un número entero sin decimales.";
+        } else if (!personal && Math.abs(monto * 100 - Math.rint(monto * 100)) > TOLERANCIA_CENTAVOS) {
+            error = "El monto debe tener a lo sumo 2 decimales.";
+        }
+        if (error != null) {
+            violar(violaciones, Violacion.Campo.MONTO, monto, error);
+            return false;
+        }
+        return true;
+    }
+
+    public static boolean validarNumeroCuotas(Prestamo.TipoPrestamo tipo, int numeroCuotas, List<Violacion> violaciones) {
+        boolean personal = tipo == Prestamo.TipoPrestamo.PERSONAL;
+        int cuotasMinimas = personal ? MIN_CUOTAS_PERSONAL : MIN_CUOTAS_HIPOTECARIO;
+        int cuotasMaximas = personal ? MAX_CUOTAS_PERSONAL : MAX_CUOTAS_HIPOTECARIO;
+        if (numeroCuotas < cuotasMinimas || numeroCuotas > cuotasMaximas) {
+            violar(violaciones, Violacion.Campo.CUOTAS, numeroCuotas,
+                    "El número de cuotas debe estar entre " + cuotasMinimas + " y " + cuotasMaximas + ".");
+            return false;
+        }
+        return true;
+    }
+
+    private static void validarValorPropiedad(double monto, double valorPropiedad, List<Violacion> violaciones) {
+        double montoFinanciable = valorPropiedad * PORCION_FINANCIABLE_PROPIEDAD;
+        if (!(valorPropiedad > 0)) {
+            violar(violaciones, Violacion.Campo.VALOR_PROPIEDAD, valorPropiedad, "El valor de la propiedad debe ser positivo.");
+        } else if (montoFinanciable < MONTO_MIN_HIPOTECARIO) {
+            violar(violaciones, Violacion.Campo.VALOR_PROPIEDAD, valorPropiedad, "El 80% del valor de la propiedad (" +
+                    FormatoMoneda.formatear(montoFinanciable) + ") es menor al monto mínimo requerido (" +
+                    FormatoMoneda.formatear(MONTO_MIN_HIPOTECARIO) + ").");
+        } else if (monto > montoFinanciable) {
+            violar(violaciones, Violacion.Campo.MONTO, monto, "El monto no puede superar el 80% del valor de la propiedad (" +
+                    FormatoMoneda.formatear(montoFinanciable) + ").");
+        }
+    }
+
+    /**
+     * Los mensajes de las violaciones separados por un espacio, o null si no hay ninguna.
+     */
+    public static String unirMensajes(List<Violacion> violaciones) {
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        if (violaciones.size() == 1) {
+            return violaciones.get(0).getMensaje();
+        }
+        StringBuilder mensajes = new StringBuilder();
+        for (Violacion violacion : violaciones) {
+            if (mensajes.length() > 0) {
+                mensajes.append(' ');
+            }
+            mensajes.append(violacion.getMensaje());
+        }
+        return mensajes.toString();
+    }
+
+    private static String violar(List<Violacion> violaciones, Violacion.Campo campo, Object valor, String mensaje) {
+        violaciones.add(new Violacion(campo, valor, mensaje));
+        return null;
+    }
+
+    /**
+     * Calle (letras, espacios y puntos, 2 a 50), un espacio, número (1 a 5 dígitos), un espacio y ciudad
+     * (letras y espacios, 2 a 30). Como solo el número admite dígitos, el número es el único tramo de dígitos.
+     */
+    private static boolean tieneFormatoDireccion(String s) {
+        int primerDigito = -1;
+        int ultimoDigito = -1;
+        for (int i = 0; i < s.length(); i++) {
+            if (esDigito(s.charAt(i))) {
+                if (primerDigito < 0) {
+                    primerDigito = i;
+                }
+                ultimoDigito = i;
+            }
+        }
+        int inicioCiudad = ultimoDigito + 2;
+        if (primerDigito < 3 || ultimoDigito - primerDigito >= 5 || s.charAt(primerDigito - 1) != ' '
+                || inicioCiudad >= s.length() || s.charAt(ultimoDigito + 1) != ' ') {
+            return false;
+        }
+        int largoCiudad = s.length() - inicioCiudad;
+        if (primerDigito - 1 > 50 || largoCiudad < 2 || largoCiudad > 30) {
+            return false;
+        }
+        for (int i = primerDigito; i <= ultimoDigito; i++) {
+            if (!esDigito(s.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < primerDigito - 1; i++) {
+            char c = s.charAt(i);
+            if (!esLetra(c) && c != ' ' && c != '.') {
+                return false;
+            }
+        }
+        for (int i = inicioCiudad; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!esLetra(c) && c != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * usuario@dominio: el usuario son tramos de [a-zA-Z0-9_+&*-] separados por un punto; el dominio, etiquetas de
+     * [a-zA-Z0-9-] terminadas en punto seguidas de 2 a 7 letras.
+     */
+    private static boolean tieneFormatoCorreo(String s) {
+        int arroba = s.indexOf('@');
+        if (arroba <= 0) {
+            return false;
+        }
+        char anterior = '.';
+        for (int i = 0; i < arroba; i++) {
+            char c = s.charAt(i);
+            if (c == '.' ? anterior == '.' : !esCaracterUsuarioCorreo(c)) {
+                return false;
+            }
+            anterior = c;
+        }
+        if (anterior == '.') {
+            return false;
+        }
+        int ultimoPunto = s.lastIndexOf('.');
+        int largoFinal = s.length() - ultimoPunto - 1;
+        if (ultimoPunto <= arroba + 1 || largoFinal < 2 || largoFinal > 7) {
+            return false;
+        }
+        int inicioEtiqueta = arroba + 1;
+        for (int i = arroba + 1; i <= ultimoPunto; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (i == inicioEtiqueta) {
+                    return false;
+                }
+                inicioEtiqueta = i + 1;
+            } else if (!esLetraAscii(c) && !esDigito(c) && c != '-') {
+                return false;
+            }
+        }
+        for (int i = ultimoPunto + 1; i < s.length(); i++) {
+            if (!esLetraAscii(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pasa a minúsculas y pone en mayúscula la primera letra de cada palabra (el texto no tiene espacios dobles).
+     */
+    private static String capitalizar(String input) {
+        int i = 0;
+        while (i < input.length() && capitalizado(input, i) == input.charAt(i)) {
+            i++;
+        }
+        if (i == input.length()) {
+            return input;
+        }
+        char[] resultado = input.toCharArray();
+        for (; i < resultado.length; i++) {
+            resultado[i] = capitalizado(input, i);
+        }
+        return new String(resultado);
+    }
+
+    private static char capitalizado(String input, int i) {
+        char c = input.charAt(i);
+        return i == 0 || input.charAt(i - 1) == ' ' ? Character.toUpperCase(c) : Character.toLowerCase(c);
+    }
+
+    /**
+     * Compara el dominio en su lugar, sin extraerlo del correo.
+     */
+    private static boolean esDominioValido(String correo, int inicio) {
+        int largo = correo.length() - inicio;
+        for (String dominio : DOMINIOS) {
+            if (dominio.length() == largo && correo.regionMatches(inicio, dominio, 0, largo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sonDigitos(String s, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (!esDigito(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean esLetraAscii(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Letras que aceptan nombres y direcciones: a-z, A-Z, vocales con tilde y eñe.
+     */
+    private static boolean esLetra(char c) {
+        if (c < 128) {
+            return esLetraAscii(c);
+        }
+        switch (c) {
+            case 'á': case 'é': case 'í': case 'ó': case 'ú':
+            case 'Á': case 'É': case 'Í': case 'Ó': case 'Ú':
+            case 'ñ': case 'Ñ':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean esCaracterUsuarioCorreo(char c) {
+        return esLetraAscii(c) || esDigito(c) || c == '_' || c == '+' || c == '&' || c == '*' || c == '-';
+    }
+
+    private static String quitarSeparadoresTelefono(String input) {
+        int i = 0;
+        while (i < input.length() && !esSeparadorTelefono(input.charAt(i))) {
+            i++;
+        }
+        if (i == input.length()) {
+            return input;
+        }
+        StringBuilder limpio = new StringBuilder(input.length());
+        limpio.append(input, 0, i);
+        for (; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (!esSeparadorTelefono(c)) {
+                limpio.append(c);
+            }
+        }
+        return limpio.toString();
+    }
+
+    private static boolean esSeparadorTelefono(char c) {
+        // Los mismos que [\s\-().]
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r'
+                || c == '-' || c == '(' || c == ')' || c == '.';
+    }
+}
@@ -0,0 +1,40 @@
+package com.financierasolandino.validation;
+
+import com.financierasolandino.model.Cliente;
+
+import java.util.List;
+
+/**
+ * Resultado de validar los datos de un cliente: el cliente con los campos normalizados, o las reglas incumplidas.
+ */
+public class ResultadoValidacion {
+    private final Cliente cliente;
+    private final List<Violacion> violaciones;
+
+    ResultadoValidacion(Cliente cliente, List<Violacion> violaciones) {
+        this.cliente = cliente;
+        this.violaciones = violaciones;
+    }
+
+    public boolean isValido() {
+        return violaciones.isEmpty();
+    }
+
+    /**
+     * @return El cliente normalizado, o null si hubo violaciones.
+     */
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public List<Violacion> getViolaciones() {
+        return violaciones;
+    }
+
+    /**
+     * Los mensajes de todas las violaciones en una línea, o null si los datos son válidos.
+     */
+    public String getMotivos() {
+        return ReglasValidacion.unirMensajes(violaciones);
+    }
+}
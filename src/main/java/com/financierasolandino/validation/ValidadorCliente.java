@@ -1,22 +1,12 @@
 package com.financierasolandino.validation;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
-import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.function.BiFunction;
 
 public class ValidadorCliente {
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@" +
-                    "(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$"
-    );
-
-    // Regex para dirección más específica: "Calle Av. Nombre 123 Ciudad"
-    // Al menos: letras y espacios para la calle, un espacio, un número, un espacio, y ciudad (letras y espacios)
-    private static final Pattern DIRECCION_ESPECIFICA_PATTERN = Pattern.compile(
-            "^[a-zA-ZáéíóúÁÉÍÓÚñÑ .]{2,50} \\d{1,5} [a-zA-ZáéíóúÁÉÍÓÚñÑ ]{2,30}$"
-    );
-
     public static String validarDNI(Scanner scanner) {
         while (true) {
             System.out.print("Ingrese DNI del cliente o 'cancelar' para salir: ");
@@ -24,27 +14,27 @@ public class ValidadorCliente {
 
             if (input.equalsIgnoreCase("cancelar")) return null;
 
-            if (input.isEmpty()) {
-                System.out.println("Error: El DNI no puede estar vacío.");
-                continue;
-            }
-
-            if (input.matches("\\d{8}")) {
-                // DNI válido de 8 dígitos
-                return input;
-            } else if (input.matches("\\d{7}")) {
-                // 7 dígitos: anteponer 0
-                System.out.println("Aviso: Se detectaron 7 dígitos. Se antepone un '0' automáticamente.");
-                return "0" + input;
-            } else if (input.matches("[MF]\\d{7}")) {
-                // Empieza con M o F + 7 dígitos
-                return input;
-            } else {
-                System.out.println("Error: DNI inválido. Debe ser 8 dígitos, 7 dígitos (se antepone 0), o 'M'/'F' seguido de 7 dígitos.");
+            try {
+                String dni = normalizarDNI(input);
+                if (dni.length() > input.length()) {
+                    System.out.println("Aviso: Se detectaron 7 dígitos. Se antepone un '0' automáticamente.");
+                }
+                return dni;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Valida un DNI sin interacción: 8 dígitos, 7 dígitos (se antepone un 0) o 'M'/'F' seguido de 7 dígitos.
+     * @return El DNI normalizado.
+     * @throws IllegalArgumentException Con el motivo si el DNI no es válido.
+     */
+    public static String normalizarDNI(String dni) {
+        return exigir(dni, ReglasValidacion::normalizarDNI);
+    }
+
     public static String validarNombre(Scanner scanner) {
         while (true) {
             System.out.print("Ingrese nombre completo (solo letras y espacios) o 'cancelar' para salir: ");
@@ -52,38 +42,21 @@ public class ValidadorCliente {
 
             if (input.equalsIgnoreCase("cancelar")) return null;
 
-            if (input.isEmpty()) {
-                System.out.println("Error: El nombre no puede estar vacío.");
-            } else if (input.length() < 3) {
-                System.out.println("Error: El nombre debe tener al menos 3 caracteres.");
-            } else if (input.length() > 50) {
-                System.out.println("Error: El nombre no puede tener más de 50 caracteres.");
-            } else if (!input.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑ ]+$")) {
-                System.out.println("Error: El nombre solo puede contener letras y espacios.");
-            } else if (input.matches(".* {2,}.*")) {
-                System.out.println("Error: El nombre no puede contener múltiples espacios seguidos.");
-            } else if (input.matches(".*([a-zA-ZáéíóúÁÉÍÓÚñÑ])\\1\\1.*")) {
-                System.out.println("Error: El nombre no puede contener tres letras iguales consecutivas.");
-            } else if (input.split(" ").length < 2) {
-                System.out.println("Error: Debe ingresar al menos un nombre y un apellido.");
-            } else {
-                return capitalizarNombre(input);
+            try {
+                return normalizarNombre(input);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
             }
         }
     }
 
-    private static String capitalizarNombre(String input) {
-        String[] palabras = input.toLowerCase().split(" ");
-        StringBuilder resultado = new StringBuilder();
-
-        for (String palabra : palabras) {
-            if (!palabra.isEmpty()) {
-                resultado.append(Character.toUpperCase(palabra.charAt(0)))
-                        .append(palabra.substring(1))
-                        .append(" ");
-            }
-        }
-        return resultado.toString().trim();
+    /**
+     * Valida un nombre completo sin interacción (letras y espacios, nombre y apellido, 3 a 50 caracteres).
+     * @return El nombre con cada palabra capitalizada.
+     * @throws IllegalArgumentException Con el motivo si el nombre no es válido.
+     */
+    public static String normalizarNombre(String nombre) {
+        return exigir(nombre, ReglasValidacion::normalizarNombre);
     }
 
 
@@ -94,38 +67,21 @@ public class ValidadorCliente {
 
             if (input.equalsIgnoreCase("cancelar")) return null;
 
-            if (input.isEmpty()) {
-                System.out.println("Error: La dirección no puede estar vacía.");
-            } else if (input.length() < 5) {
-                System.out.println("Error: La dirección debe tener al menos 5 caracteres.");
-            } else if (input.length() > 50) {
-                System.out.println("Error: La dirección no puede exceder los 50 caracteres.");
-            } else if (!input.matches("^[a-zA-Z0-9áéíóúÁÉÍÓÚñÑ .,°]+$")) {
-                System.out.println("Error: La dirección solo puede contener letras, números, espacios, punto (.), coma (,) y símbolo de grado (°).");
-            } else if (input.matches(".* {2,}.*")) {
-                System.out.println("Error: La dirección no puede contener múltiples espacios seguidos.");
-            } else if (input.matches(".* [.,°].*")) {
-                System.out.println("Error: No debe haber espacio antes de los signos de puntuación (., °).");
-            } else if (!DIRECCION_ESPECIFICA_PATTERN.matcher(input).matches()) {
-                System.out.println("Error: La dirección debe tener formato: Calle o Av. + número + ciudad (ejemplo: 'Av. Libertador 1234 Mendoza').");
-            } else {
-                return capitalizarDireccion(input);
+            try {
+                return normalizarDireccion(input);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
             }
         }
     }
 
-    private static String capitalizarDireccion(String input) {
-        String[] palabras = input.toLowerCase().split(" ");
-        StringBuilder resultado = new StringBuilder();
-
-        for (String palabra : palabras) {
-            if (!palabra.isEmpty()) {
-                resultado.append(Character.toUpperCase(palabra.charAt(0)))
-                        .append(palabra.substring(1))
-                        .append(" ");
-            }
-        }
-        return resultado.toString().trim();
+    /**
+     * Valida una dirección sin interacción (Calle o Av. + número + ciudad, 5 a 50 caracteres).
+     * @return La dirección con cada palabra capitalizada.
+     * @throws IllegalArgumentException Con el motivo si la dirección no es válida.
+     */
+    public static String normalizarDireccion(String direccion) {
+        return exigir(direccion, ReglasValidacion::normalizarDireccion);
     }
 
 
@@ -136,34 +92,23 @@ public class ValidadorCliente {
 
             if (input.equalsIgnoreCase("cancelar")) return null;
 
-            String cleaned = input.replaceAll("[\\s\\-().]", "");
-
-            if (cleaned.indexOf('+') > 0) {
-                System.out.println("Error: El símbolo '+' solo puede aparecer al inicio.");
-                continue;
-            }
-
-            String digitsOnly = cleaned.startsWith("+") ? cleaned.substring(1) : cleaned;
-
-            if (!digitsOnly.matches("\\d+")) {
-                System.out.println("Error: El teléfono solo puede contener dígitos numéricos y opcionalmente un '+' al inicio.");
-                continue;
-            }
-
-            int length = digitsOnly.length();
-            if (length < 10 || length > 15) {
-                System.out.println("Error: El teléfono debe tener entre 10 y 15 dígitos.");
-                continue;
+            try {
+                return normalizarTelefono(input);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
             }
-
-            return cleaned;
         }
     }
 
+    /**
+     * Valida un teléfono sin interacción: 10 a 15 dígitos, con un '+' opcional al inicio.
+     * @return El teléfono sin espacios, guiones, paréntesis ni puntos.
+     * @throws IllegalArgumentException Con el motivo si el teléfono no es válido.
+     */
+    public static String normalizarTelefono(String telefono) {
+        return exigir(telefono, ReglasValidacion::normalizarTelefono);
+    }
 
-    private static final Set<String> DOMINIOS_VALIDOS = Set.of(
-            "gmail.com", "yahoo.com", "outlook.com", "hotmail.com", "empresa.com", "icloud.com", "protonmail.com", "zoho.com", "itu.uncu.edu.ar", "uncu.edu.ar"
-    );
 
     public static String validarCorreoElectronico(Scanner scanner) {
         while (true) {
@@ -172,29 +117,32 @@ public class ValidadorCliente {
 
             if (input.equalsIgnoreCase("cancelar")) return null;
 
-            if (input.length() > 100) {
-                System.out.println("Error: El correo no puede tener más de 100 caracteres.");
-                continue;
-            }
-
-            if (input.startsWith(".") || input.endsWith(".")) {
-                System.out.println("Error: El correo no puede comenzar ni terminar con un punto.");
-                continue;
-            }
-
-            if (!EMAIL_PATTERN.matcher(input).matches()) {
-                System.out.println("Error: El correo electrónico no es válido en formato.");
-                continue;
+            try {
+                return normalizarCorreoElectronico(input);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
             }
+        }
+    }
 
-            // Extraer dominio después de '@'
-            String dominio = input.substring(input.indexOf('@') + 1);
-            if (!DOMINIOS_VALIDOS.contains(dominio)) {
-                System.out.println("Error: El dominio del correo no es válido. Dominios permitidos: " + DOMINIOS_VALIDOS);
-                continue;
-            }
+    /**
+     * Valida un correo electrónico sin interacción (formato y dominio permitido).
+     * @return El correo en minúsculas.
+     * @throws IllegalArgumentException Con el motivo si el correo no es válido.
+     */
+    public static String normalizarCorreoElectronico(String correo) {
+        return exigir(correo, ReglasValidacion::normalizarCorreoElectronico);
+    }
 
-            return input;
+    /**
+     * Aplica una regla de {@link ReglasValidacion} y convierte la violación en una IllegalArgumentException con el mensaje.
+     */
+    private static String exigir(String valor, BiFunction<String, List<Violacion>, String> regla) {
+        List<Violacion> violaciones = new ArrayList<>(1);
+        String normalizado = regla.apply(valor, violaciones);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(violaciones.get(0).getMensaje());
         }
+        return normalizado;
     }
-}
\ No newline at end of file
+}
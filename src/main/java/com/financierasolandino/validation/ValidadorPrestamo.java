@@ -1,24 +1,21 @@
 package com.financierasolandino.validation;
 
 import com.financierasolandino.model.Prestamo;
-import com.financierasolandino.util.Utilidad;
+import com.financierasolandino.util.FormatoMoneda;
 
 import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.util.Scanner;
 
 public class ValidadorPrestamo {
-    private static final double MONTO_MIN_PERSONAL = 100000;
-    private static final double MONTO_MAX_PERSONAL = 50000000;
-    private static final double MONTO_MIN_HIPOTECARIO = 20000000;
-    private static final double MONTO_MAX_HIPOTECARIO = 140000000;
-    private static final int MIN_CUOTAS_PERSONAL = 6;
-    private static final int MAX_CUOTAS_PERSONAL = 60;
-    private static final int MIN_CUOTAS_HIPOTECARIO = 12;
-    private static final int MAX_CUOTAS_HIPOTECARIO = 360;
-
-    // Se usa NumberFormat para mostrar los valores en formato moneda de Argentina
-    private static final NumberFormat formatoMoneda = Utilidad.getArgentinaNumberFormat();
+    // Los límites están en ReglasValidacion, que también valida las solicitudes sin consola
+    private static final double MONTO_MIN_PERSONAL = ReglasValidacion.MONTO_MIN_PERSONAL;
+    private static final double MONTO_MAX_PERSONAL = ReglasValidacion.MONTO_MAX_PERSONAL;
+    private static final double MONTO_MIN_HIPOTECARIO = ReglasValidacion.MONTO_MIN_HIPOTECARIO;
+    private static final double MONTO_MAX_HIPOTECARIO = ReglasValidacion.MONTO_MAX_HIPOTECARIO;
+    private static final int MIN_CUOTAS_PERSONAL = ReglasValidacion.MIN_CUOTAS_PERSONAL;
+    private static final int MAX_CUOTAS_PERSONAL = ReglasValidacion.MAX_CUOTAS_PERSONAL;
+    private static final int MIN_CUOTAS_HIPOTECARIO = ReglasValidacion.MIN_CUOTAS_HIPOTECARIO;
+    private static final int MAX_CUOTAS_HIPOTECARIO = ReglasValidacion.MAX_CUOTAS_HIPOTECARIO;
 
     public static Prestamo.TipoPrestamo validarTipoPrestamo(Scanner scanner) {
         while (true) {
@@ -64,7 +61,7 @@ public class ValidadorPrestamo {
 
 
         while (true) {
-            System.out.print("Ingrese el monto del préstamo (" + formatoMoneda.format(MONTO_MIN_PERSONAL) + " - " + formatoMoneda.format(MONTO_MAX_PERSONAL) + ") o 'cancelar': ");
+            System.out.print("Ingrese el monto del préstamo (" + FormatoMoneda.formatear(MONTO_MIN_PERSONAL) + " - " + FormatoMoneda.formatear(MONTO_MAX_PERSONAL) + ") o 'cancelar': ");
             String input = scanner.nextLine().trim();
             if (input.equalsIgnoreCase("cancelar")) {
                 return null;
@@ -85,8 +82,8 @@ public class ValidadorPrestamo {
                 if (monto >= MONTO_MIN_PERSONAL && monto <= MONTO_MAX_PERSONAL) {
                     return monto;
                 } else {
-                    System.out.println("El monto debe estar entre " + formatoMoneda.format(MONTO_MIN_PERSONAL) +
-                            " y " + formatoMoneda.format(MONTO_MAX_PERSONAL) + ".");
+                    System.out.println("El monto debe estar entre " + FormatoMoneda.formatear(MONTO_MIN_PERSONAL) +
+                            " y " + FormatoMoneda.formatear(MONTO_MAX_PERSONAL) + ".");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("❌ Entrada inválida. Ingrese un número válido.");
@@ -141,22 +138,22 @@ public class ValidadorPrestamo {
                     System.out.println("❌ El valor de la propiedad debe ser positivo.");
                     continue;
                 }
-                double montoMaximo = valorPropiedad * 0.8;
+                double montoMaximo = valorPropiedad * ReglasValidacion.PORCION_FINANCIABLE_PROPIEDAD;
                 if (montoMaximo < MONTO_MIN_HIPOTECARIO) {
-                    System.out.println("❌ Error: El 80% del valor de la propiedad (" + formatoMoneda.format(montoMaximo) +
-                            ") es menor al monto mínimo requerido (" + formatoMoneda.format(MONTO_MIN_HIPOTECARIO) + ").");
+                    System.out.println("❌ Error: El 80% del valor de la propiedad (" + FormatoMoneda.formatear(montoMaximo) +
+                            ") es menor al monto mínimo requerido (" + FormatoMoneda.formatear(MONTO_MIN_HIPOTECARIO) + ").");
                     System.out.println("Por favor, ingrese un valor de propiedad mayor o 'cancelar' para salir.");
                     continue;
                 }
                 if (montoMaximo > MONTO_MAX_HIPOTECARIO) {
-                    System.out.println("❌ Error: El 80% del valor de la propiedad (" + formatoMoneda.format(montoMaximo) +
-                            ") es mayor al monto máximo permitido (" + formatoMoneda.format(MONTO_MAX_HIPOTECARIO) + ").");
+                    System.out.println("❌ Error: El 80% del valor de la propiedad (" + FormatoMoneda.formatear(montoMaximo) +
+                            ") es mayor al monto máximo permitido (" + FormatoMoneda.formatear(MONTO_MAX_HIPOTECARIO) + ").");
                     System.out.println("Por favor, ingrese un valor de propiedad menor o 'cancelar' para salir.");
                     continue;
                 }
                 // Mostrar el monto máximo con hasta 2 decimales
                 BigDecimal montoMaximoBD = new BigDecimal(montoMaximo).setScale(2, BigDecimal.ROUND_DOWN);
-                System.out.println("Monto máximo disponible (80% del valor de la propiedad): " + formatoMoneda.format(montoMaximoBD));
+                System.out.println("Monto máximo disponible (80% del valor de la propiedad): " + FormatoMoneda.formatear(montoMaximoBD));
                 break; // Salir del bucle de validación del valor de la propiedad
             } catch (NumberFormatException e) {
                 System.out.println("❌ Entrada inválida. Ingrese un número válido.");
@@ -165,10 +162,10 @@ public class ValidadorPrestamo {
 
         // Validar el monto del préstamo
         while (true) {
-            double montoMaximo = Math.min(valorPropiedad * 0.8, MONTO_MAX_HIPOTECARIO);
+            double montoMaximo = Math.min(valorPropiedad * ReglasValidacion.PORCION_FINANCIABLE_PROPIEDAD, MONTO_MAX_HIPOTECARIO);
             BigDecimal montoMaximoBD = new BigDecimal(montoMaximo).setScale(2, BigDecimal.ROUND_DOWN);
-            System.out.print("Ingrese el monto del préstamo (hasta 2 decimales, " + formatoMoneda.format(MONTO_MIN_HIPOTECARIO) +
-                    " - " + formatoMoneda.format(montoMaximoBD) + ") o 'cancelar': ");
+            System.out.print("Ingrese el monto del préstamo (hasta 2 decimales, " + FormatoMoneda.formatear(MONTO_MIN_HIPOTECARIO) +
+                    " - " + FormatoMoneda.formatear(montoMaximoBD) + ") o 'cancelar': ");
             String input = scanner.nextLine().trim();
             if (input.equalsIgnoreCase("cancelar")) {
                 return null;
@@ -189,8 +186,8 @@ public class ValidadorPrestamo {
                     // Redondear el monto a 2 decimales para consistencia
                     return montoBD.setScale(2, BigDecimal.ROUND_DOWN).doubleValue();
                 } else {
-                    System.out.println("El monto debe estar entre " + formatoMoneda.format(MONTO_MIN_HIPOTECARIO) +
-                            " y " + formatoMoneda.format(montoMaximoBD) + ".");
+                    System.out.println("El monto debe estar entre " + FormatoMoneda.formatear(MONTO_MIN_HIPOTECARIO) +
+                            " y " + FormatoMoneda.formatear(montoMaximoBD) + ".");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("❌ Entrada inválida. Ingrese un número válido.");
@@ -262,7 +259,10 @@ public class ValidadorPrestamo {
         }
     }
 
-    private static Double obtenerTasaPersonal(int numeroCuotas) {
+    /**
+     * Tasa anual fija de los préstamos personales según el plazo.
+     */
+    public static Double obtenerTasaPersonal(int numeroCuotas) {
         if (numeroCuotas <= 6) return 92.00;
         else if (numeroCuotas <= 12) return 93.00;
         else if (numeroCuotas <= 24) return 95.00;
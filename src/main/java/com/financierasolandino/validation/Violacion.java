@@ -0,0 +1,37 @@
+package com.financierasolandino.validation;
+
+/**
+ * Regla incumplida por un dato: el campo, el valor recibido y el mensaje para el usuario.
+ */
+public class Violacion {
+    public enum Campo {
+        DNI, NOMBRE, DIRECCION, TELEFONO, CORREO, TIPO_PRESTAMO, MONTO, CUOTAS, VALOR_PROPIEDAD
+    }
+
+    private final Campo campo;
+    private final Object valor;
+    private final String mensaje;
+
+    public Violacion(Campo campo, Object valor, String mensaje) {
+        this.campo = campo;
+        this.valor = valor;
+        this.mensaje = mensaje;
+    }
+
+    public Campo getCampo() {
+        return campo;
+    }
+
+    public Object getValor() {
+        return valor;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    @Override
+    public String toString() {
+        return campo + ": " + mensaje;
+    }
+}
@@ -0,0 +1,52 @@
+-- Tablas que usan los DAO. Compatible con MySQL y con H2 en modo MySQL. IF NOT EXISTS permite aplicarla sobre
+-- una base creada antes con el script sistema_financiero.sql.
+
+CREATE TABLE IF NOT EXISTS clientes (
+    idCliente VARCHAR(8) NOT NULL PRIMARY KEY,
+    nombre VARCHAR(50) NOT NULL,
+    direccion VARCHAR(50) NOT NULL,
+    telefono VARCHAR(20) NOT NULL,
+    correoElectronico VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS prestamos (
+    idPrestamo VARCHAR(36) NOT NULL PRIMARY KEY,
+    idCliente VARCHAR(8) NOT NULL,
+    monto DECIMAL(15, 2) NOT NULL,
+    tasaInteres DECIMAL(6, 2) NOT NULL,
+    numeroCuotas INT NOT NULL,
+    tipoPrestamo VARCHAR(20) NOT NULL,
+    fecha_creacion DATE NOT NULL,
+    saldo_pendiente DECIMAL(15, 2) NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    CONSTRAINT fk_prestamos_clientes FOREIGN KEY (idCliente) REFERENCES clientes (idCliente)
+);
+
+CREATE TABLE IF NOT EXISTS cuotas (
+    idPrestamo VARCHAR(36) NOT NULL,
+    numeroCuota INT NOT NULL,
+    montoCuota DECIMAL(15, 2) NOT NULL,
+    tasaAplicada DECIMAL(6, 2) NOT NULL,
+    fechaVencimiento DATE NOT NULL,
+    capitalAmortizado DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (idPrestamo, numeroCuota),
+    CONSTRAINT fk_cuotas_prestamos FOREIGN KEY (idPrestamo) REFERENCES prestamos (idPrestamo)
+);
+
+CREATE TABLE IF NOT EXISTS pagos (
+    idPago INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    idPrestamo VARCHAR(36) NOT NULL,
+    numeroCuota INT NOT NULL,
+    montoPagado DECIMAL(15, 2) NOT NULL,
+    fechaPago DATE NOT NULL,
+    CONSTRAINT fk_pagos_cuotas FOREIGN KEY (idPrestamo, numeroCuota) REFERENCES cuotas (idPrestamo, numeroCuota)
+);
+
+CREATE TABLE IF NOT EXISTS penalidades (
+    idPenalidad INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    idPrestamo VARCHAR(36) NOT NULL,
+    numeroCuota INT NOT NULL,
+    montoPenalidad DECIMAL(15, 2) NOT NULL,
+    fechaAplicacion DATE NOT NULL,
+    CONSTRAINT fk_penalidades_cuotas FOREIGN KEY (idPrestamo, numeroCuota) REFERENCES cuotas (idPrestamo, numeroCuota)
+);
@@ -0,0 +1,17 @@
+-- Índices para las consultas frecuentes de los DAO (ver ConsultasFrecuentes). Las claves primarias ya cubren
+-- clientes por idCliente y cuotas por (idPrestamo, numeroCuota), incluido el ORDER BY numeroCuota.
+
+-- pagos por préstamo y cuota: historial ordenado (PagoDAO, instantánea del préstamo), COUNT(*) por préstamo y los
+-- anti-joins "LEFT JOIN pagos ... WHERE pg.idPrestamo IS NULL" de mora, reportes y actualización de estado.
+-- Incluye monto y fecha para resolver el historial sin leer la tabla.
+CREATE INDEX ix_pagos_prestamo_cuota ON pagos (idPrestamo, numeroCuota, montoPagado, fechaPago);
+
+-- penalidades por préstamo y cuota: mapa de penalidades, SUM(montoPenalidad) por préstamo y los LEFT JOIN por cuota.
+CREATE INDEX ix_penalidades_prestamo_cuota ON penalidades (idPrestamo, numeroCuota, montoPenalidad);
+
+-- prestamos por estado: recorrido por particiones del proceso de mora (estado IN (...) AND idPrestamo > ?
+-- ORDER BY idPrestamo), reporte de clientes en mora y de préstamos vigentes.
+CREATE INDEX ix_prestamos_estado ON prestamos (estado, idPrestamo, idCliente);
+
+-- prestamos por cliente: préstamos de un cliente y reportes filtrados por DNI.
+CREATE INDEX ix_prestamos_cliente ON prestamos (idCliente, estado);
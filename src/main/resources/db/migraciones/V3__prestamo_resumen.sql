@@ -0,0 +1,30 @@
+-- Resumen por préstamo que mantienen los DAO en la misma transacción que cada alta, pago y penalidad (ver
+-- ResumenPrestamoDAO). Los reportes y exportaciones leen una fila angosta por préstamo en lugar de agregar pagos,
+-- cuotas y penalidades. cuotasVencidas cuenta las cuotas impagas que vencen antes de fechaCorte; la actualiza el
+-- proceso de mora, y quien necesite el valor a otra fecha debe volver a contarlas.
+
+CREATE TABLE IF NOT EXISTS prestamo_resumen (
+    idPrestamo VARCHAR(36) NOT NULL PRIMARY KEY,
+    cuotasPagadas INT NOT NULL,
+    proximoVencimiento DATE NULL,
+    cuotasVencidas INT NOT NULL,
+    fechaCorte DATE NOT NULL,
+    penalidadesAcumuladas DECIMAL(15, 2) NOT NULL,
+    fechaUltimoPago DATE NULL,
+    CONSTRAINT fk_prestamo_resumen_prestamos FOREIGN KEY (idPrestamo) REFERENCES prestamos (idPrestamo)
+);
+
+-- Carga inicial con los datos existentes; la misma consulta que ResumenPrestamoDAO usa para reconstruirlo.
+INSERT INTO prestamo_resumen (idPrestamo, cuotasPagadas, proximoVencimiento, cuotasVencidas, fechaCorte,
+                              penalidadesAcumuladas, fechaUltimoPago)
+SELECT p.idPrestamo,
+       (SELECT COUNT(*) FROM pagos pg WHERE pg.idPrestamo = p.idPrestamo),
+       (SELECT MIN(cu.fechaVencimiento) FROM cuotas cu WHERE cu.idPrestamo = p.idPrestamo
+        AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)),
+       (SELECT COUNT(*) FROM cuotas cu WHERE cu.idPrestamo = p.idPrestamo AND cu.fechaVencimiento < CURRENT_DATE
+        AND NOT EXISTS (SELECT 1 FROM pagos pg WHERE pg.idPrestamo = cu.idPrestamo AND pg.numeroCuota = cu.numeroCuota)),
+       CURRENT_DATE,
+       COALESCE((SELECT SUM(pt.montoPenalidad) FROM penalidades pt WHERE pt.idPrestamo = p.idPrestamo), 0),
+       (SELECT MAX(pg.fechaPago) FROM pagos pg WHERE pg.idPrestamo = p.idPrestamo)
+FROM prestamos p
+WHERE NOT EXISTS (SELECT 1 FROM prestamo_resumen r WHERE r.idPrestamo = p.idPrestamo);
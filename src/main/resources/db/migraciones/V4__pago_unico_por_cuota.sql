@@ -0,0 +1,28 @@
+-- Un solo pago por cuota. Las proyecciones, la mora, los reportes y la reproducción del diario suponen a lo sumo un
+-- pago por cuota, pero la verificación de PagoDAO.registrarPago no bloquea: dos pagos simultáneos de la misma cuota
+-- pasan ambos. Con el índice único, el segundo falla.
+
+-- Los pagos repetidos de una cuota (todos menos el de menor idPago) se mueven a pagos_duplicados para revisarlos; el
+-- saldo de esos préstamos quedó descontado de más y lo informa la conciliación de saldos (ConciliacionCartera).
+CREATE TABLE IF NOT EXISTS pagos_duplicados (
+    idPago INT NOT NULL PRIMARY KEY,
+    idPrestamo VARCHAR(36) NOT NULL,
+    numeroCuota INT NOT NULL,
+    montoPagado DECIMAL(15, 2) NOT NULL,
+    fechaPago DATE NOT NULL,
+    movido_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO pagos_duplicados (idPago, idPrestamo, numeroCuota, montoPagado, fechaPago)
+SELECT p.idPago, p.idPrestamo, p.numeroCuota, p.montoPagado, p.fechaPago FROM pagos p
+WHERE EXISTS (SELECT 1 FROM pagos o WHERE o.idPrestamo = p.idPrestamo AND o.numeroCuota = p.numeroCuota AND o.idPago < p.idPago)
+AND NOT EXISTS (SELECT 1 FROM pagos_duplicados d WHERE d.idPago = p.idPago);
+
+DELETE FROM pagos WHERE idPago IN (SELECT idPago FROM pagos_duplicados);
+
+-- Reemplaza a ix_pagos_prestamo_cuota de V2 en las mismas consultas; sin las columnas de monto y fecha, porque la
+-- unicidad es por (idPrestamo, numeroCuota). Se crea antes de borrar el anterior para que la clave foránea a cuotas
+-- siempre tenga un índice.
+CREATE UNIQUE INDEX ux_pagos_prestamo_cuota ON pagos (idPrestamo, numeroCuota);
+
+DROP INDEX ix_pagos_prestamo_cuota ON pagos;
@@ -0,0 +1,32 @@
+-- Una sola penalidad por cuota. El proceso de mora, el pago de una cuota vencida y la proyección de ingresos
+-- registran la penalidad faltante después de verificar que no existe, sin bloquear: si dos de ellos penalizan la
+-- misma cuota al mismo tiempo, pasan ambos. Con el índice único, el segundo falla y cada DAO lo toma como una cuota
+-- ya penalizada.
+
+-- Las penalidades repetidas de una cuota (todas menos la de menor idPenalidad) se mueven a penalidades_duplicadas
+-- para revisarlas.
+CREATE TABLE IF NOT EXISTS penalidades_duplicadas (
+    idPenalidad INT NOT NULL PRIMARY KEY,
+    idPrestamo VARCHAR(36) NOT NULL,
+    numeroCuota INT NOT NULL,
+    montoPenalidad DECIMAL(15, 2) NOT NULL,
+    fechaAplicacion DATE NOT NULL,
+    movido_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO penalidades_duplicadas (idPenalidad, idPrestamo, numeroCuota, montoPenalidad, fechaAplicacion)
+SELECT p.idPenalidad, p.idPrestamo, p.numeroCuota, p.montoPenalidad, p.fechaAplicacion FROM penalidades p
+WHERE EXISTS (SELECT 1 FROM penalidades o WHERE o.idPrestamo = p.idPrestamo AND o.numeroCuota = p.numeroCuota
+              AND o.idPenalidad < p.idPenalidad)
+AND NOT EXISTS (SELECT 1 FROM penalidades_duplicadas d WHERE d.idPenalidad = p.idPenalidad);
+
+DELETE FROM penalidades WHERE idPenalidad IN (SELECT idPenalidad FROM penalidades_duplicadas);
+
+-- El resumen de esos préstamos había sumado cada penalidad repetida; se vuelve a calcular con las que quedan.
+UPDATE prestamo_resumen
+SET penalidadesAcumuladas = COALESCE((SELECT SUM(pt.montoPenalidad) FROM penalidades pt
+                                      WHERE pt.idPrestamo = prestamo_resumen.idPrestamo), 0)
+WHERE idPrestamo IN (SELECT idPrestamo FROM penalidades_duplicadas);
+
+-- ix_penalidades_prestamo_cuota de V2 se conserva: incluye montoPenalidad y cubre los reportes.
+CREATE UNIQUE INDEX ux_penalidades_prestamo_cuota ON penalidades (idPrestamo, numeroCuota);
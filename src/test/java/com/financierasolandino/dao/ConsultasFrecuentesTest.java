@@ -0,0 +1,42 @@
+package com.financierasolandino.dao;
+
+import com.financierasolandino.dao.ConsultasFrecuentes.PlanConsulta;
+import com.financierasolandino.db.ConexionDB;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica contra la base embebida, con todas las migraciones aplicadas, que ninguna consulta frecuente de los DAO
+ * recorra una tabla completa: la misma comprobación que com.financierasolandino.app.VerificacionIndices, pero en
+ * cada corrida de las pruebas.
+ */
+class ConsultasFrecuentesTest {
+
+    @BeforeAll
+    static void usarBaseEmbebida() {
+        Properties configuracion = new Properties();
+        configuracion.setProperty("db.motor", "h2");
+        configuracion.setProperty("db.h2.url", "jdbc:h2:mem:consultas_frecuentes;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        configuracion.setProperty("db.diario.archivo", "");
+        ConexionDB.configurar(configuracion);
+    }
+
+    @Test
+    void ningunaConsultaRecorreUnaTablaCompleta() {
+        List<PlanConsulta> planes = new ConsultasFrecuentes().analizar();
+        assertFalse(planes.isEmpty());
+        String conRecorrido = planes.stream()
+                .filter(plan -> !plan.usaIndices())
+                .map(plan -> plan.getNombre() + " recorre completa " + String.join(", ", plan.getTablasRecorridas()) +
+                        "\n" + plan.getPlan())
+                .collect(Collectors.joining("\n"));
+        assertTrue(conRecorrido.isEmpty(), conRecorrido);
+    }
+}
@@ -0,0 +1,90 @@
+package com.financierasolandino.service;
+
+import com.financierasolandino.model.Cuota;
+import com.financierasolandino.util.FormatoMoneda;
+import com.financierasolandino.validation.ReglasValidacion;
+import com.financierasolandino.validation.ValidadorPrestamo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara {@link CalculadoraCuotasCentavos} con {@link CalculadoraCuotas} en préstamos al azar dentro de los rangos
+ * de los préstamos personales e hipotecarios, con los mismos casos que la verificación completa
+ * (com.financierasolandino.app.VerificacionCalculadora), pero con menos préstamos y una semilla fija para que una
+ * falla se pueda repetir.
+ */
+class CalculadoraCuotasCentavosTest {
+    private static final int PRESTAMOS = 5_000;
+    private static final long SEMILLA = 20_240_601L;
+    private static final double[] TASAS_HIPOTECARIO = {9.50, 12.50};
+    private static final LocalDate PRIMERA_FECHA = LocalDate.of(2000, 1, 1);
+    private static final int DIAS_DE_FECHAS = 365 * 40;
+
+    @Test
+    void daElMismoCronogramaYSaldoQueLaCalculadoraEnBigDecimal() {
+        SplittableRandom azar = new SplittableRandom(SEMILLA);
+        for (int i = 0; i < PRESTAMOS; i++) {
+            verificarPrestamo("prueba-" + i, azar);
+        }
+    }
+
+    private void verificarPrestamo(String idPrestamo, SplittableRandom azar) {
+        boolean personal = azar.nextBoolean();
+        int numeroCuotas = personal
+                ? azar.nextInt(ReglasValidacion.MIN_CUOTAS_PERSONAL, ReglasValidacion.MAX_CUOTAS_PERSONAL + 1)
+                : azar.nextInt(ReglasValidacion.MIN_CUOTAS_HIPOTECARIO, ReglasValidacion.MAX_CUOTAS_HIPOTECARIO + 1);
+        long centavosMinimos = (long) (personal ? ReglasValidacion.MONTO_MIN_PERSONAL : ReglasValidacion.MONTO_MIN_HIPOTECARIO) * 100;
+        long centavosMaximos = (long) (personal ? ReglasValidacion.MONTO_MAX_PERSONAL : ReglasValidacion.MONTO_MAX_HIPOTECARIO) * 100;
+        double monto = azar.nextLong(centavosMinimos, centavosMaximos + 1) / 100.0;
+        if (azar.nextInt(4) == 0) {
+            // Medio centavo para ejercitar el redondeo
+            monto += 0.005;
+        }
+        double tasa;
+        if (azar.nextBoolean()) {
+            tasa = personal ? ValidadorPrestamo.obtenerTasaPersonal(numeroCuotas)
+                    : TASAS_HIPOTECARIO[azar.nextInt(TASAS_HIPOTECARIO.length)];
+        } else {
+            tasa = azar.nextLong(1, 1_500_001) / 10_000.0;
+        }
+        LocalDate fechaCreacion = PRIMERA_FECHA.plusDays(azar.nextInt(DIAS_DE_FECHAS));
+        String prestamo = idPrestamo + " (monto " + monto + ", tasa " + tasa + ", " + numeroCuotas + " cuotas, " +
+                fechaCreacion + ")";
+
+        List<Cuota> esperadas = CalculadoraCuotas.calcularCuota(idPrestamo, monto, tasa, numeroCuotas, fechaCreacion);
+        List<Cuota> obtenidas = CalculadoraCuotasCentavos.calcularCuota(idPrestamo, monto, tasa, numeroCuotas, fechaCreacion);
+        assertEquals(esperadas.size(), obtenidas.size(), prestamo);
+        for (int i = 0; i < esperadas.size(); i++) {
+            Cuota esperada = esperadas.get(i);
+            Cuota obtenida = obtenidas.get(i);
+            String cuota = prestamo + ", cuota " + esperada.getNumeroCuota();
+            assertEquals(esperada.getIdPrestamo(), obtenida.getIdPrestamo(), cuota);
+            assertEquals(esperada.getNumeroCuota(), obtenida.getNumeroCuota(), cuota);
+            assertEquals(esperada.getMontoCuota(), obtenida.getMontoCuota(), cuota);
+            assertEquals(esperada.getTasaAplicada(), obtenida.getTasaAplicada(), cuota);
+            assertEquals(esperada.getFechaVencimiento(), obtenida.getFechaVencimiento(), cuota);
+            assertEquals(esperada.getCapitalAmortizado(), obtenida.getCapitalAmortizado(), cuota);
+        }
+
+        // Saldo pendiente: el monto menos el capital amortizado por el cronograma en BigDecimal
+        long centavosMonto = FormatoMoneda.aCentavos(monto);
+        long tasaDiezMilesimas = CalculadoraCuotasCentavos.aDiezMilesimas(tasa);
+        int[] pagadas = {0, 1, azar.nextInt(numeroCuotas + 1), numeroCuotas - 1, numeroCuotas};
+        for (int cuotasPagadas : pagadas) {
+            BigDecimal saldo = new BigDecimal(monto).setScale(2, RoundingMode.HALF_UP);
+            for (int i = 0; i < cuotasPagadas; i++) {
+                saldo = saldo.subtract(BigDecimal.valueOf(esperadas.get(i).getCapitalAmortizado()));
+            }
+            long esperado = saldo.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(esperado, CalculadoraCuotasCentavos.saldoPendienteCentavos(centavosMonto, tasaDiezMilesimas,
+                    numeroCuotas, cuotasPagadas), prestamo + ", saldo tras " + cuotasPagadas + " cuotas");
+        }
+    }
+}